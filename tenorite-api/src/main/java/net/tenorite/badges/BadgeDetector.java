@@ -0,0 +1,118 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tenorite.badges;
+
+import net.tenorite.core.Special;
+import net.tenorite.game.Field;
+import net.tenorite.game.GameListener;
+import net.tenorite.game.Player;
+
+import java.util.List;
+import java.util.function.BiConsumer;
+
+import static net.tenorite.badges.BadgeValidator.MIN_NR_OF_PLAYERS;
+
+/**
+ * Combines the detectors of all incremental validators of a game mode for a single game.
+ * <p>
+ * Like the validators themselves, the detectors ignore games with less than {@link BadgeValidator#MIN_NR_OF_PLAYERS}
+ * players. The end of a game in which the detectors were active is reported as well, so the detections of that game
+ * can be written at once.
+ *
+ * @author Johan Siebens
+ */
+public final class BadgeDetector implements GameListener {
+
+    public static GameListener of(List<BadgeValidator> validators, BiConsumer<Badge, Player> onDetected, Runnable onEnd) {
+        return validators.stream()
+            .filter(v -> v instanceof IncrementalBadgeValidator)
+            .map(v -> ((IncrementalBadgeValidator) v).createDetector(onDetected))
+            .reduce(GameListener::and)
+            .<GameListener>map(d -> new BadgeDetector(d, onEnd))
+            .orElse(GameListener.NOOP);
+    }
+
+    private final GameListener detectors;
+
+    private final Runnable onEnd;
+
+    private boolean enabled;
+
+    private BadgeDetector(GameListener detectors, Runnable onEnd) {
+        this.detectors = detectors;
+        this.onEnd = onEnd;
+    }
+
+    @Override
+    public void onStartGame(List<Player> players) {
+        enabled = players.size() >= MIN_NR_OF_PLAYERS;
+        if (enabled) {
+            detectors.onStartGame(players);
+        }
+    }
+
+    @Override
+    public void onPauseGame() {
+        if (enabled) {
+            detectors.onPauseGame();
+        }
+    }
+
+    @Override
+    public void onResumeGame() {
+        if (enabled) {
+            detectors.onResumeGame();
+        }
+    }
+
+    @Override
+    public void onEndGame() {
+        if (enabled) {
+            detectors.onEndGame();
+            onEnd.run();
+            enabled = false;
+        }
+    }
+
+    @Override
+    public void onSpecial(Player sender, Special special, Player target) {
+        if (enabled) {
+            detectors.onSpecial(sender, special, target);
+        }
+    }
+
+    @Override
+    public void onClassicStyleAdd(Player sender, int lines) {
+        if (enabled) {
+            detectors.onClassicStyleAdd(sender, lines);
+        }
+    }
+
+    @Override
+    public void onFieldUpdate(Player sender, Field field) {
+        if (enabled) {
+            detectors.onFieldUpdate(sender, field);
+        }
+    }
+
+    @Override
+    public void onLevelUpdate(Player sender, int level) {
+        if (enabled) {
+            detectors.onLevelUpdate(sender, level);
+        }
+    }
+
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tenorite.badges;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import net.tenorite.util.ImmutableStyle;
+import org.immutables.value.Value;
+
+/**
+ * @author Johan Siebens
+ */
+@Value.Immutable
+@ImmutableStyle
+@JsonDeserialize(as = BadgeProgressBuilder.ImmutableBadgeProgress.class)
+public abstract class BadgeProgress {
+
+    public static BadgeProgress of(Badge badge, String name, long value) {
+        return new BadgeProgressBuilder().badge(badge).name(name).value(value).build();
+    }
+
+    public abstract Badge getBadge();
+
+    public abstract String getName();
+
+    public abstract long getValue();
+
+}
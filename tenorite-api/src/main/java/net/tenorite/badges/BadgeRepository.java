@@ -18,9 +18,7 @@ package net.tenorite.badges;
 import net.tenorite.core.Tempo;
 import net.tenorite.game.GameModeId;
 
-import java.util.List;
-import java.util.Map;
-import java.util.Optional;
+import java.util.*;
 
 /**
  * @author Johan Siebens
@@ -43,6 +41,48 @@ public interface BadgeRepository {
 
         long updateProgress(Badge badge, String name, long value);
 
+        /**
+         * @return the levels of the given players for the given badges, by name and badge
+         */
+        default Map<String, Map<Badge, BadgeLevel>> badgeLevels(Collection<Badge> badges, Collection<String> names) {
+            Map<String, Map<Badge, BadgeLevel>> result = new HashMap<>();
+            for (String name : names) {
+                for (Badge badge : badges) {
+                    getBadgeLevel(name, badge).ifPresent(l -> result.computeIfAbsent(name, k -> new HashMap<>()).put(badge, l));
+                }
+            }
+            return result;
+        }
+
+        /**
+         * @return the non-zero progress of the given players for the given badges, by name and badge
+         */
+        default Map<String, Map<Badge, Long>> getProgress(Collection<Badge> badges, Collection<String> names) {
+            Map<String, Map<Badge, Long>> result = new HashMap<>();
+            for (String name : names) {
+                for (Badge badge : badges) {
+                    long value = getProgress(badge, name);
+                    if (value != 0) {
+                        result.computeIfAbsent(name, k -> new HashMap<>()).put(badge, value);
+                    }
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Saves the given levels and progress, a progress of zero is removed.
+         */
+        default void saveAll(Collection<BadgeLevel> badgeLevels, Collection<BadgeProgress> progress) {
+            badgeLevels.forEach(this::saveBadgeLevel);
+            progress.forEach(p -> updateProgress(p.getBadge(), p.getName(), p.getValue()));
+        }
+
+        /**
+         * Removes the levels and progress of all players for the given badges.
+         */
+        void removeAll(Collection<Badge> badges);
+
     }
 
 }
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tenorite.badges;
+
+import net.tenorite.game.GameModeId;
+
+import java.util.*;
+
+import static java.util.Optional.ofNullable;
+
+/**
+ * In-memory view on the badge levels and progress of a set of players, loaded at once and written back at once.
+ * <p>
+ * Reads and writes of the loaded badges and players are served from memory until {@link #commit()}, all others are
+ * passed to the underlying {@link BadgeRepository.BadgeOps}. Validators can share a unit of work from several threads.
+ *
+ * @author Johan Siebens
+ */
+public final class BadgeUnitOfWork implements BadgeRepository.BadgeOps {
+
+    public static BadgeUnitOfWork load(BadgeRepository.BadgeOps badgeOps, Collection<Badge> badges, Collection<String> names) {
+        return new BadgeUnitOfWork(badgeOps, new HashSet<>(badges), new HashSet<>(names));
+    }
+
+    private final BadgeRepository.BadgeOps badgeOps;
+
+    private final Set<Badge> badges;
+
+    private final Set<String> names;
+
+    private final Map<String, Map<Badge, BadgeLevel>> levels;
+
+    private final Map<String, Map<Badge, Long>> progress;
+
+    private final Map<List<Object>, BadgeLevel> changedLevels = new LinkedHashMap<>();
+
+    private final Map<List<Object>, BadgeProgress> changedProgress = new LinkedHashMap<>();
+
+    private BadgeUnitOfWork(BadgeRepository.BadgeOps badgeOps, Set<Badge> badges, Set<String> names) {
+        this.badgeOps = badgeOps;
+        this.badges = badges;
+        this.names = names;
+        this.levels = new HashMap<>(badgeOps.badgeLevels(badges, names));
+        this.progress = new HashMap<>(badgeOps.getProgress(badges, names));
+    }
+
+    /**
+     * Adds the given players to the in-memory view, loading the ones that are not loaded yet.
+     */
+    public synchronized void include(Collection<String> names) {
+        Set<String> missing = new HashSet<>(names);
+        missing.removeAll(this.names);
+        if (!missing.isEmpty()) {
+            levels.putAll(badgeOps.badgeLevels(badges, missing));
+            progress.putAll(badgeOps.getProgress(badges, missing));
+            this.names.addAll(missing);
+        }
+    }
+
+    @Override
+    public synchronized Optional<BadgeLevel> getBadgeLevel(String name, Badge badge) {
+        if (isLoaded(badge, name)) {
+            return ofNullable(levels.get(name)).map(m -> m.get(badge));
+        }
+        return badgeOps.getBadgeLevel(name, badge);
+    }
+
+    @Override
+    public synchronized void saveBadgeLevel(BadgeLevel badgeLevel) {
+        Badge badge = badgeLevel.getBadge();
+        String name = badgeLevel.getName();
+        if (isLoaded(badge, name)) {
+            levels.computeIfAbsent(name, k -> new HashMap<>()).put(badge, badgeLevel);
+            changedLevels.put(Arrays.asList(badge, name), badgeLevel);
+        }
+        else {
+            badgeOps.saveBadgeLevel(badgeLevel);
+        }
+    }
+
+    @Override
+    public synchronized long getProgress(Badge badge, String name) {
+        if (isLoaded(badge, name)) {
+            return ofNullable(progress.get(name)).map(m -> m.get(badge)).orElse(0L);
+        }
+        return badgeOps.getProgress(badge, name);
+    }
+
+    @Override
+    public synchronized long updateProgress(Badge badge, String name, long value) {
+        if (isLoaded(badge, name)) {
+            progress.computeIfAbsent(name, k -> new HashMap<>()).put(badge, value);
+            changedProgress.put(Arrays.asList(badge, name), BadgeProgress.of(badge, name, value));
+            return value;
+        }
+        return badgeOps.updateProgress(badge, name, value);
+    }
+
+    @Override
+    public Map<Badge, BadgeLevel> badgeLevels(GameModeId gameModeId, String name) {
+        return badgeOps.badgeLevels(gameModeId, name);
+    }
+
+    @Override
+    public List<BadgeLevel> badgeLevels(Badge badge) {
+        return badgeOps.badgeLevels(badge);
+    }
+
+    @Override
+    public synchronized void removeAll(Collection<Badge> badges) {
+        levels.values().forEach(m -> m.keySet().removeAll(badges));
+        progress.values().forEach(m -> m.keySet().removeAll(badges));
+        changedLevels.values().removeIf(l -> badges.contains(l.getBadge()));
+        changedProgress.values().removeIf(p -> badges.contains(p.getBadge()));
+        badgeOps.removeAll(badges);
+    }
+
+    /**
+     * Writes all changed levels and progress to the underlying {@link BadgeRepository.BadgeOps} in a single call.
+     */
+    public synchronized void commit() {
+        if (!changedLevels.isEmpty() || !changedProgress.isEmpty()) {
+            badgeOps.saveAll(new ArrayList<>(changedLevels.values()), new ArrayList<>(changedProgress.values()));
+            changedLevels.clear();
+            changedProgress.clear();
+        }
+    }
+
+    private boolean isLoaded(Badge badge, String name) {
+        return badges.contains(badge) && names.contains(name);
+    }
+
+}
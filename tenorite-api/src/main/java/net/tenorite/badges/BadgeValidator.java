@@ -20,14 +20,19 @@ import net.tenorite.core.Tempo;
 import net.tenorite.game.Game;
 import net.tenorite.game.events.GameFinished;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.function.Consumer;
 
+import static java.util.Collections.singletonList;
+
 /**
  * @author Johan Siebens
  */
 public abstract class BadgeValidator {
 
+    public static final int MIN_NR_OF_PLAYERS = 3;
+
     protected final Badge badge;
 
     public BadgeValidator(Badge badge) {
@@ -38,8 +43,19 @@ public abstract class BadgeValidator {
         return badge;
     }
 
+    /**
+     * @return all badges this validator can award
+     */
+    public List<Badge> getBadges() {
+        return singletonList(badge);
+    }
+
+    public boolean accepts(GameFinished gameFinished) {
+        return gameFinished.getGame().getGameModeId().equals(badge.getGameModeId()) && gameFinished.getRanking().size() >= MIN_NR_OF_PLAYERS;
+    }
+
     public void process(GameFinished gameFinished, BadgeRepository badgeRepository, Consumer<BadgeEarned> onBadgeEarned) {
-        if (gameFinished.getGame().getGameModeId().equals(badge.getGameModeId()) && gameFinished.getRanking().size() >= 3) {
+        if (accepts(gameFinished)) {
             doProcess(gameFinished, badgeRepository.badgeOps(gameFinished.getGame().getTempo()), onBadgeEarned);
         }
     }
@@ -63,11 +79,15 @@ public abstract class BadgeValidator {
     }
 
     protected static void updateBadgeLevel(Game game, String name, Badge badge, long count, BadgeRepository.BadgeOps badgeOps, Consumer<BadgeEarned> onBadgeEarned) {
+        updateBadgeLevel(game.getTempo(), game.getTimestamp(), game.getId(), name, badge, count, badgeOps, onBadgeEarned);
+    }
+
+    protected static void updateBadgeLevel(Tempo tempo, long timestamp, String gameId, String name, Badge badge, long count, BadgeRepository.BadgeOps badgeOps, Consumer<BadgeEarned> onBadgeEarned) {
         if (count != 0) {
             Optional<BadgeLevel> optBadgeLevel = badgeOps.getBadgeLevel(name, badge);
             long currentLevel = optBadgeLevel.isPresent() ? optBadgeLevel.get().getLevel() : 0;
             if (count > currentLevel) {
-                BadgeLevel badgeLevel = BadgeLevel.of(game.getTempo(), badge, name, game.getTimestamp(), count, game.getId());
+                BadgeLevel badgeLevel = BadgeLevel.of(tempo, badge, name, timestamp, count, gameId);
 
                 badgeOps.saveBadgeLevel(badgeLevel);
                 badgeOps.updateProgress(badge, name, count);
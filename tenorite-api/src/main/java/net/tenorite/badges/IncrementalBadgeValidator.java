@@ -0,0 +1,52 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tenorite.badges;
+
+import net.tenorite.badges.events.BadgeDetected;
+import net.tenorite.badges.events.BadgeEarned;
+import net.tenorite.game.GameListener;
+import net.tenorite.game.Player;
+
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * A validator whose badges can also be detected one event at a time while the game is running, so they can be
+ * awarded the moment they occur instead of after the game.
+ *
+ * @author Johan Siebens
+ */
+public abstract class IncrementalBadgeValidator extends BadgeValidator {
+
+    public IncrementalBadgeValidator(Badge badge) {
+        super(badge);
+    }
+
+    /**
+     * @return a listener for a single game, reporting every occurrence of a badge of this validator as it happens
+     */
+    public abstract GameListener createDetector(BiConsumer<Badge, Player> onDetected);
+
+    public void process(BadgeDetected badgeDetected, BadgeRepository badgeRepository, Consumer<BadgeEarned> onBadgeEarned) {
+        Badge badge = badgeDetected.getBadge();
+        String name = badgeDetected.getName();
+        BadgeRepository.BadgeOps badgeOps = badgeRepository.badgeOps(badgeDetected.getTempo());
+
+        long nextLevel = badgeOps.getProgress(badge, name) + 1;
+        updateBadgeLevel(badgeDetected.getTempo(), badgeDetected.getTimestamp(), badgeDetected.getGameId(), name, badge, nextLevel, badgeOps, onBadgeEarned);
+    }
+
+}
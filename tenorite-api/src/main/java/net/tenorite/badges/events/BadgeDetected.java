@@ -0,0 +1,48 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tenorite.badges.events;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import net.tenorite.badges.Badge;
+import net.tenorite.core.Tempo;
+import net.tenorite.util.ImmutableStyle;
+import org.immutables.value.Value;
+
+/**
+ * A single occurrence of a badge, detected while the game is still running.
+ *
+ * @author Johan Siebens
+ */
+@Value.Immutable
+@ImmutableStyle
+@JsonDeserialize(as = BadgeDetectedBuilder.ImmutableBadgeDetected.class)
+public abstract class BadgeDetected {
+
+    public static BadgeDetected of(Tempo tempo, Badge badge, String name, long timestamp, String gameId) {
+        return new BadgeDetectedBuilder().tempo(tempo).badge(badge).name(name).timestamp(timestamp).gameId(gameId).build();
+    }
+
+    public abstract Tempo getTempo();
+
+    public abstract Badge getBadge();
+
+    public abstract String getName();
+
+    public abstract long getTimestamp();
+
+    public abstract String getGameId();
+
+}
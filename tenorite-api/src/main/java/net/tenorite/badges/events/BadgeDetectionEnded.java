@@ -0,0 +1,41 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tenorite.badges.events;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import net.tenorite.core.Tempo;
+import net.tenorite.util.ImmutableStyle;
+import org.immutables.value.Value;
+
+/**
+ * Published when a game in which badges were detected has ended, finished or not.
+ *
+ * @author Johan Siebens
+ */
+@Value.Immutable
+@ImmutableStyle
+@JsonDeserialize(as = BadgeDetectionEndedBuilder.ImmutableBadgeDetectionEnded.class)
+public abstract class BadgeDetectionEnded {
+
+    public static BadgeDetectionEnded of(Tempo tempo, String gameId) {
+        return new BadgeDetectionEndedBuilder().tempo(tempo).gameId(gameId).build();
+    }
+
+    public abstract Tempo getTempo();
+
+    public abstract String getGameId();
+
+}
@@ -17,18 +17,16 @@ package net.tenorite.badges.validators;
 
 import net.tenorite.badges.Badge;
 import net.tenorite.badges.BadgeRepository;
-import net.tenorite.badges.BadgeValidator;
+import net.tenorite.badges.IncrementalBadgeValidator;
 import net.tenorite.badges.events.BadgeEarned;
 import net.tenorite.core.Special;
 import net.tenorite.game.*;
 import net.tenorite.game.events.GameFinished;
-import net.tenorite.protocol.FieldMessage;
-import net.tenorite.protocol.Message;
-import net.tenorite.protocol.SpecialBlockMessage;
+import net.tenorite.game.listeners.SpecialFieldListener;
 
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
@@ -38,7 +36,7 @@ import static java.util.function.Function.identity;
 /**
  * @author Johan Siebens
  */
-public final class NrOfBombsDetonated extends BadgeValidator {
+public final class NrOfBombsDetonated extends IncrementalBadgeValidator {
 
     private final int target;
 
@@ -53,35 +51,23 @@ public final class NrOfBombsDetonated extends BadgeValidator {
 
         Game game = gameFinished.getGame();
 
-        Map<Player, Integer> counts = new HashMap<>();
-        Map<Integer, Integer> nrOfBombs = new HashMap<>();
-
-        for (GameMessage gameMessage : game.getMessages()) {
-            Message message = gameMessage.getMessage();
-
-            if (message instanceof FieldMessage) {
-                FieldMessage fieldMessage = (FieldMessage) message;
-                int bombs = Field.of(fieldMessage.getUpdate()).getNrOfBlocks(Special.BLOCKBOMB);
-                nrOfBombs.put(fieldMessage.getSender(), bombs);
-            }
+        gameFinished.getAnalysis().countBySender(u -> isBlockBomb(u) && u.getTargetNrOfBombs() >= target).forEach((slot, count) -> ofNullable(allPlayers.get(slot)).ifPresent(p -> {
+            long nextLevel = badgeOps.getProgress(badge, p.getName()) + count;
+            updateBadgeLevel(game, p.getName(), badge, nextLevel, badgeOps, onBadgeEarned);
+        }));
+    }
 
-            if (message instanceof SpecialBlockMessage) {
-                SpecialBlockMessage sb = (SpecialBlockMessage) message;
-                if (isBlockBomb(sb) && nrOfBombs.getOrDefault(sb.getTarget(), 0) >= target) {
-                    ofNullable(allPlayers.get(sb.getSender())).ifPresent(player -> counts.compute(player, (p, x) -> x == null ? 1 : x + 1));
-                }
+    @Override
+    public GameListener createDetector(BiConsumer<Badge, Player> onDetected) {
+        return new SpecialFieldListener((sender, special, targetPlayer, targetField) -> {
+            if (special == Special.BLOCKBOMB && targetField.getNrOfBlocks(Special.BLOCKBOMB) >= target) {
+                onDetected.accept(badge, sender);
             }
-        }
-
-        counts.entrySet().forEach(e -> {
-            Player p = e.getKey();
-            long nextLevel = badgeOps.getProgress(badge, p.getName()) + e.getValue();
-            updateBadgeLevel(game, p.getName(), badge, nextLevel, badgeOps, onBadgeEarned);
         });
     }
 
-    private boolean isBlockBomb(SpecialBlockMessage sb) {
-        return Objects.equals(sb.getSpecial(), Special.BLOCKBOMB);
+    private boolean isBlockBomb(SpecialUsage u) {
+        return Objects.equals(u.getSpecial(), Special.BLOCKBOMB);
     }
 
 }
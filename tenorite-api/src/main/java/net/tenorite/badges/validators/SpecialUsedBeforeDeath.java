@@ -17,19 +17,17 @@ package net.tenorite.badges.validators;
 
 import net.tenorite.badges.Badge;
 import net.tenorite.badges.BadgeRepository;
-import net.tenorite.badges.BadgeValidator;
+import net.tenorite.badges.IncrementalBadgeValidator;
 import net.tenorite.badges.events.BadgeEarned;
 import net.tenorite.core.Special;
 import net.tenorite.game.*;
 import net.tenorite.game.events.GameFinished;
-import net.tenorite.protocol.FieldMessage;
-import net.tenorite.protocol.Message;
-import net.tenorite.protocol.SpecialBlockMessage;
+import net.tenorite.game.listeners.SpecialFieldListener;
 
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
@@ -39,7 +37,7 @@ import static java.util.function.Function.identity;
 /**
  * @author Johan Siebens
  */
-public final class SpecialUsedBeforeDeath extends BadgeValidator {
+public final class SpecialUsedBeforeDeath extends IncrementalBadgeValidator {
 
     private static final int TARGET = 20;
 
@@ -56,35 +54,23 @@ public final class SpecialUsedBeforeDeath extends BadgeValidator {
 
         Game game = gameFinished.getGame();
 
-        Map<Player, Integer> counts = new HashMap<>();
-        Map<Integer, Integer> currentHeights = new HashMap<>();
-
-        for (GameMessage gameMessage : game.getMessages()) {
-            Message message = gameMessage.getMessage();
-
-            if (message instanceof FieldMessage) {
-                FieldMessage fieldMessage = (FieldMessage) message;
-                int height = Field.of(fieldMessage.getUpdate()).getHighest();
-                currentHeights.put(fieldMessage.getSender(), height);
-            }
+        gameFinished.getAnalysis().countBySender(u -> u.isOnSelf() && checkSpecial(u) && u.getTargetHeight() >= TARGET).forEach((slot, count) -> ofNullable(allPlayers.get(slot)).ifPresent(p -> {
+            long nextLevel = badgeOps.getProgress(badge, p.getName()) + count;
+            updateBadgeLevel(game, p.getName(), badge, nextLevel, badgeOps, onBadgeEarned);
+        }));
+    }
 
-            if (message instanceof SpecialBlockMessage) {
-                SpecialBlockMessage sb = (SpecialBlockMessage) message;
-                if ((sb.getSender() == sb.getTarget()) && checkSpecial(sb) && currentHeights.getOrDefault(sb.getTarget(), 0) >= TARGET) {
-                    ofNullable(allPlayers.get(sb.getSender())).ifPresent(player -> counts.compute(player, (p, x) -> x == null ? 1 : x + 1));
-                }
+    @Override
+    public GameListener createDetector(BiConsumer<Badge, Player> onDetected) {
+        return new SpecialFieldListener((sender, special, target, targetField) -> {
+            if (sender.getSlot() == target.getSlot() && specials.contains(special) && targetField.getHighest() >= TARGET) {
+                onDetected.accept(badge, sender);
             }
-        }
-
-        counts.entrySet().forEach(e -> {
-            Player p = e.getKey();
-            long nextLevel = badgeOps.getProgress(badge, p.getName()) + e.getValue();
-            updateBadgeLevel(game, p.getName(), badge, nextLevel, badgeOps, onBadgeEarned);
         });
     }
 
-    private boolean checkSpecial(SpecialBlockMessage sb) {
-        return specials.contains(sb.getSpecial());
+    private boolean checkSpecial(SpecialUsage u) {
+        return specials.contains(u.getSpecial());
     }
 
 }
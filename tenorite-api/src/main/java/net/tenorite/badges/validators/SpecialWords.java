@@ -17,38 +17,88 @@ package net.tenorite.badges.validators;
 
 import net.tenorite.badges.Badge;
 import net.tenorite.badges.BadgeRepository;
-import net.tenorite.badges.BadgeValidator;
+import net.tenorite.badges.IncrementalBadgeValidator;
 import net.tenorite.badges.events.BadgeEarned;
+import net.tenorite.core.Special;
 import net.tenorite.game.Game;
+import net.tenorite.game.GameListener;
+import net.tenorite.game.Player;
 import net.tenorite.game.PlayingStats;
 import net.tenorite.game.events.GameFinished;
-import org.apache.commons.lang3.StringUtils;
 
+import java.util.*;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
+import static java.util.Collections.singletonMap;
+import static java.util.Collections.unmodifiableList;
+
 /**
+ * Awards a badge for every occurrence of a word in the sequence of specials used by a player.
+ * <p>
+ * All words are counted in a single pass over each sequence, so a single validator can hold all words of a game mode.
+ * While the game is running, the sequence of every player is scanned one special at a time.
+ *
  * @author Johan Siebens
  */
-public final class SpecialWords extends BadgeValidator {
+public final class SpecialWords extends IncrementalBadgeValidator {
+
+    private final List<Badge> badges;
 
-    private final String word;
+    private final WordCounter wordCounter;
 
     public SpecialWords(Badge badge, String word) {
-        super(badge);
-        this.word = word;
+        this(singletonMap(badge, word));
+    }
+
+    /**
+     * @param words the word of each badge, all badges of the same game mode
+     */
+    public SpecialWords(Map<Badge, String> words) {
+        super(words.keySet().iterator().next());
+
+        Map<Badge, String> copy = new LinkedHashMap<>(words);
+        if (copy.keySet().stream().anyMatch(b -> !b.getGameModeId().equals(badge.getGameModeId()))) {
+            throw new IllegalArgumentException("all badges should belong to the same game mode");
+        }
+
+        this.badges = unmodifiableList(new ArrayList<>(copy.keySet()));
+        this.wordCounter = new WordCounter(new ArrayList<>(copy.values()));
+    }
+
+    @Override
+    public List<Badge> getBadges() {
+        return badges;
     }
 
     @Override
     protected void doProcess(GameFinished gameFinished, BadgeRepository.BadgeOps badgeOps, Consumer<BadgeEarned> onBadgeEarned) {
-        gameFinished.getRanking().forEach(p -> validateBadge(gameFinished.getGame(), p, badgeOps, onBadgeEarned));
+        gameFinished.getRanking().forEach(p -> validateBadges(gameFinished.getGame(), p, badgeOps, onBadgeEarned));
+    }
+
+    @Override
+    public GameListener createDetector(BiConsumer<Badge, Player> onDetected) {
+        return new GameListener() {
+
+            private final Map<Integer, WordCounter.Scanner> scanners = new HashMap<>();
+
+            @Override
+            public void onSpecial(Player sender, Special special, Player target) {
+                scanners.computeIfAbsent(sender.getSlot(), k -> wordCounter.scanner()).next(special.getLetter(), w -> onDetected.accept(badges.get(w), sender));
+            }
+
+        };
     }
 
-    private void validateBadge(Game game, PlayingStats playingStats, BadgeRepository.BadgeOps badgeOps, Consumer<BadgeEarned> onBadgeEarned) {
+    private void validateBadges(Game game, PlayingStats playingStats, BadgeRepository.BadgeOps badgeOps, Consumer<BadgeEarned> onBadgeEarned) {
         String name = playingStats.getPlayer().getName();
-        int count = StringUtils.countMatches(playingStats.getSpecialsSequence(), word);
-        if (count != 0) {
-            long nextLevel = badgeOps.getProgress(badge, name) + count;
-            updateBadgeLevel(game, name, badge, nextLevel, badgeOps, onBadgeEarned);
+        int[] counts = wordCounter.count(playingStats.getSpecialsSequence());
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] != 0) {
+                Badge badge = badges.get(i);
+                long nextLevel = badgeOps.getProgress(badge, name) + counts[i];
+                updateBadgeLevel(game, name, badge, nextLevel, badgeOps, onBadgeEarned);
+            }
         }
     }
 
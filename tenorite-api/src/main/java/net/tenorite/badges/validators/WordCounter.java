@@ -0,0 +1,159 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tenorite.badges.validators;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.function.IntConsumer;
+
+/**
+ * Aho-Corasick automaton counting the occurrences of a set of words in a single pass over a text.
+ * <p>
+ * Occurrences of the same word are counted without overlap, like {@code StringUtils.countMatches}. A {@link Scanner}
+ * does the same for a text that is received one character at a time.
+ *
+ * @author Johan Siebens
+ */
+final class WordCounter {
+
+    private static final int ASCII = 128;
+
+    private final int[] lengths;
+
+    private final int[] columns = new int[ASCII];
+
+    private final int[][] transitions;
+
+    private final int[][] outputs;
+
+    WordCounter(List<String> words) {
+        this.lengths = words.stream().mapToInt(String::length).toArray();
+
+        int nrOfColumns = 1;
+        int maxStates = 1;
+        for (String word : words) {
+            if (word.isEmpty()) {
+                throw new IllegalArgumentException("words cannot be empty");
+            }
+            for (char c : word.toCharArray()) {
+                if (c >= ASCII) {
+                    throw new IllegalArgumentException("unsupported character '" + c + "' in " + word);
+                }
+                if (columns[c] == 0) {
+                    columns[c] = nrOfColumns++;
+                }
+            }
+            maxStates += word.length();
+        }
+
+        int[][] trie = new int[maxStates][nrOfColumns];
+        List<List<Integer>> matches = new ArrayList<>();
+        matches.add(new ArrayList<>());
+
+        int states = 1;
+        for (int w = 0; w < words.size(); w++) {
+            int state = 0;
+            for (char c : words.get(w).toCharArray()) {
+                int column = columns[c];
+                if (trie[state][column] == 0) {
+                    trie[state][column] = states++;
+                    matches.add(new ArrayList<>());
+                }
+                state = trie[state][column];
+            }
+            matches.get(state).add(w);
+        }
+
+        // breadth first, so the failure state of every state is complete before the state itself is visited
+        int[] failures = new int[states];
+        Queue<Integer> queue = new ArrayDeque<>();
+        for (int column = 1; column < nrOfColumns; column++) {
+            if (trie[0][column] != 0) {
+                queue.add(trie[0][column]);
+            }
+        }
+
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            matches.get(state).addAll(matches.get(failures[state]));
+            for (int column = 1; column < nrOfColumns; column++) {
+                int next = trie[state][column];
+                if (next != 0) {
+                    failures[next] = trie[failures[state]][column];
+                    queue.add(next);
+                }
+                else {
+                    trie[state][column] = trie[failures[state]][column];
+                }
+            }
+        }
+
+        this.transitions = new int[states][];
+        this.outputs = new int[states][];
+        for (int state = 0; state < states; state++) {
+            transitions[state] = trie[state];
+            outputs[state] = matches.get(state).stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+    /**
+     * @return the number of occurrences of each word, in the order the words were given
+     */
+    int[] count(CharSequence text) {
+        int[] counts = new int[lengths.length];
+
+        Scanner scanner = new Scanner();
+        for (int i = 0; i < text.length(); i++) {
+            scanner.next(text.charAt(i), w -> counts[w]++);
+        }
+
+        return counts;
+    }
+
+    Scanner scanner() {
+        return new Scanner();
+    }
+
+    final class Scanner {
+
+        private final int[] nextStarts = new int[lengths.length];
+
+        private int state;
+
+        private int position;
+
+        /**
+         * Reports the index of every word that ends at the given character.
+         */
+        void next(char c, IntConsumer onMatch) {
+            int column = c < ASCII ? columns[c] : 0;
+            state = column == 0 ? 0 : transitions[state][column];
+
+            for (int w : outputs[state]) {
+                if (position - lengths[w] + 1 >= nextStarts[w]) {
+                    nextStarts[w] = position + 1;
+                    onMatch.accept(w);
+                }
+            }
+
+            position++;
+        }
+
+    }
+
+}
@@ -37,7 +37,7 @@ public abstract class Game {
                           Tempo tempo,
                           GameModeId gameModeId,
                           List<Player> players,
-                          List<GameMessage> messages) {
+                          Iterable<GameMessage> messages) {
         return
             new GameBuilder()
                 .id(id)
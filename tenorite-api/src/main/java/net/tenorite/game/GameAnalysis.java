@@ -0,0 +1,143 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tenorite.game;
+
+import net.tenorite.core.Special;
+import net.tenorite.protocol.FieldMessage;
+import net.tenorite.protocol.Message;
+import net.tenorite.protocol.SpecialBlockMessage;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.unmodifiableList;
+
+/**
+ * Result of a single pass over the messages of a finished game, shared by all badge validators.
+ * <p>
+ * For every special used, the height, number of specials and number of bombs of the field of the target are recorded.
+ * A field is only parsed when a special is used on it, and at most once per field update.
+ *
+ * @author Johan Siebens
+ */
+public final class GameAnalysis {
+
+    public static GameAnalysis of(Game game) {
+        return of(game.getMessages());
+    }
+
+    public static GameAnalysis of(Iterable<GameMessage> messages) {
+        Map<Integer, FieldState> fields = new HashMap<>();
+        List<SpecialUsage> usages = new ArrayList<>();
+
+        for (GameMessage gameMessage : messages) {
+            Message message = gameMessage.getMessage();
+
+            if (message instanceof FieldMessage) {
+                FieldMessage field = (FieldMessage) message;
+                fields.computeIfAbsent(field.getSender(), k -> new FieldState()).update(field.getUpdate());
+            }
+            else if (message instanceof SpecialBlockMessage) {
+                SpecialBlockMessage sb = (SpecialBlockMessage) message;
+                FieldState target = fields.computeIfAbsent(sb.getTarget(), k -> new FieldState()).analyze();
+                usages.add(SpecialUsage.of(gameMessage.getTimestamp(), sb.getSender(), sb.getSpecial(), sb.getTarget(), target.height, target.specials, target.bombs));
+            }
+        }
+
+        return new GameAnalysis(usages);
+    }
+
+    private final List<SpecialUsage> specialUsages;
+
+    private final Map<Integer, List<SpecialUsage>> timelines = new HashMap<>();
+
+    private final Map<Integer, SpecialCounts> specialsUsed = new HashMap<>();
+
+    private GameAnalysis(List<SpecialUsage> specialUsages) {
+        this.specialUsages = unmodifiableList(specialUsages);
+
+        Map<Integer, int[]> counts = new HashMap<>();
+        for (SpecialUsage usage : specialUsages) {
+            timelines.computeIfAbsent(usage.getTarget(), k -> new ArrayList<>()).add(usage);
+            counts.computeIfAbsent(usage.getSender(), k -> new int[Special.values().length])[usage.getSpecial().ordinal()]++;
+        }
+
+        timelines.replaceAll((slot, timeline) -> unmodifiableList(timeline));
+        counts.forEach((slot, c) -> specialsUsed.put(slot, SpecialCounts.of(c)));
+    }
+
+    /**
+     * @return all specials used during the game, in order
+     */
+    public List<SpecialUsage> getSpecialUsages() {
+        return specialUsages;
+    }
+
+    /**
+     * @return the specials used on the given slot, in order
+     */
+    public List<SpecialUsage> getTimeline(int slot) {
+        return timelines.getOrDefault(slot, emptyList());
+    }
+
+    /**
+     * @return the number of times each special was used by the given slot, on any target
+     */
+    public SpecialCounts getSpecialsUsed(int slot) {
+        return specialsUsed.getOrDefault(slot, SpecialCounts.empty());
+    }
+
+    /**
+     * @return the number of matching special usages, per sending slot
+     */
+    public Map<Integer, Integer> countBySender(Predicate<SpecialUsage> predicate) {
+        Map<Integer, Integer> result = new HashMap<>();
+        specialUsages.stream().filter(predicate).forEach(u -> result.merge(u.getSender(), 1, Integer::sum));
+        return result;
+    }
+
+    private static final class FieldState {
+
+        private String update;
+
+        private boolean analyzed = true;
+
+        private int height;
+
+        private int specials;
+
+        private int bombs;
+
+        void update(String update) {
+            this.update = update;
+            this.analyzed = false;
+        }
+
+        FieldState analyze() {
+            if (!analyzed) {
+                Field field = Field.of(update);
+                height = field.getHighest();
+                specials = field.getNrOfSpecials();
+                bombs = field.getNrOfBlocks(Special.BLOCKBOMB);
+                analyzed = true;
+            }
+            return this;
+        }
+
+    }
+
+}
@@ -75,7 +75,7 @@ public abstract class GameMode {
     }
 
     public final List<Badge> getBadges() {
-        return getBadgeValidators().stream().map(BadgeValidator::getBadge).collect(toList());
+        return getBadgeValidators().stream().flatMap(v -> v.getBadges().stream()).collect(toList());
     }
 
     public GameListener createGameListener(Scheduler scheduler, Consumer<Message> channel) {
@@ -15,6 +15,7 @@
  */
 package net.tenorite.game;
 
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import net.tenorite.core.Special;
 import net.tenorite.util.ImmutableStyle;
 import org.immutables.value.Value;
@@ -29,6 +30,7 @@ import java.util.function.Predicate;
  */
 @Value.Immutable
 @ImmutableStyle
+@JsonDeserialize(as = PlayingStatsBuilder.ImmutablePlayingStats.class)
 public abstract class PlayingStats {
 
     public static final Comparator<PlayingStats> BY_LEVEL = (o1, o2) -> o1.getLevel() - o2.getLevel();
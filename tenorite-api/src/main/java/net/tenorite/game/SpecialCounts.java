@@ -0,0 +1,172 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tenorite.game;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import net.tenorite.core.Special;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * Immutable number of times each special was used, backed by an array indexed by {@link Special#ordinal()}.
+ * <p>
+ * Exposed as a read-only {@code Map<Special, Integer>} view containing every special, so it is stored and serialized
+ * exactly like a map.
+ *
+ * @author Johan Siebens
+ */
+public final class SpecialCounts extends AbstractMap<Special, Integer> {
+
+    private static final Special[] SPECIALS = Special.values();
+
+    private static final SpecialCounts EMPTY = new SpecialCounts(new int[SPECIALS.length]);
+
+    public static SpecialCounts empty() {
+        return EMPTY;
+    }
+
+    public static SpecialCounts of(Special special, int count) {
+        return EMPTY.with(special, count);
+    }
+
+    /**
+     * @param counts the counts indexed by the ordinal of the special, the array is copied
+     */
+    public static SpecialCounts of(int[] counts) {
+        if (counts.length != SPECIALS.length) {
+            throw new IllegalArgumentException("expected " + SPECIALS.length + " counts");
+        }
+        return new SpecialCounts(counts.clone());
+    }
+
+    @JsonCreator
+    public static SpecialCounts of(Map<Special, Integer> counts) {
+        if (counts instanceof SpecialCounts) {
+            return (SpecialCounts) counts;
+        }
+
+        int[] result = new int[SPECIALS.length];
+        counts.forEach((s, c) -> result[s.ordinal()] = c == null ? 0 : c);
+        return new SpecialCounts(result);
+    }
+
+    private final int[] counts;
+
+    private SpecialCounts(int[] counts) {
+        this.counts = counts;
+    }
+
+    public int count(Special special) {
+        return counts[special.ordinal()];
+    }
+
+    public int total() {
+        int total = 0;
+        for (int count : counts) {
+            total += count;
+        }
+        return total;
+    }
+
+    public int total(Predicate<Special> predicate) {
+        int total = 0;
+        for (Special special : SPECIALS) {
+            if (predicate.test(special)) {
+                total += counts[special.ordinal()];
+            }
+        }
+        return total;
+    }
+
+    public SpecialCounts with(Special special, int count) {
+        int[] result = counts.clone();
+        result[special.ordinal()] = count;
+        return new SpecialCounts(result);
+    }
+
+    public SpecialCounts plus(SpecialCounts other) {
+        int[] result = counts.clone();
+        for (int i = 0; i < result.length; i++) {
+            result[i] += other.counts[i];
+        }
+        return new SpecialCounts(result);
+    }
+
+    @Override
+    public Integer get(Object key) {
+        return key instanceof Special ? counts[((Special) key).ordinal()] : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof Special;
+    }
+
+    @Override
+    public int size() {
+        return SPECIALS.length;
+    }
+
+    @Override
+    public Set<Entry<Special, Integer>> entrySet() {
+        return new AbstractSet<Entry<Special, Integer>>() {
+
+            @Override
+            public Iterator<Entry<Special, Integer>> iterator() {
+                return new Iterator<Entry<Special, Integer>>() {
+
+                    private int index;
+
+                    @Override
+                    public boolean hasNext() {
+                        return index < SPECIALS.length;
+                    }
+
+                    @Override
+                    public Entry<Special, Integer> next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        Special special = SPECIALS[index];
+                        return new SimpleImmutableEntry<>(special, counts[index++]);
+                    }
+
+                };
+            }
+
+            @Override
+            public int size() {
+                return SPECIALS.length;
+            }
+
+        };
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o instanceof SpecialCounts) {
+            return Arrays.equals(counts, ((SpecialCounts) o).counts);
+        }
+        return super.equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode();
+    }
+
+}
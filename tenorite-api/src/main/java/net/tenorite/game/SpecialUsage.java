@@ -0,0 +1,62 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tenorite.game;
+
+import net.tenorite.core.Special;
+import net.tenorite.util.ImmutableStyle;
+import org.immutables.value.Value;
+
+/**
+ * A special used during a game, together with the state of the field of the target at that moment.
+ *
+ * @author Johan Siebens
+ */
+@Value.Immutable
+@ImmutableStyle
+public abstract class SpecialUsage {
+
+    public static SpecialUsage of(long timestamp, int sender, Special special, int target, int targetHeight, int targetNrOfSpecials, int targetNrOfBombs) {
+        return
+            new SpecialUsageBuilder()
+                .timestamp(timestamp)
+                .sender(sender)
+                .special(special)
+                .target(target)
+                .targetHeight(targetHeight)
+                .targetNrOfSpecials(targetNrOfSpecials)
+                .targetNrOfBombs(targetNrOfBombs)
+                .build();
+    }
+
+    public abstract long getTimestamp();
+
+    public abstract int getSender();
+
+    public abstract Special getSpecial();
+
+    public abstract int getTarget();
+
+    public abstract int getTargetHeight();
+
+    public abstract int getTargetNrOfSpecials();
+
+    public abstract int getTargetNrOfBombs();
+
+    public boolean isOnSelf() {
+        return getSender() == getTarget();
+    }
+
+}
@@ -15,7 +15,10 @@
  */
 package net.tenorite.game.events;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import net.tenorite.game.Game;
+import net.tenorite.game.GameAnalysis;
 import net.tenorite.game.Player;
 import net.tenorite.game.PlayingStats;
 import net.tenorite.util.ImmutableStyle;
@@ -28,6 +31,7 @@ import java.util.List;
  */
 @Value.Immutable
 @ImmutableStyle
+@JsonDeserialize(as = GameFinishedBuilder.ImmutableGameFinished.class)
 public abstract class GameFinished {
 
     public static GameFinished of(Game game, List<PlayingStats> ranking) {
@@ -38,4 +42,10 @@ public abstract class GameFinished {
 
     public abstract List<PlayingStats> getRanking();
 
+    @Value.Lazy
+    @JsonIgnore
+    public GameAnalysis getAnalysis() {
+        return GameAnalysis.of(getGame());
+    }
+
 }
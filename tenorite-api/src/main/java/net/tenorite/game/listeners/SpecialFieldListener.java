@@ -0,0 +1,64 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tenorite.game.listeners;
+
+import net.tenorite.core.Special;
+import net.tenorite.game.Field;
+import net.tenorite.game.GameListener;
+import net.tenorite.game.Player;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the latest field of every player, and passes the field of the target along with every special used.
+ *
+ * @author Johan Siebens
+ */
+public final class SpecialFieldListener implements GameListener {
+
+    @FunctionalInterface
+    public interface Handler {
+
+        void onSpecial(Player sender, Special special, Player target, Field targetField);
+
+    }
+
+    private final Map<Integer, Field> fields = new HashMap<>();
+
+    private final Handler handler;
+
+    public SpecialFieldListener(Handler handler) {
+        this.handler = handler;
+    }
+
+    @Override
+    public void onStartGame(List<Player> players) {
+        fields.clear();
+    }
+
+    @Override
+    public void onFieldUpdate(Player sender, Field field) {
+        fields.put(sender.getSlot(), field);
+    }
+
+    @Override
+    public void onSpecial(Player sender, Special special, Player target) {
+        handler.onSpecial(sender, special, target, fields.computeIfAbsent(target.getSlot(), k -> Field.empty()));
+    }
+
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tenorite.badges;
+
+import net.tenorite.badges.validators.NrOfBombsDetonated;
+import net.tenorite.badges.validators.NrOfGamesPlayed;
+import net.tenorite.badges.validators.SpecialWords;
+import net.tenorite.core.Special;
+import net.tenorite.game.GameListener;
+import net.tenorite.game.GameModeId;
+import net.tenorite.game.Player;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Johan Siebens
+ */
+public class BadgeDetectorTest {
+
+    private static final GameModeId GAME_MODE_ID = GameModeId.of("JUNIT");
+
+    private static final Badge WORD = Badge.of(GAME_MODE_ID, "word");
+
+    private static final List<BadgeValidator> VALIDATORS = asList(
+        new NrOfGamesPlayed(Badge.of(GAME_MODE_ID, "played"), 5),
+        new SpecialWords(WORD, "aa"),
+        new NrOfBombsDetonated(Badge.of(GAME_MODE_ID, "bombs"), 3)
+    );
+
+    private final Player john = Player.of(1, "john", null);
+
+    private final Player jane = Player.of(2, "jane", null);
+
+    private final Player nick = Player.of(3, "nick", null);
+
+    private final List<String> detected = new ArrayList<>();
+
+    private final Runnable onEnd = () -> detected.add("end");
+
+    @Test
+    public void testDetectBadgesOfIncrementalValidators() {
+        GameListener detector = BadgeDetector.of(VALIDATORS, (b, p) -> detected.add(b.getBadgeId() + ":" + p.getName()), onEnd);
+
+        detector.onStartGame(asList(john, jane, nick));
+        detector.onSpecial(john, Special.ADDLINE, jane);
+        detector.onSpecial(john, Special.ADDLINE, nick);
+        detector.onSpecial(nick, Special.ADDLINE, jane);
+        detector.onEndGame();
+
+        assertThat(detected).containsExactly("word:john", "end");
+    }
+
+    @Test
+    public void testIgnoreGamesWithTooFewPlayers() {
+        GameListener detector = BadgeDetector.of(VALIDATORS, (b, p) -> detected.add(b.getBadgeId() + ":" + p.getName()), onEnd);
+
+        detector.onStartGame(asList(john, jane));
+        detector.onSpecial(john, Special.ADDLINE, jane);
+        detector.onSpecial(john, Special.ADDLINE, jane);
+        detector.onEndGame();
+
+        assertThat(detected).isEmpty();
+    }
+
+    @Test
+    public void testNoDetectorWithoutIncrementalValidators() {
+        assertThat(BadgeDetector.of(VALIDATORS.subList(0, 1), (b, p) -> detected.add(b.getBadgeId()), onEnd)).isSameAs(GameListener.NOOP);
+    }
+
+}
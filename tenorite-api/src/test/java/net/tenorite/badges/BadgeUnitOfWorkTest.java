@@ -0,0 +1,218 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tenorite.badges;
+
+import net.tenorite.badges.events.BadgeEarned;
+import net.tenorite.badges.validators.*;
+import net.tenorite.core.Tempo;
+import net.tenorite.game.*;
+import net.tenorite.game.events.GameFinished;
+import org.junit.Test;
+
+import java.util.*;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static java.util.Optional.ofNullable;
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Johan Siebens
+ */
+public class BadgeUnitOfWorkTest {
+
+    private static final GameModeId GAME_MODE_ID = GameModeId.of("JUNIT");
+
+    private static final List<BadgeValidator> VALIDATORS = Arrays.asList(
+        new NrOfGamesPlayed(Badge.of(GAME_MODE_ID, "played"), 2),
+        new NrOfGamesWon(Badge.of(GAME_MODE_ID, "won"), 2),
+        new NrOfConsecutiveGamesWon(Badge.of(GAME_MODE_ID, "consecutive-won"), 2),
+        new NrOfConsecutiveGamesLost(Badge.of(GAME_MODE_ID, "consecutive-lost"), 2),
+        new NrOfTwoLineCombos(Badge.of(GAME_MODE_ID, "two-line-combos")),
+        new NrOfFourLineCombos(Badge.of(GAME_MODE_ID, "four-line-combos"))
+    );
+
+    private static final List<Badge> BADGES = VALIDATORS.stream().map(BadgeValidator::getBadge).collect(toList());
+
+    private final CountingBadgeOps direct = new CountingBadgeOps();
+
+    private final CountingBadgeOps batched = new CountingBadgeOps();
+
+    @Test
+    public void testSameOutcomeWithFewerRoundTrips() {
+        List<BadgeEarned> directlyEarned = new ArrayList<>();
+        List<BadgeEarned> batchedEarned = new ArrayList<>();
+
+        for (int i = 0; i < 4; i++) {
+            GameFinished gameFinished = game("game" + i);
+
+            VALIDATORS.forEach(v -> v.process(gameFinished, t -> direct, directlyEarned::add));
+
+            BadgeUnitOfWork unitOfWork = BadgeUnitOfWork.load(batched, BADGES, names(gameFinished));
+            VALIDATORS.forEach(v -> v.process(gameFinished, t -> unitOfWork, batchedEarned::add));
+            unitOfWork.commit();
+        }
+
+        assertThat(batchedEarned).isNotEmpty().isEqualTo(directlyEarned);
+        assertThat(batched.levels).isEqualTo(direct.levels);
+        assertThat(batched.progress).isEqualTo(direct.progress);
+
+        // two reads and a single write per game, instead of several calls per validator and player
+        assertThat(batched.roundTrips).isEqualTo(4 * 3);
+        assertThat(direct.roundTrips).isGreaterThan(4 * VALIDATORS.size() * 6);
+    }
+
+    @Test
+    public void testPassesUnloadedBadgesAndPlayers() {
+        Badge other = Badge.of(GAME_MODE_ID, "other");
+
+        BadgeUnitOfWork unitOfWork = BadgeUnitOfWork.load(batched, BADGES, Arrays.asList("john", "jane"));
+        unitOfWork.updateProgress(other, "john", 5);
+        unitOfWork.updateProgress(BADGES.get(0), "nick", 6);
+        unitOfWork.updateProgress(BADGES.get(0), "john", 7);
+
+        assertThat(batched.progress).containsOnlyKeys(other + "|john", BADGES.get(0) + "|nick");
+        assertThat(unitOfWork.getProgress(BADGES.get(0), "john")).isEqualTo(7);
+
+        unitOfWork.commit();
+
+        assertThat(batched.progress).containsEntry(BADGES.get(0) + "|john", 7L);
+    }
+
+    @Test
+    public void testIncludePlayersLater() {
+        batched.updateProgress(BADGES.get(0), "jane", 3);
+
+        BadgeUnitOfWork unitOfWork = BadgeUnitOfWork.load(batched, BADGES, emptyList());
+        unitOfWork.include(Arrays.asList("john", "jane"));
+        unitOfWork.include(singletonList("jane"));
+
+        int roundTrips = batched.roundTrips;
+
+        assertThat(unitOfWork.getProgress(BADGES.get(0), "jane")).isEqualTo(3);
+        unitOfWork.updateProgress(BADGES.get(0), "john", 1);
+        unitOfWork.updateProgress(BADGES.get(0), "jane", 4);
+
+        assertThat(batched.roundTrips).isEqualTo(roundTrips);
+
+        unitOfWork.commit();
+
+        assertThat(batched.progress).containsEntry(BADGES.get(0) + "|john", 1L).containsEntry(BADGES.get(0) + "|jane", 4L);
+        assertThat(batched.roundTrips).isEqualTo(roundTrips + 1);
+    }
+
+    private static GameFinished game(String id) {
+        List<PlayingStats> ranking = new ArrayList<>();
+        for (int slot = 1; slot <= 6; slot++) {
+            int twoLineCombos = slot;
+            ranking.add(PlayingStats.of(Player.of(slot, "player" + slot, null), b -> b.nrOfTwoLineCombos(twoLineCombos).nrOfFourLineCombos(1)));
+        }
+        return GameFinished.of(Game.of(id, 1000, 100, Tempo.NORMAL, GAME_MODE_ID, emptyList(), emptyList()), ranking);
+    }
+
+    private static List<String> names(GameFinished gameFinished) {
+        return gameFinished.getRanking().stream().map(ps -> ps.getPlayer().getName()).collect(toList());
+    }
+
+    private static final class CountingBadgeOps implements BadgeRepository.BadgeOps {
+
+        private final Map<String, BadgeLevel> levels = new HashMap<>();
+
+        private final Map<String, Long> progress = new HashMap<>();
+
+        private int roundTrips;
+
+        @Override
+        public Optional<BadgeLevel> getBadgeLevel(String name, Badge badge) {
+            roundTrips++;
+            return ofNullable(levels.get(badge + "|" + name));
+        }
+
+        @Override
+        public void saveBadgeLevel(BadgeLevel badgeLevel) {
+            roundTrips++;
+            levels.put(badgeLevel.getBadge() + "|" + badgeLevel.getName(), badgeLevel);
+        }
+
+        @Override
+        public Map<Badge, BadgeLevel> badgeLevels(GameModeId gameModeId, String name) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<BadgeLevel> badgeLevels(Badge badge) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public long getProgress(Badge badge, String name) {
+            roundTrips++;
+            return progress.getOrDefault(badge + "|" + name, 0L);
+        }
+
+        @Override
+        public long updateProgress(Badge badge, String name, long value) {
+            roundTrips++;
+            if (value == 0) {
+                progress.remove(badge + "|" + name);
+            }
+            else {
+                progress.put(badge + "|" + name, value);
+            }
+            return value;
+        }
+
+        @Override
+        public Map<String, Map<Badge, BadgeLevel>> badgeLevels(Collection<Badge> badges, Collection<String> names) {
+            Map<String, Map<Badge, BadgeLevel>> result = new HashMap<>();
+            levels.values().stream()
+                .filter(l -> badges.contains(l.getBadge()) && names.contains(l.getName()))
+                .forEach(l -> result.computeIfAbsent(l.getName(), k -> new HashMap<>()).put(l.getBadge(), l));
+            roundTrips++;
+            return result;
+        }
+
+        @Override
+        public Map<String, Map<Badge, Long>> getProgress(Collection<Badge> badges, Collection<String> names) {
+            Map<String, Map<Badge, Long>> result = new HashMap<>();
+            for (Badge badge : badges) {
+                for (String name : names) {
+                    ofNullable(progress.get(badge + "|" + name)).ifPresent(v -> result.computeIfAbsent(name, k -> new HashMap<>()).put(badge, v));
+                }
+            }
+            roundTrips++;
+            return result;
+        }
+
+        @Override
+        public void saveAll(Collection<BadgeLevel> badgeLevels, Collection<BadgeProgress> values) {
+            int before = roundTrips;
+            badgeLevels.forEach(this::saveBadgeLevel);
+            values.forEach(p -> updateProgress(p.getBadge(), p.getName(), p.getValue()));
+            roundTrips = before + 1;
+        }
+
+        @Override
+        public void removeAll(Collection<Badge> badges) {
+            roundTrips++;
+            levels.values().removeIf(l -> badges.contains(l.getBadge()));
+            progress.keySet().removeIf(k -> badges.stream().anyMatch(b -> k.startsWith(b + "|")));
+        }
+
+    }
+
+}
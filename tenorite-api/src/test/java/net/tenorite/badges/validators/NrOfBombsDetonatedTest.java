@@ -16,6 +16,7 @@
 package net.tenorite.badges.validators;
 
 import net.tenorite.badges.BadgeLevel;
+import net.tenorite.badges.events.BadgeDetected;
 import net.tenorite.badges.events.BadgeEarned;
 import net.tenorite.badges.validators.AbstractValidatorTestCase;
 import net.tenorite.badges.validators.NrOfBombsDetonated;
@@ -27,6 +28,7 @@ import net.tenorite.protocol.FieldMessage;
 import net.tenorite.protocol.SpecialBlockMessage;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
@@ -104,6 +106,32 @@ public class NrOfBombsDetonatedTest extends AbstractValidatorTestCase {
         assertThat(badgeRepository.getProgress(BADGE, "john")).isEqualTo(5);
     }
 
+    @Test
+    public void testDetectBadgeWhileGameIsRunning() {
+        Player john = Player.of(1, "john", null);
+        Player jane = Player.of(2, "jane", null);
+        Player nick = Player.of(3, "nick", null);
+
+        List<Player> detected = new ArrayList<>();
+
+        GameListener detector = validator.createDetector((b, p) -> detected.add(p));
+        detector.onStartGame(asList(john, jane, nick));
+        detector.onSpecial(john, Special.BLOCKBOMB, jane);
+        detector.onFieldUpdate(jane, Field.of(createFieldWith3Bombs()));
+        detector.onSpecial(john, Special.ADDLINE, jane);
+        detector.onSpecial(nick, Special.BLOCKBOMB, john);
+        detector.onSpecial(john, Special.BLOCKBOMB, jane);
+
+        assertThat(detected).containsExactly(john);
+
+        validator.process(BadgeDetected.of(Tempo.NORMAL, BADGE, "john", 0, "id"), badgeRepository, published::add);
+
+        BadgeLevel expected = BadgeLevel.of(Tempo.NORMAL, BADGE, "john", 0, 1, "id");
+
+        assertThat(published).containsExactly(BadgeEarned.of(expected, false));
+        assertThat(badgeRepository.getProgress(BADGE, "john")).isEqualTo(1);
+    }
+
     private String createFieldWith3Bombs() {
         return emptyField() + "00000000ooo0";
     }
@@ -16,12 +16,15 @@
 package net.tenorite.badges.validators;
 
 import net.tenorite.badges.BadgeLevel;
+import net.tenorite.badges.events.BadgeDetected;
 import net.tenorite.badges.events.BadgeEarned;
 import net.tenorite.badges.validators.AbstractValidatorTestCase;
 import net.tenorite.badges.validators.SpecialUsedBeforeDeath;
 import net.tenorite.core.Special;
 import net.tenorite.core.Tempo;
+import net.tenorite.game.Field;
 import net.tenorite.game.Game;
+import net.tenorite.game.GameListener;
 import net.tenorite.game.GameMessage;
 import net.tenorite.game.Player;
 import net.tenorite.game.PlayingStats;
@@ -30,6 +33,7 @@ import net.tenorite.protocol.FieldMessage;
 import net.tenorite.protocol.SpecialBlockMessage;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
@@ -111,6 +115,33 @@ public class SpecialUsedBeforeDeathTest extends AbstractValidatorTestCase {
         assertThat(badgeRepository.getProgress(BADGE, "john")).isEqualTo(5);
     }
 
+    @Test
+    public void testDetectBadgeWhileGameIsRunning() {
+        Player john = Player.of(1, "john", null);
+        Player jane = Player.of(2, "jane", null);
+        Player nick = Player.of(3, "nick", null);
+
+        List<Player> detected = new ArrayList<>();
+
+        GameListener detector = validator.createDetector((b, p) -> detected.add(p));
+        detector.onStartGame(asList(john, jane, nick));
+        detector.onFieldUpdate(john, Field.of(createHighField()));
+        detector.onSpecial(jane, Special.NUKEFIELD, john);
+        detector.onSpecial(john, Special.GRAVITY, john);
+        detector.onSpecial(john, Special.NUKEFIELD, john);
+        detector.onFieldUpdate(nick, Field.of(createLowField()));
+        detector.onSpecial(nick, Special.NUKEFIELD, nick);
+
+        assertThat(detected).containsExactly(john);
+
+        validator.process(BadgeDetected.of(Tempo.NORMAL, BADGE, "john", 0, "id"), badgeRepository, published::add);
+
+        BadgeLevel expected = BadgeLevel.of(Tempo.NORMAL, BADGE, "john", 0, 1, "id");
+
+        assertThat(published).containsExactly(BadgeEarned.of(expected, false));
+        assertThat(badgeRepository.getProgress(BADGE, "john")).isEqualTo(1);
+    }
+
     private String createHighField() {
         StringBuilder buffer = new StringBuilder();
         buffer.append("000000000000");
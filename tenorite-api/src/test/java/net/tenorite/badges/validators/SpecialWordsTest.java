@@ -15,16 +15,23 @@
  */
 package net.tenorite.badges.validators;
 
+import net.tenorite.badges.Badge;
 import net.tenorite.badges.BadgeLevel;
 import net.tenorite.badges.events.BadgeEarned;
 import net.tenorite.core.Special;
 import net.tenorite.core.Tempo;
 import net.tenorite.game.Game;
+import net.tenorite.game.GameListener;
 import net.tenorite.game.Player;
 import net.tenorite.game.PlayingStats;
 import net.tenorite.game.events.GameFinished;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -87,4 +94,68 @@ public class SpecialWordsTest extends AbstractValidatorTestCase {
         assertThat(badgeRepository.getProgress(BADGE, "john")).isEqualTo(14);
     }
 
+    @Test
+    public void testEarnMultipleBadges() {
+        Badge cab = Badge.of(GAME_MODE_ID, "cab");
+        Badge bag = Badge.of(GAME_MODE_ID, "bag");
+        Badge orb = Badge.of(GAME_MODE_ID, "orb");
+
+        Map<Badge, String> words = new LinkedHashMap<>();
+        words.put(cab, "cab");
+        words.put(bag, "bag");
+        words.put(orb, "orb");
+
+        PlayingStats player1 = PlayingStats.of(Player.of(1, "john", null), b -> b
+            .specialsSequence("cabagcab")
+        );
+        PlayingStats player2 = PlayingStats.of(Player.of(2, "jane", null), b -> b
+            .specialsSequence("nnorb")
+        );
+        PlayingStats player3 = PlayingStats.of(Player.of(3, "nick", null));
+
+        Game game = Game.of("id", 0, 100, Tempo.NORMAL, GAME_MODE_ID, emptyList(), emptyList());
+        GameFinished gameFinished = GameFinished.of(game, asList(player1, player2, player3));
+
+        SpecialWords validator = new SpecialWords(words);
+        validator.process(gameFinished, badgeRepository, published::add);
+
+        assertThat(validator.getBadges()).containsExactly(cab, bag, orb);
+        assertThat(published).containsExactly(
+            BadgeEarned.of(BadgeLevel.of(Tempo.NORMAL, cab, "john", 0, 2, "id"), false),
+            BadgeEarned.of(BadgeLevel.of(Tempo.NORMAL, bag, "john", 0, 1, "id"), false),
+            BadgeEarned.of(BadgeLevel.of(Tempo.NORMAL, orb, "jane", 0, 1, "id"), false)
+        );
+    }
+
+    @Test
+    public void testDetectWordsWhileGameIsRunning() {
+        Badge cab = Badge.of(GAME_MODE_ID, "cab");
+        Badge orb = Badge.of(GAME_MODE_ID, "orb");
+
+        Map<Badge, String> words = new LinkedHashMap<>();
+        words.put(cab, "cab");
+        words.put(orb, "orb");
+
+        Player john = Player.of(1, "john", null);
+        Player jane = Player.of(2, "jane", null);
+
+        List<String> detected = new ArrayList<>();
+
+        GameListener detector = new SpecialWords(words).createDetector((b, p) -> detected.add(b.getBadgeId() + ":" + p.getName()));
+        detector.onStartGame(asList(john, jane, Player.of(3, "nick", null)));
+
+        String johnsSpecials = "cabcab";
+        String janesSpecials = "nnorbo";
+        for (int i = 0; i < 6; i++) {
+            if (i < johnsSpecials.length()) {
+                detector.onSpecial(john, Special.valueOf(johnsSpecials.charAt(i)).get(), jane);
+            }
+            if (i < janesSpecials.length()) {
+                detector.onSpecial(jane, Special.valueOf(janesSpecials.charAt(i)).get(), john);
+            }
+        }
+
+        assertThat(detected).containsExactly("cab:john", "orb:jane", "cab:john");
+    }
+
 }
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tenorite.badges.validators;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Johan Siebens
+ */
+public class WordCounterTest {
+
+    private static final List<String> WORDS = asList("arc", "bacon", "banana", "barn", "bag", "cab", "cargo", "cobra", "crab", "gas", "groan", "orb", "orca", "rag", "sac", "scar", "aa");
+
+    @Test
+    public void testCount() {
+        WordCounter counter = new WordCounter(asList("cab", "abc", "aa", "bacab"));
+
+        assertThat(counter.count("")).containsExactly(0, 0, 0, 0);
+        assertThat(counter.count("cabcab")).containsExactly(2, 1, 0, 0);
+        assertThat(counter.count("aaaaa")).containsExactly(0, 0, 2, 0);
+        assertThat(counter.count("bacabacab")).containsExactly(2, 0, 0, 1);
+        assertThat(counter.count("c?a!b")).containsExactly(0, 0, 0, 0);
+    }
+
+    @Test
+    public void testScanOneCharacterAtATime() {
+        WordCounter.Scanner scanner = new WordCounter(asList("cab", "abc", "aa", "bacab")).scanner();
+
+        List<String> matches = new ArrayList<>();
+        String text = "bacabcaab";
+        for (int i = 0; i < text.length(); i++) {
+            int position = i;
+            scanner.next(text.charAt(i), w -> matches.add(w + "@" + position));
+        }
+
+        assertThat(matches).containsExactly("3@4", "0@4", "1@5", "2@7");
+    }
+
+    @Test
+    public void testSameCountsAsCountMatches() {
+        WordCounter counter = new WordCounter(WORDS);
+        Random random = new Random(42);
+
+        for (int i = 0; i < 1000; i++) {
+            StringBuilder sequence = new StringBuilder();
+            int length = random.nextInt(200);
+            for (int j = 0; j < length; j++) {
+                sequence.append("acnrsbgqo".charAt(random.nextInt(9)));
+            }
+
+            int[] counts = counter.count(sequence);
+            for (int w = 0; w < WORDS.size(); w++) {
+                assertThat(counts[w]).isEqualTo(StringUtils.countMatches(sequence, WORDS.get(w)));
+            }
+        }
+    }
+
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tenorite.game;
+
+import net.tenorite.core.Special;
+import net.tenorite.core.Tempo;
+import net.tenorite.game.events.GameFinished;
+import net.tenorite.protocol.FieldMessage;
+import net.tenorite.protocol.LvlMessage;
+import net.tenorite.protocol.SpecialBlockMessage;
+import org.junit.Test;
+
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+/**
+ * @author Johan Siebens
+ */
+public class GameAnalysisTest {
+
+    @Test
+    public void testTimelines() {
+        List<GameMessage> messages = asList(
+            GameMessage.of(1000, FieldMessage.of(2, field("00000000ooo0"))),
+            GameMessage.of(1500, LvlMessage.of(2, 3)),
+            GameMessage.of(2000, SpecialBlockMessage.of(1, Special.BLOCKBOMB, 2)),
+            GameMessage.of(2500, FieldMessage.of(2, field("0000000000ab"))),
+            GameMessage.of(3000, SpecialBlockMessage.of(1, Special.CLEARSPECIAL, 2)),
+            GameMessage.of(3500, SpecialBlockMessage.of(3, Special.GRAVITY, 3))
+        );
+
+        GameAnalysis analysis = GameAnalysis.of(Game.of("id", 0, 100, Tempo.NORMAL, GameModeId.of("test"), emptyList(), messages));
+
+        assertThat(analysis.getSpecialUsages()).containsExactly(
+            SpecialUsage.of(2000, 1, Special.BLOCKBOMB, 2, 1, 3, 3),
+            SpecialUsage.of(3000, 1, Special.CLEARSPECIAL, 2, 1, 2, 0),
+            SpecialUsage.of(3500, 3, Special.GRAVITY, 3, 0, 0, 0)
+        );
+
+        assertThat(analysis.getTimeline(2)).hasSize(2);
+        assertThat(analysis.getTimeline(3)).containsExactly(SpecialUsage.of(3500, 3, Special.GRAVITY, 3, 0, 0, 0));
+        assertThat(analysis.getTimeline(4)).isEmpty();
+
+        assertThat(analysis.getSpecialsUsed(1)).isEqualTo(SpecialCounts.of(Special.BLOCKBOMB, 1).with(Special.CLEARSPECIAL, 1));
+        assertThat(analysis.getSpecialsUsed(2)).isEqualTo(SpecialCounts.empty());
+
+        assertThat(analysis.countBySender(SpecialUsage::isOnSelf)).containsOnly(entry(3, 1));
+        assertThat(analysis.countBySender(u -> u.getTargetHeight() > 0)).containsOnly(entry(1, 2));
+    }
+
+    @Test
+    public void testAnalysisIsComputedOncePerEvent() {
+        Game game = Game.of("id", 0, 100, Tempo.NORMAL, GameModeId.of("test"), emptyList(), emptyList());
+        GameFinished gameFinished = GameFinished.of(game, emptyList());
+
+        assertThat(gameFinished.getAnalysis()).isSameAs(gameFinished.getAnalysis());
+        assertThat(gameFinished.getAnalysis().getSpecialUsages()).isEmpty();
+    }
+
+    private static String field(String bottomRow) {
+        StringBuilder buffer = new StringBuilder();
+        for (int i = 1; i < Field.HEIGHT; i++) {
+            buffer.append("000000000000");
+        }
+        return buffer.append(bottomRow).toString();
+    }
+
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tenorite.game;
+
+import net.tenorite.core.Special;
+import org.junit.Test;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Johan Siebens
+ */
+public class SpecialCountsTest {
+
+    @Test
+    public void testCountsAndTotals() {
+        SpecialCounts counts = SpecialCounts.of(Special.ADDLINE, 2).with(Special.NUKEFIELD, 1).plus(SpecialCounts.of(Special.ADDLINE, 3));
+
+        assertThat(counts.count(Special.ADDLINE)).isEqualTo(5);
+        assertThat(counts.count(Special.GRAVITY)).isEqualTo(0);
+        assertThat(counts.total()).isEqualTo(6);
+        assertThat(counts.total(s -> s != Special.NUKEFIELD)).isEqualTo(5);
+    }
+
+    @Test
+    public void testBehavesAsMapOfAllSpecials() {
+        Map<Special, Integer> expected = new EnumMap<>(Special.class);
+        for (Special special : Special.values()) {
+            expected.put(special, 0);
+        }
+        expected.put(Special.BLOCKBOMB, 4);
+
+        SpecialCounts counts = SpecialCounts.of(Special.BLOCKBOMB, 4);
+
+        assertThat(counts).isEqualTo(expected);
+        assertThat(expected).isEqualTo(counts);
+        assertThat(counts.hashCode()).isEqualTo(expected.hashCode());
+        assertThat(SpecialCounts.of(expected)).isEqualTo(counts);
+    }
+
+}
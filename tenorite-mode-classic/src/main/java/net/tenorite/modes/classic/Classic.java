@@ -24,13 +24,12 @@ import net.tenorite.game.GameMode;
 import net.tenorite.game.GameModeId;
 import net.tenorite.game.GameRules;
 
-import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.List;
+import java.util.*;
 import java.util.stream.Stream;
 
 import static java.util.Arrays.asList;
-import static java.util.stream.Collectors.toList;
+import static java.util.function.Function.identity;
+import static java.util.stream.Collectors.toMap;
 import static net.tenorite.badges.validators.BadgeValidators.*;
 
 /**
@@ -107,7 +106,7 @@ public final class Classic extends GameMode {
             closeCall(ID, Special.NUKEFIELD)
         ));
 
-        validators.addAll(words(ID));
+        validators.add(words(ID));
 
         return validators;
     }
@@ -120,8 +119,8 @@ public final class Classic extends GameMode {
         return new GrandTheft(Badge.of(gameModeId, "GRAND_THEFT"));
     }
 
-    private static List<BadgeValidator> words(GameModeId gameModeId) {
-        return Stream
+    private static BadgeValidator words(GameModeId gameModeId) {
+        Map<Badge, String> words = Stream
             .of(
                 "arc",
                 "bacon",
@@ -141,8 +140,9 @@ public final class Classic extends GameMode {
                 "scar"
             )
             .sorted(BY_LENGTH.thenComparing(String::compareTo))
-            .map(w -> new SpecialWords(Badge.of(gameModeId, "WORDS_" + w.toUpperCase()), w))
-            .collect(toList());
+            .collect(toMap(w -> Badge.of(gameModeId, "WORDS_" + w.toUpperCase()), identity(), (a, b) -> a, LinkedHashMap::new));
+
+        return new SpecialWords(words);
     }
 
     private static Comparator<String> BY_LENGTH = (s1, s2) -> s1.length() - s2.length();
@@ -17,16 +17,15 @@ package net.tenorite.modes.classic;
 
 import net.tenorite.badges.Badge;
 import net.tenorite.badges.BadgeRepository;
-import net.tenorite.badges.BadgeValidator;
+import net.tenorite.badges.IncrementalBadgeValidator;
 import net.tenorite.badges.events.BadgeEarned;
 import net.tenorite.core.Special;
 import net.tenorite.game.*;
 import net.tenorite.game.events.GameFinished;
-import net.tenorite.protocol.FieldMessage;
-import net.tenorite.protocol.Message;
-import net.tenorite.protocol.SpecialBlockMessage;
+import net.tenorite.game.listeners.SpecialFieldListener;
 
 import java.util.*;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
@@ -36,7 +35,7 @@ import static java.util.function.Function.identity;
 /**
  * @author Johan Siebens
  */
-final class GrandTheft extends BadgeValidator {
+final class GrandTheft extends IncrementalBadgeValidator {
 
     public static final int TARGET = 20;
 
@@ -50,35 +49,23 @@ final class GrandTheft extends BadgeValidator {
 
         Game game = gameFinished.getGame();
 
-        Map<Player, Integer> counts = new HashMap<>();
-        Map<Integer, Integer> nrOfSpecials = new HashMap<>();
-
-        for (GameMessage gameMessage : game.getMessages()) {
-            Message message = gameMessage.getMessage();
-
-            if (message instanceof FieldMessage) {
-                FieldMessage fieldMessage = (FieldMessage) message;
-                int specials = Field.of(fieldMessage.getUpdate()).getNrOfSpecials();
-                nrOfSpecials.put(fieldMessage.getSender(), specials);
-            }
+        gameFinished.getAnalysis().countBySender(u -> isClearSpecials(u) && u.getTargetNrOfSpecials() >= TARGET).forEach((slot, count) -> ofNullable(allPlayers.get(slot)).ifPresent(p -> {
+            long nextLevel = badgeOps.getProgress(badge, p.getName()) + count;
+            updateBadgeLevel(game, p.getName(), badge, nextLevel, badgeOps, onBadgeEarned);
+        }));
+    }
 
-            if (message instanceof SpecialBlockMessage) {
-                SpecialBlockMessage sb = (SpecialBlockMessage) message;
-                if (isClearSpecials(sb) && nrOfSpecials.getOrDefault(sb.getTarget(), 0) >= TARGET) {
-                    ofNullable(allPlayers.get(sb.getSender())).ifPresent(player -> counts.compute(player, (p, x) -> x == null ? 1 : x + 1));
-                }
+    @Override
+    public GameListener createDetector(BiConsumer<Badge, Player> onDetected) {
+        return new SpecialFieldListener((sender, special, target, targetField) -> {
+            if (special == Special.CLEARSPECIAL && targetField.getNrOfSpecials() >= TARGET) {
+                onDetected.accept(badge, sender);
             }
-        }
-
-        counts.entrySet().forEach(e -> {
-            Player p = e.getKey();
-            long nextLevel = badgeOps.getProgress(badge, p.getName()) + e.getValue();
-            updateBadgeLevel(game, p.getName(), badge, nextLevel, badgeOps, onBadgeEarned);
         });
     }
 
-    private boolean isClearSpecials(SpecialBlockMessage sb) {
-        return Objects.equals(sb.getSpecial(), Special.CLEARSPECIAL);
+    private boolean isClearSpecials(SpecialUsage u) {
+        return Objects.equals(u.getSpecial(), Special.CLEARSPECIAL);
     }
 
 }
@@ -89,6 +89,12 @@ public abstract class AbstractValidatorTestCase {
             return value;
         }
 
+        @Override
+        public void removeAll(Collection<Badge> types) {
+            badges.values().forEach(m -> m.keySet().removeAll(types));
+            data.keySet().removeIf(k -> types.stream().anyMatch(t -> k.startsWith(t + "|")));
+        }
+
         public void clear() {
             badges.clear();
             data.clear();
@@ -16,6 +16,7 @@
 package net.tenorite.modes.classic;
 
 import net.tenorite.badges.BadgeLevel;
+import net.tenorite.badges.events.BadgeDetected;
 import net.tenorite.badges.events.BadgeEarned;
 import net.tenorite.core.Special;
 import net.tenorite.core.Tempo;
@@ -25,6 +26,7 @@ import net.tenorite.protocol.FieldMessage;
 import net.tenorite.protocol.SpecialBlockMessage;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
@@ -102,6 +104,31 @@ public class GrandTheftTest extends AbstractValidatorTestCase {
         assertThat(badgeRepository.getProgress(BADGE, "john")).isEqualTo(5);
     }
 
+    @Test
+    public void testDetectBadgeWhileGameIsRunning() {
+        Player john = Player.of(1, "john", null);
+        Player jane = Player.of(2, "jane", null);
+        Player nick = Player.of(3, "nick", null);
+
+        List<Player> detected = new ArrayList<>();
+
+        GameListener detector = validator.createDetector((b, p) -> detected.add(p));
+        detector.onStartGame(asList(john, jane, nick));
+        detector.onSpecial(john, Special.CLEARSPECIAL, jane);
+        detector.onFieldUpdate(jane, Field.of(createFieldWithMoreThen20Specials()));
+        detector.onSpecial(john, Special.NUKEFIELD, jane);
+        detector.onSpecial(john, Special.CLEARSPECIAL, jane);
+
+        assertThat(detected).containsExactly(john);
+
+        validator.process(BadgeDetected.of(Tempo.NORMAL, BADGE, "john", 0, "id"), badgeRepository, published::add);
+
+        BadgeLevel expected = BadgeLevel.of(Tempo.NORMAL, BADGE, "john", 0, 1, "id");
+
+        assertThat(published).containsExactly(BadgeEarned.of(expected, false));
+        assertThat(badgeRepository.getProgress(BADGE, "john")).isEqualTo(1);
+    }
+
     private String createFieldWithMoreThen20Specials() {
         return emptyField() + "acnboqagaccb" + "ooacoonggbbc";
     }
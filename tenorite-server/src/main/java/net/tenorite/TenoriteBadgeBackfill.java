@@ -0,0 +1,93 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tenorite;
+
+import net.tenorite.badges.BackfillReport;
+import net.tenorite.badges.BadgeBackfill;
+import net.tenorite.badges.BadgeValidator;
+import net.tenorite.badges.repository.MongoBackfillCheckpointRepository;
+import net.tenorite.badges.repository.MongoBadgeRepository;
+import net.tenorite.core.Tempo;
+import net.tenorite.game.GameMode;
+import net.tenorite.game.GameModeId;
+import net.tenorite.game.GameModes;
+import net.tenorite.game.repository.MongoGameRepository;
+import net.tenorite.system.config.SystemConfig;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.jongo.Jongo;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.env.Environment;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.ServiceLoader;
+import java.util.Set;
+
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
+
+/**
+ * Recomputes the badges of a game mode from all stored games and exits. It only starts the storage, so no channels,
+ * clients or badge evaluation of live games run next to it; run it while the server is stopped.
+ * <p>
+ * {@code tenorite.badges.backfill.mode} selects the game mode; {@code tenorite.badges.backfill.badges} optionally
+ * limits the badges to a comma separated list of badge ids.
+ *
+ * @author Johan Siebens
+ */
+@EnableAutoConfiguration
+@Import(SystemConfig.class)
+public class TenoriteBadgeBackfill {
+
+    public static void main(String[] args) {
+        new SpringApplicationBuilder(TenoriteBadgeBackfill.class).web(false).run(args).close();
+    }
+
+    @Bean
+    public CommandLineRunner badgeBackfill(Environment environment, Jongo jongo) {
+        return args -> {
+            Log log = LogFactory.getLog(BadgeBackfill.class);
+
+            GameModes gameModes = new GameModes(ServiceLoader.load(GameMode.class));
+
+            Tempo tempo = Tempo.valueOf(environment.getProperty("tenorite.badges.backfill.tempo", "NORMAL"));
+            GameMode gameMode = gameModes.find(GameModeId.of(environment.getRequiredProperty("tenorite.badges.backfill.mode"))).orElseThrow(IllegalArgumentException::new);
+            Set<String> badgeIds = Arrays.stream(environment.getProperty("tenorite.badges.backfill.badges", "").split(",")).map(String::trim).filter(b -> !b.isEmpty()).collect(toSet());
+            int parallelism = environment.getProperty("tenorite.badges.backfill.parallelism", Integer.class, Runtime.getRuntime().availableProcessors());
+            int batchSize = environment.getProperty("tenorite.badges.backfill.batch-size", Integer.class, 250);
+
+            List<BadgeValidator> validators =
+                gameMode.getBadgeValidators().stream()
+                    .filter(v -> badgeIds.isEmpty() || v.getBadges().stream().anyMatch(b -> badgeIds.contains(b.getBadgeId())))
+                    .collect(toList());
+
+            BadgeBackfill backfill = new BadgeBackfill(new MongoGameRepository(jongo), new MongoBadgeRepository(jongo), new MongoBackfillCheckpointRepository(jongo), parallelism, batchSize);
+            BackfillReport report = backfill.run(tempo, gameMode, validators, r -> log.info(describe(r)));
+
+            log.info("finished " + describe(report));
+        };
+    }
+
+    private static String describe(BackfillReport report) {
+        return String.format("%s: %d games, %d badges earned, %.1f games/s", report.getJobId(), report.getNrOfGames(), report.getNrOfBadgesEarned(), report.getGamesPerSecond());
+    }
+
+}
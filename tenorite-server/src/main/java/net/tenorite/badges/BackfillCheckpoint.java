@@ -0,0 +1,63 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tenorite.badges;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import net.tenorite.util.ImmutableStyle;
+import org.immutables.value.Value;
+
+import java.util.List;
+
+/**
+ * Last game processed by a {@link BadgeBackfill}, together with the results of the batch ending with that game.
+ * <p>
+ * The checkpoint is saved before the results are written, and the results hold absolute values, so writing them again
+ * when resuming is harmless.
+ *
+ * @author Johan Siebens
+ */
+@Value.Immutable
+@ImmutableStyle
+@JsonDeserialize(as = BackfillCheckpointBuilder.ImmutableBackfillCheckpoint.class)
+public abstract class BackfillCheckpoint {
+
+    public static BackfillCheckpoint of(String jobId, long timestamp, String gameId, long nrOfGames, List<BadgeLevel> badgeLevels, List<BadgeProgress> progress) {
+        return
+            new BackfillCheckpointBuilder()
+                .jobId(jobId)
+                .timestamp(timestamp)
+                .gameId(gameId)
+                .nrOfGames(nrOfGames)
+                .badgeLevels(badgeLevels)
+                .progress(progress)
+                .build();
+    }
+
+    @JsonProperty("_id")
+    public abstract String getJobId();
+
+    public abstract long getTimestamp();
+
+    public abstract String getGameId();
+
+    public abstract long getNrOfGames();
+
+    public abstract List<BadgeLevel> getBadgeLevels();
+
+    public abstract List<BadgeProgress> getProgress();
+
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tenorite.badges;
+
+import net.tenorite.util.ImmutableStyle;
+import org.immutables.value.Value;
+
+/**
+ * @author Johan Siebens
+ */
+@Value.Immutable
+@ImmutableStyle
+public abstract class BackfillReport {
+
+    public static BackfillReport of(String jobId, long nrOfGames, long nrOfBadgesEarned, long duration) {
+        return new BackfillReportBuilder().jobId(jobId).nrOfGames(nrOfGames).nrOfBadgesEarned(nrOfBadgesEarned).duration(duration).build();
+    }
+
+    public abstract String getJobId();
+
+    /**
+     * @return the number of games processed in this run, excluding the games before the checkpoint it resumed from
+     */
+    public abstract long getNrOfGames();
+
+    public abstract long getNrOfBadgesEarned();
+
+    /**
+     * @return the duration of this run in milliseconds
+     */
+    public abstract long getDuration();
+
+    @Value.Lazy
+    public double getGamesPerSecond() {
+        return getDuration() == 0 ? 0 : getNrOfGames() * 1000d / getDuration();
+    }
+
+}
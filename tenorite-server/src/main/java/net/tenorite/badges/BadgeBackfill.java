@@ -0,0 +1,292 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tenorite.badges;
+
+import net.tenorite.core.Tempo;
+import net.tenorite.game.*;
+import net.tenorite.game.events.GameFinished;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static java.util.Optional.ofNullable;
+import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Offline job applying badge validators to all stored games of a tempo and game mode, in the order they were played.
+ * <p>
+ * The players are divided in partitions. On a fork-join pool, every partition evaluates all games in order but only
+ * keeps the levels and progress of its own players, so counters depending on the order of games stay correct. The
+ * results of each batch of games are saved in a checkpoint to resume from, and then written at once. A run without a
+ * checkpoint first removes all levels and progress of the badges it recomputes.
+ *
+ * @author Johan Siebens
+ */
+public final class BadgeBackfill {
+
+    public static String jobId(Tempo tempo, GameModeId gameModeId, Collection<Badge> badges) {
+        return tempo + ":" + gameModeId + ":" + badges.stream().map(Badge::getBadgeId).sorted().collect(joining(","));
+    }
+
+    private final GameRepository gameRepository;
+
+    private final BadgeRepository badgeRepository;
+
+    private final BackfillCheckpointRepository checkpointRepository;
+
+    private final GameRankCalculator rankCalculator = new GameRankCalculator();
+
+    private final int parallelism;
+
+    private final int batchSize;
+
+    public BadgeBackfill(GameRepository gameRepository, BadgeRepository badgeRepository, BackfillCheckpointRepository checkpointRepository, int parallelism, int batchSize) {
+        this.gameRepository = gameRepository;
+        this.badgeRepository = badgeRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.parallelism = parallelism;
+        this.batchSize = batchSize;
+    }
+
+    public BackfillReport run(Tempo tempo, GameMode gameMode, List<BadgeValidator> validators, Consumer<BackfillReport> onProgress) {
+        List<Badge> badges = validators.stream().flatMap(v -> v.getBadges().stream()).distinct().collect(toList());
+        String jobId = jobId(tempo, gameMode.getId(), badges);
+        BadgeRepository.BadgeOps badgeOps = badgeRepository.badgeOps(tempo);
+
+        Optional<BackfillCheckpoint> checkpoint = checkpointRepository.loadCheckpoint(jobId);
+        if (checkpoint.isPresent()) {
+            // the run may have stopped before the results of the last batch were written
+            badgeOps.saveAll(checkpoint.get().getBadgeLevels(), checkpoint.get().getProgress());
+        }
+        else {
+            badgeOps.removeAll(badges);
+        }
+
+        Run run = new Run(jobId, gameMode, validators, badges, badgeOps, checkpoint);
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try (Stream<Game> games = gameRepository.gameOps(tempo).games(gameMode.getId(), run.timestamp, run.gameId)) {
+            Iterator<Game> iterator = games.iterator();
+            List<Game> batch = new ArrayList<>(batchSize);
+            while (iterator.hasNext()) {
+                batch.add(iterator.next());
+                if (batch.size() == batchSize || !iterator.hasNext()) {
+                    run.process(pool, batch);
+                    onProgress.accept(run.report());
+                    batch.clear();
+                }
+            }
+        }
+        finally {
+            pool.shutdown();
+        }
+
+        checkpointRepository.deleteCheckpoint(jobId);
+        return run.report();
+    }
+
+    private final class Run {
+
+        private final String jobId;
+
+        private final GameMode gameMode;
+
+        private final BadgeRepository.BadgeOps badgeOps;
+
+        private final Partition[] partitions;
+
+        private final long start = System.currentTimeMillis();
+
+        private long timestamp = Long.MIN_VALUE;
+
+        private String gameId = "";
+
+        private long nrOfGames;
+
+        private long totalNrOfGames;
+
+        Run(String jobId, GameMode gameMode, List<BadgeValidator> validators, List<Badge> badges, BadgeRepository.BadgeOps badgeOps, Optional<BackfillCheckpoint> checkpoint) {
+            this.jobId = jobId;
+            this.gameMode = gameMode;
+            this.badgeOps = badgeOps;
+            this.partitions = new Partition[parallelism];
+            for (int i = 0; i < parallelism; i++) {
+                partitions[i] = new Partition(i, validators, badges, badgeOps);
+            }
+
+            checkpoint.ifPresent(c -> {
+                timestamp = c.getTimestamp();
+                gameId = c.getGameId();
+                totalNrOfGames = c.getNrOfGames();
+            });
+        }
+
+        void process(ForkJoinPool pool, List<Game> batch) {
+            List<GameFinished> games = pool.submit(() -> batch.parallelStream().map(g -> GameFinished.of(g, rankCalculator.calculate(gameMode, g))).collect(toList())).join();
+
+            Stream.of(partitions).map(p -> pool.submit(() -> p.process(games))).collect(toList()).forEach(ForkJoinTask::join);
+
+            List<BadgeLevel> levels = new ArrayList<>();
+            List<BadgeProgress> progress = new ArrayList<>();
+            for (Partition partition : partitions) {
+                partition.drainChanges(levels, progress);
+            }
+
+            Game last = batch.get(batch.size() - 1);
+            checkpointRepository.saveCheckpoint(BackfillCheckpoint.of(jobId, last.getTimestamp(), last.getId(), totalNrOfGames + batch.size(), levels, progress));
+            badgeOps.saveAll(levels, progress);
+
+            timestamp = last.getTimestamp();
+            gameId = last.getId();
+            nrOfGames += batch.size();
+            totalNrOfGames += batch.size();
+        }
+
+        BackfillReport report() {
+            long earned = Stream.of(partitions).mapToLong(p -> p.earned).sum();
+            return BackfillReport.of(jobId, nrOfGames, earned, System.currentTimeMillis() - start);
+        }
+
+    }
+
+    /**
+     * Levels and progress of the players of a single partition, loaded from the repository when a player appears for
+     * the first time. Other players are ignored.
+     */
+    private final class Partition implements BadgeRepository.BadgeOps {
+
+        private final int index;
+
+        private final List<BadgeValidator> validators;
+
+        private final List<Badge> badges;
+
+        private final BadgeRepository.BadgeOps badgeOps;
+
+        private final Set<String> loaded = new HashSet<>();
+
+        private final Map<String, Map<Badge, BadgeLevel>> levels = new HashMap<>();
+
+        private final Map<String, Map<Badge, Long>> progress = new HashMap<>();
+
+        private final Map<List<Object>, BadgeLevel> changedLevels = new LinkedHashMap<>();
+
+        private final Map<List<Object>, BadgeProgress> changedProgress = new LinkedHashMap<>();
+
+        private long earned;
+
+        Partition(int index, List<BadgeValidator> validators, List<Badge> badges, BadgeRepository.BadgeOps badgeOps) {
+            this.index = index;
+            this.validators = validators;
+            this.badges = badges;
+            this.badgeOps = badgeOps;
+        }
+
+        void process(List<GameFinished> games) {
+            Set<String> names = new HashSet<>();
+            games.forEach(g -> g.getRanking().stream().map(ps -> ps.getPlayer().getName()).filter(this::owns).filter(n -> !loaded.contains(n)).forEach(names::add));
+            if (!names.isEmpty()) {
+                badgeOps.badgeLevels(badges, names).forEach((name, l) -> levels.put(name, new HashMap<>(l)));
+                badgeOps.getProgress(badges, names).forEach((name, p) -> progress.put(name, new HashMap<>(p)));
+                loaded.addAll(names);
+            }
+
+            for (GameFinished game : games) {
+                if (game.getRanking().stream().anyMatch(ps -> owns(ps.getPlayer().getName()))) {
+                    validators.forEach(v -> v.process(game, t -> this, e -> {
+                        if (owns(e.getBadge().getName())) {
+                            earned++;
+                        }
+                    }));
+                }
+            }
+        }
+
+        void drainChanges(List<BadgeLevel> levels, List<BadgeProgress> progress) {
+            levels.addAll(changedLevels.values());
+            progress.addAll(changedProgress.values());
+            changedLevels.clear();
+            changedProgress.clear();
+        }
+
+        @Override
+        public Optional<BadgeLevel> getBadgeLevel(String name, Badge badge) {
+            return ofNullable(levels.get(name)).map(m -> m.get(badge));
+        }
+
+        @Override
+        public void saveBadgeLevel(BadgeLevel badgeLevel) {
+            String name = badgeLevel.getName();
+            if (owns(name)) {
+                levels.computeIfAbsent(name, k -> new HashMap<>()).put(badgeLevel.getBadge(), badgeLevel);
+                changedLevels.put(Arrays.asList(badgeLevel.getBadge(), name), badgeLevel);
+            }
+        }
+
+        @Override
+        public long getProgress(Badge badge, String name) {
+            return ofNullable(progress.get(name)).map(m -> m.get(badge)).orElse(0L);
+        }
+
+        @Override
+        public long updateProgress(Badge badge, String name, long value) {
+            if (owns(name)) {
+                progress.computeIfAbsent(name, k -> new HashMap<>()).put(badge, value);
+                changedProgress.put(Arrays.asList(badge, name), BadgeProgress.of(badge, name, value));
+            }
+            return value;
+        }
+
+        @Override
+        public Map<Badge, BadgeLevel> badgeLevels(GameModeId gameModeId, String name) {
+            Map<Badge, BadgeLevel> result = new HashMap<>();
+            levels.getOrDefault(name, Collections.emptyMap()).forEach((badge, level) -> {
+                if (badge.getGameModeId().equals(gameModeId)) {
+                    result.put(badge, level);
+                }
+            });
+            return result;
+        }
+
+        @Override
+        public List<BadgeLevel> badgeLevels(Badge badge) {
+            // only the players of this partition that appeared so far
+            return levels.values().stream()
+                .map(m -> m.get(badge))
+                .filter(Objects::nonNull)
+                .sorted(Comparator.comparingLong(BadgeLevel::getLevel).reversed().thenComparingLong(BadgeLevel::getTimestamp))
+                .collect(toList());
+        }
+
+        @Override
+        public void removeAll(Collection<Badge> badges) {
+            levels.values().forEach(m -> m.keySet().removeAll(badges));
+            progress.values().forEach(m -> m.keySet().removeAll(badges));
+            changedLevels.values().removeIf(l -> badges.contains(l.getBadge()));
+            changedProgress.values().removeIf(p -> badges.contains(p.getBadge()));
+        }
+
+        private boolean owns(String name) {
+            return Math.floorMod(name.hashCode(), parallelism) == index;
+        }
+
+    }
+
+}
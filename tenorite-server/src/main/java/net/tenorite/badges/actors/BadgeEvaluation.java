@@ -0,0 +1,140 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tenorite.badges.actors;
+
+import net.tenorite.badges.Badge;
+import net.tenorite.badges.BadgeRepository;
+import net.tenorite.badges.BadgeUnitOfWork;
+import net.tenorite.badges.BadgeValidator;
+import net.tenorite.badges.IncrementalBadgeValidator;
+import net.tenorite.badges.events.BadgeDetected;
+import net.tenorite.badges.events.BadgeDetectionEnded;
+import net.tenorite.badges.events.BadgeEarned;
+import net.tenorite.game.Player;
+import net.tenorite.game.PlayingStats;
+import net.tenorite.game.events.GameFinished;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Evaluates the badge validators of a game mode for a single finished game as one job: the validators that accept the
+ * game run in parallel against a shared {@link BadgeUnitOfWork}, which is committed once all of them are done.
+ * <p>
+ * The badges earned are returned in the order of the validators, regardless of the order in which they complete.
+ * <p>
+ * With in-game detection, the incremental validators are left out after the game; their badges are awarded one
+ * detection at a time instead, from a unit of work per game which is committed once the detection of the game ends.
+ *
+ * @author Johan Siebens
+ */
+final class BadgeEvaluation {
+
+    private final List<BadgeValidator> validators;
+
+    private final List<Badge> badges;
+
+    private final Map<Badge, IncrementalBadgeValidator> detectors = new HashMap<>();
+
+    private final List<Badge> detectedBadges;
+
+    private final Map<String, BadgeUnitOfWork> detections = new ConcurrentHashMap<>();
+
+    private final BadgeRepository badgeRepository;
+
+    private final Executor executor;
+
+    BadgeEvaluation(List<BadgeValidator> validators, BadgeRepository badgeRepository, boolean inGameDetection, Executor executor) {
+        if (inGameDetection) {
+            validators.stream()
+                .filter(v -> v instanceof IncrementalBadgeValidator)
+                .forEach(v -> v.getBadges().forEach(b -> detectors.put(b, (IncrementalBadgeValidator) v)));
+        }
+
+        this.validators = validators.stream().filter(v -> !(inGameDetection && v instanceof IncrementalBadgeValidator)).collect(toList());
+        this.badges = this.validators.stream().flatMap(v -> v.getBadges().stream()).distinct().collect(toList());
+        this.detectedBadges = new ArrayList<>(detectors.keySet());
+        this.badgeRepository = badgeRepository;
+        this.executor = executor;
+    }
+
+    boolean accepts(GameFinished gameFinished) {
+        return validators.stream().anyMatch(v -> v.accepts(gameFinished));
+    }
+
+    boolean accepts(BadgeDetected badgeDetected) {
+        return detectors.containsKey(badgeDetected.getBadge());
+    }
+
+    boolean accepts(BadgeDetectionEnded badgeDetectionEnded) {
+        return !detectors.isEmpty();
+    }
+
+    CompletableFuture<List<BadgeEarned>> evaluate(BadgeDetected badgeDetected) {
+        IncrementalBadgeValidator validator = detectors.get(badgeDetected.getBadge());
+
+        return CompletableFuture.supplyAsync(() -> {
+            BadgeUnitOfWork unitOfWork = detections.computeIfAbsent(badgeDetected.getGameId(), k -> BadgeUnitOfWork.load(badgeRepository.badgeOps(badgeDetected.getTempo()), detectedBadges, emptyList()));
+            unitOfWork.include(singletonList(badgeDetected.getName()));
+
+            List<BadgeEarned> earned = new ArrayList<>();
+            validator.process(badgeDetected, t -> unitOfWork, earned::add);
+            return earned;
+        }, executor);
+    }
+
+    CompletableFuture<List<BadgeEarned>> evaluate(BadgeDetectionEnded badgeDetectionEnded) {
+        return CompletableFuture.supplyAsync(() -> {
+            BadgeUnitOfWork unitOfWork = detections.remove(badgeDetectionEnded.getGameId());
+            if (unitOfWork != null) {
+                unitOfWork.commit();
+            }
+            return emptyList();
+        }, executor);
+    }
+
+    CompletableFuture<List<BadgeEarned>> evaluate(GameFinished gameFinished) {
+        List<BadgeValidator> accepted = validators.stream().filter(v -> v.accepts(gameFinished)).collect(toList());
+        List<String> names = gameFinished.getRanking().stream().map(PlayingStats::getPlayer).map(Player::getName).collect(toList());
+
+        return CompletableFuture
+            .supplyAsync(() -> BadgeUnitOfWork.load(badgeRepository.badgeOps(gameFinished.getGame().getTempo()), badges, names), executor)
+            .thenCompose(unitOfWork -> {
+                List<CompletableFuture<List<BadgeEarned>>> jobs = accepted.stream()
+                    .map(v -> CompletableFuture.supplyAsync(() -> {
+                        List<BadgeEarned> earned = new ArrayList<>();
+                        v.process(gameFinished, t -> unitOfWork, earned::add);
+                        return earned;
+                    }, executor))
+                    .collect(toList());
+
+                return CompletableFuture.allOf(jobs.toArray(new CompletableFuture[jobs.size()])).thenApply(x -> {
+                    unitOfWork.commit();
+                    return jobs.stream().flatMap(j -> j.join().stream()).collect(toList());
+                });
+            });
+    }
+
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tenorite.badges.actors;
+
+import akka.actor.*;
+import net.tenorite.game.GameModeId;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import static java.lang.Math.max;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Latency of the badges awarded per game mode, from the end of a game until its badges are published.
+ *
+ * @author Johan Siebens
+ */
+public final class BadgeMetrics implements Extension {
+
+    public static final ExtensionId<BadgeMetrics> ID = new AbstractExtensionId<BadgeMetrics>() {
+
+        @Override
+        public BadgeMetrics createExtension(ExtendedActorSystem system) {
+            return new BadgeMetrics();
+        }
+
+    };
+
+    public static BadgeMetrics get(ActorSystem system) {
+        return ID.get(system);
+    }
+
+    private final Map<GameModeId, Latency> latencies = new ConcurrentSkipListMap<>();
+
+    void record(GameModeId gameModeId, long latency, long evaluationTime) {
+        latencies.computeIfAbsent(gameModeId, Latency::new).record(latency, evaluationTime);
+    }
+
+    public List<BadgeStats> snapshot() {
+        return latencies.values().stream().map(Latency::stats).collect(toList());
+    }
+
+    private static final class Latency {
+
+        private final GameModeId gameModeId;
+
+        private long nrOfGames;
+
+        private long last;
+
+        private long max;
+
+        private long total;
+
+        private long totalEvaluationTime;
+
+        Latency(GameModeId gameModeId) {
+            this.gameModeId = gameModeId;
+        }
+
+        synchronized void record(long latency, long evaluationTime) {
+            nrOfGames++;
+            last = latency;
+            max = max(max, latency);
+            total += latency;
+            totalEvaluationTime += evaluationTime;
+        }
+
+        synchronized BadgeStats stats() {
+            return BadgeStats.of(gameModeId, nrOfGames, last, max, nrOfGames == 0 ? 0 : total / nrOfGames, nrOfGames == 0 ? 0 : totalEvaluationTime / nrOfGames);
+        }
+
+    }
+
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tenorite.badges.actors;
+
+import net.tenorite.game.GameModeId;
+import net.tenorite.util.ImmutableStyle;
+import org.immutables.value.Value;
+
+/**
+ * @author Johan Siebens
+ */
+@Value.Immutable
+@ImmutableStyle
+public abstract class BadgeStats {
+
+    public static BadgeStats of(GameModeId gameModeId, long nrOfGames, long lastLatency, long maxLatency, long averageLatency, long averageEvaluationTime) {
+        return new BadgeStatsBuilder().gameModeId(gameModeId).nrOfGames(nrOfGames).lastLatency(lastLatency).maxLatency(maxLatency).averageLatency(averageLatency).averageEvaluationTime(averageEvaluationTime).build();
+    }
+
+    public abstract GameModeId getGameModeId();
+
+    public abstract long getNrOfGames();
+
+    /**
+     * @return the time in milliseconds between the end of the last game and the publication of its badges
+     */
+    public abstract long getLastLatency();
+
+    public abstract long getMaxLatency();
+
+    public abstract long getAverageLatency();
+
+    /**
+     * @return the average time in milliseconds spent loading, validating and committing the badges of a game
+     */
+    public abstract long getAverageEvaluationTime();
+
+}
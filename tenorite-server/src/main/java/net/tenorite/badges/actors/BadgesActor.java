@@ -15,37 +15,62 @@
  */
 package net.tenorite.badges.actors;
 
+import akka.actor.ActorRef;
 import akka.actor.Props;
+import akka.event.Logging;
+import akka.event.LoggingAdapter;
 import net.tenorite.badges.BadgeRepository;
-import net.tenorite.badges.BadgeValidator;
+import net.tenorite.badges.events.BadgeDetected;
+import net.tenorite.badges.events.BadgeDetectionEnded;
+import net.tenorite.badges.events.BadgeEarned;
+import net.tenorite.core.Tempo;
+import net.tenorite.game.Game;
+import net.tenorite.game.GameBuilder;
+import net.tenorite.game.GameMessage;
+import net.tenorite.game.GameMode;
 import net.tenorite.game.GameModes;
+import net.tenorite.game.GameRepository;
 import net.tenorite.game.events.GameFinished;
+import net.tenorite.game.events.GameStreamStored;
 import net.tenorite.util.AbstractActor;
 
-import java.util.stream.StreamSupport;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+
+import static akka.actor.ActorRef.noSender;
+import static java.util.stream.Collectors.toList;
 
 /**
  * @author Johan Siebens
  */
 public final class BadgesActor extends AbstractActor {
 
-    public static Props props(GameModes gameModes, BadgeRepository badgeRepository) {
-        return Props.create(BadgesActor.class, gameModes, badgeRepository);
+    public static Props props(GameModes gameModes, BadgeRepository badgeRepository, GameRepository gameRepository) {
+        return Props.create(BadgesActor.class, gameModes, badgeRepository, gameRepository);
     }
 
     private final BadgeRepository badgeRepository;
 
+    private final GameRepository gameRepository;
+
     private final GameModes gameModes;
 
-    public BadgesActor(GameModes gameModes, BadgeRepository badgeRepository) {
+    public BadgesActor(GameModes gameModes, BadgeRepository badgeRepository, GameRepository gameRepository) {
         this.badgeRepository = badgeRepository;
+        this.gameRepository = gameRepository;
         this.gameModes = gameModes;
     }
 
     @Override
     public void preStart() throws Exception {
         super.preStart();
-        StreamSupport.stream(gameModes.spliterator(), false).flatMap(g -> g.getBadgeValidators().stream()).forEach(b -> context().actorOf(badge(b)));
+        gameModes.forEach(g -> {
+            if (!g.getBadgeValidators().isEmpty()) {
+                context().actorOf(badges(g));
+            }
+        });
     }
 
     @Override
@@ -53,34 +78,147 @@ public final class BadgesActor extends AbstractActor {
 
     }
 
-    private Props badge(BadgeValidator validator) {
-        return Props.create(BadgeActor.class, validator, badgeRepository).withDispatcher("badges-dispatcher");
+    private Props badges(GameMode gameMode) {
+        return Props.create(BadgeActor.class, gameMode, badgeRepository, gameRepository).withDispatcher("badges-dispatcher");
     }
 
     private static class BadgeActor extends AbstractActor {
 
-        private final BadgeValidator validator;
+        private final LoggingAdapter log = Logging.getLogger(getContext().system(), this);
+
+        private final GameMode gameMode;
+
+        private final BadgeEvaluation evaluation;
 
-        private final BadgeRepository badgeRepository;
+        private final GameRepository gameRepository;
 
-        public BadgeActor(BadgeValidator validator, BadgeRepository badgeRepository) {
-            this.validator = validator;
-            this.badgeRepository = badgeRepository;
+        private final Queue<Object> pending = new ArrayDeque<>();
+
+        private boolean evaluating;
+
+        public BadgeActor(GameMode gameMode, BadgeRepository badgeRepository, GameRepository gameRepository) {
+            boolean inGameDetection = context().system().settings().config().getBoolean("tenorite.badges.in-game-detection");
+
+            this.gameMode = gameMode;
+            this.evaluation = new BadgeEvaluation(gameMode.getBadgeValidators(), badgeRepository, inGameDetection, context().dispatcher());
+            this.gameRepository = gameRepository;
         }
 
         @Override
         public void preStart() throws Exception {
             super.preStart();
-            subscribe(GameFinished.class);
+            for (Tempo tempo : Tempo.values()) {
+                subscribe(GameFinished.class, tempo, gameMode.getId());
+                subscribe(GameStreamStored.class, tempo, gameMode.getId());
+                subscribe(BadgeDetected.class, tempo, gameMode.getId());
+                subscribe(BadgeDetectionEnded.class, tempo, gameMode.getId());
+            }
         }
 
         @Override
         public void onReceive(Object message) throws Exception {
-            if (message instanceof GameFinished) {
-                validator.process((GameFinished) message, badgeRepository, this::publish);
+            if (message instanceof GameFinished && evaluation.accepts((GameFinished) message)) {
+                pending.add(message);
+                evaluateNext();
+            }
+            else if (message instanceof GameStreamStored && evaluation.accepts(GameFinished.of(((GameStreamStored) message).getGame(), ((GameStreamStored) message).getRanking()))) {
+                pending.add(message);
+                evaluateNext();
+            }
+            else if (message instanceof BadgeDetected && evaluation.accepts((BadgeDetected) message)) {
+                pending.add(message);
+                evaluateNext();
+            }
+            else if (message instanceof BadgeDetectionEnded && evaluation.accepts((BadgeDetectionEnded) message)) {
+                pending.add(message);
+                evaluateNext();
+            }
+            else if (message instanceof Evaluated) {
+                Evaluated evaluated = (Evaluated) message;
+
+                evaluating = false;
+
+                if (evaluated.failure != null) {
+                    log.error(evaluated.failure, "unable to evaluate badges of game {}", evaluated.gameId);
+                }
+                else {
+                    evaluated.earned.forEach(e -> publish(evaluated.tempo, gameMode.getId(), e));
+
+                    if (evaluated.occurred != 0) {
+                        long now = System.currentTimeMillis();
+                        BadgeMetrics.get(context().system()).record(gameMode.getId(), now - evaluated.occurred, now - evaluated.started);
+                    }
+                }
+
+                evaluateNext();
             }
         }
 
+        // games and detections are evaluated one at a time, so their units of work never overlap
+        private void evaluateNext() {
+            if (!evaluating && !pending.isEmpty()) {
+                Object next = pending.poll();
+                ActorRef self = self();
+                long started = System.currentTimeMillis();
+
+                evaluating = true;
+
+                if (next instanceof GameFinished) {
+                    Game game = ((GameFinished) next).getGame();
+                    long occurred = game.getTimestamp() + game.getDuration();
+                    evaluation.evaluate((GameFinished) next).whenComplete((earned, failure) -> self.tell(new Evaluated(game.getTempo(), game.getId(), earned, failure, occurred, started), noSender()));
+                }
+                else if (next instanceof GameStreamStored) {
+                    GameStreamStored stored = (GameStreamStored) next;
+                    Game game = stored.getGame();
+                    long occurred = game.getTimestamp() + game.getDuration();
+                    CompletableFuture
+                        .supplyAsync(() -> GameFinished.of(loadMessages(game), stored.getRanking()), context().dispatcher())
+                        .thenCompose(evaluation::evaluate)
+                        .whenComplete((earned, failure) -> self.tell(new Evaluated(game.getTempo(), game.getId(), earned, failure, occurred, started), noSender()));
+                }
+                else if (next instanceof BadgeDetected) {
+                    BadgeDetected detected = (BadgeDetected) next;
+                    evaluation.evaluate(detected).whenComplete((earned, failure) -> self.tell(new Evaluated(detected.getTempo(), detected.getGameId(), earned, failure, detected.getTimestamp(), started), noSender()));
+                }
+                else {
+                    BadgeDetectionEnded ended = (BadgeDetectionEnded) next;
+                    evaluation.evaluate(ended).whenComplete((earned, failure) -> self.tell(new Evaluated(ended.getTempo(), ended.getGameId(), earned, failure, 0, started), noSender()));
+                }
+            }
+        }
+
+        // only the badge analysis needs the messages of a streamed game, they are read back from its chunks
+        private Game loadMessages(Game game) {
+            List<GameMessage> messages = gameRepository.gameOps(game.getTempo()).loadChunks(game.getId()).stream().flatMap(c -> c.getMessages().stream()).collect(toList());
+            return new GameBuilder().from(game).messages(messages).build();
+        }
+
+    }
+
+    private static final class Evaluated {
+
+        private final Tempo tempo;
+
+        private final String gameId;
+
+        private final List<BadgeEarned> earned;
+
+        private final Throwable failure;
+
+        private final long occurred;
+
+        private final long started;
+
+        Evaluated(Tempo tempo, String gameId, List<BadgeEarned> earned, Throwable failure, long occurred, long started) {
+            this.tempo = tempo;
+            this.gameId = gameId;
+            this.earned = earned;
+            this.failure = failure;
+            this.occurred = occurred;
+            this.started = started;
+        }
+
     }
 
 }
@@ -17,14 +17,21 @@ package net.tenorite.badges.config;
 
 import akka.actor.ActorRef;
 import akka.actor.ActorSystem;
+import com.typesafe.config.Config;
 import net.tenorite.badges.BadgeRepository;
 import net.tenorite.badges.actors.BadgesActor;
 import net.tenorite.badges.repository.MongoBadgeRepository;
+import net.tenorite.badges.repository.WriteBehindBadgeRepository;
 import net.tenorite.game.GameModes;
+import net.tenorite.game.GameRepository;
+import org.apache.commons.logging.LogFactory;
 import org.jongo.Jongo;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import scala.concurrent.duration.FiniteDuration;
+
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author Johan Siebens
@@ -41,14 +48,34 @@ public class BadgesConfig {
     @Autowired
     private GameModes gameModes;
 
-    @Bean
+    @Autowired
+    private GameRepository gameRepository;
+
+    @Bean(destroyMethod = "close")
     public BadgeRepository badgeRepository() {
-        return new MongoBadgeRepository(jongo);
+        Config config = system.settings().config();
+
+        WriteBehindBadgeRepository badgeRepository = new WriteBehindBadgeRepository(new MongoBadgeRepository(jongo), config.getInt("tenorite.badges.progress-cache-size"));
+
+        FiniteDuration interval = FiniteDuration.create(config.getDuration("tenorite.badges.progress-flush-interval", TimeUnit.MILLISECONDS), TimeUnit.MILLISECONDS);
+        system.scheduler().schedule(interval, interval, () -> flush(badgeRepository), system.dispatcher());
+
+        return badgeRepository;
+    }
+
+    private static void flush(WriteBehindBadgeRepository badgeRepository) {
+        // an exception would cancel the scheduled flush; the changes stay dirty and are retried on the next run
+        try {
+            badgeRepository.flush();
+        }
+        catch (RuntimeException e) {
+            LogFactory.getLog(WriteBehindBadgeRepository.class).error("unable to flush badge progress", e);
+        }
     }
 
     @Bean
     public ActorRef badgesActor() {
-        return system.actorOf(BadgesActor.props(gameModes, badgeRepository()), "badges");
+        return system.actorOf(BadgesActor.props(gameModes, badgeRepository(), gameRepository), "badges");
     }
 
 }
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tenorite.badges.repository;
+
+import net.tenorite.badges.BackfillCheckpoint;
+import net.tenorite.badges.BackfillCheckpointRepository;
+import org.jongo.Jongo;
+import org.jongo.MongoCollection;
+
+import java.util.Optional;
+
+/**
+ * @author Johan Siebens
+ */
+public class MongoBackfillCheckpointRepository implements BackfillCheckpointRepository {
+
+    private final MongoCollection collection;
+
+    public MongoBackfillCheckpointRepository(Jongo jongo) {
+        this.collection = checkpointCollection(jongo);
+    }
+
+    @Override
+    public Optional<BackfillCheckpoint> loadCheckpoint(String jobId) {
+        return Optional.ofNullable(collection.findOne("{_id:#}", jobId).as(BackfillCheckpoint.class));
+    }
+
+    @Override
+    public void saveCheckpoint(BackfillCheckpoint checkpoint) {
+        collection.save(checkpoint);
+    }
+
+    @Override
+    public void deleteCheckpoint(String jobId) {
+        collection.remove("{_id:#}", jobId);
+    }
+
+    static MongoCollection checkpointCollection(Jongo jongo) {
+        return jongo.getCollection("badges:backfill");
+    }
+
+}
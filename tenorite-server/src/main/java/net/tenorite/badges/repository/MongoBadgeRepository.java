@@ -15,8 +15,11 @@
  */
 package net.tenorite.badges.repository;
 
+import com.mongodb.BulkWriteOperation;
+import com.mongodb.DBObject;
 import net.tenorite.badges.Badge;
 import net.tenorite.badges.BadgeLevel;
+import net.tenorite.badges.BadgeProgress;
 import net.tenorite.badges.BadgeRepository;
 import net.tenorite.core.Tempo;
 import net.tenorite.game.GameModeId;
@@ -24,10 +27,7 @@ import org.jongo.Jongo;
 import org.jongo.MongoCollection;
 import org.jongo.MongoCursor;
 
-import java.util.EnumMap;
-import java.util.List;
-import java.util.Map;
-import java.util.Optional;
+import java.util.*;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -109,6 +109,55 @@ public class MongoBadgeRepository implements BadgeRepository {
             }
         }
 
+        @Override
+        public Map<String, Map<Badge, BadgeLevel>> badgeLevels(Collection<Badge> types, Collection<String> names) {
+            Map<String, Map<Badge, BadgeLevel>> result = new HashMap<>();
+            badges
+                .find("{badge:{$in:#}, name:{$in:#}}", types, names)
+                .as(BadgeLevel.class)
+                .forEach(l -> result.computeIfAbsent(l.getName(), k -> new HashMap<>()).put(l.getBadge(), l));
+            return result;
+        }
+
+        @Override
+        public Map<String, Map<Badge, Long>> getProgress(Collection<Badge> types, Collection<String> names) {
+            Map<String, Map<Badge, Long>> result = new HashMap<>();
+            data
+                .find("{badge:{$in:#}, name:{$in:#}}", types, names)
+                .as(Progress.class)
+                .forEach(p -> result.computeIfAbsent(p.name, k -> new HashMap<>()).put(p.badge, p.value));
+            return result;
+        }
+
+        @Override
+        public void saveAll(Collection<BadgeLevel> badgeLevels, Collection<BadgeProgress> progress) {
+            if (!badgeLevels.isEmpty()) {
+                BulkWriteOperation bulk = badges.getDBCollection().initializeUnorderedBulkOperation();
+                badgeLevels.forEach(l -> bulk.find(query("{badge:#, name:#}", l.getBadge(), l.getName())).upsert().update(query("{$set: #}", l)));
+                bulk.execute();
+            }
+
+            if (!progress.isEmpty()) {
+                BulkWriteOperation bulk = data.getDBCollection().initializeUnorderedBulkOperation();
+                progress.forEach(p -> {
+                    DBObject query = query("{badge:#, name:#}", p.getBadge(), p.getName());
+                    if (p.getValue() == 0) {
+                        bulk.find(query).remove();
+                    }
+                    else {
+                        bulk.find(query).upsert().update(query("{$set: {value:#}}", p.getValue()));
+                    }
+                });
+                bulk.execute();
+            }
+        }
+
+        @Override
+        public void removeAll(Collection<Badge> types) {
+            badges.remove("{badge:{$in:#}}", types);
+            data.remove("{badge:{$in:#}}", types);
+        }
+
         @Override
         public Map<Badge, BadgeLevel> badgeLevels(GameModeId gameModeId, String name) {
             MongoCursor<BadgeLevel> cursor = badges.find("{badge.gameModeId:#, name:#}", gameModeId, name).as(BadgeLevel.class);
@@ -123,6 +172,32 @@ public class MongoBadgeRepository implements BadgeRepository {
 
     }
 
+    private DBObject query(String query, Object... parameters) {
+        return jongo.getMapper().getQueryFactory().createQuery(query, parameters).toDBObject();
+    }
+
+    private static class Progress {
+
+        Badge badge;
+
+        String name;
+
+        long value;
+
+        public void setBadge(Badge badge) {
+            this.badge = badge;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public void setValue(long value) {
+            this.value = value;
+        }
+
+    }
+
     private static class Value {
 
         int value;
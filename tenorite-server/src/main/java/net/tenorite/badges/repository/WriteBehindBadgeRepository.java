@@ -0,0 +1,368 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tenorite.badges.repository;
+
+import net.tenorite.badges.Badge;
+import net.tenorite.badges.BadgeLevel;
+import net.tenorite.badges.BadgeProgress;
+import net.tenorite.badges.BadgeRepository;
+import net.tenorite.core.Tempo;
+import net.tenorite.game.GameModeId;
+
+import java.util.*;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static java.util.stream.Collectors.toSet;
+
+/**
+ * Keeps the badge progress in memory and writes changed values to the underlying repository on {@link #flush()},
+ * so consecutive changes of the same progress result in a single write.
+ * <p>
+ * Levels are written immediately, together with the changed progress of their players, so storage never holds a new
+ * level next to the progress that earned it.
+ * <p>
+ * At most {@code maxSize} values are kept per tempo; the least recently used values that are already written are
+ * evicted first. After {@link #close()} all changes are written through immediately.
+ *
+ * @author Johan Siebens
+ */
+public final class WriteBehindBadgeRepository implements BadgeRepository, AutoCloseable {
+
+    private final Map<Tempo, WriteBehindBadgeOps> badgeOps = new EnumMap<>(Tempo.class);
+
+    private final int maxSize;
+
+    private volatile boolean closed;
+
+    public WriteBehindBadgeRepository(BadgeRepository badgeRepository, int maxSize) {
+        this.maxSize = maxSize;
+        for (Tempo tempo : Tempo.values()) {
+            badgeOps.put(tempo, new WriteBehindBadgeOps(badgeRepository.badgeOps(tempo)));
+        }
+    }
+
+    @Override
+    public BadgeOps badgeOps(Tempo tempo) {
+        return badgeOps.get(tempo);
+    }
+
+    public void flush() {
+        badgeOps.values().forEach(WriteBehindBadgeOps::flush);
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        flush();
+    }
+
+    int size(Tempo tempo) {
+        return badgeOps.get(tempo).entries.size();
+    }
+
+    int nrOfChanges(Tempo tempo) {
+        return badgeOps.get(tempo).changes;
+    }
+
+    private final class WriteBehindBadgeOps implements BadgeOps {
+
+        private final BadgeOps badgeOps;
+
+        private final LinkedHashMap<List<Object>, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+        private final Object writeLock = new Object();
+
+        private final Set<List<Object>> writeThrough = new HashSet<>();
+
+        private int changes;
+
+        WriteBehindBadgeOps(BadgeOps badgeOps) {
+            this.badgeOps = badgeOps;
+        }
+
+        @Override
+        public Optional<BadgeLevel> getBadgeLevel(String name, Badge badge) {
+            return badgeOps.getBadgeLevel(name, badge);
+        }
+
+        @Override
+        public void saveBadgeLevel(BadgeLevel badgeLevel) {
+            saveWithProgress(singletonList(badgeLevel), emptyList());
+            synchronized (this) {
+                // the progress update following a single level is not held back either
+                writeThrough.add(key(badgeLevel.getBadge(), badgeLevel.getName()));
+            }
+        }
+
+        @Override
+        public Map<Badge, BadgeLevel> badgeLevels(GameModeId gameModeId, String name) {
+            return badgeOps.badgeLevels(gameModeId, name);
+        }
+
+        @Override
+        public List<BadgeLevel> badgeLevels(Badge badge) {
+            return badgeOps.badgeLevels(badge);
+        }
+
+        @Override
+        public Map<String, Map<Badge, BadgeLevel>> badgeLevels(Collection<Badge> badges, Collection<String> names) {
+            return badgeOps.badgeLevels(badges, names);
+        }
+
+        @Override
+        public long getProgress(Badge badge, String name) {
+            List<Object> key = key(badge, name);
+            synchronized (this) {
+                Entry entry = entries.get(key);
+                if (entry != null) {
+                    return entry.value;
+                }
+            }
+
+            long value = badgeOps.getProgress(badge, name);
+
+            synchronized (this) {
+                // an update while reading wins over the value read
+                Entry entry = entries.computeIfAbsent(key, k -> new Entry(badge, name, value));
+                evict();
+                return entry.value;
+            }
+        }
+
+        @Override
+        public long updateProgress(Badge badge, String name, long value) {
+            boolean writeThrough;
+            boolean flush;
+            synchronized (this) {
+                writeThrough = this.writeThrough.remove(key(badge, name)) || closed;
+                if (!writeThrough) {
+                    Entry entry = entries.computeIfAbsent(key(badge, name), k -> new Entry(badge, name, value));
+                    entry.value = value;
+                    if (!entry.dirty) {
+                        entry.dirty = true;
+                        changes++;
+                    }
+                    flush = changes > maxSize;
+                    evict();
+                }
+                else {
+                    entries.remove(key(badge, name));
+                    flush = false;
+                }
+            }
+
+            if (writeThrough) {
+                synchronized (writeLock) {
+                    return badgeOps.updateProgress(badge, name, value);
+                }
+            }
+            if (flush) {
+                flush();
+            }
+            return value;
+        }
+
+        @Override
+        public Map<String, Map<Badge, Long>> getProgress(Collection<Badge> badges, Collection<String> names) {
+            Set<Badge> missingBadges = new HashSet<>();
+            Set<String> missingNames = new HashSet<>();
+            synchronized (this) {
+                for (Badge badge : badges) {
+                    for (String name : names) {
+                        if (!entries.containsKey(key(badge, name))) {
+                            missingBadges.add(badge);
+                            missingNames.add(name);
+                        }
+                    }
+                }
+            }
+
+            Map<String, Map<Badge, Long>> loaded = missingBadges.isEmpty() ? Collections.emptyMap() : badgeOps.getProgress(missingBadges, missingNames);
+
+            Map<String, Map<Badge, Long>> result = new HashMap<>();
+            synchronized (this) {
+                for (Badge badge : badges) {
+                    for (String name : names) {
+                        Entry entry = entries.computeIfAbsent(key(badge, name), k -> new Entry(badge, name, loaded.getOrDefault(name, Collections.emptyMap()).getOrDefault(badge, 0L)));
+                        if (entry.value != 0) {
+                            result.computeIfAbsent(name, k -> new HashMap<>()).put(badge, entry.value);
+                        }
+                    }
+                }
+                evict();
+            }
+            return result;
+        }
+
+        @Override
+        public void saveAll(Collection<BadgeLevel> badgeLevels, Collection<BadgeProgress> progress) {
+            if (badgeLevels.isEmpty()) {
+                progress.forEach(p -> updateProgress(p.getBadge(), p.getName(), p.getValue()));
+            }
+            else {
+                saveWithProgress(badgeLevels, progress);
+            }
+        }
+
+        @Override
+        public void removeAll(Collection<Badge> badges) {
+            synchronized (writeLock) {
+                synchronized (this) {
+                    Iterator<Entry> iterator = entries.values().iterator();
+                    while (iterator.hasNext()) {
+                        Entry entry = iterator.next();
+                        if (badges.contains(entry.badge)) {
+                            if (entry.dirty) {
+                                changes--;
+                            }
+                            iterator.remove();
+                        }
+                    }
+                    writeThrough.removeIf(k -> badges.contains(k.get(0)));
+                }
+                badgeOps.removeAll(badges);
+            }
+        }
+
+        void flush() {
+            // flushes and removals are written one at a time, so a removal is never overwritten by a pending flush
+            synchronized (writeLock) {
+                Map<Entry, Long> flushing = new LinkedHashMap<>();
+                synchronized (this) {
+                    if (changes == 0) {
+                        return;
+                    }
+                    entries.values().stream().filter(e -> e.dirty).forEach(e -> {
+                        flushing.put(e, e.value);
+                        e.dirty = false;
+                        e.flushing++;
+                    });
+                    changes = 0;
+                }
+
+                List<BadgeProgress> progress = new ArrayList<>(flushing.size());
+                flushing.forEach((e, value) -> progress.add(BadgeProgress.of(e.badge, e.name, value)));
+
+                boolean written = false;
+                try {
+                    badgeOps.saveAll(emptyList(), progress);
+                    written = true;
+                }
+                finally {
+                    synchronized (this) {
+                        release(flushing, written);
+                        evict();
+                    }
+                }
+            }
+        }
+
+        /**
+         * Writes the given levels and progress in a single call, together with the changed progress of the players of
+         * the levels. The given progress is only cached once it is written.
+         */
+        private void saveWithProgress(Collection<BadgeLevel> badgeLevels, Collection<BadgeProgress> progress) {
+            synchronized (writeLock) {
+                Set<String> names = badgeLevels.stream().map(BadgeLevel::getName).collect(toSet());
+                Set<List<Object>> keys = progress.stream().map(p -> key(p.getBadge(), p.getName())).collect(toSet());
+
+                Map<Entry, Long> flushing = new LinkedHashMap<>();
+                List<BadgeProgress> values = new ArrayList<>(progress);
+                synchronized (this) {
+                    entries.values().stream().filter(e -> e.dirty && (names.contains(e.name) || keys.contains(key(e.badge, e.name)))).forEach(e -> {
+                        flushing.put(e, e.value);
+                        e.dirty = false;
+                        e.flushing++;
+                        changes--;
+                        if (!keys.contains(key(e.badge, e.name))) {
+                            values.add(BadgeProgress.of(e.badge, e.name, e.value));
+                        }
+                    });
+                }
+
+                boolean written = false;
+                try {
+                    badgeOps.saveAll(badgeLevels, values);
+                    written = true;
+                }
+                finally {
+                    synchronized (this) {
+                        release(flushing, written);
+                        if (written) {
+                            for (BadgeProgress p : progress) {
+                                Entry entry = entries.computeIfAbsent(key(p.getBadge(), p.getName()), k -> new Entry(p.getBadge(), p.getName(), p.getValue()));
+                                // a value changed while writing is newer than the written one
+                                if (!entry.dirty) {
+                                    entry.value = p.getValue();
+                                }
+                            }
+                        }
+                        evict();
+                    }
+                }
+            }
+        }
+
+        private void release(Map<Entry, Long> flushing, boolean written) {
+            for (Entry entry : flushing.keySet()) {
+                entry.flushing--;
+                // values stay dirty when the write fails, so they are retried on the next flush
+                if (!written && !entry.dirty && entries.get(key(entry.badge, entry.name)) == entry) {
+                    entry.dirty = true;
+                    changes++;
+                }
+            }
+        }
+
+        private void evict() {
+            // entries being flushed are kept, so a concurrent read does not load a value that is still being written
+            Iterator<Entry> iterator = entries.values().iterator();
+            while (entries.size() > maxSize && iterator.hasNext()) {
+                Entry entry = iterator.next();
+                if (!entry.dirty && entry.flushing == 0) {
+                    iterator.remove();
+                }
+            }
+        }
+
+    }
+
+    private static List<Object> key(Badge badge, String name) {
+        return Arrays.asList(badge, name);
+    }
+
+    private static final class Entry {
+
+        private final Badge badge;
+
+        private final String name;
+
+        private long value;
+
+        private boolean dirty;
+
+        private int flushing;
+
+        Entry(Badge badge, String name, long value) {
+            this.badge = badge;
+            this.name = name;
+            this.value = value;
+        }
+
+    }
+
+}
@@ -30,10 +30,42 @@ public abstract class Channel {
         return new ChannelBuilder().gameModeId(gameModeId).name(name).nrOfPlayers(nrOfPlayers).build();
     }
 
+    public static Channel of(GameModeId gameModeId, String name, int nrOfPlayers, int nrOfFreeSlots, boolean gameRunning, int mailboxDepth) {
+        return new ChannelBuilder()
+            .gameModeId(gameModeId)
+            .name(name)
+            .nrOfPlayers(nrOfPlayers)
+            .nrOfFreeSlots(nrOfFreeSlots)
+            .gameRunning(gameRunning)
+            .mailboxDepth(mailboxDepth)
+            .build();
+    }
+
     public abstract GameModeId getGameModeId();
 
     public abstract String getName();
 
     public abstract int getNrOfPlayers();
 
+    /**
+     * @return the number of slots that are neither taken nor reserved by a joining player
+     */
+    @Value.Default
+    public int getNrOfFreeSlots() {
+        return 6 - getNrOfPlayers();
+    }
+
+    @Value.Default
+    public boolean isGameRunning() {
+        return false;
+    }
+
+    /**
+     * @return the number of messages waiting to be handled by the channel when it last reported its state
+     */
+    @Value.Default
+    public int getMailboxDepth() {
+        return 0;
+    }
+
 }
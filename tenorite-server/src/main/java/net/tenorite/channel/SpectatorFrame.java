@@ -0,0 +1,47 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tenorite.channel;
+
+import net.tenorite.protocol.Message;
+import net.tenorite.util.ImmutableStyle;
+import org.immutables.value.Value;
+
+/**
+ * A message sent to the spectators of a channel, serialized once for all of them.
+ *
+ * @author Johan Siebens
+ */
+@Value.Immutable
+@ImmutableStyle
+public abstract class SpectatorFrame {
+
+    public static SpectatorFrame of(Message message, String line, String json) {
+        return new SpectatorFrameBuilder().message(message).line(line).json(json).build();
+    }
+
+    public abstract Message getMessage();
+
+    /**
+     * @return the message as sent to TetriNET clients
+     */
+    public abstract String getLine();
+
+    /**
+     * @return the message as sent to the web spectators, including the time it was broadcast
+     */
+    public abstract String getJson();
+
+}
@@ -16,7 +16,14 @@
 package net.tenorite.channel.actors;
 
 import akka.actor.*;
+import akka.event.Logging;
+import akka.event.LoggingAdapter;
+import com.typesafe.config.Config;
+import net.tenorite.badges.Badge;
+import net.tenorite.badges.BadgeDetector;
 import net.tenorite.badges.BadgeLevel;
+import net.tenorite.badges.events.BadgeDetected;
+import net.tenorite.badges.events.BadgeDetectionEnded;
 import net.tenorite.badges.events.BadgeEarned;
 import net.tenorite.badges.protocol.BadgeEarnedPlineMessage;
 import net.tenorite.channel.Channel;
@@ -27,48 +34,58 @@ import net.tenorite.channel.events.SlotReservationFailed;
 import net.tenorite.channel.events.SlotReserved;
 import net.tenorite.core.Tempo;
 import net.tenorite.game.*;
+import net.tenorite.game.events.GameChunkRecorded;
+import net.tenorite.game.events.GameDiscarded;
 import net.tenorite.game.events.GameFinished;
+import net.tenorite.game.events.GameStreamed;
+import net.tenorite.net.EventLoopAffinity;
 import net.tenorite.protocol.*;
 import net.tenorite.util.AbstractActor;
 import net.tenorite.util.CommonsStopWatch;
+import net.tenorite.util.DomainEventBus;
 import net.tenorite.util.Scheduler;
 import net.tenorite.util.StopWatch;
 import net.tenorite.winlist.events.WinlistUpdated;
+import scala.concurrent.ExecutionContext;
+import scala.concurrent.Future;
 import scala.concurrent.duration.FiniteDuration;
 
-import java.text.DecimalFormat;
 import java.util.*;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
-import java.util.function.Predicate;
 
 import static akka.actor.ActorRef.noSender;
+import static akka.dispatch.Futures.future;
 import static java.lang.String.format;
+import static java.util.Optional.empty;
 import static java.util.Optional.of;
 import static java.util.Optional.ofNullable;
 import static java.util.stream.Collectors.toList;
-import static java.util.stream.IntStream.range;
 
 /**
  * @author Johan Siebens
  */
 final class ChannelActor extends AbstractActor {
 
-    private static final FiniteDuration CLOSE_TIMEOUT = FiniteDuration.apply(10, TimeUnit.MINUTES);
+    private static final String END_OF_GAME_DISPATCHER = "end-of-game-dispatcher";
 
-    static Props props(Tempo tempo, GameMode gameMode, String name, boolean ephemeral) {
-        return Props.create(ChannelActor.class, tempo, gameMode, name, ephemeral);
+    private static final String CHANNEL_MAILBOX = "channel-mailbox";
+
+    static Props props(Tempo tempo, GameMode gameMode, String name) {
+        return Props.create(ChannelActor.class, tempo, gameMode, name).withMailbox(CHANNEL_MAILBOX);
     }
 
-    private static final GameRankCalculator RANK_CALCULATOR = new GameRankCalculator();
+    private static final int SLOTS = 6;
+
+    private final Slot[] slots = new Slot[SLOTS];
 
-    private final Map<ActorRef, Slot> slots = new HashMap<>();
+    private final Map<ActorRef, Slot> slotsByActor = new HashMap<>();
 
     private final Map<ActorRef, Slot> pending = new HashMap<>();
 
-    private final Map<ActorRef, Spectator> spectators = new HashMap<>();
+    private final Set<ActorRef> spectators = new HashSet<>();
 
-    private final AvailableSlots availableSlots = new AvailableSlots();
+    private int freeSlots = (1 << SLOTS) - 1;
 
     private final Tempo tempo;
 
@@ -76,38 +93,73 @@ final class ChannelActor extends AbstractActor {
 
     private final String name;
 
-    private final boolean ephemeral;
-
     private final Scheduler scheduler;
 
+    private final GameChunkWriter chunkWriter;
+
+    private final int chunkSize;
+
+    private final long recordingLimit;
+
+    private final boolean inGameBadgeDetection;
+
+    private ActorRef spectatorHub;
+
     private GameRecorder gameRecorder;
 
-    private Cancellable scheduledClose;
+    private Cancellable scheduledPassivation;
+
+    private boolean passivating;
 
-    public ChannelActor(Tempo tempo, GameMode gameMode, String name, boolean ephemeral) {
+    private Cancellable scheduledLiveStats;
+
+    private final FiniteDuration liveStatsInterval;
+
+    private final FiniteDuration passivateAfter;
+
+    private final LoggingAdapter log = Logging.getLogger(getContext().system(), this);
+
+    public ChannelActor(Tempo tempo, GameMode gameMode, String name) {
         this.tempo = tempo;
         this.gameMode = gameMode;
         this.name = name;
-        this.ephemeral = ephemeral;
         this.scheduler = new AkkaScheduler(context().system());
+
+        Config config = context().system().settings().config();
+        this.chunkWriter = new PublishingChunkWriter();
+        this.chunkSize = config.getInt("tenorite.games.chunk-size");
+        this.recordingLimit = config.getBoolean("tenorite.games.streaming") ? 0 : config.getBytes("tenorite.games.max-recording-size");
+        this.inGameBadgeDetection = config.getBoolean("tenorite.badges.in-game-detection");
+        this.liveStatsInterval = FiniteDuration.create(config.getDuration("tenorite.games.live-stats-interval", TimeUnit.MILLISECONDS), TimeUnit.MILLISECONDS);
+        this.passivateAfter = FiniteDuration.create(config.getDuration("tenorite.channels.passivate-after", TimeUnit.MILLISECONDS), TimeUnit.MILLISECONDS);
     }
 
     @Override
     public void preStart() throws Exception {
-        subscribe(WinlistUpdated.class);
-        subscribe(BadgeEarned.class);
+        subscribe(WinlistUpdated.class, tempo, gameMode.getId());
+        subscribe(BadgeEarned.class, tempo, gameMode.getId());
+
+        spectatorHub = context().actorOf(SpectatorHub.props(tempo), "spectators");
+
+        announce();
+        schedulePassivationWhenIdle();
     }
 
     @Override
     public void postStop() throws Exception {
         ofNullable(gameRecorder).ifPresent(GameRecorder::stop);
+        RecordingMetrics.get(context().system()).remove(self().path().toString());
+        ofNullable(scheduledLiveStats).ifPresent(Cancellable::cancel);
+        ofNullable(scheduledPassivation).ifPresent(Cancellable::cancel);
 
         forEachSlot(s -> {
             s.send(PlineMessage.of("<red><b>WOOPS!</b> Something went wrong, please try again later</red>"));
             s.stop();
         });
 
-        forEachSpecator(Spectator::stop);
+        spectators.forEach(s -> s.tell(PoisonPill.getInstance(), noSender()));
+
+        EventLoopAffinity.get(context().system()).unbind(self().path());
     }
 
     @Override
@@ -136,50 +188,105 @@ final class ChannelActor extends AbstractActor {
         else if (o instanceof BadgeEarned) {
             handleBadgeEarned((BadgeEarned) o);
         }
+        else if (o instanceof GameSummary) {
+            handleGameSummary((GameSummary) o);
+        }
+        else if (o == Tick.LIVE_STATS) {
+            handleLiveStatsTick();
+        }
         else if (o instanceof ListChannels) {
-            replyWith(Channel.of(gameMode.getId(), name, slots.size()));
+            replyWith(channel());
+        }
+        else if (o == Tick.PASSIVATE) {
+            handlePassivateTick();
+        }
+        else if (o == Passivation.PASSIVATE) {
+            handlePassivate();
         }
 
-        if (ephemeral && slots.isEmpty() && pending.isEmpty()) {
-            if (scheduledClose == null) {
-                scheduledClose = getContext().system().scheduler().scheduleOnce(
-                    CLOSE_TIMEOUT,
-                    self(),
-                    PoisonPill.getInstance(),
-                    context().dispatcher(),
-                    noSender()
-                );
-            }
+        schedulePassivationWhenIdle();
+    }
+
+    private void schedulePassivationWhenIdle() {
+        if (!isIdle() && scheduledPassivation != null) {
+            scheduledPassivation.cancel();
+            scheduledPassivation = null;
+        }
+        else if (isIdle() && scheduledPassivation == null && !passivating) {
+            scheduledPassivation = getContext().system().scheduler().scheduleOnce(
+                passivateAfter,
+                self(),
+                Tick.PASSIVATE,
+                context().dispatcher(),
+                noSender()
+            );
+        }
+    }
+
+    private boolean isIdle() {
+        return slotsByActor.isEmpty() && pending.isEmpty() && spectators.isEmpty() && gameRecorder == null;
+    }
+
+    private void handlePassivateTick() {
+        scheduledPassivation = null;
+        if (isIdle()) {
+            passivating = true;
+            context().parent().tell(Passivation.PASSIVATE, self());
+        }
+    }
+
+    private void handlePassivate() {
+        passivating = false;
+        if (isIdle()) {
+            context().stop(self());
         }
         else {
-            if (scheduledClose != null) {
-                scheduledClose.cancel();
-                scheduledClose = null;
-            }
+            context().parent().tell(Passivation.STAY_ACTIVE, self());
         }
     }
 
+    private void followPlayers() {
+        EventLoopAffinity.get(context().system()).bindToMajority(self().path(), slotsByActor.keySet());
+    }
+
+    /**
+     * Pushes the current state of this channel to the channels actor, which keeps the listing of all channels.
+     */
+    private void announce() {
+        context().parent().tell(channel(), self());
+    }
+
+    private Channel channel() {
+        return Channel.of(gameMode.getId(), name, slotsByActor.size(), Integer.bitCount(freeSlots), gameRecorder != null, mailboxDepth());
+    }
+
+    private int mailboxDepth() {
+        return ((ActorCell) getContext()).mailbox().numberOfMessages();
+    }
+
     private void handleSpectate(Spectate o) {
         ActorRef sender = sender();
+        List<Message> snapshot = new ArrayList<>();
 
-        Spectator slot = new Spectator(sender);
-        spectators.put(sender, slot);
+        spectators.add(sender);
         context().watch(sender);
 
         // send current player list
         forEachSlot(p -> {
-            slot.send(PlayerJoinMessage.of(p.nr, p.name));
-            slot.send(TeamMessage.of(p.nr, ofNullable(p.team).orElse("")));
+            snapshot.add(PlayerJoinMessage.of(p.nr, p.name));
+            snapshot.add(TeamMessage.of(p.nr, ofNullable(p.team).orElse("")));
         });
 
         if (gameRecorder != null) {
-            slot.send(IngameMessage.of());
-            slot.send(gameRecorder.isPaused() ? GamePausedMessage.of() : GameRunningMessage.of());
+            snapshot.add(IngameMessage.of());
+            snapshot.add(gameRecorder.isPaused() ? GamePausedMessage.of() : GameRunningMessage.of());
             forEachSlot(p -> {
                 Field field = gameRecorder.getField(p.nr).orElseGet(Field::randomCompletedField);
-                slot.send(FieldMessage.of(p.nr, field.getFieldString()));
+                snapshot.add(FieldMessage.of(p.nr, field.getFieldString()));
             });
         }
+
+        spectatorHub.tell(SpectatorHub.join(sender, snapshot), noSender());
     }
 
     private void handleMessage(Message o) {
@@ -230,11 +337,13 @@ final class ChannelActor extends AbstractActor {
     private void handleReserveSlot(ReserveSlot o) {
         ActorRef sender = sender();
 
-        if (!pending.containsKey(sender) && !slots.containsKey(sender)) {
-            if (slots.size() + pending.size() < 6) {
-                int slot = availableSlots.nextSlot();
+        if (!pending.containsKey(sender) && !slotsByActor.containsKey(sender)) {
+            if (freeSlots != 0) {
+                int slot = Integer.numberOfTrailingZeros(freeSlots) + 1;
+                freeSlots &= ~(1 << (slot - 1));
                 pending.put(sender(), new Slot(slot, o.getName(), sender));
                 context().watch(sender);
+                announce();
                 sender.tell(SlotReserved.instance(), self());
             }
             else {
@@ -252,8 +361,8 @@ final class ChannelActor extends AbstractActor {
             slot.send(PlayerNumMessage.of(slot.nr));
 
             // announce new player
-            forEachSlot(p -> p.send(PlayerJoinMessage.of(slot.nr, slot.name)));
-            forEachSpecator(p -> p.send(PlayerJoinMessage.of(slot.nr, slot.name)));
+            sendToSlots(PlayerJoinMessage.of(slot.nr, slot.name));
+            spectate(PlayerJoinMessage.of(slot.nr, slot.name));
 
             // send current player list
             forEachSlot(p -> {
@@ -275,36 +384,49 @@ final class ChannelActor extends AbstractActor {
                 });
             }
 
-            publish(ChannelJoined.of(tempo, gameMode.getId(), name, slot.name));
+            publish(tempo, gameMode.getId(), ChannelJoined.of(tempo, gameMode.getId(), name, slot.name));
+
+            slots[slot.nr - 1] = slot;
+            slotsByActor.put(sender, slot);
 
-            slots.put(sender(), slot);
+            followPlayers();
+            announce();
         }
     }
 
     private void handleLeaveChannel(ActorRef actor, boolean disconnected) {
-        spectators.remove(actor);
-        ofNullable(pending.remove(actor)).ifPresent(p -> availableSlots.releaseSlot(p.nr));
+        if (spectators.remove(actor)) {
+            spectatorHub.tell(SpectatorHub.leave(actor), noSender());
+        }
+        ofNullable(pending.remove(actor)).ifPresent(p -> {
+            releaseSlot(p.nr);
+            announce();
+        });
 
-        ofNullable(slots.get(actor)).ifPresent(slot -> {
+        ofNullable(slotsByActor.get(actor)).ifPresent(slot -> {
             if (!disconnected) {
                 // clear player list
                 forEachSlot(p -> slot.send(PlayerLeaveMessage.of(p.nr)));
             }
 
             // release slot
-            availableSlots.releaseSlot(slot.nr);
+            releaseSlot(slot.nr);
 
-            slots.remove(actor);
+            slots[slot.nr - 1] = null;
+            slotsByActor.remove(actor);
+            followPlayers();
 
             // accounce leave in room
-            forEachSlot(p -> p.send(PlayerLeaveMessage.of(slot.nr)));
-            forEachSpecator(p -> p.send(PlayerLeaveMessage.of(slot.nr)));
+            sendToSlots(PlayerLeaveMessage.of(slot.nr));
+            spectate(PlayerLeaveMessage.of(slot.nr));
 
             if (gameRecorder != null) {
                 slot.send(EndGameMessage.of());
-                gameRecorder.onPlayerLeaveMessage(PlayerLeaveMessage.of(slot.nr)).ifPresent(e -> resetGameRecorder());
+                gameRecorder.onPlayerLeaveMessage(PlayerLeaveMessage.of(slot.nr)).ifPresent(this::discardGame);
             }
 
+            announce();
+
             // publish leave
             publish(ChannelLeft.of(tempo, name, slot.name));
 
@@ -317,7 +439,7 @@ final class ChannelActor extends AbstractActor {
 
     private void handleWinlistUpdated(WinlistUpdated winlistUpdated) {
         if (tempo.equals(winlistUpdated.getTempo()) && winlistUpdated.getGameModeId().equals(gameMode.getId())) {
-            forEachSlot(s -> s.send(WinlistMessage.of(winlistUpdated.getItems().stream().map(e -> e.getType().getLetter() + e.getName() + ";" + e.getScore()).collect(toList()))));
+            sendToSlots(WinlistMessage.of(winlistUpdated.getItems().stream().map(e -> e.getType().getLetter() + e.getName() + ";" + e.getScore()).collect(toList())));
         }
     }
 
@@ -326,25 +448,42 @@ final class ChannelActor extends AbstractActor {
         GameModeId gameModeId = level.getBadge().getGameModeId();
         if (tempo.equals(level.getTempo()) && gameMode.getId().equals(gameModeId) && findSlot(level.getName()).isPresent()) {
             BadgeEarnedPlineMessage message = BadgeEarnedPlineMessage.of(level.getName(), level.getBadge().getTitle(), level.getLevel(), badgeEarned.isUpgrade());
-            forEachSlot(s -> s.send(message));
+            sendToSlots(message);
         }
     }
 
     private void handlePline(PlineMessage pline) {
         findSlot(sender(), pline.getSender()).ifPresent(s ->
-            forEachSlot(p -> p.nr != s.nr, p -> p.send(pline))
+            sendToOtherSlots(s.nr, pline)
         );
     }
 
     private void handlePlineAct(PlineActMessage plineAct) {
         findSlot(sender(), plineAct.getSender()).ifPresent(s ->
-            forEachSlot(p -> p.nr != s.nr, p -> p.send(plineAct))
+            sendToOtherSlots(s.nr, plineAct)
         );
     }
 
     private void handleGmsg(GmsgMessage gmsg) {
         if (gameRecorder != null) {
-            forEachSlot(p -> p.send(gmsg));
+            Slot requester = slotsByActor.get(sender());
+            if (requester != null && LiveStats.isRequest(gmsg)) {
+                LiveStats.format(gameRecorder.getLiveStats()).forEach(requester::send);
+            }
+            else {
+                sendToSlots(gmsg);
+            }
+        }
+    }
+
+    private void handleLiveStatsTick() {
+        if (gameRecorder != null) {
+            RecordingMetrics.get(context().system()).record(self().path().toString(), gameRecorder.getRecordingSize());
+
+            if (!gameRecorder.isPaused() && !spectators.isEmpty()) {
+                List<Message> stats = LiveStats.format(gameRecorder.getLiveStats());
+                stats.forEach(this::spectate);
+            }
         }
     }
 
@@ -366,23 +505,38 @@ final class ChannelActor extends AbstractActor {
             if (gameRecorder == null) {
                 ActorRef self = self();
 
+                GameListener gameListener = gameMode.createGameListener(scheduler, m -> self.tell(m, noSender()));
+                if (inGameBadgeDetection) {
+                    gameListener = gameListener.and(BadgeDetector.of(gameMode.getBadgeValidators(), this::badgeDetected, this::badgeDetectionEnded));
+                }
+
                 gameRecorder = new GameRecorder(
                     tempo,
-                    gameMode.getId(),
-                    gameMode.getGameRules(),
-                    gameMode.createGameListener(scheduler, m -> self.tell(m, noSender()))
+                    gameMode,
+                    gameListener,
+                    chunkWriter,
+                    chunkSize,
+                    recordingLimit
                 );
 
                 GameRules rules = gameRecorder.start(currentPlayers());
+                announce();
+
+                scheduledLiveStats = context().system().scheduler().schedule(
+                    liveStatsInterval,
+                    liveStatsInterval,
+                    self(),
+                    Tick.LIVE_STATS,
+                    context().dispatcher(),
+                    noSender()
+                );
 
                 Message message = PlineMessage.of("<i>game started by <b>" + moderator.name + "</b></i>");
                 Message newgame = NewGameMessage.of(rules.toString());
 
-                forEachSlot(s -> {
-                    s.send(message);
-                    s.send(newgame);
-                });
-                forEachSpecator(s -> s.send(newgame));
+                sendToSlots(message);
+                sendToSlots(newgame);
+                spectate(newgame);
             }
             else {
                 moderator.send(PlineMessage.of("<red>game is already running!</red>"));
@@ -398,11 +552,9 @@ final class ChannelActor extends AbstractActor {
                 Message message = PlineMessage.of("<i>game stopped by <b>" + moderator.name + "</b></i>");
                 Message endgame = EndGameMessage.of();
 
-                forEachSlot(s -> {
-                    s.send(message);
-                    s.send(endgame);
-                });
-                forEachSpecator(s -> s.send(endgame));
+                sendToSlots(message);
+                sendToSlots(endgame);
+                spectate(endgame);
 
                 resetGameRecorder();
             }
@@ -418,11 +570,9 @@ final class ChannelActor extends AbstractActor {
                 Message message = PlineMessage.of("<i>game paused by <b>" + moderator.name + "</b></i>");
                 Message paused = GamePausedMessage.of();
 
-                forEachSlot(p -> {
-                    p.send(message);
-                    p.send(paused);
-                });
-                forEachSpecator(s -> s.send(paused));
+                sendToSlots(message);
+                sendToSlots(paused);
+                spectate(paused);
             }
             else {
                 moderator.send(PlineMessage.of("<red>no running game is available!</red>"));
@@ -436,11 +586,9 @@ final class ChannelActor extends AbstractActor {
                 Message message = PlineMessage.of("<i>game resumed by <b>" + moderator.name + "</b></i>");
                 Message running = GameRunningMessage.of();
 
-                forEachSlot(p -> {
-                    p.send(message);
-                    p.send(running);
-                });
-                forEachSpecator(s -> s.send(running));
+                sendToSlots(message);
+                sendToSlots(running);
+                spectate(running);
             }
             else {
                 moderator.send(PlineMessage.of("<red>no paused game is available!</red>"));
@@ -452,7 +600,7 @@ final class ChannelActor extends AbstractActor {
         findSlot(sender(), lvl.getSender()).ifPresent(player -> {
             if (gameRecorder != null) {
                 gameRecorder.onLvlMessage(lvl);
-                forEachSlot(op -> op.send(lvl));
+                sendToSlots(lvl);
             }
         });
     }
@@ -461,16 +609,16 @@ final class ChannelActor extends AbstractActor {
         if (field.isServerMessage()) {
             if (gameRecorder != null) {
                 gameRecorder.onFieldMessage(field);
-                forEachSlot(s -> s.send(field));
-                forEachSpecator(s -> s.send(field));
+                sendToSlots(field);
+                spectate(field);
             }
         }
         else {
             findSlot(sender(), field.getSender()).ifPresent(player -> {
                 if (gameRecorder != null) {
                     gameRecorder.onFieldMessage(field);
-                    forEachSlot(op -> op.nr != player.nr, op -> op.send(field));
-                    forEachSpecator(op -> op.send(FieldMessage.of(field.getSender(), gameRecorder.getField(field.getSender()).orElse(Field.empty()).getFieldString())));
+                    sendToOtherSlots(player.nr, field);
+                    spectate(FieldMessage.of(field.getSender(), gameRecorder.getField(field.getSender()).orElse(Field.empty()).getFieldString()));
                 }
             });
         }
@@ -480,16 +628,16 @@ final class ChannelActor extends AbstractActor {
         if (message.isServerMessage()) {
             if (gameRecorder != null) {
                 gameRecorder.onSpecialBlockMessage(message);
-                forEachSlot(op -> op.nr != message.getSender(), op -> op.send(message));
-                forEachSpecator(op -> op.send(message));
+                sendToOtherSlots(message.getSender(), message);
+                spectate(message);
             }
         }
         else {
             findSlot(sender(), message.getSender()).ifPresent(player -> {
                 if (gameRecorder != null) {
                     gameRecorder.onSpecialBlockMessage(message);
-                    forEachSlot(op -> op.nr != player.nr, op -> op.send(message));
-                    forEachSpecator(op -> op.send(message));
+                    sendToOtherSlots(player.nr, message);
+                    spectate(message);
                 }
             });
         }
@@ -498,15 +646,15 @@ final class ChannelActor extends AbstractActor {
     private void handleClassicStyleAddMessage(ClassicStyleAddMessage message) {
         if (message.getSender() == 0) {
             if (gameRecorder != null && gameRecorder.onClassicStyleAddMessage(message)) {
-                forEachSlot(op -> op.send(message));
-                forEachSpecator(op -> op.send(message));
+                sendToSlots(message);
+                spectate(message);
             }
         }
         else {
             findSlot(sender(), message.getSender()).ifPresent(player -> {
                 if (gameRecorder != null && gameRecorder.onClassicStyleAddMessage(message)) {
-                    forEachSlot(op -> op.nr != player.nr, op -> op.send(message));
-                    forEachSpecator(op -> op.send(message));
+                    sendToOtherSlots(player.nr, message);
+                    spectate(message);
                 }
             });
         }
@@ -515,8 +663,8 @@ final class ChannelActor extends AbstractActor {
     private void handlePlayerLostMessage(PlayerLostMessage message) {
         findSlot(sender(), message.getSender()).ifPresent(loser -> {
             if (gameRecorder != null) {
-                forEachSlot(s -> s.send(message));
-                forEachSpecator(s -> s.send(message));
+                sendToSlots(message);
+                spectate(message);
                 gameRecorder.onPlayerLostMessage(message).ifPresent(this::endGame);
             }
         });
@@ -527,105 +675,129 @@ final class ChannelActor extends AbstractActor {
     }
 
     private void endGame(Game game) {
-        forEachSlot(p -> p.send(EndGameMessage.of()));
-        forEachSpecator(p -> p.send(EndGameMessage.of()));
+        long start = System.nanoTime();
 
-        List<PlayingStats> ranking = RANK_CALCULATOR.calculate(gameMode, game);
+        sendToSlots(EndGameMessage.of());
+        spectate(EndGameMessage.of());
+
+        List<PlayingStats> ranking = gameRecorder.getRanking();
 
         if (!ranking.isEmpty()) {
-            displayStats(game, ranking);
-            publish(GameFinished.of(game, ranking));
+            ActorRef self = self();
+            DomainEventBus eventBus = DomainEventBus.get(context().system());
+            Object gameFinished = gameRecorder.isStreaming() ? GameStreamed.of(game, ranking) : GameFinished.of(game, ranking);
+            ExecutionContext ec = context().system().dispatchers().lookup(END_OF_GAME_DISPATCHER);
+
+            // the game is published from the summary itself, so it is not lost when the channel stops in the meantime
+            Future<GameSummary> summary = future(() -> GameSummary.of(game, ranking), ec);
+            summary.onSuccess(onSuccess(s -> {
+                self.tell(s, noSender());
+                eventBus.publish(tempo, gameMode.getId(), gameFinished, self);
+            }), ec);
+            summary.onFailure(onFailure(e -> {
+                log.error(e, "unable to summarize game {}", game.getId());
+                eventBus.publish(tempo, gameMode.getId(), gameFinished, self);
+            }), ec);
+        }
+        else if (gameRecorder.isStreaming()) {
+            chunkWriter.discard(game.getId());
         }
 
         if (ranking.size() > 1) {
-            forEachSlot(p -> p.send(PlayerWonMessage.of(ranking.get(0).getPlayer().getSlot())));
-            forEachSpecator(p -> p.send(PlayerWonMessage.of(ranking.get(0).getPlayer().getSlot())));
+            sendToSlots(PlayerWonMessage.of(ranking.get(0).getPlayer().getSlot()));
+            spectate(PlayerWonMessage.of(ranking.get(0).getPlayer().getSlot()));
         }
 
         resetGameRecorder();
-    }
 
-    private void resetGameRecorder() {
-        this.gameRecorder = null;
+        log.debug("channel {} unavailable for {} \u00b5s while ending game {}", name, (System.nanoTime() - start) / 1000, game.getId());
     }
 
-    private final DecimalFormat df = new DecimalFormat("0.00");
-
-    private void displayStats(Game game, List<PlayingStats> ranking) {
-        ranking.forEach(ps -> {
-            String bpm = df.format((double) ps.getNrOfBlocks() * 60000 / (double) ps.getPlayingTime());
-            String part1 = format("<purple><b>%s</b></purple>: <aqua>%d blocks @ %s bpm</aqua>", ps.getPlayer().getName(), ps.getNrOfBlocks(), bpm);
-            String part2 = format("<blue>%s/%s/%s specials</blue>", ps.getTotalNrOfSpecialsOnOpponent() + ps.getTotalNrOfSpecialsOnTeamPlayer(), ps.getTotalNrOfSpecialsReceived(), ps.getTotalNrOfSpecialsOnSelf());
-            String part3 = format("%s/%s/%s combos", ps.getNrOfTwoLineCombos(), ps.getNrOfThreeLineCombos(), ps.getNrOfFourLineCombos());
-            String part4 = format("lvl: %s, mxfh: %s", ps.getLevel(), ps.getMaxFieldHeight());
-
-            forEachSlot(s -> s.send(PlineMessage.of(part1 + "; " + part2 + "; " + part3 + "; " + part4)));
-        });
-
-        forEachSlot(s -> s.send(PlineMessage.of("<brown>Total game time: <black>" + df.format(game.getDuration() / 1000f) + "</black> seconds")));
+    private void badgeDetected(Badge badge, Player player) {
+        publish(tempo, gameMode.getId(), BadgeDetected.of(tempo, badge, player.getName(), System.currentTimeMillis(), gameRecorder.getId()));
     }
 
-    // =================================================================================================================
-
-    private void forEachSpecator(Consumer<Spectator> playerConsumer) {
-        spectators.values().forEach(playerConsumer);
+    private void badgeDetectionEnded() {
+        publish(tempo, gameMode.getId(), BadgeDetectionEnded.of(tempo, gameRecorder.getId()));
     }
 
-    private void forEachSlot(Consumer<Slot> playerConsumer) {
-        slots.values().forEach(playerConsumer);
+    private void handleGameSummary(GameSummary summary) {
+        summary.getStats().forEach(this::sendToSlots);
     }
 
-    private void forEachSlot(Predicate<Slot> predicate, Consumer<Slot> playerConsumer) {
-        slots.values().stream().filter(predicate).forEach(playerConsumer);
+    private void discardGame(Game game) {
+        if (gameRecorder.isStreaming()) {
+            chunkWriter.discard(game.getId());
+        }
+        resetGameRecorder();
     }
 
-    private Optional<Slot> findSlot(ActorRef sender, int slot) {
-        return ofNullable(slots.get(sender)).filter(p -> p.nr == slot);
-    }
+    private void resetGameRecorder() {
+        this.gameRecorder = null;
+        announce();
 
-    private Optional<Slot> findSlot(String name) {
-        return slots.values().stream().filter(p -> p.name.equals(name)).findFirst();
-    }
+        RecordingMetrics.get(context().system()).remove(self().path().toString());
 
-    private List<Player> currentPlayers() {
-        return slots.values().stream().map(Slot::player).collect(toList());
+        if (scheduledLiveStats != null) {
+            scheduledLiveStats.cancel();
+            scheduledLiveStats = null;
+        }
     }
 
-    private static final class AvailableSlots {
-
-        private final LinkedList<Integer> slots;
+    // =================================================================================================================
 
-        AvailableSlots() {
-            this.slots = new LinkedList<>(range(1, 7).boxed().collect(toList()));
+    private void spectate(Message message) {
+        if (!spectators.isEmpty()) {
+            spectatorHub.tell(message, noSender());
         }
+    }
 
-        int nextSlot() {
-            return slots.removeFirst();
+    private void sendToSlots(Message message) {
+        for (Slot slot : slots) {
+            if (slot != null) {
+                slot.send(message);
+            }
         }
+    }
 
-        void releaseSlot(int slot) {
-            slots.add(slot);
-            Collections.sort(slots);
+    private void sendToOtherSlots(int nr, Message message) {
+        for (Slot slot : slots) {
+            if (slot != null && slot.nr != nr) {
+                slot.send(message);
+            }
         }
-
     }
 
-    private static final class Spectator {
-
-        private final ActorRef actor;
-
-        public Spectator(ActorRef actor) {
-            this.actor = actor;
+    private void forEachSlot(Consumer<Slot> playerConsumer) {
+        for (Slot slot : slots) {
+            if (slot != null) {
+                playerConsumer.accept(slot);
+            }
         }
+    }
 
-        void send(Message m) {
-            actor.tell(m, noSender());
-        }
+    private void releaseSlot(int nr) {
+        freeSlots |= 1 << (nr - 1);
+    }
 
-        void stop() {
-            actor.tell(PoisonPill.getInstance(), noSender());
+    private Optional<Slot> findSlot(ActorRef sender, int slot) {
+        Slot result = slotsByActor.get(sender);
+        return result != null && result.nr == slot ? of(result) : empty();
+    }
+
+    private Optional<Slot> findSlot(String name) {
+        for (Slot slot : slots) {
+            if (slot != null && slot.name.equals(name)) {
+                return of(slot);
+            }
         }
+        return empty();
+    }
 
+    private List<Player> currentPlayers() {
+        List<Player> players = new ArrayList<>(slotsByActor.size());
+        forEachSlot(s -> players.add(s.player()));
+        return players;
     }
 
     private static final class Slot {
@@ -658,6 +830,24 @@ final class ChannelActor extends AbstractActor {
 
     }
 
+    private final class PublishingChunkWriter implements GameChunkWriter {
+
+        @Override
+        public void write(GameChunk chunk) {
+            publish(GameChunkRecorded.of(tempo, chunk));
+        }
+
+        @Override
+        public void discard(String gameId) {
+            publish(GameDiscarded.of(tempo, gameId));
+        }
+
+    }
+
+    private enum Tick {
+        LIVE_STATS, PASSIVATE
+    }
+
     private static class AkkaScheduler implements Scheduler {
 
         private final ActorSystem sytem;
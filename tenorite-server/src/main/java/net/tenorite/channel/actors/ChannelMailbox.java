@@ -0,0 +1,197 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tenorite.channel.actors;
+
+import akka.actor.ActorRef;
+import akka.actor.ActorSystem;
+import akka.actor.Terminated;
+import akka.dispatch.Envelope;
+import akka.dispatch.MailboxType;
+import akka.dispatch.MessageQueue;
+import akka.dispatch.ProducesMessageQueue;
+import akka.dispatch.UnboundedMessageQueueSemantics;
+import com.typesafe.config.Config;
+import net.tenorite.channel.commands.LeaveChannel;
+import net.tenorite.channel.commands.ReserveSlot;
+import net.tenorite.game.Field;
+import net.tenorite.protocol.*;
+import scala.Option;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Mailbox of the channel actors.
+ * <p>
+ * Game control and membership messages overtake the chat and in-game traffic that is still waiting, but never another
+ * control or membership message nor an earlier message of the same sender. Confirming a slot or starting to spectate
+ * are not prioritized, as the snapshot of the channel they send must include the updates queued before them.
+ * <p>
+ * When {@code coalesce-fields} is enabled, a complete field sent by a player replaces the previous complete field of
+ * that player when it is still waiting and nothing else was sent in between. The replaced field is then lost for the
+ * block statistics and the recorded game, so it is disabled by default.
+ *
+ * @author Johan Siebens
+ */
+public final class ChannelMailbox implements MailboxType, ProducesMessageQueue<ChannelMailbox.ChannelMessageQueue> {
+
+    private static final int FIELD_SIZE = Field.WIDTH * Field.HEIGHT;
+
+    private final boolean coalesceFields;
+
+    public ChannelMailbox(ActorSystem.Settings settings, Config config) {
+        this.coalesceFields = config.getBoolean("coalesce-fields");
+    }
+
+    @Override
+    public MessageQueue create(Option<ActorRef> owner, Option<ActorSystem> system) {
+        return new ChannelMessageQueue(coalesceFields);
+    }
+
+    static boolean isPriority(Object message) {
+        return message instanceof Terminated
+            || message instanceof ReserveSlot
+            || message instanceof LeaveChannel
+            || message instanceof StartGameMessage
+            || message instanceof StopGameMessage
+            || message instanceof PauseGameMessage
+            || message instanceof ResumeGameMessage
+            || message instanceof PlayerLostMessage;
+    }
+
+    static boolean isTraffic(Object message) {
+        return message instanceof FieldMessage
+            || message instanceof SpecialBlockMessage
+            || message instanceof ClassicStyleAddMessage
+            || message instanceof LvlMessage
+            || message instanceof PlineMessage
+            || message instanceof PlineActMessage
+            || message instanceof GmsgMessage;
+    }
+
+    static boolean isCompleteField(Object message) {
+        if (message instanceof FieldMessage) {
+            FieldMessage field = (FieldMessage) message;
+            return !field.isServerMessage() && field.getUpdate().length() == FIELD_SIZE;
+        }
+        return false;
+    }
+
+    public static final class ChannelMessageQueue implements MessageQueue, UnboundedMessageQueueSemantics {
+
+        private final ArrayDeque<Entry> priority = new ArrayDeque<>();
+
+        private final ArrayDeque<Entry> normal = new ArrayDeque<>();
+
+        private final Map<ActorRef, Entry> lastBySender = new HashMap<>();
+
+        private final boolean coalesceFields;
+
+        private int barriers;
+
+        private volatile int depth;
+
+        private volatile long coalesced;
+
+        ChannelMessageQueue(boolean coalesceFields) {
+            this.coalesceFields = coalesceFields;
+        }
+
+        @Override
+        public synchronized void enqueue(ActorRef receiver, Envelope handle) {
+            ActorRef sender = handle.sender();
+            Object message = handle.message();
+            Entry last = lastBySender.get(sender);
+
+            if (coalesceFields && last != null && isCompleteField(message) && isCompleteField(last.envelope.message())
+                && ((FieldMessage) message).getSender() == ((FieldMessage) last.envelope.message()).getSender()) {
+                last.envelope = handle;
+                coalesced++;
+                return;
+            }
+
+            Entry entry = new Entry(handle, isPriority(message) && (last == null ? barriers == 0 : last.prioritized));
+            if (entry.prioritized) {
+                priority.addLast(entry);
+            }
+            else {
+                normal.addLast(entry);
+                if (!isTraffic(message)) {
+                    barriers++;
+                }
+            }
+            lastBySender.put(sender, entry);
+            depth++;
+        }
+
+        @Override
+        public synchronized Envelope dequeue() {
+            Entry entry = priority.isEmpty() ? normal.pollFirst() : priority.pollFirst();
+            if (entry == null) {
+                return null;
+            }
+
+            if (!entry.prioritized && !isTraffic(entry.envelope.message())) {
+                barriers--;
+            }
+
+            lastBySender.remove(entry.envelope.sender(), entry);
+            depth--;
+            return entry.envelope;
+        }
+
+        @Override
+        public int numberOfMessages() {
+            return depth;
+        }
+
+        @Override
+        public boolean hasMessages() {
+            return depth > 0;
+        }
+
+        /**
+         * @return the number of field updates that were replaced by a more recent one before being processed
+         */
+        public long numberOfCoalescedMessages() {
+            return coalesced;
+        }
+
+        @Override
+        public void cleanUp(ActorRef owner, MessageQueue deadLetters) {
+            Envelope envelope;
+            while ((envelope = dequeue()) != null) {
+                deadLetters.enqueue(owner, envelope);
+            }
+        }
+
+    }
+
+    private static final class Entry {
+
+        private final boolean prioritized;
+
+        private Envelope envelope;
+
+        Entry(Envelope envelope, boolean prioritized) {
+            this.envelope = envelope;
+            this.prioritized = prioritized;
+        }
+
+    }
+
+}
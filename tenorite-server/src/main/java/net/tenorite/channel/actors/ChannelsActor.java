@@ -16,11 +16,15 @@
 package net.tenorite.channel.actors;
 
 import akka.actor.ActorRef;
+import akka.actor.Cancellable;
 import akka.actor.Props;
+import akka.actor.Terminated;
+import com.typesafe.config.Config;
 import net.tenorite.channel.Channel;
 import net.tenorite.channel.Channels;
 import net.tenorite.channel.commands.CreateChannel;
 import net.tenorite.channel.commands.ListChannels;
+import net.tenorite.channel.commands.QuickJoin;
 import net.tenorite.channel.commands.ReserveSlot;
 import net.tenorite.channel.commands.Spectate;
 import net.tenorite.channel.events.ChannelCreated;
@@ -28,35 +32,65 @@ import net.tenorite.channel.events.ChannelCreationFailed;
 import net.tenorite.channel.events.SlotReservationFailed;
 import net.tenorite.core.Tempo;
 import net.tenorite.game.GameMode;
+import net.tenorite.game.GameModeId;
 import net.tenorite.game.GameModes;
+import net.tenorite.net.EventLoopAffinity;
 import net.tenorite.util.AbstractActor;
 import scala.Option;
-import scala.concurrent.ExecutionContext;
+import scala.concurrent.duration.FiniteDuration;
 
-import java.util.Optional;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
-import static akka.dispatch.Futures.sequence;
-import static akka.pattern.Patterns.ask;
-import static java.util.stream.StreamSupport.stream;
+import static java.util.Optional.ofNullable;
 
 /**
+ * Parent of all channels of a tempo. Channels push their state whenever it changes, so the listing is kept ready,
+ * sorted by name, in a snapshot that can be read without sending any message.
+ * <p>
+ * Channels only run while they are used: idle channels passivate to their entry in the listing and are activated again
+ * by the first reservation or spectator. Passive ephemeral channels are removed after a while.
+ *
  * @author Johan Siebens
  */
 final class ChannelsActor extends AbstractActor {
 
-    public static Props props(Tempo tempo, GameModes gameModes) {
-        return Props.create(ChannelsActor.class, tempo, gameModes);
+    public static Props props(Tempo tempo, GameModes gameModes, AtomicReference<Channels> snapshot) {
+        return Props.create(ChannelsActor.class, tempo, gameModes, snapshot);
     }
 
+    private static final Comparator<Channel> BEST_CHANNEL_FIRST = Comparator
+        .comparing(Channel::isGameRunning)
+        .thenComparing(Comparator.comparingInt(Channel::getNrOfPlayers).reversed())
+        .thenComparing(Channel::getName);
+
+    private final Map<String, Channel> channels = new TreeMap<>();
+
+    private final Map<String, Integer> reservations = new HashMap<>();
+
+    private final Set<String> ephemeral = new HashSet<>();
+
+    private final Map<String, List<Buffered>> passivating = new HashMap<>();
+
+    private final Map<String, Cancellable> expirations = new HashMap<>();
+
     private final Tempo tempo;
 
     private final GameModes gameModes;
 
-    public ChannelsActor(Tempo tempo, GameModes gameModes) {
+    private final AtomicReference<Channels> snapshot;
+
+    private final FiniteDuration closeAfter;
+
+    public ChannelsActor(Tempo tempo, GameModes gameModes, AtomicReference<Channels> snapshot) {
         this.tempo = tempo;
         this.gameModes = gameModes;
+        this.snapshot = snapshot;
+
+        Config config = context().system().settings().config();
+        this.closeAfter = FiniteDuration.create(config.getDuration("tenorite.channels.close-after", TimeUnit.MILLISECONDS), TimeUnit.MILLISECONDS);
     }
 
     @Override
@@ -64,8 +98,14 @@ final class ChannelsActor extends AbstractActor {
         super.preStart();
         for (GameMode gameMode : gameModes) {
             String name = gameMode.getId().toString().toLowerCase();
-            context().actorOf(ChannelActor.props(tempo, gameMode, name, false), name);
+            channels.put(name, Channel.of(gameMode.getId(), name, 0));
         }
+        updateSnapshot();
+    }
+
+    @Override
+    public void postStop() throws Exception {
+        expirations.values().forEach(Cancellable::cancel);
     }
 
     @Override
@@ -76,50 +116,166 @@ final class ChannelsActor extends AbstractActor {
         else if (o instanceof ReserveSlot) {
             handleReserveSlot((ReserveSlot) o);
         }
+        else if (o instanceof QuickJoin) {
+            handleQuickJoin((QuickJoin) o);
+        }
         else if (o instanceof ListChannels) {
             handleListChannels((ListChannels) o);
         }
         else if (o instanceof Spectate) {
             handleSpectate((Spectate) o);
         }
+        else if (o instanceof Channel) {
+            handleChannelUpdated((Channel) o);
+        }
+        else if (o == Passivation.PASSIVATE) {
+            handlePassivate(sender());
+        }
+        else if (o == Passivation.STAY_ACTIVE) {
+            handleStayActive(sender());
+        }
+        else if (o instanceof Terminated) {
+            handleChannelStopped(((Terminated) o).actor());
+        }
+        else if (o instanceof Expire) {
+            handleExpire((Expire) o);
+        }
     }
 
     private void handleReserveSlot(ReserveSlot o) {
-        Option<ActorRef> channel = context().child(o.getChannel());
+        if (channels.containsKey(o.getChannel())) {
+            deliver(o.getChannel(), o);
+        }
+        else {
+            replyWith(SlotReservationFailed.channelNotAvailable());
+        }
+    }
+
+    /**
+     * Forwards the message to the channel, activating it when it is passive and holding it back while the channel is
+     * passivating.
+     */
+    private void deliver(String name, Object message) {
+        List<Buffered> buffer = passivating.get(name);
+        if (buffer != null) {
+            buffer.add(new Buffered(message, sender()));
+            return;
+        }
 
+        Option<ActorRef> channel = context().child(name);
         if (channel.isDefined()) {
-            channel.get().forward(o, context());
+            channel.get().forward(message, context());
         }
         else {
-            replyWith(SlotReservationFailed.channelNotAvailable());
+            activate(name).forward(message, context());
+        }
+    }
+
+    private ActorRef activate(String name) {
+        Channel channel = channels.get(name);
+        ofNullable(expirations.remove(name)).ifPresent(Cancellable::cancel);
+        return startChannel(gameModes.find(channel.getGameModeId()).get(), name, ephemeral.contains(name));
+    }
+
+    private void handlePassivate(ActorRef channel) {
+        String name = channel.path().name();
+        if (context().child(name).contains(channel)) {
+            passivating.put(name, new ArrayList<>());
+            channel.tell(Passivation.PASSIVATE, self());
+        }
+    }
+
+    private void handleStayActive(ActorRef channel) {
+        ofNullable(passivating.remove(channel.path().name())).ifPresent(b -> b.forEach(m -> channel.tell(m.message, m.sender)));
+    }
+
+    private void handleQuickJoin(QuickJoin o) {
+        Optional<GameMode> gameMode = gameModes.find(o.getGameModeId());
+
+        if (!gameMode.isPresent()) {
+            replyWith(ChannelCreationFailed.invalidGameMode());
+            return;
+        }
+
+        String name = channels.values().stream()
+            .filter(c -> c.getGameModeId().equals(o.getGameModeId()))
+            .filter(c -> c.getNrOfFreeSlots() > reservations.getOrDefault(c.getName(), 0))
+            .sorted(BEST_CHANNEL_FIRST)
+            .map(Channel::getName)
+            .findFirst()
+            .orElseGet(() -> {
+                String created = nextChannelName(o.getGameModeId());
+                startChannel(gameMode.get(), created, true);
+                updateSnapshot();
+                return created;
+            });
+
+        // counted until the channel reports its new state, so concurrent requests are spread over the channels
+        reservations.merge(name, 1, Integer::sum);
+        deliver(name, ReserveSlot.of(name, o.getName()));
+    }
+
+    private String nextChannelName(GameModeId gameModeId) {
+        String prefix = gameModeId.toString().toLowerCase() + "-";
+        int i = 1;
+        while (channels.containsKey(prefix + i)) {
+            i++;
         }
+        return prefix + i;
     }
 
     private void handleListChannels(ListChannels listChannels) {
-        ActorRef sender = sender();
-        ActorRef self = self();
+        replyWith(snapshot.get());
+    }
+
+    private void handleChannelUpdated(Channel channel) {
+        if (channels.containsKey(channel.getName()) && context().child(channel.getName()).contains(sender())) {
+            channels.put(channel.getName(), channel);
+            reservations.remove(channel.getName());
+            updateSnapshot();
+        }
+    }
+
+    private void handleChannelStopped(ActorRef channel) {
+        String name = channel.path().name();
+        reservations.remove(name);
 
-        ExecutionContext ec = context().dispatcher();
-        Iterable<ActorRef> children = getContext().getChildren();
+        List<Buffered> buffer = passivating.remove(name);
+        if (buffer == null) {
+            ephemeral.remove(name);
+            if (channels.remove(name) != null) {
+                updateSnapshot();
+            }
+        }
+        else if (!buffer.isEmpty()) {
+            ActorRef activated = activate(name);
+            buffer.forEach(m -> activated.tell(m.message, m.sender));
+        }
+        else {
+            channels.put(name, Channel.of(channels.get(name).getGameModeId(), name, 0));
+            updateSnapshot();
+            if (ephemeral.contains(name)) {
+                expirations.put(name, context().system().scheduler().scheduleOnce(closeAfter, self(), new Expire(name), context().dispatcher(), self()));
+            }
+        }
+    }
 
-        sequence(
-            stream(children.spliterator(), false)
-                .map(c -> ask(c, listChannels, 20).map(mapper(o -> (Channel) o), ec))
-                .collect(Collectors.toList()),
-            ec
-        ).onSuccess(onSuccess(i -> sender.tell(Channels.of(i), self)), ec);
+    private void handleExpire(Expire o) {
+        if (expirations.remove(o.name) != null) {
+            ephemeral.remove(o.name);
+            channels.remove(o.name);
+            updateSnapshot();
+        }
     }
 
     private void handleSpectate(Spectate o) {
-        Option<ActorRef> channel = context().child(o.getChannel());
-
-        if (channel.isDefined()) {
-            channel.get().forward(o, context());
+        if (channels.containsKey(o.getChannel())) {
+            deliver(o.getChannel(), o);
         }
     }
 
     private void createChannel(CreateChannel c) {
-        if (context().child(c.getName()).isDefined()) {
+        if (channels.containsKey(c.getName())) {
             replyWith(ChannelCreationFailed.nameAlreadyInUse());
             return;
         }
@@ -136,12 +292,53 @@ final class ChannelsActor extends AbstractActor {
             return;
         }
 
-        context().actorOf(ChannelActor.props(tempo, optGameMode.get(), c.getName(), c.isEphemeral()), c.getName());
+        startChannel(optGameMode.get(), c.getName(), c.isEphemeral());
+        updateSnapshot();
         replyWith(ChannelCreated.of(tempo, c.getGameModeId(), c.getName()));
     }
 
+    private ActorRef startChannel(GameMode gameMode, String name, boolean ephemeral) {
+        EventLoopAffinity affinity = EventLoopAffinity.get(context().system());
+        affinity.bindToAny(self().path().child(name));
+
+        ActorRef channel = context().actorOf(affinity.apply(ChannelActor.props(tempo, gameMode, name)), name);
+        context().watch(channel);
+        channels.putIfAbsent(name, Channel.of(gameMode.getId(), name, 0));
+        if (ephemeral) {
+            this.ephemeral.add(name);
+        }
+        return channel;
+    }
+
+    private void updateSnapshot() {
+        snapshot.set(Channels.of(channels.values()));
+    }
+
     private boolean isValid(String name) {
         return name.length() >= 2 && name.length() <= 25 && Pattern.matches("[a-z0-9:_-]+", name);
     }
 
+    private static final class Buffered {
+
+        private final Object message;
+
+        private final ActorRef sender;
+
+        private Buffered(Object message, ActorRef sender) {
+            this.message = message;
+            this.sender = sender;
+        }
+
+    }
+
+    private static final class Expire {
+
+        private final String name;
+
+        private Expire(String name) {
+            this.name = name;
+        }
+
+    }
+
 }
@@ -17,11 +17,15 @@ package net.tenorite.channel.actors;
 
 import akka.actor.ActorRef;
 import akka.actor.ActorSystem;
+import net.tenorite.channel.Channel;
+import net.tenorite.channel.Channels;
 import net.tenorite.core.Tempo;
 import net.tenorite.game.GameModes;
 
 import java.util.EnumMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * @author Johan Siebens
@@ -30,10 +34,14 @@ public final class ChannelsActors {
 
     private final Map<Tempo, ActorRef> actors = new EnumMap<>(Tempo.class);
 
+    private final Map<Tempo, AtomicReference<Channels>> snapshots = new EnumMap<>(Tempo.class);
+
     public ChannelsActors(ActorSystem actorSystem, GameModes gameModes) {
         for (Tempo tempo : Tempo.values()) {
-            ActorRef ref = actorSystem.actorOf(ChannelsActor.props(tempo, gameModes));
+            AtomicReference<Channels> snapshot = new AtomicReference<>(Channels.of());
+            ActorRef ref = actorSystem.actorOf(ChannelsActor.props(tempo, gameModes, snapshot));
             actors.put(tempo, ref);
+            snapshots.put(tempo, snapshot);
         }
     }
 
@@ -41,4 +49,11 @@ public final class ChannelsActors {
         return actors.get(tempo);
     }
 
+    /**
+     * @return the latest listing of the channels of the given tempo
+     */
+    public List<Channel> list(Tempo tempo) {
+        return snapshots.get(tempo).get().getChannels();
+    }
+
 }
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tenorite.channel.actors;
+
+import net.tenorite.game.Game;
+import net.tenorite.game.PlayingStats;
+import net.tenorite.protocol.Message;
+import net.tenorite.protocol.PlineMessage;
+
+import java.text.DecimalFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static java.lang.String.format;
+
+/**
+ * Per-slot statistics of a finished game, computed outside of the channel and posted back to it.
+ *
+ * @author Johan Siebens
+ */
+final class GameSummary {
+
+    static GameSummary of(Game game, List<PlayingStats> ranking) {
+        DecimalFormat df = new DecimalFormat("0.00");
+        List<Message> stats = new ArrayList<>(ranking.size() + 1);
+
+        ranking.forEach(ps -> {
+            String bpm = df.format((double) ps.getNrOfBlocks() * 60000 / (double) ps.getPlayingTime());
+            String part1 = format("<purple><b>%s</b></purple>: <aqua>%d blocks @ %s bpm</aqua>", ps.getPlayer().getName(), ps.getNrOfBlocks(), bpm);
+            String part2 = format("<blue>%s/%s/%s specials</blue>", ps.getTotalNrOfSpecialsOnOpponent() + ps.getTotalNrOfSpecialsOnTeamPlayer(), ps.getTotalNrOfSpecialsReceived(), ps.getTotalNrOfSpecialsOnSelf());
+            String part3 = format("%s/%s/%s combos", ps.getNrOfTwoLineCombos(), ps.getNrOfThreeLineCombos(), ps.getNrOfFourLineCombos());
+            String part4 = format("lvl: %s, mxfh: %s", ps.getLevel(), ps.getMaxFieldHeight());
+
+            stats.add(PlineMessage.of(part1 + "; " + part2 + "; " + part3 + "; " + part4));
+        });
+
+        stats.add(PlineMessage.of("<brown>Total game time: <black>" + df.format(game.getDuration() / 1000f) + "</black> seconds"));
+
+        return new GameSummary(stats);
+    }
+
+    private final List<Message> stats;
+
+    private GameSummary(List<Message> stats) {
+        this.stats = Collections.unmodifiableList(stats);
+    }
+
+    List<Message> getStats() {
+        return stats;
+    }
+
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tenorite.channel.actors;
+
+import net.tenorite.game.PlayingStats;
+import net.tenorite.protocol.GmsgMessage;
+import net.tenorite.protocol.Message;
+
+import java.text.DecimalFormat;
+import java.util.List;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Formats the live stats of a running game as game messages.
+ *
+ * @author Johan Siebens
+ */
+final class LiveStats {
+
+    static final String COMMAND = "/stats";
+
+    static List<Message> format(List<PlayingStats> stats) {
+        DecimalFormat df = new DecimalFormat("0.0");
+        return stats.stream().map(ps -> line(df, ps)).collect(toList());
+    }
+
+    static boolean isRequest(GmsgMessage gmsg) {
+        String message = gmsg.getMessage().trim();
+        return message.equals(COMMAND) || message.endsWith(" " + COMMAND);
+    }
+
+    private static Message line(DecimalFormat df, PlayingStats ps) {
+        double bpm = ps.getPlayingTime() == 0 ? 0 : (double) ps.getNrOfBlocks() * 60000 / (double) ps.getPlayingTime();
+        return GmsgMessage.of(String.format("* %s: %s bpm, %d lines, %d combos, %d/%d specials, mxfh %d",
+            ps.getPlayer().getName(),
+            df.format(bpm),
+            ps.getNrOfLines(),
+            ps.getNrOfCombos(),
+            ps.getTotalNrOfSpecialsOnOpponent() + ps.getTotalNrOfSpecialsOnTeamPlayer(),
+            ps.getTotalNrOfSpecialsReceived(),
+            ps.getMaxFieldHeight()
+        ));
+    }
+
+}
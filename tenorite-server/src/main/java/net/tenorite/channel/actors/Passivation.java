@@ -0,0 +1,31 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tenorite.channel.actors;
+
+/**
+ * Handshake between an idle channel and the channels actor: the channel asks to <code>PASSIVATE</code>, the channels
+ * actor holds back new messages for it and answers <code>PASSIVATE</code>, after which the channel stops when it is
+ * still idle or answers <code>STAY_ACTIVE</code>.
+ *
+ * @author Johan Siebens
+ */
+enum Passivation {
+
+    PASSIVATE,
+
+    STAY_ACTIVE
+
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tenorite.channel.actors;
+
+import akka.actor.*;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Memory held by the recording of the running game per channel, as last reported with the live stats of the game.
+ *
+ * @author Johan Siebens
+ */
+public final class RecordingMetrics implements Extension {
+
+    public static final ExtensionId<RecordingMetrics> ID = new AbstractExtensionId<RecordingMetrics>() {
+
+        @Override
+        public RecordingMetrics createExtension(ExtendedActorSystem system) {
+            return new RecordingMetrics();
+        }
+
+    };
+
+    public static RecordingMetrics get(ActorSystem system) {
+        return ID.get(system);
+    }
+
+    private final Map<String, Long> sizes = new ConcurrentHashMap<>();
+
+    void record(String channel, long sizeInBytes) {
+        sizes.put(channel, sizeInBytes);
+    }
+
+    void remove(String channel) {
+        sizes.remove(channel);
+    }
+
+    /**
+     * @return the size in bytes of the recording of each channel running a game
+     */
+    public Map<String, Long> snapshot() {
+        return new TreeMap<>(sizes);
+    }
+
+}
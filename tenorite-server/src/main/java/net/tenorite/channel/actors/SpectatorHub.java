@@ -0,0 +1,130 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tenorite.channel.actors;
+
+import akka.actor.ActorRef;
+import akka.actor.Props;
+import akka.event.Logging;
+import akka.event.LoggingAdapter;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.tenorite.channel.SpectatorFrame;
+import net.tenorite.core.Tempo;
+import net.tenorite.game.GameMessage;
+import net.tenorite.protocol.Message;
+import net.tenorite.util.AbstractActor;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static akka.actor.ActorRef.noSender;
+
+/**
+ * Fans out the messages of a channel to its spectators, on its own dispatcher so the number of spectators does not
+ * affect the channel itself. Every message is serialized once, whatever the number of spectators.
+ *
+ * @author Johan Siebens
+ */
+final class SpectatorHub extends AbstractActor {
+
+    private static final String SPECTATORS_DISPATCHER = "spectators-dispatcher";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    static Props props(Tempo tempo) {
+        return Props.create(SpectatorHub.class, tempo).withDispatcher(SPECTATORS_DISPATCHER);
+    }
+
+    static Join join(ActorRef spectator, List<Message> snapshot) {
+        return new Join(spectator, snapshot);
+    }
+
+    static Leave leave(ActorRef spectator) {
+        return new Leave(spectator);
+    }
+
+    private final Set<ActorRef> spectators = new LinkedHashSet<>();
+
+    private final Tempo tempo;
+
+    private final LoggingAdapter log = Logging.getLogger(getContext().system(), this);
+
+    public SpectatorHub(Tempo tempo) {
+        this.tempo = tempo;
+    }
+
+    @Override
+    public void onReceive(Object o) throws Exception {
+        if (o instanceof Message) {
+            broadcast((Message) o);
+        }
+        else if (o instanceof Join) {
+            handleJoin((Join) o);
+        }
+        else if (o instanceof Leave) {
+            spectators.remove(((Leave) o).spectator);
+        }
+    }
+
+    private void handleJoin(Join join) {
+        join.snapshot.forEach(m -> frame(m).ifPresent(f -> join.spectator.tell(f, noSender())));
+        spectators.add(join.spectator);
+    }
+
+    private void broadcast(Message message) {
+        if (!spectators.isEmpty()) {
+            frame(message).ifPresent(f -> spectators.forEach(s -> s.tell(f, noSender())));
+        }
+    }
+
+    private Optional<SpectatorFrame> frame(Message message) {
+        try {
+            String json = MAPPER.writeValueAsString(GameMessage.of(System.currentTimeMillis(), message));
+            return Optional.of(SpectatorFrame.of(message, message.raw(tempo), json));
+        }
+        catch (JsonProcessingException e) {
+            log.error(e, "unable to serialize {} for spectators", message);
+            return Optional.empty();
+        }
+    }
+
+    static final class Join {
+
+        private final ActorRef spectator;
+
+        private final List<Message> snapshot;
+
+        private Join(ActorRef spectator, List<Message> snapshot) {
+            this.spectator = spectator;
+            this.snapshot = new ArrayList<>(snapshot);
+        }
+
+    }
+
+    static final class Leave {
+
+        private final ActorRef spectator;
+
+        private Leave(ActorRef spectator) {
+            this.spectator = spectator;
+        }
+
+    }
+
+}
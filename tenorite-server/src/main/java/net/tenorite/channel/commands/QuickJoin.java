@@ -0,0 +1,39 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tenorite.channel.commands;
+
+import net.tenorite.game.GameModeId;
+import net.tenorite.util.ImmutableStyle;
+import org.immutables.value.Value;
+
+/**
+ * Reserves a slot in the best available channel of a game mode, creating a new channel when none is available.
+ *
+ * @author Johan Siebens
+ */
+@Value.Immutable
+@ImmutableStyle
+public abstract class QuickJoin {
+
+    public static QuickJoin of(GameModeId gameModeId, String name) {
+        return new QuickJoinBuilder().gameModeId(gameModeId).name(name).build();
+    }
+
+    public abstract GameModeId getGameModeId();
+
+    public abstract String getName();
+
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tenorite.clients;
+
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Names of the connected clients of a tempo, shared by all actors registering clients. Names are compared case
+ * insensitive.
+ *
+ * @author Johan Siebens
+ */
+public final class ClientNames {
+
+    private final Set<String> names = ConcurrentHashMap.newKeySet();
+
+    public static String normalize(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * @return true when the name was still available and is now reserved
+     */
+    public boolean reserve(String name) {
+        return names.add(normalize(name));
+    }
+
+    public void release(String name) {
+        names.remove(normalize(name));
+    }
+
+    public boolean isReserved(String name) {
+        return names.contains(normalize(name));
+    }
+
+    public int size() {
+        return names.size();
+    }
+
+}
@@ -17,6 +17,9 @@ package net.tenorite.clients;
 
 import net.tenorite.protocol.Message;
 
+import java.util.Optional;
+import java.util.concurrent.Executor;
+
 /**
  * @author Johan Siebens
  */
@@ -26,4 +29,11 @@ public interface MessageSink {
 
     void close();
 
+    /**
+     * @return the executor on which writes to this sink don't switch threads
+     */
+    default Optional<Executor> executor() {
+        return Optional.empty();
+    }
+
 }
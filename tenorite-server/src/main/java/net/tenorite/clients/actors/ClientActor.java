@@ -26,6 +26,7 @@ import net.tenorite.core.Tempo;
 import net.tenorite.game.GameMode;
 import net.tenorite.game.GameModeId;
 import net.tenorite.game.GameModes;
+import net.tenorite.net.EventLoopAffinity;
 import net.tenorite.protocol.*;
 import net.tenorite.util.AbstractActor;
 import org.springframework.util.StringUtils;
@@ -50,6 +51,8 @@ final class ClientActor extends AbstractActor {
 
     private static final Object PING = new Object();
 
+    private static final int MAX_QUICK_JOIN_ATTEMPTS = 3;
+
     static Props props(Tempo tempo, String name, MessageSink sink, GameModes gameModes, ActorRef channels) {
         return Props.create(ClientActor.class, tempo, name, sink, gameModes, channels);
     }
@@ -68,6 +71,10 @@ final class ClientActor extends AbstractActor {
 
     private ActorRef channel;
 
+    private QuickJoin quickJoin;
+
+    private int quickJoinAttempts;
+
     private Cancellable heartBeat;
 
     private long lastMessageTimestamp;
@@ -81,6 +88,7 @@ final class ClientActor extends AbstractActor {
 
         this.commands = new Commands()
             .register("/join", (i, s) -> joinChannel(s))
+            .register("/quick", (i, s) -> quickJoin(s))
             .register("/create", (i, s) -> createChannel(s))
             .register("/list", (i, s) -> channels.tell(ListChannels.instance(), self()))
             .register("/modes", (i, s) -> listGameModes())
@@ -92,6 +100,17 @@ final class ClientActor extends AbstractActor {
         channels.tell(ReserveSlot.of(channel, name), self());
     }
 
+    private void quickJoin(String gameModeId) {
+        if (gameModeId.isEmpty()) {
+            write(PlineMessage.of("<red>invalid number of arguments</red>"));
+        }
+        else {
+            quickJoin = QuickJoin.of(GameModeId.of(gameModeId.toUpperCase()), name);
+            quickJoinAttempts = 1;
+            channels.tell(quickJoin, self());
+        }
+    }
+
     private void createChannel(String s) {
         String[] split = s.split("\\s+");
         if (split.length != 2) {
@@ -110,6 +129,7 @@ final class ClientActor extends AbstractActor {
             PlineMessage.of("   /list <gray>- list all available channels"),
             PlineMessage.of("   /create <mode id> <channel name> <gray>- create a new channel"),
             PlineMessage.of("   /join <channel name> <gray>- join an existing channel"),
+            PlineMessage.of("   /quick <mode id> <gray>- join the best available channel of a game mode"),
             PlineMessage.of("   /modes <gray>- list all available game modes"),
             PlineMessage.of("   /help <gray>- show this list of commands"),
             PlineMessage.of("")
@@ -153,6 +173,7 @@ final class ClientActor extends AbstractActor {
     @Override
     public void postStop() throws Exception {
         super.postStop();
+        EventLoopAffinity.get(context().system()).unbind(self().path());
         heartBeat.cancel();
         sink.close();
     }
@@ -184,6 +205,7 @@ final class ClientActor extends AbstractActor {
             }
         }
         else if (o instanceof SlotReserved) {
+            quickJoin = null;
             if (channel != null) {
                 this.channel.tell(LeaveChannel.instance(), self());
                 this.channel = sender();
@@ -195,6 +217,13 @@ final class ClientActor extends AbstractActor {
         }
         else if (o instanceof SlotReservationFailed) {
             SlotReservationFailed srf = (SlotReservationFailed) o;
+            if (quickJoin != null && srf == SlotReservationFailed.CHANNEL_IS_FULL && quickJoinAttempts < MAX_QUICK_JOIN_ATTEMPTS) {
+                // the channel filled up before our reservation arrived, the next best one is picked
+                quickJoinAttempts++;
+                channels.tell(quickJoin, self());
+                return;
+            }
+            quickJoin = null;
             switch (srf) {
                 case CHANNEL_IS_FULL:
                     write(PlineMessage.of("channel is <b>FULL</b>"));
@@ -18,34 +18,47 @@ package net.tenorite.clients.actors;
 import akka.actor.ActorRef;
 import akka.actor.Props;
 import akka.actor.SupervisorStrategy;
+import akka.actor.Terminated;
+import net.tenorite.clients.ClientNames;
 import net.tenorite.clients.commands.RegisterClient;
 import net.tenorite.clients.events.ClientRegistered;
 import net.tenorite.clients.events.ClientRegistrationFailed;
 import net.tenorite.core.Tempo;
 import net.tenorite.game.GameModes;
+import net.tenorite.net.EventLoopAffinity;
 import net.tenorite.util.AbstractActor;
 import org.springframework.util.DigestUtils;
-import scala.Option;
+
+import java.util.HashMap;
+import java.util.Map;
 
 /**
+ * Creates and supervises clients. Several of these actors share the names of a tempo, so registrations are not
+ * serialized through a single actor.
+ *
  * @author Johan Siebens
  */
 final class ClientsActor extends AbstractActor {
 
-    public static Props props(Tempo tempo, GameModes gameModes, ActorRef channels) {
-        return Props.create(ClientsActor.class, tempo, gameModes, channels);
+    public static Props props(Tempo tempo, GameModes gameModes, ActorRef channels, ClientNames names) {
+        return Props.create(ClientsActor.class, tempo, gameModes, channels, names);
     }
 
+    private final Map<ActorRef, String> clients = new HashMap<>();
+
     private final Tempo tempo;
 
     private final GameModes gameModes;
 
     private final ActorRef channels;
 
-    public ClientsActor(Tempo tempo, GameModes gameModes, ActorRef channels) {
+    private final ClientNames names;
+
+    public ClientsActor(Tempo tempo, GameModes gameModes, ActorRef channels, ClientNames names) {
         this.tempo = tempo;
         this.gameModes = gameModes;
         this.channels = channels;
+        this.names = names;
     }
 
     @Override
@@ -58,20 +71,27 @@ final class ClientsActor extends AbstractActor {
         if (message instanceof RegisterClient) {
             handle((RegisterClient) message);
         }
+        else if (message instanceof Terminated) {
+            names.release(clients.remove(((Terminated) message).actor()));
+        }
     }
 
     private void handle(RegisterClient rc) {
-        String key = actorName(rc.getName());
-        Option<ActorRef> child = context().child(key);
-
         if (!isValid(rc.getName())) {
             replyWith(ClientRegistrationFailed.invalidName());
         }
-        else if (child.isDefined()) {
+        else if (!names.reserve(rc.getName())) {
             replyWith(ClientRegistrationFailed.nameAlreadyInUse());
         }
         else {
-            ActorRef client = context().actorOf(ClientActor.props(tempo, rc.getName(), rc.getChannel(), gameModes, channels), key);
+            String key = actorName(rc.getName());
+
+            EventLoopAffinity affinity = EventLoopAffinity.get(context().system());
+            rc.getChannel().executor().ifPresent(e -> affinity.bind(self().path().child(key), e));
+
+            ActorRef client = context().actorOf(affinity.apply(ClientActor.props(tempo, rc.getName(), rc.getChannel(), gameModes, channels)), key);
+            context().watch(client);
+            clients.put(client, rc.getName());
             replyWith(ClientRegistered.of(client));
         }
     }
@@ -81,7 +101,7 @@ final class ClientsActor extends AbstractActor {
     }
 
     private String actorName(String name) {
-        return DigestUtils.md5DigestAsHex(name.getBytes());
+        return DigestUtils.md5DigestAsHex(ClientNames.normalize(name).getBytes());
     }
 
 }
@@ -18,6 +18,7 @@ package net.tenorite.clients.actors;
 import akka.actor.ActorRef;
 import akka.actor.ActorSystem;
 import net.tenorite.channel.actors.ChannelsActors;
+import net.tenorite.clients.ClientNames;
 import net.tenorite.core.Tempo;
 import net.tenorite.game.GameModes;
 
@@ -29,17 +30,30 @@ import java.util.Map;
  */
 public final class ClientsActors {
 
-    private final Map<Tempo, ActorRef> actors = new EnumMap<>(Tempo.class);
+    private final Map<Tempo, ActorRef[]> actors = new EnumMap<>(Tempo.class);
 
     public ClientsActors(ActorSystem actorSystem, GameModes gameModes, ChannelsActors channelsActors) {
+        int shards = actorSystem.settings().config().getInt("tenorite.clients.shards");
+        if (shards <= 0) {
+            shards = Runtime.getRuntime().availableProcessors();
+        }
+
         for (Tempo tempo : Tempo.values()) {
-            ActorRef ref = actorSystem.actorOf(ClientsActor.props(tempo, gameModes, channelsActors.get(tempo)));
-            actors.put(tempo, ref);
+            ClientNames clientNames = new ClientNames();
+            ActorRef[] refs = new ActorRef[shards];
+            for (int i = 0; i < shards; i++) {
+                refs[i] = actorSystem.actorOf(ClientsActor.props(tempo, gameModes, channelsActors.get(tempo), clientNames));
+            }
+            actors.put(tempo, refs);
         }
     }
 
-    public ActorRef get(Tempo tempo) {
-        return actors.get(tempo);
+    /**
+     * @return the actor registering the client with the given name, the same one for every spelling of the name
+     */
+    public ActorRef get(Tempo tempo, String name) {
+        ActorRef[] refs = actors.get(tempo);
+        return refs[Math.floorMod(ClientNames.normalize(name).hashCode(), refs.length)];
     }
 
 }
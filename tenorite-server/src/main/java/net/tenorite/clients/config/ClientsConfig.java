@@ -59,7 +59,7 @@ public class ClientsConfig {
         ClientsActors clientsActors = clientsActors();
         return (tempo, name, channel) -> {
             RegisterClient registerClient = RegisterClient.of(name, channel);
-            Future<Object> result = Patterns.ask(clientsActors.get(tempo), registerClient, 1000);
+            Future<Object> result = Patterns.ask(clientsActors.get(tempo, name), registerClient, 1000);
             CompletionStage<Object> stage = FutureConverters.toJava(result);
             return stage.thenCompose(o -> {
                 if (o instanceof ClientRegistered) {
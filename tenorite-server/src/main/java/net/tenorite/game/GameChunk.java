@@ -0,0 +1,58 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tenorite.game;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import net.tenorite.util.ImmutableStyle;
+import org.immutables.value.Value;
+
+import java.util.List;
+
+/**
+ * @author Johan Siebens
+ */
+@Value.Immutable
+@ImmutableStyle
+@JsonDeserialize(as = GameChunkBuilder.ImmutableGameChunk.class)
+public abstract class GameChunk {
+
+    public static GameChunk of(String gameId, int index, int offset, List<GameMessage> messages) {
+        return
+            new GameChunkBuilder()
+                .id(gameId + ":" + index)
+                .gameId(gameId)
+                .index(index)
+                .offset(offset)
+                .messages(messages)
+                .build();
+    }
+
+    @JsonProperty("_id")
+    public abstract String getId();
+
+    public abstract String getGameId();
+
+    public abstract int getIndex();
+
+    /**
+     * @return index in the messages of the game of the first message in this chunk
+     */
+    public abstract int getOffset();
+
+    public abstract List<GameMessage> getMessages();
+
+}
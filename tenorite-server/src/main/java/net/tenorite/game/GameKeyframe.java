@@ -0,0 +1,50 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tenorite.game;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import net.tenorite.util.ImmutableStyle;
+import org.immutables.value.Value;
+
+import java.util.List;
+
+/**
+ * State of all fields at a point in time of a recorded game.
+ *
+ * @author Johan Siebens
+ */
+@Value.Immutable
+@ImmutableStyle
+@JsonDeserialize(as = GameKeyframeBuilder.ImmutableGameKeyframe.class)
+public abstract class GameKeyframe {
+
+    public static GameKeyframe of(long timestamp, int offset, List<String> fields) {
+        return new GameKeyframeBuilder().timestamp(timestamp).offset(offset).fields(fields).build();
+    }
+
+    public abstract long getTimestamp();
+
+    /**
+     * @return index in the messages of the game of the first message recorded at or after the timestamp
+     */
+    public abstract int getOffset();
+
+    /**
+     * @return the field strings of slot 1 to 6, an empty string when a slot has no field
+     */
+    public abstract List<String> getFields();
+
+}
@@ -0,0 +1,366 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tenorite.game;
+
+import net.tenorite.core.Special;
+import net.tenorite.core.Tempo;
+import net.tenorite.protocol.*;
+
+import java.util.*;
+
+/**
+ * Compact, append-only log of the messages recorded during a game.
+ * <p>
+ * Messages are encoded in chunks of chars; field updates are stored as the cells that changed compared to the
+ * previous field of the same slot, with a complete keyframe every {@link #KEYFRAME_INTERVAL} updates. Chunks that are
+ * completely {@link #drain() drained} are released, after which the buffer can no longer be iterated.
+ * <p>
+ * A buffer that is never drained holds the complete game. When it is drained regularly, it holds at most the
+ * undrained messages plus the chunk being read, and two fields per slot to encode and decode the field diffs.
+ *
+ * @author Johan Siebens
+ */
+final class GameMessageBuffer implements Iterable<GameMessage> {
+
+    static final int CHUNK_SIZE = 4096;
+
+    static final int KEYFRAME_INTERVAL = 32;
+
+    private static final int FIELD_SIZE = Field.WIDTH * Field.HEIGHT;
+
+    private static final int ARRAY_HEADER = 16;
+
+    static final long CHUNK_BYTES = CHUNK_SIZE * 2 + ARRAY_HEADER;
+
+    static final long FIELD_BYTES = FIELD_SIZE * 2 + ARRAY_HEADER;
+
+    private static final char FIELD_KEYFRAME = 1;
+
+    private static final char FIELD_DIFF = 2;
+
+    private static final char LVL = 3;
+
+    private static final char SPECIAL_BLOCK = 4;
+
+    private static final char CLASSIC_STYLE_ADD = 5;
+
+    private static final char PLAYER_LEAVE = 6;
+
+    private static final char PLAYER_LOST = 7;
+
+    private static final char PLAYER_WON = 8;
+
+    private static final char RAW = 9;
+
+    private static final Special[] SPECIALS = Special.values();
+
+    private final List<char[]> chunks = new ArrayList<>();
+
+    private int released;
+
+    private final Map<Integer, FieldState> fields = new HashMap<>();
+
+    private char[] current;
+
+    private int position = CHUNK_SIZE;
+
+    private long lastTimestamp;
+
+    private int size;
+
+    private Reader drained;
+
+    void add(long timestamp, Message message) {
+        if (message instanceof FieldMessage) {
+            addField(timestamp, (FieldMessage) message);
+        }
+        else if (message instanceof LvlMessage) {
+            LvlMessage lvl = (LvlMessage) message;
+            header(LVL, timestamp);
+            putInt(lvl.getSender());
+            putInt(lvl.getLevel());
+        }
+        else if (message instanceof SpecialBlockMessage) {
+            SpecialBlockMessage sb = (SpecialBlockMessage) message;
+            header(SPECIAL_BLOCK, timestamp);
+            putInt(sb.getSender());
+            putInt(sb.getTarget());
+            put((char) sb.getSpecial().ordinal());
+            putBoolean(sb.isServerMessage());
+        }
+        else if (message instanceof ClassicStyleAddMessage) {
+            ClassicStyleAddMessage csa = (ClassicStyleAddMessage) message;
+            header(CLASSIC_STYLE_ADD, timestamp);
+            putInt(csa.getSender());
+            putInt(csa.getLines());
+        }
+        else if (message instanceof PlayerLeaveMessage) {
+            header(PLAYER_LEAVE, timestamp);
+            putInt(((PlayerLeaveMessage) message).getSender());
+        }
+        else if (message instanceof PlayerLostMessage) {
+            header(PLAYER_LOST, timestamp);
+            putInt(((PlayerLostMessage) message).getSender());
+        }
+        else if (message instanceof PlayerWonMessage) {
+            header(PLAYER_WON, timestamp);
+            putInt(((PlayerWonMessage) message).getSender());
+        }
+        else {
+            addRaw(timestamp, message);
+        }
+        size++;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return the memory held by the chunks that are not released and the fields kept to encode and decode diffs
+     */
+    long sizeInBytes() {
+        int decoded = drained == null ? 0 : drained.cells.size();
+        return chunks.size() * CHUNK_BYTES + (fields.size() + decoded) * FIELD_BYTES;
+    }
+
+    List<GameMessage> drain() {
+        if (drained == null) {
+            drained = new Reader();
+        }
+
+        List<GameMessage> result = new ArrayList<>(size - drained.read);
+        while (drained.hasNext()) {
+            result.add(drained.next());
+        }
+
+        // the reader keeps the fields it decoded so far, so only the chunk it is reading is still needed
+        if (drained.chunk > released) {
+            chunks.subList(0, drained.chunk - released).clear();
+            released = drained.chunk;
+        }
+        return result;
+    }
+
+    int undrained() {
+        return drained == null ? size : size - drained.read;
+    }
+
+    @Override
+    public Iterator<GameMessage> iterator() {
+        if (released > 0) {
+            throw new IllegalStateException("drained messages are no longer available");
+        }
+        return new Reader();
+    }
+
+    private void addField(long timestamp, FieldMessage message) {
+        String update = message.getUpdate();
+        FieldState state = fields.get(message.getSender());
+
+        if (update.length() != FIELD_SIZE) {
+            addRaw(timestamp, message);
+            return;
+        }
+
+        int changes = 0;
+        if (state != null) {
+            for (int i = 0; i < FIELD_SIZE; i++) {
+                if (state.cells[i] != update.charAt(i)) {
+                    changes++;
+                }
+            }
+        }
+
+        if (state == null || state.updates >= KEYFRAME_INTERVAL || changes * 2 >= FIELD_SIZE) {
+            if (state == null) {
+                state = new FieldState();
+                fields.put(message.getSender(), state);
+            }
+
+            header(FIELD_KEYFRAME, timestamp);
+            putInt(message.getSender());
+            putBoolean(message.isServerMessage());
+            for (int i = 0; i < FIELD_SIZE; i++) {
+                char c = update.charAt(i);
+                state.cells[i] = c;
+                put(c);
+            }
+            state.updates = 0;
+        }
+        else {
+            header(FIELD_DIFF, timestamp);
+            putInt(message.getSender());
+            putBoolean(message.isServerMessage());
+            put((char) changes);
+            for (int i = 0; i < FIELD_SIZE; i++) {
+                char c = update.charAt(i);
+                if (state.cells[i] != c) {
+                    state.cells[i] = c;
+                    put((char) i);
+                    put(c);
+                }
+            }
+            state.updates++;
+        }
+    }
+
+    private void addRaw(long timestamp, Message message) {
+        String raw = message.raw(Tempo.NORMAL);
+        header(RAW, timestamp);
+        putBoolean(message.isServerMessage());
+        putInt(raw.length());
+        for (int i = 0; i < raw.length(); i++) {
+            put(raw.charAt(i));
+        }
+    }
+
+    private void header(char type, long timestamp) {
+        put(type);
+        putInt((int) (timestamp - lastTimestamp));
+        lastTimestamp = timestamp;
+    }
+
+    private void putBoolean(boolean value) {
+        put(value ? (char) 1 : (char) 0);
+    }
+
+    private void putInt(int value) {
+        put((char) (value >>> 16));
+        put((char) value);
+    }
+
+    private void put(char c) {
+        if (position == CHUNK_SIZE) {
+            current = new char[CHUNK_SIZE];
+            chunks.add(current);
+            position = 0;
+        }
+        current[position++] = c;
+    }
+
+    private static final class FieldState {
+
+        private final char[] cells = new char[FIELD_SIZE];
+
+        private int updates;
+
+    }
+
+    private final class Reader implements Iterator<GameMessage> {
+
+        private final Map<Integer, char[]> cells = new HashMap<>();
+
+        private int read;
+
+        private int chunk;
+
+        private int offset;
+
+        private long timestamp;
+
+        @Override
+        public boolean hasNext() {
+            return read < size;
+        }
+
+        @Override
+        public GameMessage next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            char type = get();
+            timestamp += getInt();
+            read++;
+
+            return GameMessage.of(timestamp, readMessage(type));
+        }
+
+        private Message readMessage(char type) {
+            switch (type) {
+                case FIELD_KEYFRAME: {
+                    int sender = getInt();
+                    boolean server = getBoolean();
+                    char[] field = cells.computeIfAbsent(sender, k -> new char[FIELD_SIZE]);
+                    for (int i = 0; i < FIELD_SIZE; i++) {
+                        field[i] = get();
+                    }
+                    return FieldMessage.of(sender, new String(field), server);
+                }
+                case FIELD_DIFF: {
+                    int sender = getInt();
+                    boolean server = getBoolean();
+                    char[] field = cells.computeIfAbsent(sender, k -> new char[FIELD_SIZE]);
+                    int changes = get();
+                    for (int i = 0; i < changes; i++) {
+                        int index = get();
+                        field[index] = get();
+                    }
+                    return FieldMessage.of(sender, new String(field), server);
+                }
+                case LVL: {
+                    int sender = getInt();
+                    return LvlMessage.of(sender, getInt());
+                }
+                case SPECIAL_BLOCK: {
+                    int sender = getInt();
+                    int target = getInt();
+                    Special special = SPECIALS[get()];
+                    return SpecialBlockMessage.of(sender, special, target, getBoolean());
+                }
+                case CLASSIC_STYLE_ADD: {
+                    int sender = getInt();
+                    return ClassicStyleAddMessage.of(sender, getInt());
+                }
+                case PLAYER_LEAVE:
+                    return PlayerLeaveMessage.of(getInt());
+                case PLAYER_LOST:
+                    return PlayerLostMessage.of(getInt());
+                case PLAYER_WON:
+                    return PlayerWonMessage.of(getInt());
+                case RAW: {
+                    boolean server = getBoolean();
+                    char[] raw = new char[getInt()];
+                    for (int i = 0; i < raw.length; i++) {
+                        raw[i] = get();
+                    }
+                    return MessageParser.parse(new String(raw), server).orElseThrow(IllegalStateException::new);
+                }
+                default:
+                    throw new IllegalStateException("unknown message type " + (int) type);
+            }
+        }
+
+        private boolean getBoolean() {
+            return get() != 0;
+        }
+
+        private int getInt() {
+            return (get() << 16) | get();
+        }
+
+        private char get() {
+            if (offset == CHUNK_SIZE) {
+                chunk++;
+                offset = 0;
+            }
+            return chunks.get(chunk - released)[offset++];
+        }
+
+    }
+
+}
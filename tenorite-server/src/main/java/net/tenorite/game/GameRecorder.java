@@ -36,45 +36,83 @@ public final class GameRecorder {
 
     private final Tempo tempo;
 
-    private final GameModeId gameModeId;
+    private final GameMode gameMode;
 
     private final StopWatch stopWatch;
 
     private final GameListener listener;
 
-    private final GameRules gameRules;
-
     private List<Player> players;
 
     private Map<Integer, Field> fields = new HashMap<>();
 
     private Map<Integer, Player> slots = new HashMap<>();
 
-    private List<GameMessage> messages = new ArrayList<>();
+    private final GameMessageBuffer messages = new GameMessageBuffer();
+
+    private final GameChunkWriter chunkWriter;
+
+    private final int chunkSize;
+
+    private final long recordingLimit;
+
+    private boolean streaming;
+
+    private int chunkIndex;
+
+    private int chunkOffset;
+
+    private PlayingStatsAccumulator stats;
+
+    private List<PlayingStats> ranking;
+
+    public GameRecorder(Tempo tempo, GameMode gameMode, GameListener gameListener) {
+        this(tempo, gameMode, gameListener, GameChunkWriter.NOOP, Integer.MAX_VALUE);
+    }
+
+    public GameRecorder(Tempo tempo, GameMode gameMode, GameListener gameListener, GameChunkWriter chunkWriter, int chunkSize) {
+        this(tempo, gameMode, gameListener, chunkWriter, chunkSize, 0);
+    }
+
+    /**
+     * Creates a recorder keeping the messages in memory until the recording exceeds the given limit in bytes, after
+     * which they are written in chunks for the rest of the game; with a limit of zero, all messages are written in
+     * chunks.
+     */
+    public GameRecorder(Tempo tempo, GameMode gameMode, GameListener gameListener, GameChunkWriter chunkWriter, int chunkSize, long recordingLimit) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be positive");
+        }
 
-    public GameRecorder(Tempo tempo, GameModeId gameModeId, GameRules gameRules, GameListener gameListener) {
         this.id = newGameId();
         this.tempo = tempo;
-        this.gameModeId = gameModeId;
+        this.gameMode = gameMode;
 
         this.stopWatch = new CommonsStopWatch();
-        this.gameRules = gameRules;
         this.listener = gameListener;
+        this.chunkWriter = chunkWriter;
+        this.chunkSize = chunkSize;
+        this.recordingLimit = recordingLimit;
+        this.streaming = chunkWriter.isEnabled() && recordingLimit <= 0;
     }
 
     public GameRules start(List<Player> players) {
         this.players = Collections.unmodifiableList(players);
         this.fields.putAll(players.stream().collect(toMap(Player::getSlot, p -> Field.empty())));
         this.slots.putAll(players.stream().collect(toMap(Player::getSlot, Function.identity())));
+        this.stats = new PlayingStatsAccumulator(gameMode, players);
 
         stopWatch.start();
         listener.onStartGame(players);
-        return GameRules.from(gameRules, b -> b.classicRules(true));
+        return GameRules.from(gameMode.getGameRules(), b -> b.classicRules(true));
     }
 
     public void stop() {
         if (stopWatch.isStarted() || stopWatch.isSuspended()) {
             finishRecording();
+            if (streaming) {
+                chunkWriter.discard(id);
+            }
         }
     }
 
@@ -128,7 +166,7 @@ public final class GameRecorder {
             if (sender != null) {
                 listener.onClassicStyleAdd(sender, classicStyleAddMessage.getLines());
                 recordMessage(stopWatch.getTime(), classicStyleAddMessage);
-                return gameRules.getClassicRules();
+                return gameMode.getGameRules().getClassicRules();
             }
         }
         return false;
@@ -139,7 +177,7 @@ public final class GameRecorder {
         if (sender != null) {
             Field field = fields.computeIfPresent(sender.getSlot(), updateWith(fieldMessage.getUpdate()));
             listener.onFieldUpdate(sender, field);
-            recordMessage(stopWatch.getTime(), FieldMessage.of(sender.getSlot(), field.getFieldString(), fieldMessage.isServerMessage()));
+            recordMessage(stopWatch.getTime(), FieldMessage.of(sender.getSlot(), field.getFieldString(), fieldMessage.isServerMessage()), field);
         }
     }
 
@@ -161,10 +199,14 @@ public final class GameRecorder {
     }
 
     public Game onPlayerWonMessage(PlayerWonMessage playerWonMessage) {
-        messages.add(GameMessage.of(stopWatch.getTime(), playerWonMessage));
+        recordMessage(stopWatch.getTime(), playerWonMessage);
         return finishRecording();
     }
 
+    public String getId() {
+        return id;
+    }
+
     public Optional<Field> getField(int slot) {
         return ofNullable(fields.get(slot));
     }
@@ -173,14 +215,73 @@ public final class GameRecorder {
         return stopWatch.isSuspended();
     }
 
+    public int getNrOfRecordedMessages() {
+        return messages.size();
+    }
+
+    public long getRecordingSize() {
+        return messages.sizeInBytes();
+    }
+
+    /**
+     * @return true when the messages of the game are written in chunks instead of being returned with the game
+     */
+    public boolean isStreaming() {
+        return streaming;
+    }
+
+    public List<PlayingStats> getLiveStats() {
+        return stats == null ? Collections.emptyList() : stats.snapshot(stopWatch.getTime());
+    }
+
+    /**
+     * @return the ranking of the last finished game, or an empty list when no game has been finished yet
+     */
+    public List<PlayingStats> getRanking() {
+        return ranking == null ? Collections.emptyList() : ranking;
+    }
+
+    private void recordMessage(long time, FieldMessage message, Field field) {
+        if (!message.isServerMessage()) {
+            stats.processField(message.getSender(), field.getHighest());
+        }
+        append(time, message);
+    }
+
     private void recordMessage(long time, Message message) {
-        messages.add(GameMessage.of(time, message));
+        stats.process(time, message);
+        append(time, message);
+    }
+
+    private void append(long time, Message message) {
+        messages.add(time, message);
+        if (!streaming && chunkWriter.isEnabled() && messages.sizeInBytes() > recordingLimit) {
+            streaming = true;
+        }
+        if (streaming && messages.undrained() >= chunkSize) {
+            writeChunks();
+        }
+    }
+
+    private void writeChunks() {
+        List<GameMessage> drained = messages.drain();
+        for (int i = 0; i < drained.size(); i += chunkSize) {
+            List<GameMessage> chunk = drained.subList(i, Math.min(i + chunkSize, drained.size()));
+            chunkWriter.write(GameChunk.of(id, chunkIndex++, chunkOffset, chunk));
+            chunkOffset += chunk.size();
+        }
     }
 
     private Game finishRecording() {
         stopWatch.stop();
         listener.onEndGame();
-        return Game.of(id, stopWatch.getStartTime(), stopWatch.getTime(), tempo, gameModeId, players, messages);
+        if (streaming && messages.undrained() > 0) {
+            writeChunks();
+        }
+        ranking = stats.ranking(stopWatch.getTime());
+        // the messages of a streamed game are read back from the stored chunks
+        Iterable<GameMessage> recorded = streaming ? Collections.emptyList() : messages;
+        return Game.of(id, stopWatch.getStartTime(), stopWatch.getTime(), tempo, gameMode.getId(), players, recorded);
     }
 
     private long teamCount() {
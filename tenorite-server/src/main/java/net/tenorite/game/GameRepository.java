@@ -19,6 +19,7 @@ import net.tenorite.core.Tempo;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * @author Johan Siebens
@@ -33,8 +34,41 @@ public interface GameRepository {
 
         Optional<Game> loadGame(String id);
 
+        /**
+         * @return the game with at most limit of its messages, starting at the given offset
+         */
+        Optional<Game> loadGame(String id, int offset, int limit);
+
+        /**
+         * @return the game without its messages
+         */
+        Optional<Game> loadMetadata(String id);
+
         List<Game> recentGames(GameModeId gameModeId);
 
+        /**
+         * @return the games of the given mode ordered by timestamp and id, starting after the given game; the stream
+         * holds a cursor and should be closed
+         */
+        Stream<Game> games(GameModeId gameModeId, long afterTimestamp, String afterId);
+
+        void saveChunk(GameChunk chunk);
+
+        /**
+         * @return the stored chunks of the given game, ordered by index
+         */
+        List<GameChunk> loadChunks(String gameId);
+
+        void deleteChunks(String gameId);
+
+        void saveTimeline(GameTimeline timeline);
+
+        Optional<GameTimeline> loadTimeline(String gameId);
+
+        void saveRanking(GameRanking ranking);
+
+        Optional<GameRanking> loadRanking(String gameId);
+
     }
 
 }
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tenorite.game;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import net.tenorite.protocol.FieldMessage;
+import net.tenorite.util.ImmutableStyle;
+import org.immutables.value.Value;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Index of a recorded game with a keyframe of all fields every interval, so a replay can start at any point in time
+ * without applying all preceding field updates.
+ *
+ * @author Johan Siebens
+ */
+@Value.Immutable
+@ImmutableStyle
+@JsonDeserialize(as = GameTimelineBuilder.ImmutableGameTimeline.class)
+public abstract class GameTimeline {
+
+    private static final int SLOTS = 6;
+
+    public static GameTimeline of(Game game, long interval) {
+        Recorder recorder = new Recorder(game.getId(), interval);
+        recorder.record(game.getMessages());
+        return recorder.build();
+    }
+
+    @JsonProperty("_id")
+    public abstract String getGameId();
+
+    public abstract long getInterval();
+
+    public abstract List<GameKeyframe> getKeyframes();
+
+    /**
+     * @return the last keyframe at or before the given time
+     */
+    @JsonIgnore
+    public final GameKeyframe getKeyframe(long time) {
+        List<GameKeyframe> keyframes = getKeyframes();
+        int index = (int) Math.max(0, Math.min(keyframes.size() - 1, time / getInterval()));
+        return keyframes.get(index);
+    }
+
+    /**
+     * @return the state of all fields at the given time, starting from the nearest keyframe
+     */
+    public final GameKeyframe seek(Game game, long time) {
+        GameKeyframe keyframe = getKeyframe(time);
+        List<GameMessage> messages = game.getMessages();
+        return advance(keyframe, messages.subList(Math.min(keyframe.getOffset(), messages.size()), messages.size()), time);
+    }
+
+    /**
+     * Applies the given messages, which follow the given position in the game, until the given time.
+     *
+     * @return the state of all fields at the given time, or at the end of the messages when they stop earlier
+     */
+    public static GameKeyframe advance(GameKeyframe position, List<GameMessage> messages, long time) {
+        Field[] fields = position.getFields().stream().map(f -> f.isEmpty() ? null : Field.of(f)).toArray(Field[]::new);
+
+        int applied = 0;
+        while (applied < messages.size() && messages.get(applied).getTimestamp() < time) {
+            apply(fields, messages.get(applied++));
+        }
+
+        return GameKeyframe.of(time, position.getOffset() + applied, fieldStrings(fields));
+    }
+
+    /**
+     * Applies the field updates in the given message to the fields of slot 1 to 6.
+     */
+    private static void apply(Field[] fields, GameMessage m) {
+        if (m.getMessage() instanceof FieldMessage) {
+            FieldMessage fm = (FieldMessage) m.getMessage();
+            int slot = fm.getSender();
+            if (slot >= 1 && slot <= SLOTS) {
+                Field field = fields[slot - 1];
+                fields[slot - 1] = (field == null ? Field.empty() : field).update(fm.getUpdate());
+            }
+        }
+    }
+
+    private static List<String> fieldStrings(Field[] fields) {
+        return Arrays.asList(Arrays.stream(fields).map(f -> f == null ? "" : f.getFieldString()).toArray(String[]::new));
+    }
+
+    /**
+     * Builds the timeline of a game from its messages while they are recorded, without holding the messages.
+     */
+    public static final class Recorder {
+
+        private final String gameId;
+
+        private final long interval;
+
+        private final List<GameKeyframe> keyframes = new ArrayList<>();
+
+        private final Field[] fields = new Field[SLOTS];
+
+        private long next;
+
+        private int offset;
+
+        public Recorder(String gameId, long interval) {
+            if (interval <= 0) {
+                throw new IllegalArgumentException("interval must be positive");
+            }
+            this.gameId = gameId;
+            this.interval = interval;
+        }
+
+        /**
+         * @return the number of messages recorded so far
+         */
+        public int getOffset() {
+            return offset;
+        }
+
+        /**
+         * Records the given messages, which follow all messages recorded so far.
+         */
+        public void record(List<GameMessage> messages) {
+            for (GameMessage m : messages) {
+                while (m.getTimestamp() >= next) {
+                    keyframes.add(GameKeyframe.of(next, offset, fieldStrings(fields)));
+                    next += interval;
+                }
+                apply(fields, m);
+                offset++;
+            }
+        }
+
+        public GameTimeline build() {
+            List<GameKeyframe> result = keyframes.isEmpty() ? Collections.singletonList(GameKeyframe.of(0, 0, fieldStrings(fields))) : keyframes;
+            return new GameTimelineBuilder().gameId(gameId).interval(interval).keyframes(result).build();
+        }
+
+    }
+
+}
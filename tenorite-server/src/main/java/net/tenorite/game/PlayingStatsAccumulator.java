@@ -0,0 +1,280 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tenorite.game;
+
+import net.tenorite.core.Special;
+import net.tenorite.protocol.*;
+
+import java.util.*;
+
+import static java.lang.Math.max;
+import static java.util.function.Function.identity;
+import static java.util.stream.Collectors.toMap;
+
+/**
+ * Keeps the playing stats of all players up to date while the messages of a game are processed one by one, so the
+ * ranking is available as soon as the game has ended.
+ *
+ * @author Johan Siebens
+ */
+public final class PlayingStatsAccumulator {
+
+    private static final int SLOTS = 7;
+
+    private static final Special[] SPECIALS = Special.values();
+
+    private final GameMode gameMode;
+
+    private final LinkedList<PlayingStats> ranking = new LinkedList<>();
+
+    private final Set<Integer> rankedBeforeEnd = new HashSet<>();
+
+    private final Map<Integer, Player> players = new LinkedHashMap<>();
+
+    private final boolean[] participants = new boolean[SLOTS];
+
+    private final long[] playingTimes = new long[SLOTS];
+
+    private final boolean[] finished = new boolean[SLOTS];
+
+    private final int[] levels = new int[SLOTS];
+
+    private final int[] twoLineCombos = new int[SLOTS];
+
+    private final int[] threeLineCombos = new int[SLOTS];
+
+    private final int[] fourLineCombos = new int[SLOTS];
+
+    private final int[] lastFieldHeights = new int[SLOTS];
+
+    private final int[] maxFieldHeights = new int[SLOTS];
+
+    private final int[] blocks = new int[SLOTS];
+
+    private final StringBuilder[] specialsSequence = new StringBuilder[SLOTS];
+
+    private final int[][] specialsReceived = new int[SLOTS][SPECIALS.length];
+
+    private final int[][] specialsOnSelf = new int[SLOTS][SPECIALS.length];
+
+    private final int[][] specialsOnOpponent = new int[SLOTS][SPECIALS.length];
+
+    private final int[][] specialsOnTeamPlayer = new int[SLOTS][SPECIALS.length];
+
+    public PlayingStatsAccumulator(GameMode gameMode, List<Player> players) {
+        this.gameMode = gameMode;
+        this.players.putAll(players.stream().collect(toMap(Player::getSlot, identity())));
+
+        this.players.keySet().forEach(slot -> participants[slot] = true);
+
+        Arrays.fill(blocks, -1);
+        for (int i = 0; i < SLOTS; i++) {
+            specialsSequence[i] = new StringBuilder();
+        }
+    }
+
+    public void process(long timestamp, Message message) {
+        if (message instanceof PlayerLostMessage) {
+            process(timestamp, (PlayerLostMessage) message);
+        }
+        else if (message instanceof PlayerLeaveMessage) {
+            players.remove(((PlayerLeaveMessage) message).getSender());
+        }
+        else if (message instanceof PlayerWonMessage) {
+            process(timestamp, (PlayerWonMessage) message);
+        }
+        else if (message instanceof LvlMessage) {
+            process((LvlMessage) message);
+        }
+        else if (message instanceof FieldMessage) {
+            FieldMessage field = (FieldMessage) message;
+            if (!field.isServerMessage()) {
+                processField(field.getSender(), Field.of(field.getUpdate()).getHighest());
+            }
+        }
+        else if (message instanceof ClassicStyleAddMessage) {
+            process((ClassicStyleAddMessage) message);
+        }
+        else if (message instanceof SpecialBlockMessage) {
+            process((SpecialBlockMessage) message);
+        }
+    }
+
+    /**
+     * Same as processing a non-server {@link FieldMessage}, for callers that already know the height of the field.
+     */
+    public void processField(int slot, int height) {
+        if (isValid(slot)) {
+            lastFieldHeights[slot] = height;
+            maxFieldHeights[slot] = max(maxFieldHeights[slot], height);
+            blocks[slot]++;
+        }
+    }
+
+    public List<PlayingStats> ranking(long duration) {
+        LinkedList<PlayingStats> result = new LinkedList<>();
+
+        ranking.forEach(ps -> {
+            if (rankedBeforeEnd.contains(ps.getPlayer().getSlot())) {
+                result.addLast(new PlayingStatsBuilder().from(ps).playingTime(duration).build());
+            }
+            else {
+                result.addLast(ps);
+            }
+        });
+
+        players.values().stream().map(p -> stats(p, duration)).forEach(result::addFirst);
+
+        return result;
+    }
+
+    /**
+     * @return the current stats of the players still playing, followed by the final stats of the players that are out
+     */
+    public List<PlayingStats> snapshot(long time) {
+        List<PlayingStats> result = new ArrayList<>(players.size() + ranking.size());
+        players.values().forEach(p -> result.add(stats(p, time)));
+        result.addAll(ranking);
+        return result;
+    }
+
+    private void process(long timestamp, PlayerLostMessage message) {
+        Player loser = players.remove(message.getSender());
+        if (loser != null) {
+            finish(loser.getSlot(), timestamp);
+            ranking.addFirst(stats(loser, timestamp));
+        }
+    }
+
+    private void process(LvlMessage message) {
+        if (isValid(message.getSender())) {
+            levels[message.getSender()] = message.getLevel();
+        }
+    }
+
+    private void process(ClassicStyleAddMessage message) {
+        int sender = message.getSender();
+        if (isValid(sender) && participants[sender]) {
+            switch (message.getLines()) {
+                case 1:
+                    twoLineCombos[sender]++;
+                    break;
+                case 2:
+                    threeLineCombos[sender]++;
+                    break;
+                case 4:
+                    fourLineCombos[sender]++;
+                    break;
+            }
+        }
+        removeBlockCounts(sender);
+    }
+
+    private void process(SpecialBlockMessage message) {
+        int sender = message.getSender();
+        int target = message.getTarget();
+        int special = message.getSpecial().ordinal();
+
+        Player targetPlayer = players.get(target);
+        if (targetPlayer != null) {
+            blocks[target]--;
+        }
+
+        if (!message.isServerMessage()) {
+            Player senderPlayer = players.get(sender);
+            if (target == sender) {
+                if (senderPlayer != null) {
+                    specialsOnSelf[sender][special]++;
+                    specialsSequence[sender].append(message.getSpecial().getLetter());
+                }
+            }
+            else if (senderPlayer != null && targetPlayer != null) {
+                if (senderPlayer.isTeamPlayerOf(targetPlayer)) {
+                    specialsOnTeamPlayer[sender][special]++;
+                }
+                else {
+                    specialsOnOpponent[sender][special]++;
+                }
+
+                specialsReceived[target][special]++;
+                specialsSequence[sender].append(message.getSpecial().getLetter());
+            }
+        }
+    }
+
+    private void process(long timestamp, PlayerWonMessage message) {
+        Player winner = players.remove(message.getSender());
+        if (winner != null) {
+            // the playing time of the other players is the game duration, which is only known at the end
+            players.values().forEach(p -> rankedBeforeEnd.add(p.getSlot()));
+            players.values().stream().map(p -> stats(p, timestamp)).sorted(gameMode.getPlayingStatsComparator().reversed()).forEach(ranking::addFirst);
+            players.clear();
+
+            finish(winner.getSlot(), timestamp);
+            ranking.addFirst(stats(winner, timestamp));
+        }
+    }
+
+    private void removeBlockCounts(int sender) {
+        if (gameMode.getGameRules().getClassicRules() || sender == 0) {
+            if (sender == 0) {
+                players.keySet().forEach(slot -> blocks[slot]--);
+            }
+            else {
+                Player player = players.get(sender);
+                if (player != null) {
+                    players.values().stream()
+                        .filter(o -> !o.equals(player))
+                        .filter(o -> !o.isTeamPlayerOf(player))
+                        .forEach(o -> blocks[o.getSlot()]--);
+                }
+            }
+        }
+    }
+
+    private void finish(int slot, long timestamp) {
+        finished[slot] = true;
+        playingTimes[slot] = timestamp;
+    }
+
+    private PlayingStats stats(Player player, long duration) {
+        GameRules gameRules = gameMode.getGameRules();
+        int slot = player.getSlot();
+
+        return PlayingStats.of(
+            player,
+            finished[slot] ? playingTimes[slot] : duration,
+            levels[slot],
+            max(0, levels[slot] - gameRules.getStartingLevel()) * gameRules.getLinesPerLevel(),
+            twoLineCombos[slot],
+            threeLineCombos[slot],
+            fourLineCombos[slot],
+            lastFieldHeights[slot],
+            maxFieldHeights[slot],
+            max(blocks[slot], 0),
+            specialsSequence[slot].toString(),
+            SpecialCounts.of(specialsReceived[slot]),
+            SpecialCounts.of(specialsOnOpponent[slot]),
+            SpecialCounts.of(specialsOnTeamPlayer[slot]),
+            SpecialCounts.of(specialsOnSelf[slot])
+        );
+    }
+
+    private static boolean isValid(int slot) {
+        return slot >= 0 && slot < SLOTS;
+    }
+
+}
@@ -17,38 +17,109 @@ package net.tenorite.game.actors;
 
 import akka.actor.Props;
 import net.tenorite.game.Game;
+import net.tenorite.game.GameChunk;
+import net.tenorite.game.GameRanking;
 import net.tenorite.game.GameRepository;
+import net.tenorite.game.GameTimeline;
+import net.tenorite.game.events.GameChunkRecorded;
+import net.tenorite.game.events.GameDiscarded;
 import net.tenorite.game.events.GameFinished;
+import net.tenorite.game.events.GameStreamStored;
+import net.tenorite.game.events.GameStreamed;
 import net.tenorite.util.AbstractActor;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
 /**
  * @author Johan Siebens
  */
 public final class GamesActor extends AbstractActor {
 
     public static Props props(GameRepository repository) {
-        return Props.create(GamesActor.class, repository).withDispatcher("games-dispatcher");
+        return Props.create(GamesActor.class, repository).withDispatcher("games-dispatcher").withMailbox("persistence-mailbox");
     }
 
     private final GameRepository gameRepository;
 
+    private final Map<String, GameTimeline.Recorder> timelines = new HashMap<>();
+
+    private long timelineInterval;
+
     public GamesActor(GameRepository gameRepository) {
         this.gameRepository = gameRepository;
     }
 
     @Override
     public void preStart() throws Exception {
+        timelineInterval = context().system().settings().config().getDuration("tenorite.games.timeline-interval", TimeUnit.MILLISECONDS);
+
         subscribe(GameFinished.class);
+        subscribe(GameStreamed.class);
+        subscribe(GameChunkRecorded.class);
+        subscribe(GameDiscarded.class);
     }
 
     @Override
     public void onReceive(Object message) throws Exception {
         if (message instanceof GameFinished) {
-            GameFinished gf = (GameFinished) message;
-            if (gf.getRanking().size() > 1) {
-                Game game = gf.getGame();
-                gameRepository.gameOps(game.getTempo()).saveGame(game);
+            handleGameFinished((GameFinished) message);
+        }
+        else if (message instanceof GameStreamed) {
+            handleGameStreamed((GameStreamed) message);
+        }
+        else if (message instanceof GameChunkRecorded) {
+            handleGameChunkRecorded((GameChunkRecorded) message);
+        }
+        else if (message instanceof GameDiscarded) {
+            GameDiscarded gd = (GameDiscarded) message;
+            timelines.remove(gd.getGameId());
+            gameRepository.gameOps(gd.getTempo()).deleteChunks(gd.getGameId());
+        }
+    }
+
+    private void handleGameFinished(GameFinished gf) {
+        Game game = gf.getGame();
+        if (gf.getRanking().size() > 1) {
+            GameRepository.GameOps gameOps = gameRepository.gameOps(game.getTempo());
+            gameOps.saveGame(game);
+            gameOps.saveTimeline(GameTimeline.of(game, timelineInterval));
+            gameOps.saveRanking(GameRanking.of(game.getId(), gf.getRanking()));
+        }
+    }
+
+    private void handleGameChunkRecorded(GameChunkRecorded gcr) {
+        GameChunk chunk = gcr.getChunk();
+        gameRepository.gameOps(gcr.getTempo()).saveChunk(chunk);
+
+        GameTimeline.Recorder timeline = chunk.getIndex() == 0 ? new GameTimeline.Recorder(chunk.getGameId(), timelineInterval) : timelines.get(chunk.getGameId());
+        if (timeline != null && timeline.getOffset() == chunk.getOffset()) {
+            timeline.record(chunk.getMessages());
+            timelines.put(chunk.getGameId(), timeline);
+        }
+        else {
+            // a missing chunk leaves the game without a stored timeline, a replay then seeks from the start
+            timelines.remove(chunk.getGameId());
+        }
+    }
+
+    private void handleGameStreamed(GameStreamed gs) {
+        Game game = gs.getGame();
+        GameRepository.GameOps gameOps = gameRepository.gameOps(game.getTempo());
+        GameTimeline.Recorder timeline = timelines.remove(game.getId());
+
+        // the chunks of the game are received, and stored, before the end of the game
+        if (gs.getRanking().size() > 1) {
+            gameOps.saveGame(game);
+            if (timeline != null) {
+                gameOps.saveTimeline(timeline.build());
             }
+            gameOps.saveRanking(GameRanking.of(game.getId(), gs.getRanking()));
+            publish(game.getTempo(), game.getGameModeId(), GameStreamStored.of(game, gs.getRanking()));
+        }
+        else {
+            gameOps.deleteChunks(game.getId());
         }
     }
 
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tenorite.game.events;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import net.tenorite.game.Game;
+import net.tenorite.game.PlayingStats;
+import net.tenorite.util.ImmutableStyle;
+import org.immutables.value.Value;
+
+import java.util.List;
+
+/**
+ * Published once all chunks and the metadata of a {@link GameStreamed} game are stored, so consumers needing the
+ * messages can load them.
+ *
+ * @author Johan Siebens
+ */
+@Value.Immutable
+@ImmutableStyle
+@JsonDeserialize(as = GameStreamStoredBuilder.ImmutableGameStreamStored.class)
+public abstract class GameStreamStored {
+
+    public static GameStreamStored of(Game game, List<PlayingStats> ranking) {
+        return new GameStreamStoredBuilder().game(game).ranking(ranking).build();
+    }
+
+    public abstract Game getGame();
+
+    public abstract List<PlayingStats> getRanking();
+
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tenorite.game.events;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import net.tenorite.game.Game;
+import net.tenorite.game.PlayingStats;
+import net.tenorite.util.ImmutableStyle;
+import org.immutables.value.Value;
+
+import java.util.List;
+
+/**
+ * End of a game of which the messages were written as chunks; the game carries no messages, consumers needing them
+ * wait for the {@link GameStreamStored} event.
+ *
+ * @author Johan Siebens
+ */
+@Value.Immutable
+@ImmutableStyle
+@JsonDeserialize(as = GameStreamedBuilder.ImmutableGameStreamed.class)
+public abstract class GameStreamed {
+
+    public static GameStreamed of(Game game, List<PlayingStats> ranking) {
+        return new GameStreamedBuilder().game(game).ranking(ranking).build();
+    }
+
+    public abstract Game getGame();
+
+    public abstract List<PlayingStats> getRanking();
+
+}
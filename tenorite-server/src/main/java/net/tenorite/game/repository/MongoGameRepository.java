@@ -17,17 +17,28 @@ package net.tenorite.game.repository;
 
 import net.tenorite.core.Tempo;
 import net.tenorite.game.Game;
+import net.tenorite.game.GameBuilder;
+import net.tenorite.game.GameChunk;
+import net.tenorite.game.GameMessage;
 import net.tenorite.game.GameModeId;
+import net.tenorite.game.GameRanking;
 import net.tenorite.game.GameRepository;
+import net.tenorite.game.GameTimeline;
 import org.jongo.Jongo;
 import org.jongo.MongoCollection;
 import org.jongo.MongoCursor;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
 import java.util.EnumMap;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import static java.util.Collections.emptyList;
 import static java.util.stream.Collectors.toList;
 import static java.util.stream.StreamSupport.stream;
 
@@ -40,21 +51,41 @@ public class MongoGameRepository implements GameRepository {
 
     private Map<Tempo, MongoCollection> collections = new EnumMap<>(Tempo.class);
 
+    private Map<Tempo, MongoCollection> chunkCollections = new EnumMap<>(Tempo.class);
+
+    private Map<Tempo, MongoCollection> timelineCollections = new EnumMap<>(Tempo.class);
+
+    private Map<Tempo, MongoCollection> rankingCollections = new EnumMap<>(Tempo.class);
+
     public MongoGameRepository(Jongo jongo) {
         this.jongo = jongo;
     }
 
     @Override
     public GameOps gameOps(Tempo tempo) {
-        return new MongoGameOps(collections.computeIfAbsent(tempo, t -> createCollection(jongo, t)));
+        return new MongoGameOps(
+            collections.computeIfAbsent(tempo, t -> createCollection(jongo, t)),
+            chunkCollections.computeIfAbsent(tempo, t -> createChunkCollection(jongo, t)),
+            timelineCollections.computeIfAbsent(tempo, t -> createTimelineCollection(jongo, t)),
+            rankingCollections.computeIfAbsent(tempo, t -> createRankingCollection(jongo, t))
+        );
     }
 
     private class MongoGameOps implements GameOps {
 
         private MongoCollection collection;
 
-        MongoGameOps(MongoCollection collection) {
+        private MongoCollection chunks;
+
+        private MongoCollection timelines;
+
+        private MongoCollection rankings;
+
+        MongoGameOps(MongoCollection collection, MongoCollection chunks, MongoCollection timelines, MongoCollection rankings) {
             this.collection = collection;
+            this.chunks = chunks;
+            this.timelines = timelines;
+            this.rankings = rankings;
         }
 
         @Override
@@ -64,7 +95,21 @@ public class MongoGameRepository implements GameRepository {
 
         @Override
         public Optional<Game> loadGame(String id) {
-            return Optional.ofNullable(collection.findOne("{_id:#}", id).as(Game.class));
+            return Optional.ofNullable(collection.findOne("{_id:#}", id).as(Game.class)).map(this::withChunks);
+        }
+
+        @Override
+        public Optional<Game> loadGame(String id, int offset, int limit) {
+            Game game = collection.findOne("{_id:#}", id).projection("{messages:{$slice:[#, #]}}", offset, limit).as(Game.class);
+            if (game == null || !game.getMessages().isEmpty()) {
+                return Optional.ofNullable(game);
+            }
+            return Optional.of(new GameBuilder().from(game).messages(chunkMessages(id, offset, limit)).build());
+        }
+
+        @Override
+        public Optional<Game> loadMetadata(String id) {
+            return Optional.ofNullable(collection.findOne("{_id:#}", id).projection("{messages:0}").as(Game.class));
         }
 
         @Override
@@ -73,10 +118,115 @@ public class MongoGameRepository implements GameRepository {
             return stream(cursor.spliterator(), false).collect(toList());
         }
 
+        @Override
+        public Stream<Game> games(GameModeId gameModeId, long afterTimestamp, String afterId) {
+            MongoCursor<Game> cursor =
+                collection
+                    .find("{gameModeId:#, $or:[{timestamp:{$gt:#}}, {timestamp:#, _id:{$gt:#}}]}", gameModeId, afterTimestamp, afterTimestamp, afterId)
+                    .sort("{timestamp:1, _id:1}")
+                    .as(Game.class);
+            return stream(cursor.spliterator(), false).map(this::withChunks).onClose(() -> close(cursor));
+        }
+
+        @Override
+        public void saveChunk(GameChunk chunk) {
+            chunks.save(chunk);
+        }
+
+        @Override
+        public List<GameChunk> loadChunks(String gameId) {
+            MongoCursor<GameChunk> cursor = chunks.find("{gameId:#}", gameId).sort("{index:1}").as(GameChunk.class);
+            return stream(cursor.spliterator(), false).collect(toList());
+        }
+
+        @Override
+        public void deleteChunks(String gameId) {
+            chunks.remove("{gameId:#}", gameId);
+        }
+
+        @Override
+        public void saveTimeline(GameTimeline timeline) {
+            timelines.save(timeline);
+        }
+
+        @Override
+        public Optional<GameTimeline> loadTimeline(String gameId) {
+            return Optional.ofNullable(timelines.findOne("{_id:#}", gameId).as(GameTimeline.class));
+        }
+
+        @Override
+        public void saveRanking(GameRanking ranking) {
+            rankings.save(ranking);
+        }
+
+        @Override
+        public Optional<GameRanking> loadRanking(String gameId) {
+            return Optional.ofNullable(rankings.findOne("{_id:#}", gameId).as(GameRanking.class));
+        }
+
+        private List<GameMessage> chunkMessages(String gameId, int offset, int limit) {
+            // chunks starting before the end of the range, back to the one holding the first message
+            MongoCursor<GameChunk> cursor = chunks.find("{gameId:#, offset:{$lt:#}}", gameId, offset + limit).sort("{index:-1}").as(GameChunk.class);
+            LinkedList<GameChunk> covering = new LinkedList<>();
+            try {
+                for (GameChunk chunk : cursor) {
+                    covering.addFirst(chunk);
+                    if (chunk.getOffset() <= offset) {
+                        break;
+                    }
+                }
+            }
+            finally {
+                close(cursor);
+            }
+
+            if (covering.isEmpty()) {
+                return emptyList();
+            }
+
+            List<GameMessage> messages = new ArrayList<>();
+            covering.forEach(c -> messages.addAll(c.getMessages()));
+            int from = Math.min(offset - covering.getFirst().getOffset(), messages.size());
+            return new ArrayList<>(messages.subList(from, Math.min(messages.size(), from + limit)));
+        }
+
+        private Game withChunks(Game game) {
+            if (!game.getMessages().isEmpty()) {
+                return game;
+            }
+
+            List<GameMessage> messages = new ArrayList<>();
+            loadChunks(game.getId()).forEach(c -> messages.addAll(c.getMessages()));
+            return messages.isEmpty() ? game : new GameBuilder().from(game).messages(messages).build();
+        }
+
+    }
+
+    private static void close(MongoCursor<?> cursor) {
+        try {
+            cursor.close();
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
     static MongoCollection createCollection(Jongo jongo, Tempo tempo) {
         return jongo.getCollection(tempo + ":games");
     }
 
+    static MongoCollection createChunkCollection(Jongo jongo, Tempo tempo) {
+        MongoCollection collection = jongo.getCollection(tempo + ":games:chunks");
+        collection.ensureIndex("{gameId:1, index:1}");
+        return collection;
+    }
+
+    static MongoCollection createTimelineCollection(Jongo jongo, Tempo tempo) {
+        return jongo.getCollection(tempo + ":games:timelines");
+    }
+
+    static MongoCollection createRankingCollection(Jongo jongo, Tempo tempo) {
+        return jongo.getCollection(tempo + ":games:rankings");
+    }
+
 }
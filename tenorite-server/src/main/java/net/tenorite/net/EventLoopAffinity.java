@@ -0,0 +1,121 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tenorite.net;
+
+import akka.actor.*;
+import io.netty.util.concurrent.EventExecutorGroup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * Keeps track of the event loop on which each actor of the <code>event-loop-dispatcher</code> runs.
+ * <p>
+ * Actors are bound by path, so they can be bound before they are created. Actors without an event loop run on the
+ * fallback pool of the dispatcher.
+ *
+ * @author Johan Siebens
+ */
+public final class EventLoopAffinity implements Extension {
+
+    public static final String DISPATCHER = "event-loop-dispatcher";
+
+    public static final ExtensionId<EventLoopAffinity> ID = new AbstractExtensionId<EventLoopAffinity>() {
+
+        @Override
+        public EventLoopAffinity createExtension(ExtendedActorSystem system) {
+            return new EventLoopAffinity(system);
+        }
+
+    };
+
+    public static EventLoopAffinity get(ActorSystem system) {
+        return ID.get(system);
+    }
+
+    private final Map<ActorPath, Executor> executors = new ConcurrentHashMap<>();
+
+    private final boolean enabled;
+
+    private volatile EventExecutorGroup group;
+
+    private EventLoopAffinity(ActorSystem system) {
+        this.enabled = system.settings().config().getBoolean("tenorite.net.event-loop-affinity");
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Props apply(Props props) {
+        return enabled ? props.withDispatcher(DISPATCHER) : props;
+    }
+
+    public void attach(EventExecutorGroup group) {
+        this.group = group;
+    }
+
+    public Executor executorOf(ActorPath actor) {
+        return executors.get(actor);
+    }
+
+    public void bind(ActorPath actor, Executor executor) {
+        if (enabled) {
+            executors.put(actor, executor);
+        }
+    }
+
+    public void bindToAny(ActorPath actor) {
+        EventExecutorGroup group = this.group;
+        if (enabled && group != null) {
+            executors.putIfAbsent(actor, group.next());
+        }
+    }
+
+    /**
+     * Binds the actor to the event loop shared by most of the given members, so their messages are exchanged without
+     * switching threads.
+     */
+    public void bindToMajority(ActorPath actor, Iterable<ActorRef> members) {
+        if (!enabled) {
+            return;
+        }
+
+        Map<Executor, Integer> counts = new HashMap<>();
+        Executor best = null;
+        int max = 0;
+        for (ActorRef member : members) {
+            Executor executor = executors.get(member.path());
+            if (executor != null) {
+                int count = counts.merge(executor, 1, Integer::sum);
+                if (count > max) {
+                    max = count;
+                    best = executor;
+                }
+            }
+        }
+
+        Optional.ofNullable(best).ifPresent(e -> executors.put(actor, e));
+    }
+
+    public void unbind(ActorPath actor) {
+        executors.remove(actor);
+    }
+
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tenorite.net;
+
+import akka.actor.ActorCell;
+import akka.dispatch.DispatcherPrerequisites;
+import akka.dispatch.ExecutorServiceConfigurator;
+import akka.dispatch.ExecutorServiceFactory;
+import akka.dispatch.Mailbox;
+import com.typesafe.config.Config;
+
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Runs the mailbox of an actor on the event loop it is bound to in {@link EventLoopAffinity}; other tasks, and actors
+ * that are not bound, run on a fallback pool.
+ *
+ * @author Johan Siebens
+ */
+public final class EventLoopExecutorConfigurator extends ExecutorServiceConfigurator {
+
+    private final int fallbackPoolSize;
+
+    public EventLoopExecutorConfigurator(Config config, DispatcherPrerequisites prerequisites) {
+        super(config, prerequisites);
+        this.fallbackPoolSize = config.getInt("fallback-pool-size");
+    }
+
+    @Override
+    public ExecutorServiceFactory createExecutorServiceFactory(String id, ThreadFactory threadFactory) {
+        return () -> new EventLoopExecutorService(Executors.newFixedThreadPool(fallbackPoolSize, threadFactory));
+    }
+
+    private static final class EventLoopExecutorService extends AbstractExecutorService {
+
+        private final ExecutorService fallback;
+
+        EventLoopExecutorService(ExecutorService fallback) {
+            this.fallback = fallback;
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            if (command instanceof Mailbox) {
+                ActorCell cell = ((Mailbox) command).actor();
+                Executor executor = cell == null ? null : EventLoopAffinity.get(cell.system()).executorOf(cell.self().path());
+                if (executor != null) {
+                    try {
+                        executor.execute(command);
+                        return;
+                    }
+                    catch (RejectedExecutionException e) {
+                        // the event loop is shutting down
+                    }
+                }
+            }
+            fallback.execute(command);
+        }
+
+        @Override
+        public void shutdown() {
+            fallback.shutdown();
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return fallback.shutdownNow();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return fallback.isShutdown();
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return fallback.isTerminated();
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+            return fallback.awaitTermination(timeout, unit);
+        }
+
+    }
+
+}
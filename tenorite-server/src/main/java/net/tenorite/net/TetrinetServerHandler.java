@@ -31,6 +31,7 @@ import java.util.ArrayDeque;
 import java.util.Optional;
 import java.util.Queue;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 import static akka.actor.ActorRef.noSender;
 import static net.tenorite.net.InitTokenDecoder.TETRIFASTER;
@@ -143,6 +144,11 @@ final class TetrinetServerHandler extends SimpleChannelInboundHandler<String> {
                 ctx.close();
             }
 
+            @Override
+            public Optional<Executor> executor() {
+                return Optional.of(ctx.executor());
+            }
+
         };
     }
 
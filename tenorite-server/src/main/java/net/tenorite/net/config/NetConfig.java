@@ -15,6 +15,7 @@
  */
 package net.tenorite.net.config;
 
+import akka.actor.ActorSystem;
 import io.netty.bootstrap.ServerBootstrap;
 import io.netty.channel.EventLoopGroup;
 import io.netty.channel.epoll.EpollEventLoopGroup;
@@ -23,6 +24,7 @@ import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.ServerSocketChannel;
 import io.netty.channel.socket.nio.NioServerSocketChannel;
 import net.tenorite.clients.ClientsRegistry;
+import net.tenorite.net.EventLoopAffinity;
 import net.tenorite.net.TetrinetServerInitializer;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -39,12 +41,17 @@ public class NetConfig {
 
     private static final int TETRINET_PORT = 31457;
 
+    @Autowired
+    private ActorSystem actorSystem;
+
     @Autowired
     private ClientsRegistry clientsRegistry;
 
     @Bean(destroyMethod = "shutdownGracefully")
     public EventLoopGroup eventLoopGroup() {
-        return USE_EPOLL ? new EpollEventLoopGroup() : new NioEventLoopGroup();
+        EventLoopGroup group = USE_EPOLL ? new EpollEventLoopGroup() : new NioEventLoopGroup();
+        EventLoopAffinity.get(actorSystem).attach(group);
+        return group;
     }
 
     private Class<? extends ServerSocketChannel> socketChannelClass() {
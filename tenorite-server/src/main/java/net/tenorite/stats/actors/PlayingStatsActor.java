@@ -19,6 +19,7 @@ import akka.actor.Props;
 import net.tenorite.game.Game;
 import net.tenorite.game.PlayingStats;
 import net.tenorite.game.events.GameFinished;
+import net.tenorite.game.events.GameStreamed;
 import net.tenorite.stats.PlayerStatsRepository;
 import net.tenorite.util.AbstractActor;
 
@@ -30,7 +31,7 @@ import java.util.List;
 public final class PlayingStatsActor extends AbstractActor {
 
     public static Props props(PlayerStatsRepository playerStatsRepository) {
-        return Props.create(PlayingStatsActor.class, playerStatsRepository).withDispatcher("playerstats-dispatcher");
+        return Props.create(PlayingStatsActor.class, playerStatsRepository).withDispatcher("playerstats-dispatcher").withMailbox("persistence-mailbox");
     }
 
     private final PlayerStatsRepository playerStatsRepository;
@@ -43,19 +44,22 @@ public final class PlayingStatsActor extends AbstractActor {
     public void preStart() throws Exception {
         super.preStart();
         subscribe(GameFinished.class);
+        subscribe(GameStreamed.class);
     }
 
     @Override
     public void onReceive(Object message) throws Exception {
         if (message instanceof GameFinished) {
-            handleGameFinished((GameFinished) message);
+            GameFinished gf = (GameFinished) message;
+            handleGameFinished(gf.getGame(), gf.getRanking());
+        }
+        else if (message instanceof GameStreamed) {
+            GameStreamed gs = (GameStreamed) message;
+            handleGameFinished(gs.getGame(), gs.getRanking());
         }
     }
 
-    private void handleGameFinished(GameFinished event) {
-        Game game = event.getGame();
-        List<PlayingStats> ranking = event.getRanking();
-
+    private void handleGameFinished(Game game, List<PlayingStats> ranking) {
         if (ranking.size() > 1) {
             PlayerStatsRepository.PlayerStatsOps ops = playerStatsRepository.playerStatsOps(game.getTempo());
 
@@ -17,8 +17,15 @@ package net.tenorite.util;
 
 import akka.actor.UntypedActor;
 import akka.dispatch.Mapper;
+import akka.dispatch.OnFailure;
 import akka.dispatch.OnSuccess;
+import net.tenorite.core.Tempo;
+import net.tenorite.game.GameModeId;
+import scala.PartialFunction;
+import scala.runtime.BoxedUnit;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
@@ -27,6 +34,27 @@ import java.util.function.Function;
  */
 public abstract class AbstractActor extends UntypedActor {
 
+    private final List<Class<?>> topicTypes = new ArrayList<>();
+
+    @Override
+    public void aroundReceive(PartialFunction<Object, BoxedUnit> receive, Object msg) {
+        super.aroundReceive(receive, msg);
+        for (Class<?> type : topicTypes) {
+            if (type.isInstance(msg)) {
+                DomainEventBus.get(getContext().system()).processed(self());
+                break;
+            }
+        }
+    }
+
+    @Override
+    public void aroundPostStop() {
+        if (!topicTypes.isEmpty()) {
+            DomainEventBus.get(getContext().system()).unsubscribe(self());
+        }
+        super.aroundPostStop();
+    }
+
     protected final void replyWith(Object o) {
         sender().tell(o, self());
     }
@@ -35,10 +63,21 @@ public abstract class AbstractActor extends UntypedActor {
         getContext().system().eventStream().publish(o);
     }
 
+    protected final void publish(Tempo tempo, GameModeId gameModeId, Object o) {
+        DomainEventBus.get(getContext().system()).publish(tempo, gameModeId, o, self());
+    }
+
     protected final void subscribe(Class<?> type) {
         getContext().system().eventStream().subscribe(self(), type);
     }
 
+    protected final void subscribe(Class<?> type, Tempo tempo, GameModeId gameModeId) {
+        if (!topicTypes.contains(type)) {
+            topicTypes.add(type);
+        }
+        DomainEventBus.get(getContext().system()).subscribe(self(), type, tempo, gameModeId);
+    }
+
     protected static <T, R> Mapper<T, R> mapper(Function<T, R> func) {
         return new Mapper<T, R>() {
 
@@ -61,4 +100,15 @@ public abstract class AbstractActor extends UntypedActor {
         };
     }
 
+    protected static OnFailure onFailure(Consumer<Throwable> consumer) {
+        return new OnFailure() {
+
+            @Override
+            public void onFailure(Throwable failure) throws Throwable {
+                consumer.accept(failure);
+            }
+
+        };
+    }
+
 }
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tenorite.util;
+
+import akka.actor.*;
+import akka.event.Logging;
+import akka.event.LoggingAdapter;
+import net.tenorite.core.Tempo;
+import net.tenorite.game.GameModeId;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Delivers domain events only to the actors that subscribed to the tempo and game mode of the event.
+ * <p>
+ * Events of one topic are delivered in the order they were published; every event is published on the event stream
+ * as well, for subscribers interested in all topics.
+ *
+ * @author Johan Siebens
+ */
+public final class DomainEventBus implements Extension {
+
+    public static final ExtensionId<DomainEventBus> ID = new AbstractExtensionId<DomainEventBus>() {
+
+        @Override
+        public DomainEventBus createExtension(ExtendedActorSystem system) {
+            return new DomainEventBus(system);
+        }
+
+    };
+
+    public static DomainEventBus get(ActorSystem system) {
+        return ID.get(system);
+    }
+
+    private final Map<Topic, List<Subscription>> topics = new ConcurrentHashMap<>();
+
+    private final Map<ActorRef, Lag> lags = new ConcurrentHashMap<>();
+
+    private final ActorSystem system;
+
+    private final LoggingAdapter log;
+
+    private final long lagWarningThreshold;
+
+    private DomainEventBus(ActorSystem system) {
+        this.system = system;
+        this.log = Logging.getLogger(system, this);
+        this.lagWarningThreshold = system.settings().config().getLong("tenorite.events.lag-warning-threshold");
+    }
+
+    public void subscribe(ActorRef subscriber, Class<?> type, Tempo tempo, GameModeId gameModeId) {
+        lags.computeIfAbsent(subscriber, k -> new Lag());
+        List<Subscription> subscriptions = topics.computeIfAbsent(new Topic(tempo, gameModeId), k -> new CopyOnWriteArrayList<>());
+        synchronized (subscriptions) {
+            if (subscriptions.stream().noneMatch(s -> s.subscriber.equals(subscriber) && s.type.equals(type))) {
+                subscriptions.add(new Subscription(subscriber, type));
+            }
+        }
+    }
+
+    public void unsubscribe(ActorRef subscriber) {
+        topics.values().forEach(l -> l.removeIf(s -> s.subscriber.equals(subscriber)));
+        lags.remove(subscriber);
+    }
+
+    public void publish(Tempo tempo, GameModeId gameModeId, Object event, ActorRef sender) {
+        List<Subscription> subscriptions = topics.get(new Topic(tempo, gameModeId));
+        if (subscriptions != null) {
+            for (Subscription s : subscriptions) {
+                if (s.type.isInstance(event)) {
+                    Lag lag = lags.get(s.subscriber);
+                    if (lag != null && lag.published.incrementAndGet() - lag.processed.get() == lagWarningThreshold) {
+                        log.warning("subscriber {} is lagging {} events behind", s.subscriber, lagWarningThreshold);
+                    }
+                    s.subscriber.tell(event, sender);
+                }
+            }
+        }
+        system.eventStream().publish(event);
+    }
+
+    /**
+     * Marks one event published to the given subscriber as processed.
+     */
+    public void processed(ActorRef subscriber) {
+        Lag lag = lags.get(subscriber);
+        if (lag != null) {
+            lag.processed.incrementAndGet();
+        }
+    }
+
+    /**
+     * @return the number of events published to the given subscriber which it has not processed yet
+     */
+    public long lag(ActorRef subscriber) {
+        Lag lag = lags.get(subscriber);
+        return lag == null ? 0 : lag.published.get() - lag.processed.get();
+    }
+
+    public Map<ActorRef, Long> lags() {
+        Map<ActorRef, Long> result = new HashMap<>();
+        lags.keySet().forEach(s -> result.put(s, lag(s)));
+        return result;
+    }
+
+    private static final class Lag {
+
+        private final AtomicLong published = new AtomicLong();
+
+        private final AtomicLong processed = new AtomicLong();
+
+    }
+
+    private static final class Subscription {
+
+        private final ActorRef subscriber;
+
+        private final Class<?> type;
+
+        private Subscription(ActorRef subscriber, Class<?> type) {
+            this.subscriber = subscriber;
+            this.type = type;
+        }
+
+    }
+
+    private static final class Topic {
+
+        private final Tempo tempo;
+
+        private final GameModeId gameModeId;
+
+        private Topic(Tempo tempo, GameModeId gameModeId) {
+            this.tempo = tempo;
+            this.gameModeId = gameModeId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Topic)) {
+                return false;
+            }
+            Topic topic = (Topic) o;
+            return tempo == topic.tempo && gameModeId.equals(topic.gameModeId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(tempo, gameModeId);
+        }
+
+    }
+
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tenorite.util;
+
+import akka.actor.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Depth, spill size and lag of the actors using a {@link SpillingMailbox}.
+ *
+ * @author Johan Siebens
+ */
+public final class MailboxMetrics implements Extension {
+
+    public static final ExtensionId<MailboxMetrics> ID = new AbstractExtensionId<MailboxMetrics>() {
+
+        @Override
+        public MailboxMetrics createExtension(ExtendedActorSystem system) {
+            return new MailboxMetrics();
+        }
+
+    };
+
+    public static MailboxMetrics get(ActorSystem system) {
+        return ID.get(system);
+    }
+
+    private final Map<String, SpillingMailbox.SpillingMessageQueue> queues = new ConcurrentSkipListMap<>();
+
+    void register(String actor, SpillingMailbox.SpillingMessageQueue queue) {
+        queues.put(actor, queue);
+    }
+
+    void unregister(String actor) {
+        queues.remove(actor);
+    }
+
+    public List<MailboxStats> snapshot() {
+        return queues.entrySet().stream()
+            .map(e -> MailboxStats.of(e.getKey(), e.getValue().getDepth(), e.getValue().getNrOfSpilledMessages(), e.getValue().getSpillSize(), e.getValue().getLag()))
+            .collect(toList());
+    }
+
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tenorite.util;
+
+import org.immutables.value.Value;
+
+/**
+ * @author Johan Siebens
+ */
+@Value.Immutable
+@ImmutableStyle
+public abstract class MailboxStats {
+
+    public static MailboxStats of(String actor, int depth, int nrOfSpilledMessages, long spillSize, long lag) {
+        return new MailboxStatsBuilder().actor(actor).depth(depth).nrOfSpilledMessages(nrOfSpilledMessages).spillSize(spillSize).lag(lag).build();
+    }
+
+    public abstract String getActor();
+
+    public abstract int getDepth();
+
+    public abstract int getNrOfSpilledMessages();
+
+    public abstract long getSpillSize();
+
+    public abstract long getLag();
+
+}
@@ -0,0 +1,335 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tenorite.util;
+
+import akka.actor.ActorRef;
+import akka.actor.ActorSystem;
+import akka.actor.DeadLetter;
+import akka.dispatch.*;
+import akka.event.Logging;
+import akka.event.LoggingAdapter;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.guava.GuavaModule;
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+import com.typesafe.config.Config;
+import scala.Option;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Mailbox of the actors writing events to storage.
+ * <p>
+ * At most <code>capacity</code> messages are kept in memory; further messages of one of the <code>spill-types</code>
+ * are appended to a file, in order, and read back as the actor catches up. Other messages are always kept in memory
+ * and are not held back by the spilled ones, so only messages that are rare or small should be left out of the
+ * <code>spill-types</code>.
+ *
+ * @author Johan Siebens
+ */
+public final class SpillingMailbox implements MailboxType, ProducesMessageQueue<SpillingMailbox.SpillingMessageQueue> {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+        .registerModule(new Jdk8Module())
+        .registerModule(new GuavaModule())
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private final int capacity;
+
+    private final File directory;
+
+    private final List<Class<?>> spillTypes = new ArrayList<>();
+
+    public SpillingMailbox(ActorSystem.Settings settings, Config config) {
+        this.capacity = config.getInt("capacity");
+        this.directory = new File(config.getString("spill-directory"));
+        for (String type : config.getStringList("spill-types")) {
+            try {
+                spillTypes.add(Class.forName(type));
+            }
+            catch (ClassNotFoundException e) {
+                throw new IllegalArgumentException("unknown spill type " + type, e);
+            }
+        }
+    }
+
+    @Override
+    public MessageQueue create(Option<ActorRef> owner, Option<ActorSystem> system) {
+        String name = owner.isDefined() ? owner.get().path().toStringWithoutAddress() : "anonymous-" + System.nanoTime();
+        File file = new File(directory, name.replaceAll("[^a-zA-Z0-9_-]", "_") + ".spill");
+
+        SpillingMessageQueue queue = new SpillingMessageQueue(capacity, file, spillTypes);
+        if (owner.isDefined() && system.isDefined()) {
+            MailboxMetrics metrics = MailboxMetrics.get(system.get());
+            metrics.register(name, queue);
+            queue.onCleanUp = () -> metrics.unregister(name);
+
+            ActorRef self = owner.get();
+            ActorSystem actorSystem = system.get();
+            LoggingAdapter log = Logging.getLogger(actorSystem, SpillingMailbox.class);
+            queue.onUnreadable = (record, e) -> {
+                log.error(e, "unable to read spilled message for {} from {}", self, file);
+                actorSystem.deadLetters().tell(new DeadLetter(record, actorSystem.deadLetters(), self), ActorRef.noSender());
+            };
+        }
+        return queue;
+    }
+
+    public static final class SpillingMessageQueue implements MessageQueue, UnboundedMessageQueueSemantics {
+
+        private final ArrayDeque<Entry> memory = new ArrayDeque<>();
+
+        private final int capacity;
+
+        private final File file;
+
+        private final List<Class<?>> spillTypes;
+
+        private RandomAccessFile spill;
+
+        private long readPosition;
+
+        private long writePosition;
+
+        private int spilled;
+
+        private long oldestSpilled;
+
+        private Runnable onCleanUp = () -> {
+        };
+
+        private BiConsumer<String, Exception> onUnreadable = (record, e) -> {
+        };
+
+        SpillingMessageQueue(int capacity, File file, List<Class<?>> spillTypes) {
+            this.capacity = capacity;
+            this.file = file;
+            this.spillTypes = spillTypes;
+        }
+
+        @Override
+        public void enqueue(ActorRef receiver, Envelope handle) {
+            long now = System.currentTimeMillis();
+            int type = spillType(handle.message());
+
+            // serialized outside of the lock, so a large message does not block the actor and the other senders
+            if (type >= 0 && isSpilling()) {
+                byte[] json = serialize(handle.message());
+                if (json != null && write(now, type, json)) {
+                    return;
+                }
+            }
+
+            synchronized (this) {
+                memory.addLast(new Entry(now, handle));
+            }
+        }
+
+        @Override
+        public synchronized Envelope dequeue() {
+            while (spilled > 0 && memory.size() < capacity) {
+                Entry entry = read();
+                if (entry != null) {
+                    memory.addLast(entry);
+                }
+            }
+            Entry entry = memory.pollFirst();
+            return entry == null ? null : entry.envelope;
+        }
+
+        @Override
+        public synchronized int numberOfMessages() {
+            return memory.size() + spilled;
+        }
+
+        @Override
+        public synchronized boolean hasMessages() {
+            return !memory.isEmpty() || spilled > 0;
+        }
+
+        @Override
+        public void cleanUp(ActorRef owner, MessageQueue deadLetters) {
+            for (Envelope envelope = dequeue(); envelope != null; envelope = dequeue()) {
+                deadLetters.enqueue(owner, envelope);
+            }
+            synchronized (this) {
+                closeSpill();
+            }
+            onCleanUp.run();
+        }
+
+        /**
+         * @return the number of messages kept in memory
+         */
+        public synchronized int getDepth() {
+            return memory.size();
+        }
+
+        public synchronized int getNrOfSpilledMessages() {
+            return spilled;
+        }
+
+        public synchronized long getSpillSize() {
+            return writePosition - readPosition;
+        }
+
+        /**
+         * @return the time in milliseconds the oldest waiting message has been waiting
+         */
+        public synchronized long getLag() {
+            Entry first = memory.peekFirst();
+            long oldest = first != null ? first.enqueuedAt : spilled > 0 ? oldestSpilled : 0;
+            return oldest == 0 ? 0 : System.currentTimeMillis() - oldest;
+        }
+
+        private int spillType(Object message) {
+            for (int i = 0; i < spillTypes.size(); i++) {
+                if (spillTypes.get(i).isInstance(message)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private synchronized boolean isSpilling() {
+            return spilled > 0 || memory.size() >= capacity;
+        }
+
+        private static byte[] serialize(Object message) {
+            try {
+                return MAPPER.writeValueAsBytes(message);
+            }
+            catch (IOException e) {
+                // keep the message in memory rather than losing it
+                return null;
+            }
+        }
+
+        private synchronized boolean write(long timestamp, int type, byte[] json) {
+            try {
+                if (spill == null) {
+                    file.getParentFile().mkdirs();
+                    spill = new RandomAccessFile(file, "rw");
+                    spill.setLength(0);
+                }
+                spill.seek(writePosition);
+                spill.writeLong(timestamp);
+                spill.writeInt(type);
+                spill.writeInt(json.length);
+                spill.write(json);
+                writePosition = spill.getFilePointer();
+                if (spilled++ == 0) {
+                    oldestSpilled = timestamp;
+                }
+                return true;
+            }
+            catch (IOException e) {
+                // keep the message in memory rather than losing it
+                return false;
+            }
+        }
+
+        /**
+         * @return the next spilled message, or null when it cannot be read and was skipped
+         */
+        private Entry read() {
+            long timestamp;
+            int type;
+            byte[] json;
+            try {
+                spill.seek(readPosition);
+                timestamp = spill.readLong();
+                type = spill.readInt();
+                json = new byte[spill.readInt()];
+                spill.readFully(json);
+                readPosition = spill.getFilePointer();
+            }
+            catch (IOException e) {
+                // the following records cannot be located anymore, so all of them are dropped
+                onUnreadable.accept("unreadable spill of " + spilled + " messages", e);
+                closeSpill();
+                return null;
+            }
+
+            Entry entry;
+            try {
+                Object message = MAPPER.readValue(json, spillTypes.get(type));
+                entry = new Entry(timestamp, Envelope.apply(message, ActorRef.noSender()));
+            }
+            catch (IOException | RuntimeException e) {
+                onUnreadable.accept(new String(json, UTF_8), e);
+                entry = null;
+            }
+
+            if (--spilled == 0) {
+                closeSpill();
+            }
+            else {
+                oldestSpilled = nextTimestamp(timestamp);
+            }
+
+            return entry;
+        }
+
+        private long nextTimestamp(long fallback) {
+            try {
+                return spill.readLong();
+            }
+            catch (IOException e) {
+                return fallback;
+            }
+        }
+
+        private void closeSpill() {
+            if (spill != null) {
+                try {
+                    spill.close();
+                }
+                catch (IOException e) {
+                    // nothing left to read
+                }
+                file.delete();
+                spill = null;
+            }
+            readPosition = 0;
+            writePosition = 0;
+            spilled = 0;
+        }
+
+    }
+
+    private static final class Entry {
+
+        private final long enqueuedAt;
+
+        private final Envelope envelope;
+
+        private Entry(long enqueuedAt, Envelope envelope) {
+            this.enqueuedAt = enqueuedAt;
+            this.envelope = envelope;
+        }
+
+    }
+
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tenorite.web;
+
+import akka.actor.ActorSystem;
+import net.tenorite.badges.actors.BadgeMetrics;
+import net.tenorite.badges.actors.BadgeStats;
+import net.tenorite.channel.actors.RecordingMetrics;
+import net.tenorite.util.DomainEventBus;
+import net.tenorite.util.MailboxMetrics;
+import net.tenorite.util.MailboxStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * @author Johan Siebens
+ */
+@Controller
+public class MetricsController {
+
+    private final ActorSystem actorSystem;
+
+    @Autowired
+    public MetricsController(ActorSystem actorSystem) {
+        this.actorSystem = actorSystem;
+    }
+
+    @RequestMapping("/metrics/mailboxes")
+    @ResponseBody
+    public List<MailboxStats> mailboxes() {
+        return MailboxMetrics.get(actorSystem).snapshot();
+    }
+
+    @RequestMapping("/metrics/badges")
+    @ResponseBody
+    public List<BadgeStats> badges() {
+        return BadgeMetrics.get(actorSystem).snapshot();
+    }
+
+    /**
+     * @return the memory in bytes held by the recording of each running game, per channel
+     */
+    @RequestMapping("/metrics/recordings")
+    @ResponseBody
+    public Map<String, Long> recordings() {
+        return RecordingMetrics.get(actorSystem).snapshot();
+    }
+
+    /**
+     * @return the number of published domain events not yet processed, per subscriber
+     */
+    @RequestMapping("/metrics/events")
+    @ResponseBody
+    public Map<String, Long> events() {
+        Map<String, Long> result = new TreeMap<>();
+        DomainEventBus.get(actorSystem).lags().forEach((subscriber, lag) -> result.put(subscriber.path().toString(), lag));
+        return result;
+    }
+
+}
@@ -15,11 +15,12 @@
  */
 package net.tenorite.web;
 
+import akka.actor.ActorSystem;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.typesafe.config.Config;
 import net.tenorite.badges.Badge;
 import net.tenorite.badges.BadgeLevel;
 import net.tenorite.badges.BadgeRepository;
-import net.tenorite.badges.BadgeValidator;
 import net.tenorite.channel.Channel;
 import net.tenorite.channel.ChannelsRegistry;
 import net.tenorite.core.NotAvailableException;
@@ -37,6 +38,8 @@ import org.springframework.beans.support.PropertyComparator;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.context.request.async.DeferredResult;
 import org.springframework.web.servlet.ModelAndView;
 
@@ -48,6 +51,7 @@ import java.util.Optional;
 import java.util.function.Function;
 import java.util.function.Predicate;
 
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.stream.Collectors.toList;
 
 /**
@@ -70,6 +74,10 @@ public class TempoController {
 
     private final ObjectMapper objectMapper;
 
+    private final long timelineInterval;
+
+    private final int replayPageSize;
+
     @Autowired
     public TempoController(GameModes gameModes,
                            ChannelsRegistry channelsRegistry,
@@ -77,7 +85,8 @@ public class TempoController {
                            GameRepository gameRepository,
                            BadgeRepository badgeRepository,
                            PlayerStatsRepository playerStatsRepository,
-                           ObjectMapper objectMapper) {
+                           ObjectMapper objectMapper,
+                           ActorSystem actorSystem) {
         this.gameModes = gameModes;
         this.channelsRegistry = channelsRegistry;
         this.winlistRepository = winlistRepository;
@@ -85,6 +94,10 @@ public class TempoController {
         this.badgeRepository = badgeRepository;
         this.playerStatsRepository = playerStatsRepository;
         this.objectMapper = objectMapper;
+
+        Config config = actorSystem.settings().config();
+        this.timelineInterval = config.getDuration("tenorite.games.timeline-interval", MILLISECONDS);
+        this.replayPageSize = config.getInt("tenorite.games.chunk-size");
     }
 
     @RequestMapping("/t/{tempo}/channels")
@@ -163,7 +176,7 @@ public class TempoController {
     public ModelAndView badges(@PathVariable("tempo") Tempo tempo, @PathVariable("mode") String gameModeId) {
         GameMode gameMode = gameModes.find(GameModeId.of(gameModeId)).orElseThrow(NotAvailableException::new);
 
-        List<Badge> badges = gameMode.getBadgeValidators().stream().map(BadgeValidator::getBadge).collect(toList());
+        List<Badge> badges = gameMode.getBadges();
 
         return
             new ModelAndView("badges")
@@ -242,15 +255,21 @@ public class TempoController {
     public ModelAndView replay(@PathVariable("tempo") Tempo tempo, @PathVariable("mode") String mode, @PathVariable("id") String gameId) throws IOException {
         GameMode gameMode = gameModes.find(GameModeId.of(mode)).orElseThrow(NotAvailableException::new);
 
-        Optional<Game> optGame = gameRepository.gameOps(tempo).loadGame(gameId).filter(g -> g.getGameModeId().equals(gameMode.getId()));
+        GameRepository.GameOps gameOps = gameRepository.gameOps(tempo);
+        Optional<Game> optGame = gameOps.loadMetadata(gameId).filter(g -> g.getGameModeId().equals(gameMode.getId()));
 
         if (optGame.isPresent()) {
             Game game = optGame.get();
-            List<PlayingStats> ranking = new GameRankCalculator().calculate(gameMode, game);
+            // games recorded before rankings were stored are ranked on the fly
+            List<PlayingStats> ranking =
+                gameOps.loadRanking(gameId)
+                    .map(GameRanking::getRanking)
+                    .orElseGet(() -> new GameRankCalculator().calculate(gameMode, gameOps.loadGame(gameId).orElse(game)));
 
+            // the messages are loaded page by page when the replay is played
             Map<String, Object> data = new HashMap<>();
             data.put("players", game.getPlayers());
-            data.put("messages", game.getMessages().stream().filter(includeForReplay(gameMode)).collect(toList()));
+            data.put("duration", game.getDuration());
             Map map = objectMapper.readValue(objectMapper.writeValueAsString(data), Map.class);
 
             return
@@ -268,6 +287,71 @@ public class TempoController {
         }
     }
 
+    @RequestMapping("/t/{tempo}/m/{mode}/games/{id}/seek")
+    @ResponseBody
+    public Map<String, Object> seek(@PathVariable("tempo") Tempo tempo, @PathVariable("mode") String mode, @PathVariable("id") String gameId, @RequestParam("t") long time) {
+        GameMode gameMode = gameModes.find(GameModeId.of(mode)).orElseThrow(NotAvailableException::new);
+        Predicate<Game> ofMode = g -> g.getGameModeId().equals(gameMode.getId());
+
+        GameRepository.GameOps gameOps = gameRepository.gameOps(tempo);
+        // games recorded before timelines were stored are indexed on the fly
+        GameTimeline timeline =
+            gameOps.loadTimeline(gameId)
+                .orElseGet(() -> GameTimeline.of(gameOps.loadGame(gameId).filter(ofMode).orElseThrow(NotAvailableException::new), timelineInterval));
+
+        long t = Math.max(0, time);
+        GameKeyframe position = timeline.getKeyframe(t);
+
+        Game page;
+        int offset;
+        do {
+            offset = position.getOffset();
+            page = gameOps.loadGame(gameId, offset, replayPageSize).filter(ofMode).orElseThrow(NotAvailableException::new);
+            position = GameTimeline.advance(position, page.getMessages(), t);
+        }
+        while (position.getOffset() == offset + replayPageSize);
+
+        Map<Integer, String> fields = new HashMap<>();
+        for (int i = 0; i < position.getFields().size(); i++) {
+            if (!position.getFields().get(i).isEmpty()) {
+                fields.put(i + 1, position.getFields().get(i));
+            }
+        }
+
+        Map<String, Object> data = replayPage(gameMode, page, offset, position.getOffset() - offset);
+        data.put("timestamp", position.getTimestamp());
+        data.put("fields", fields);
+        return data;
+    }
+
+    @RequestMapping("/t/{tempo}/m/{mode}/games/{id}/messages")
+    @ResponseBody
+    public Map<String, Object> messages(@PathVariable("tempo") Tempo tempo, @PathVariable("mode") String mode, @PathVariable("id") String gameId, @RequestParam("offset") int offset) {
+        GameMode gameMode = gameModes.find(GameModeId.of(mode)).orElseThrow(NotAvailableException::new);
+
+        int from = Math.max(0, offset);
+        Game page =
+            gameRepository.gameOps(tempo)
+                .loadGame(gameId, from, replayPageSize)
+                .filter(g -> g.getGameModeId().equals(gameMode.getId()))
+                .orElseThrow(NotAvailableException::new);
+
+        return replayPage(gameMode, page, from, 0);
+    }
+
+    /**
+     * @return the messages of the page from the given index on, with the offset of the next page when there is one
+     */
+    private Map<String, Object> replayPage(GameMode gameMode, Game page, int offset, int from) {
+        List<GameMessage> messages = page.getMessages();
+        boolean full = messages.size() == replayPageSize;
+
+        Map<String, Object> data = new HashMap<>();
+        data.put("messages", messages.subList(from, messages.size()).stream().filter(includeForReplay(gameMode)).collect(toList()));
+        data.put("next", full ? offset + replayPageSize : null);
+        return data;
+    }
+
     @RequestMapping("/t/{tempo}/m/{mode}/players/{name}")
     public ModelAndView player(@PathVariable("tempo") Tempo tempo, @PathVariable("mode") String mode, @PathVariable("name") String name) {
         GameMode gameMode = gameModes.find(GameModeId.of(mode)).orElseThrow(NotAvailableException::new);
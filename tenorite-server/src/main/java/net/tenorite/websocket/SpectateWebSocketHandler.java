@@ -19,6 +19,7 @@ import akka.actor.ActorRef;
 import akka.actor.ActorSystem;
 import akka.actor.Props;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import net.tenorite.channel.SpectatorFrame;
 import net.tenorite.channel.actors.ChannelsActors;
 import net.tenorite.channel.commands.Spectate;
 import net.tenorite.core.Tempo;
@@ -91,15 +92,18 @@ public class SpectateWebSocketHandler extends TextWebSocketHandler {
 
         @Override
         public void onReceive(Object message) throws Exception {
-            if (message instanceof Message) {
-                send((Message) message);
+            if (message instanceof SpectatorFrame) {
+                send(((SpectatorFrame) message).getJson());
+            }
+            else if (message instanceof Message) {
+                send(json(GameMessage.of(System.currentTimeMillis(), (Message) message)));
             }
         }
 
-        private void send(Message m) {
+        private void send(String json) {
             try {
                 if (session.isOpen()) {
-                    session.sendMessage(new TextMessage(json(GameMessage.of(System.currentTimeMillis(), m))));
+                    session.sendMessage(new TextMessage(json));
                 }
             }
             catch (Exception e) {
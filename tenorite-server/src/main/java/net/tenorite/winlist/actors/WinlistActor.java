@@ -23,6 +23,7 @@ import net.tenorite.game.GameModeId;
 import net.tenorite.game.Player;
 import net.tenorite.game.PlayingStats;
 import net.tenorite.game.events.GameFinished;
+import net.tenorite.game.events.GameStreamed;
 import net.tenorite.util.AbstractActor;
 import net.tenorite.util.ImmutableStyle;
 import net.tenorite.winlist.WinlistItem;
@@ -41,7 +42,7 @@ import java.util.List;
 public final class WinlistActor extends AbstractActor {
 
     public static Props props(WinlistRepository repository) {
-        return Props.create(WinlistActor.class, repository).withDispatcher("winlist-dispatcher");
+        return Props.create(WinlistActor.class, repository).withDispatcher("winlist-dispatcher").withMailbox("persistence-mailbox");
     }
 
     private final WinlistRepository winlistRepository;
@@ -53,13 +54,19 @@ public final class WinlistActor extends AbstractActor {
     @Override
     public void preStart() throws Exception {
         subscribe(GameFinished.class);
+        subscribe(GameStreamed.class);
         subscribe(ChannelJoined.class);
     }
 
     @Override
     public void onReceive(Object message) throws Exception {
         if (message instanceof GameFinished) {
-            handleGameFinished((GameFinished) message);
+            GameFinished gf = (GameFinished) message;
+            handleGameFinished(gf.getGame(), gf.getRanking());
+        }
+        else if (message instanceof GameStreamed) {
+            GameStreamed gs = (GameStreamed) message;
+            handleGameFinished(gs.getGame(), gs.getRanking());
         }
         else if (message instanceof ChannelJoined) {
             handleChannelJoined((ChannelJoined) message);
@@ -70,14 +77,12 @@ public final class WinlistActor extends AbstractActor {
         publishWinlist(event.getTempo(), event.getGameModeId());
     }
 
-    private void handleGameFinished(GameFinished event) {
-        Game game = event.getGame();
-
+    private void handleGameFinished(Game game, List<PlayingStats> players) {
         long timestamp = game.getTimestamp();
         GameModeId mode = game.getGameModeId();
         Tempo tempo = game.getTempo();
 
-        List<Tuple> ranking = createWinlistUpdate(event.getRanking());
+        List<Tuple> ranking = createWinlistUpdate(players);
 
         if (ranking.size() > 1) {
             EloCalculator calc = new EloCalculator();
@@ -98,7 +103,7 @@ public final class WinlistActor extends AbstractActor {
     }
 
     private void publishWinlist(Tempo tempo, GameModeId mode) {
-        publish(WinlistUpdated.of(tempo, mode, winlistRepository.winlistOps(tempo).loadWinlist(mode)));
+        publish(tempo, mode, WinlistUpdated.of(tempo, mode, winlistRepository.winlistOps(tempo).loadWinlist(mode)));
     }
 
     private List<Tuple> createWinlistUpdate(List<PlayingStats> ranking) {
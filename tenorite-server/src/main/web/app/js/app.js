@@ -108,34 +108,73 @@ function handleMessage(players, m) {
     }
 }
 
-function GamePlayer(data) {
+function GamePlayer(data, seekUrl, messagesUrl) {
     var players = {};
-    var gameMessages = data.messages;
 
     $.each(data.players, function (i, player) {
         $('#name' + player.slot).html(player.name);
         players[player.slot] = player.name;
     });
 
-    function GameRunner(data) {
+    function GameRunner(data, url, nextPage) {
         var messages = data.slice();
+        var stopped = false;
+        var loading = false;
+        var waiting = null;
 
-        function process(current) {
-            handleMessage(players, current);
+        function load() {
+            if (loading || nextPage === null || nextPage === undefined) {
+                return;
+            }
+            loading = true;
+            $.getJSON(url, {offset: nextPage}, function (page) {
+                loading = false;
+                nextPage = page.next;
+                Array.prototype.push.apply(messages, page.messages);
+                if (waiting) {
+                    var current = waiting;
+                    waiting = null;
+                    schedule(current);
+                }
+            });
+        }
+
+        function schedule(current) {
             var next = messages.shift();
             if (next) {
                 setTimeout(function () {
                     process(next);
                 }, (next.timestamp - current.timestamp) / 6)
+            } else if (loading) {
+                waiting = current;
             } else {
                 $('#playButton').removeClass('disabled');
                 $('#specials').prepend('<div><b>Game ended!</b><div>');
             }
         }
 
+        function process(current) {
+            if (stopped) {
+                return;
+            }
+            handleMessage(players, current);
+            if (messages.length < 100) {
+                load();
+            }
+            schedule(current);
+        }
+
         this.start = function () {
             $('#playButton').addClass('disabled');
-            process(messages.shift())
+            var first = messages.shift();
+            if (first) {
+                process(first);
+            }
+        };
+
+        this.stop = function () {
+            stopped = true;
+            $('#playButton').removeClass('disabled');
         };
 
     }
@@ -143,8 +182,25 @@ function GamePlayer(data) {
     var runner = null;
 
     this.play = function () {
-        runner = new GameRunner(gameMessages);
-        runner.start();
+        this.seek(0);
+    };
+
+    this.seek = function (time) {
+        if (runner) {
+            runner.stop();
+        }
+        $.getJSON(seekUrl, {t: time}, function (position) {
+            $('#specials').html('');
+            for (var slot = 1; slot <= 6; slot++) {
+                if (position.fields[slot]) {
+                    updateField(slot, position.fields[slot]);
+                } else {
+                    $('#field' + slot).html('');
+                }
+            }
+            runner = new GameRunner(position.messages, messagesUrl, position.next);
+            runner.start();
+        });
     };
 
 }
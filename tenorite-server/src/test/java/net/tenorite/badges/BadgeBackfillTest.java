@@ -0,0 +1,332 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tenorite.badges;
+
+import net.tenorite.badges.validators.NrOfConsecutiveGamesLost;
+import net.tenorite.badges.validators.NrOfConsecutiveGamesWon;
+import net.tenorite.badges.validators.NrOfGamesPlayed;
+import net.tenorite.badges.validators.NrOfGamesWon;
+import net.tenorite.core.Tempo;
+import net.tenorite.game.*;
+import net.tenorite.game.events.GameFinished;
+import net.tenorite.protocol.PlayerLostMessage;
+import net.tenorite.protocol.PlayerWonMessage;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.stream.Stream;
+
+import static java.util.Arrays.asList;
+import static java.util.Optional.ofNullable;
+import static net.tenorite.game.GameRules.defaultGameRules;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+/**
+ * @author Johan Siebens
+ */
+public class BadgeBackfillTest {
+
+    private static final GameModeId GAME_MODE_ID = GameModeId.of("JUNIT");
+
+    private static final GameMode GAME_MODE = new GameMode(GAME_MODE_ID, defaultGameRules()) {
+    };
+
+    private static final List<BadgeValidator> VALIDATORS = asList(
+        new NrOfGamesPlayed(Badge.of(GAME_MODE_ID, "played"), 5),
+        new NrOfGamesWon(Badge.of(GAME_MODE_ID, "won"), 3),
+        new NrOfConsecutiveGamesWon(Badge.of(GAME_MODE_ID, "consecutive-won"), 2),
+        new NrOfConsecutiveGamesLost(Badge.of(GAME_MODE_ID, "consecutive-lost"), 3)
+    );
+
+    private final List<Game> games = games(500);
+
+    private final GameRepositoryStub gameRepository = new GameRepositoryStub(games);
+
+    private final CheckpointRepositoryStub checkpoints = new CheckpointRepositoryStub();
+
+    @Test
+    public void testSameResultAsPlayingTheGamesInOrder() {
+        InMemoryBadgeOps expected = sequential();
+
+        InMemoryBadgeOps actual = new InMemoryBadgeOps();
+        actual.updateProgress(VALIDATORS.get(0).getBadge(), "player1", 99);
+
+        BackfillReport report = new BadgeBackfill(gameRepository, t -> actual, checkpoints, 4, 64).run(Tempo.NORMAL, GAME_MODE, VALIDATORS, r -> {
+        });
+
+        assertThat(actual.levels).isEqualTo(expected.levels);
+        assertThat(actual.progress).isEqualTo(expected.progress);
+        assertThat(actual.writes).isEqualTo(8);
+
+        assertThat(report.getNrOfGames()).isEqualTo(500);
+        assertThat(report.getNrOfBadgesEarned()).isGreaterThan(0);
+        assertThat(checkpoints.checkpoints).isEmpty();
+    }
+
+    @Test
+    public void testResumeFromCheckpoint() {
+        InMemoryBadgeOps expected = sequential();
+        InMemoryBadgeOps actual = new InMemoryBadgeOps();
+
+        // stops before the checkpoint of the fourth batch is saved
+        checkpoints.failAfter = 3;
+        assertThatRunFails(new BadgeBackfill(gameRepository, t -> actual, checkpoints, 3, 50));
+        assertThat(checkpoints.checkpoints.values()).extracting(BackfillCheckpoint::getNrOfGames).containsExactly(150L);
+
+        // stops after the checkpoint of the sixth batch is saved, but before its results are written
+        checkpoints.failAfter = Integer.MAX_VALUE;
+        actual.failAfter = 3;
+        assertThatRunFails(new BadgeBackfill(gameRepository, t -> actual, checkpoints, 3, 50));
+        assertThat(checkpoints.checkpoints.values()).extracting(BackfillCheckpoint::getNrOfGames).containsExactly(300L);
+
+        actual.failAfter = Integer.MAX_VALUE;
+        List<BackfillReport> reports = new ArrayList<>();
+        BackfillReport report = new BadgeBackfill(gameRepository, t -> actual, checkpoints, 2, 50).run(Tempo.NORMAL, GAME_MODE, VALIDATORS, reports::add);
+
+        assertThat(report.getNrOfGames()).isEqualTo(200);
+        assertThat(reports).hasSize(4);
+        assertThat(actual.levels).isEqualTo(expected.levels);
+        assertThat(actual.progress).isEqualTo(expected.progress);
+    }
+
+    private void assertThatRunFails(BadgeBackfill backfill) {
+        try {
+            backfill.run(Tempo.NORMAL, GAME_MODE, VALIDATORS, r -> {
+            });
+            fail("expected the run to fail");
+        }
+        catch (IllegalStateException e) {
+            assertThat(e).hasMessage("crash");
+        }
+    }
+
+    private InMemoryBadgeOps sequential() {
+        GameRankCalculator calculator = new GameRankCalculator();
+        InMemoryBadgeOps badgeOps = new InMemoryBadgeOps();
+        for (Game game : games) {
+            GameFinished gameFinished = GameFinished.of(game, calculator.calculate(GAME_MODE, game));
+            VALIDATORS.forEach(v -> v.process(gameFinished, t -> badgeOps, e -> {
+            }));
+        }
+        return badgeOps;
+    }
+
+    private static List<Game> games(int count) {
+        Random random = new Random(7);
+        List<Game> games = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            List<String> names = new ArrayList<>(asList("player1", "player2", "player3", "player4", "player5", "player6", "player7", "player8"));
+            Collections.shuffle(names, random);
+
+            int size = 3 + random.nextInt(4);
+            List<Player> players = new ArrayList<>();
+            List<GameMessage> messages = new ArrayList<>();
+            for (int slot = 1; slot <= size; slot++) {
+                players.add(Player.of(slot, names.get(slot), null));
+                if (slot < size) {
+                    messages.add(GameMessage.of(slot * 1000, PlayerLostMessage.of(slot)));
+                }
+            }
+            messages.add(GameMessage.of(size * 1000, PlayerWonMessage.of(size)));
+
+            // several games share a timestamp, the id decides their order
+            games.add(Game.of(String.format("game%04d", i), i / 3, size * 1000, Tempo.NORMAL, GAME_MODE_ID, players, messages));
+        }
+        return games;
+    }
+
+    private static final class GameRepositoryStub implements GameRepository, GameRepository.GameOps {
+
+        private final List<Game> games;
+
+        GameRepositoryStub(List<Game> games) {
+            this.games = games;
+        }
+
+        @Override
+        public GameOps gameOps(Tempo tempo) {
+            return this;
+        }
+
+        @Override
+        public Stream<Game> games(GameModeId gameModeId, long afterTimestamp, String afterId) {
+            return games.stream().filter(g -> g.getTimestamp() > afterTimestamp || (g.getTimestamp() == afterTimestamp && g.getId().compareTo(afterId) > 0));
+        }
+
+        @Override
+        public void saveGame(Game game) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Optional<Game> loadGame(String id) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Optional<Game> loadGame(String id, int offset, int limit) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Optional<Game> loadMetadata(String id) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<Game> recentGames(GameModeId gameModeId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void saveChunk(GameChunk chunk) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<GameChunk> loadChunks(String gameId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void deleteChunks(String gameId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void saveTimeline(GameTimeline timeline) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Optional<GameTimeline> loadTimeline(String gameId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void saveRanking(GameRanking ranking) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Optional<GameRanking> loadRanking(String gameId) {
+            throw new UnsupportedOperationException();
+        }
+
+    }
+
+    private static final class CheckpointRepositoryStub implements BackfillCheckpointRepository {
+
+        private final Map<String, BackfillCheckpoint> checkpoints = new HashMap<>();
+
+        private int failAfter = Integer.MAX_VALUE;
+
+        @Override
+        public Optional<BackfillCheckpoint> loadCheckpoint(String jobId) {
+            return ofNullable(checkpoints.get(jobId));
+        }
+
+        @Override
+        public void saveCheckpoint(BackfillCheckpoint checkpoint) {
+            if (failAfter-- <= 0) {
+                throw new IllegalStateException("crash");
+            }
+            checkpoints.put(checkpoint.getJobId(), checkpoint);
+        }
+
+        @Override
+        public void deleteCheckpoint(String jobId) {
+            checkpoints.remove(jobId);
+        }
+
+    }
+
+    private static final class InMemoryBadgeOps implements BadgeRepository.BadgeOps {
+
+        private final Map<List<Object>, BadgeLevel> levels = new HashMap<>();
+
+        private final Map<List<Object>, Long> progress = new HashMap<>();
+
+        private int writes;
+
+        private int failAfter = Integer.MAX_VALUE;
+
+        @Override
+        public Optional<BadgeLevel> getBadgeLevel(String name, Badge badge) {
+            return ofNullable(levels.get(asList(badge, name)));
+        }
+
+        @Override
+        public void saveBadgeLevel(BadgeLevel badgeLevel) {
+            levels.put(asList(badgeLevel.getBadge(), badgeLevel.getName()), badgeLevel);
+        }
+
+        @Override
+        public Map<Badge, BadgeLevel> badgeLevels(GameModeId gameModeId, String name) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<BadgeLevel> badgeLevels(Badge badge) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public long getProgress(Badge badge, String name) {
+            return progress.getOrDefault(asList(badge, name), 0L);
+        }
+
+        @Override
+        public long updateProgress(Badge badge, String name, long value) {
+            if (value == 0) {
+                progress.remove(asList(badge, name));
+            }
+            else {
+                progress.put(asList(badge, name), value);
+            }
+            return value;
+        }
+
+        @Override
+        public synchronized void saveAll(Collection<BadgeLevel> badgeLevels, Collection<BadgeProgress> values) {
+            if (failAfter-- <= 0) {
+                throw new IllegalStateException("crash");
+            }
+            writes++;
+            badgeLevels.forEach(this::saveBadgeLevel);
+            values.forEach(p -> updateProgress(p.getBadge(), p.getName(), p.getValue()));
+        }
+
+        @Override
+        public synchronized Map<String, Map<Badge, BadgeLevel>> badgeLevels(Collection<Badge> badges, Collection<String> names) {
+            return BadgeRepository.BadgeOps.super.badgeLevels(badges, names);
+        }
+
+        @Override
+        public synchronized Map<String, Map<Badge, Long>> getProgress(Collection<Badge> badges, Collection<String> names) {
+            return BadgeRepository.BadgeOps.super.getProgress(badges, names);
+        }
+
+        @Override
+        public void removeAll(Collection<Badge> badges) {
+            levels.keySet().removeIf(k -> badges.contains(k.get(0)));
+            progress.keySet().removeIf(k -> badges.contains(k.get(0)));
+        }
+
+    }
+
+}
@@ -0,0 +1,245 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tenorite.badges.actors;
+
+import net.tenorite.badges.*;
+import net.tenorite.badges.events.BadgeDetected;
+import net.tenorite.badges.events.BadgeDetectionEnded;
+import net.tenorite.badges.events.BadgeEarned;
+import net.tenorite.badges.validators.NrOfConsecutiveGamesWon;
+import net.tenorite.badges.validators.NrOfGamesPlayed;
+import net.tenorite.badges.validators.NrOfGamesWon;
+import net.tenorite.badges.validators.SpecialWords;
+import net.tenorite.core.Tempo;
+import net.tenorite.game.*;
+import net.tenorite.game.events.GameFinished;
+import net.tenorite.protocol.PlayerLostMessage;
+import net.tenorite.protocol.PlayerWonMessage;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static java.util.Arrays.asList;
+import static java.util.Optional.ofNullable;
+import static java.util.stream.Collectors.toList;
+import static net.tenorite.game.GameRules.defaultGameRules;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Johan Siebens
+ */
+public class BadgeEvaluationTest {
+
+    private static final GameModeId GAME_MODE_ID = GameModeId.of("JUNIT");
+
+    private static final GameMode GAME_MODE = new GameMode(GAME_MODE_ID, defaultGameRules()) {
+    };
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    private final InMemoryBadgeOps badgeOps = new InMemoryBadgeOps();
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testSameResultAsRunningTheValidatorsOneByOne() throws Exception {
+        List<BadgeValidator> validators = asList(
+            new NrOfGamesPlayed(Badge.of(GAME_MODE_ID, "played"), 2),
+            new NrOfGamesWon(Badge.of(GAME_MODE_ID, "won"), 1),
+            new NrOfConsecutiveGamesWon(Badge.of(GAME_MODE_ID, "consecutive-won"), 2)
+        );
+
+        InMemoryBadgeOps expected = new InMemoryBadgeOps();
+        List<BadgeEarned> expectedEarned = new ArrayList<>();
+
+        BadgeEvaluation evaluation = new BadgeEvaluation(validators, t -> badgeOps, false, executor);
+        List<BadgeEarned> earned = new ArrayList<>();
+
+        for (int i = 0; i < 4; i++) {
+            GameFinished gameFinished = gameFinished("game" + i);
+            validators.forEach(v -> v.process(gameFinished, t -> expected, expectedEarned::add));
+            earned.addAll(evaluation.evaluate(gameFinished).get(5, TimeUnit.SECONDS));
+        }
+
+        assertThat(earned).isEqualTo(expectedEarned);
+        assertThat(badgeOps.levels).isEqualTo(expected.levels);
+        assertThat(badgeOps.progress).isEqualTo(expected.progress);
+        assertThat(badgeOps.writes).isEqualTo(4);
+    }
+
+    @Test
+    public void testBadgesEarnedAreReturnedInTheOrderOfTheValidators() throws Exception {
+        CountDownLatch lastDone = new CountDownLatch(1);
+
+        List<BadgeValidator> validators = asList(
+            new Awarding(Badge.of(GAME_MODE_ID, "first"), lastDone::await),
+            new Awarding(Badge.of(GAME_MODE_ID, "second"), () -> {
+            }),
+            new Awarding(Badge.of(GAME_MODE_ID, "third"), lastDone::countDown)
+        );
+
+        List<BadgeEarned> earned = new BadgeEvaluation(validators, t -> badgeOps, false, executor).evaluate(gameFinished("game")).get(5, TimeUnit.SECONDS);
+
+        assertThat(earned.stream().map(e -> e.getBadge().getBadge().getBadgeId()).collect(toList())).containsExactly("first", "second", "third");
+        assertThat(badgeOps.writes).isEqualTo(1);
+    }
+
+    @Test
+    public void testIncrementalValidatorsAreEvaluatedPerDetectionWithInGameDetection() throws Exception {
+        Badge played = Badge.of(GAME_MODE_ID, "played");
+        Badge word = Badge.of(GAME_MODE_ID, "word");
+
+        BadgeEvaluation evaluation = new BadgeEvaluation(asList(new NrOfGamesPlayed(played, 2), new SpecialWords(word, "aa")), t -> badgeOps, true, executor);
+
+        BadgeDetected detected = BadgeDetected.of(Tempo.NORMAL, word, "john", 500, "game");
+        assertThat(evaluation.accepts(detected)).isTrue();
+        assertThat(evaluation.accepts(BadgeDetected.of(Tempo.NORMAL, played, "john", 500, "game"))).isFalse();
+
+        assertThat(evaluation.evaluate(detected).get(5, TimeUnit.SECONDS)).containsExactly(BadgeEarned.of(BadgeLevel.of(Tempo.NORMAL, word, "john", 500, 1, "game"), false));
+        assertThat(evaluation.evaluate(detected).get(5, TimeUnit.SECONDS)).containsExactly(BadgeEarned.of(BadgeLevel.of(Tempo.NORMAL, word, "john", 500, 2, "game"), true));
+
+        // the detections of a game are written at once when its detection ends
+        assertThat(badgeOps.writes).isEqualTo(0);
+        evaluation.evaluate(BadgeDetectionEnded.of(Tempo.NORMAL, "game")).get(5, TimeUnit.SECONDS);
+        assertThat(badgeOps.writes).isEqualTo(1);
+
+        // the words in the sequences of the ranking were already detected during the game
+        Game game = Game.of("game", 0, 3000, Tempo.NORMAL, GAME_MODE_ID, players(), messages());
+        List<PlayingStats> ranking = new GameRankCalculator().calculate(GAME_MODE, game).stream()
+            .map(ps -> new PlayingStatsBuilder().from(ps).specialsSequence("aaaa").build())
+            .collect(toList());
+
+        evaluation.evaluate(GameFinished.of(game, ranking)).get(5, TimeUnit.SECONDS);
+
+        assertThat(badgeOps.getProgress(word, "john")).isEqualTo(2);
+        assertThat(badgeOps.getProgress(played, "john")).isEqualTo(1);
+    }
+
+    @Test
+    public void testOnlyGamesOfTheGameModeAreAccepted() {
+        BadgeEvaluation evaluation = new BadgeEvaluation(asList(new NrOfGamesPlayed(Badge.of(GAME_MODE_ID, "played"), 2)), t -> badgeOps, false, executor);
+
+        Game other = Game.of("other", 0, 3000, Tempo.NORMAL, GameModeId.of("OTHER"), players(), messages());
+
+        assertThat(evaluation.accepts(gameFinished("game"))).isTrue();
+        assertThat(evaluation.accepts(GameFinished.of(other, new GameRankCalculator().calculate(GAME_MODE, other)))).isFalse();
+    }
+
+    private static GameFinished gameFinished(String id) {
+        Game game = Game.of(id, 0, 3000, Tempo.NORMAL, GAME_MODE_ID, players(), messages());
+        return GameFinished.of(game, new GameRankCalculator().calculate(GAME_MODE, game));
+    }
+
+    private static List<Player> players() {
+        return asList(Player.of(1, "john", null), Player.of(2, "jane", null), Player.of(3, "nick", null));
+    }
+
+    private static List<GameMessage> messages() {
+        return asList(GameMessage.of(1000, PlayerLostMessage.of(1)), GameMessage.of(2000, PlayerLostMessage.of(2)), GameMessage.of(3000, PlayerWonMessage.of(3)));
+    }
+
+    private interface Step {
+
+        void run() throws InterruptedException;
+
+    }
+
+    private static final class Awarding extends BadgeValidator {
+
+        private final Step step;
+
+        Awarding(Badge badge, Step step) {
+            super(badge);
+            this.step = step;
+        }
+
+        @Override
+        protected void doProcess(GameFinished gameFinished, BadgeRepository.BadgeOps badgeOps, Consumer<BadgeEarned> onBadgeEarned) {
+            try {
+                step.run();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            Game game = gameFinished.getGame();
+            updateBadgeLevel(game, "john", badge, 1, badgeOps, onBadgeEarned);
+        }
+
+    }
+
+    private static final class InMemoryBadgeOps implements BadgeRepository.BadgeOps {
+
+        private final Map<List<Object>, BadgeLevel> levels = new HashMap<>();
+
+        private final Map<List<Object>, Long> progress = new HashMap<>();
+
+        private int writes;
+
+        @Override
+        public Optional<BadgeLevel> getBadgeLevel(String name, Badge badge) {
+            return ofNullable(levels.get(asList(badge, name)));
+        }
+
+        @Override
+        public void saveBadgeLevel(BadgeLevel badgeLevel) {
+            levels.put(asList(badgeLevel.getBadge(), badgeLevel.getName()), badgeLevel);
+        }
+
+        @Override
+        public Map<Badge, BadgeLevel> badgeLevels(GameModeId gameModeId, String name) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<BadgeLevel> badgeLevels(Badge badge) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public long getProgress(Badge badge, String name) {
+            return progress.getOrDefault(asList(badge, name), 0L);
+        }
+
+        @Override
+        public long updateProgress(Badge badge, String name, long value) {
+            progress.put(asList(badge, name), value);
+            return value;
+        }
+
+        @Override
+        public void saveAll(Collection<BadgeLevel> badgeLevels, Collection<BadgeProgress> values) {
+            writes++;
+            BadgeRepository.BadgeOps.super.saveAll(badgeLevels, values);
+        }
+
+        @Override
+        public void removeAll(Collection<Badge> badges) {
+            levels.keySet().removeIf(k -> badges.contains(k.get(0)));
+            progress.keySet().removeIf(k -> badges.contains(k.get(0)));
+        }
+
+    }
+
+}
@@ -19,6 +19,7 @@ import net.tenorite.AbstractTenoriteServerTestCase;
 import net.tenorite.badges.Badge;
 import net.tenorite.badges.BadgeLevel;
 import net.tenorite.badges.BadgeLevelBuilder;
+import net.tenorite.badges.BadgeProgress;
 import net.tenorite.badges.BadgeRepository;
 import net.tenorite.core.Tempo;
 import net.tenorite.game.GameModeId;
@@ -31,7 +32,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
+import static java.util.Arrays.asList;
 import static java.util.Arrays.stream;
+import static java.util.Collections.singletonMap;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.entry;
 
@@ -43,11 +46,11 @@ public class MongoBadgeRepositoryTest extends AbstractTenoriteServerTestCase {
     @Autowired
     private Jongo jongo;
 
-    @Autowired
     private BadgeRepository badgeRepository;
 
     @Before
     public void clear() {
+        badgeRepository = new MongoBadgeRepository(jongo);
         stream(Tempo.values()).forEach(t -> MongoBadgeRepository.progressCollection(jongo, t).drop());
         stream(Tempo.values()).forEach(t -> MongoBadgeRepository.badgeCollection(jongo, t).drop());
     }
@@ -112,4 +115,22 @@ public class MongoBadgeRepositoryTest extends AbstractTenoriteServerTestCase {
         assertThat(badges).containsOnly(entry(typeA, badgeA), entry(typeB, badgeB));
     }
 
+    @Test
+    public void testSaveAllAndLoadInBulk() {
+        Badge typeA = Badge.of(GameModeId.of("CLASSIC"), "lorem");
+        Badge typeB = Badge.of(GameModeId.of("CLASSIC"), "ipsum");
+
+        BadgeLevel badgeA = BadgeLevel.of(Tempo.FAST, typeA, "john", 100, 1, "gameA");
+        BadgeLevel badgeB = BadgeLevel.of(Tempo.FAST, typeB, "jane", 100, 1, "gameB");
+
+        BadgeRepository.BadgeOps badgeOps = badgeRepository.badgeOps(Tempo.FAST);
+        badgeOps.updateProgress(typeB, "john", 3);
+        badgeOps.saveAll(asList(badgeA, badgeB), asList(BadgeProgress.of(typeA, "john", 2), BadgeProgress.of(typeB, "john", 0), BadgeProgress.of(typeA, "nick", 4)));
+
+        assertThat(badgeOps.badgeLevels(asList(typeA, typeB), asList("john", "jane")))
+            .containsOnly(entry("john", singletonMap(typeA, badgeA)), entry("jane", singletonMap(typeB, badgeB)));
+        assertThat(badgeOps.getProgress(asList(typeA, typeB), asList("john", "nick")))
+            .containsOnly(entry("john", singletonMap(typeA, 2L)), entry("nick", singletonMap(typeA, 4L)));
+    }
+
 }
@@ -0,0 +1,297 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tenorite.badges.repository;
+
+import net.tenorite.badges.Badge;
+import net.tenorite.badges.BadgeLevel;
+import net.tenorite.badges.BadgeProgress;
+import net.tenorite.badges.BadgeRepository;
+import net.tenorite.core.Tempo;
+import net.tenorite.game.GameModeId;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonMap;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+
+/**
+ * @author Johan Siebens
+ */
+public class WriteBehindBadgeRepositoryTest {
+
+    private static final Badge BADGE_A = Badge.of(GameModeId.of("JUNIT"), "a");
+
+    private static final Badge BADGE_B = Badge.of(GameModeId.of("JUNIT"), "b");
+
+    private final InMemoryBadgeOps storage = new InMemoryBadgeOps();
+
+    @Test
+    public void testCollapsesWritesUntilFlush() {
+        WriteBehindBadgeRepository repository = new WriteBehindBadgeRepository(t -> storage, 100);
+        BadgeRepository.BadgeOps badgeOps = repository.badgeOps(Tempo.NORMAL);
+
+        for (int i = 1; i <= 10; i++) {
+            badgeOps.updateProgress(BADGE_A, "john", badgeOps.getProgress(BADGE_A, "john") + 1);
+        }
+
+        assertThat(badgeOps.getProgress(BADGE_A, "john")).isEqualTo(10);
+        assertThat(storage.progress).isEmpty();
+        assertThat(storage.writes).isEqualTo(0);
+        assertThat(storage.reads).isEqualTo(1);
+
+        repository.flush();
+        repository.flush();
+
+        assertThat(storage.progress).containsOnly(entry(BADGE_A + "|john", 10L));
+        assertThat(storage.writes).isEqualTo(1);
+    }
+
+    @Test
+    public void testBulkReadsAreServedFromCache() {
+        storage.progress.put(BADGE_A + "|john", 3L);
+
+        WriteBehindBadgeRepository repository = new WriteBehindBadgeRepository(t -> storage, 100);
+        BadgeRepository.BadgeOps badgeOps = repository.badgeOps(Tempo.NORMAL);
+
+        badgeOps.updateProgress(BADGE_B, "jane", 4);
+
+        assertThat(badgeOps.getProgress(asList(BADGE_A, BADGE_B), asList("john", "jane")))
+            .containsOnly(entry("john", singletonMap(BADGE_A, 3L)), entry("jane", singletonMap(BADGE_B, 4L)));
+        assertThat(badgeOps.getProgress(asList(BADGE_A, BADGE_B), asList("john", "jane")))
+            .containsOnly(entry("john", singletonMap(BADGE_A, 3L)), entry("jane", singletonMap(BADGE_B, 4L)));
+        assertThat(storage.reads).isEqualTo(1);
+    }
+
+    @Test
+    public void testSizeIsBounded() {
+        WriteBehindBadgeRepository repository = new WriteBehindBadgeRepository(t -> storage, 10);
+        BadgeRepository.BadgeOps badgeOps = repository.badgeOps(Tempo.NORMAL);
+
+        for (int i = 0; i < 25; i++) {
+            badgeOps.updateProgress(BADGE_A, "player" + i, i + 1);
+        }
+
+        assertThat(repository.size(Tempo.NORMAL)).isLessThanOrEqualTo(10);
+        assertThat(repository.nrOfChanges(Tempo.NORMAL)).isLessThanOrEqualTo(10);
+
+        repository.flush();
+
+        for (int i = 0; i < 25; i++) {
+            assertThat(badgeOps.getProgress(BADGE_A, "player" + i)).isEqualTo(i + 1);
+            assertThat(storage.progress).containsEntry(BADGE_A + "|player" + i, i + 1L);
+        }
+    }
+
+    @Test
+    public void testRemoveAllInvalidatesCachedProgress() {
+        storage.progress.put(BADGE_A + "|john", 3L);
+
+        WriteBehindBadgeRepository repository = new WriteBehindBadgeRepository(t -> storage, 100);
+        BadgeRepository.BadgeOps badgeOps = repository.badgeOps(Tempo.NORMAL);
+
+        assertThat(badgeOps.getProgress(BADGE_A, "john")).isEqualTo(3);
+        badgeOps.updateProgress(BADGE_A, "jane", 5);
+        badgeOps.updateProgress(BADGE_B, "jane", 6);
+
+        badgeOps.removeAll(asList(BADGE_A));
+        repository.flush();
+
+        assertThat(badgeOps.getProgress(BADGE_A, "john")).isEqualTo(0);
+        assertThat(badgeOps.getProgress(BADGE_A, "jane")).isEqualTo(0);
+        assertThat(storage.progress).containsOnly(entry(BADGE_B + "|jane", 6L));
+    }
+
+    @Test
+    public void testFailedFlushIsRetried() {
+        WriteBehindBadgeRepository repository = new WriteBehindBadgeRepository(t -> storage, 100);
+        BadgeRepository.BadgeOps badgeOps = repository.badgeOps(Tempo.NORMAL);
+
+        badgeOps.updateProgress(BADGE_A, "john", 3);
+
+        storage.failures = 1;
+        assertThatThrownBy(repository::flush).isInstanceOf(IllegalStateException.class);
+        assertThat(repository.nrOfChanges(Tempo.NORMAL)).isEqualTo(1);
+
+        badgeOps.updateProgress(BADGE_B, "jane", 4);
+        repository.flush();
+
+        assertThat(storage.progress).containsOnly(entry(BADGE_A + "|john", 3L), entry(BADGE_B + "|jane", 4L));
+        assertThat(repository.nrOfChanges(Tempo.NORMAL)).isEqualTo(0);
+    }
+
+    @Test
+    public void testLevelIsWrittenWithTheProgressOfItsPlayer() {
+        WriteBehindBadgeRepository repository = new WriteBehindBadgeRepository(t -> storage, 100);
+        BadgeRepository.BadgeOps badgeOps = repository.badgeOps(Tempo.NORMAL);
+
+        badgeOps.updateProgress(BADGE_A, "john", 9);
+        badgeOps.updateProgress(BADGE_B, "john", 2);
+        badgeOps.updateProgress(BADGE_B, "jane", 4);
+
+        BadgeLevel level = BadgeLevel.of(Tempo.NORMAL, BADGE_A, "john", 1000, 1, "game");
+        badgeOps.saveAll(asList(level), asList(BadgeProgress.of(BADGE_A, "john", 0)));
+
+        assertThat(storage.writes).isEqualTo(1);
+        assertThat(storage.levels).containsOnly(entry(BADGE_A + "|john", level));
+        assertThat(storage.progress).containsOnly(entry(BADGE_A + "|john", 0L), entry(BADGE_B + "|john", 2L));
+        assertThat(badgeOps.getProgress(BADGE_A, "john")).isEqualTo(0);
+        assertThat(repository.nrOfChanges(Tempo.NORMAL)).isEqualTo(1);
+    }
+
+    @Test
+    public void testProgressFollowingASingleLevelIsWrittenThrough() {
+        WriteBehindBadgeRepository repository = new WriteBehindBadgeRepository(t -> storage, 100);
+        BadgeRepository.BadgeOps badgeOps = repository.badgeOps(Tempo.NORMAL);
+
+        badgeOps.updateProgress(BADGE_A, "john", 9);
+        badgeOps.saveBadgeLevel(BadgeLevel.of(Tempo.NORMAL, BADGE_A, "john", 1000, 1, "game"));
+        badgeOps.updateProgress(BADGE_A, "john", 0);
+
+        assertThat(storage.progress).containsOnly(entry(BADGE_A + "|john", 0L));
+        assertThat(badgeOps.getProgress(BADGE_A, "john")).isEqualTo(0);
+
+        badgeOps.updateProgress(BADGE_A, "john", 1);
+        assertThat(storage.progress).containsOnly(entry(BADGE_A + "|john", 0L));
+    }
+
+    @Test
+    public void testNoUpdatesAreLostOnClose() throws Exception {
+        WriteBehindBadgeRepository repository = new WriteBehindBadgeRepository(t -> storage, 50);
+        BadgeRepository.BadgeOps badgeOps = repository.badgeOps(Tempo.NORMAL);
+
+        int threads = 4;
+        int updates = 500;
+        ExecutorService executor = Executors.newFixedThreadPool(threads + 1);
+        CountDownLatch latch = new CountDownLatch(threads);
+
+        executor.submit(() -> {
+            while (latch.getCount() > 0) {
+                repository.flush();
+            }
+        });
+
+        for (int t = 0; t < threads; t++) {
+            String name = "player" + t;
+            executor.submit(() -> {
+                for (int i = 1; i <= updates; i++) {
+                    badgeOps.updateProgress(BADGE_A, name + (i % 20), i);
+                }
+                latch.countDown();
+            });
+        }
+
+        assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+        repository.close();
+
+        badgeOps.updateProgress(BADGE_B, "john", 7);
+
+        executor.shutdown();
+
+        for (int t = 0; t < threads; t++) {
+            for (int i = 0; i < 20; i++) {
+                assertThat(storage.progress).containsEntry(BADGE_A + "|player" + t + i, (long) (updates - 20 + (i == 0 ? 20 : i)));
+            }
+        }
+        assertThat(storage.progress).containsEntry(BADGE_B + "|john", 7L);
+    }
+
+    private static final class InMemoryBadgeOps implements BadgeRepository.BadgeOps {
+
+        private final Map<String, Long> progress = new HashMap<>();
+
+        private final Map<String, BadgeLevel> levels = new HashMap<>();
+
+        private int reads;
+
+        private int writes;
+
+        private int failures;
+
+        @Override
+        public Optional<BadgeLevel> getBadgeLevel(String name, Badge badge) {
+            return Optional.empty();
+        }
+
+        @Override
+        public synchronized void saveBadgeLevel(BadgeLevel badgeLevel) {
+            levels.put(badgeLevel.getBadge() + "|" + badgeLevel.getName(), badgeLevel);
+        }
+
+        @Override
+        public Map<Badge, BadgeLevel> badgeLevels(GameModeId gameModeId, String name) {
+            return Collections.emptyMap();
+        }
+
+        @Override
+        public List<BadgeLevel> badgeLevels(Badge badge) {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public synchronized long getProgress(Badge badge, String name) {
+            reads++;
+            return progress.getOrDefault(badge + "|" + name, 0L);
+        }
+
+        @Override
+        public synchronized long updateProgress(Badge badge, String name, long value) {
+            writes++;
+            progress.put(badge + "|" + name, value);
+            return value;
+        }
+
+        @Override
+        public synchronized Map<String, Map<Badge, Long>> getProgress(Collection<Badge> badges, Collection<String> names) {
+            reads++;
+            Map<String, Map<Badge, Long>> result = new HashMap<>();
+            for (Badge badge : badges) {
+                for (String name : names) {
+                    Long value = progress.get(badge + "|" + name);
+                    if (value != null) {
+                        result.computeIfAbsent(name, k -> new HashMap<>()).put(badge, value);
+                    }
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public synchronized void saveAll(Collection<BadgeLevel> badgeLevels, Collection<BadgeProgress> values) {
+            if (failures > 0) {
+                failures--;
+                throw new IllegalStateException("unavailable");
+            }
+            writes++;
+            badgeLevels.forEach(l -> levels.put(l.getBadge() + "|" + l.getName(), l));
+            values.forEach(p -> progress.put(p.getBadge() + "|" + p.getName(), p.getValue()));
+        }
+
+        @Override
+        public synchronized void removeAll(Collection<Badge> badges) {
+            progress.keySet().removeIf(k -> badges.stream().anyMatch(b -> k.startsWith(b + "|")));
+        }
+
+    }
+
+}
@@ -30,6 +30,7 @@ import net.tenorite.channel.events.SlotReservationFailed;
 import net.tenorite.core.Special;
 import net.tenorite.core.Tempo;
 import net.tenorite.game.Field;
+import net.tenorite.game.events.GameFinished;
 import net.tenorite.modes.pure.Pure;
 import net.tenorite.modes.classic.Classic;
 import net.tenorite.protocol.*;
@@ -41,6 +42,7 @@ import org.junit.Test;
 
 import static akka.actor.ActorRef.noSender;
 import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
 
 /**
  * @author Johan Siebens
@@ -51,7 +53,7 @@ public class ChannelActorTest extends AbstractActorTestCase {
     public void testPlayerShouldReceiveWelcomeMessageWhenJoiningAChannel() {
         JavaTestKit player1 = newTestKit(accept(PlineMessage.class));
 
-        ActorRef channelActor = system.actorOf(ChannelActor.props(Tempo.NORMAL, new Classic(), "azerty", false));
+        ActorRef channelActor = system.actorOf(ChannelActor.props(Tempo.NORMAL, new Classic(), "azerty"));
 
         joinChannel(player1, "John", channelActor);
 
@@ -68,7 +70,7 @@ public class ChannelActorTest extends AbstractActorTestCase {
         JavaTestKit player2 = newTestKit(accept(PlineActMessage.class));
         JavaTestKit player3 = newTestKit(accept(PlineActMessage.class));
 
-        ActorRef channelActor = system.actorOf(ChannelActor.props(Tempo.NORMAL, new Classic(), "azerty", false));
+        ActorRef channelActor = system.actorOf(ChannelActor.props(Tempo.NORMAL, new Classic(), "azerty"));
 
         joinChannel(player1, "john", channelActor);
         joinChannel(player2, "jane", channelActor);
@@ -87,7 +89,7 @@ public class ChannelActorTest extends AbstractActorTestCase {
         JavaTestKit player2 = newTestKit(accept(GmsgMessage.class));
         JavaTestKit player3 = newTestKit(accept(GmsgMessage.class));
 
-        ActorRef channelActor = system.actorOf(ChannelActor.props(Tempo.NORMAL, new Classic(), "azerty", false));
+        ActorRef channelActor = system.actorOf(ChannelActor.props(Tempo.NORMAL, new Classic(), "azerty"));
 
         joinChannel(player1, "john", channelActor);
         joinChannel(player2, "jane", channelActor);
@@ -101,12 +103,31 @@ public class ChannelActorTest extends AbstractActorTestCase {
         player3.expectMsgAllOf(GmsgMessage.of("Hello World"));
     }
 
+    @Test
+    public void testLiveStatsAreSentOnlyToRequestingPlayer() {
+        JavaTestKit player1 = newTestKit(accept(GmsgMessage.class));
+        JavaTestKit player2 = newTestKit(accept(GmsgMessage.class));
+
+        ActorRef channelActor = system.actorOf(ChannelActor.props(Tempo.NORMAL, new Classic(), "azerty"));
+
+        joinChannel(player1, "john", channelActor);
+        joinChannel(player2, "jane", channelActor);
+
+        channelActor.tell(StartGameMessage.of(1), player1.getRef());
+        channelActor.tell(GmsgMessage.of("<john> /stats"), player1.getRef());
+
+        GmsgMessage first = player1.expectMsgClass(GmsgMessage.class);
+        GmsgMessage second = player1.expectMsgClass(GmsgMessage.class);
+        assertThat(asList(first.getMessage(), second.getMessage())).allMatch(m -> m.contains("bpm"));
+        player2.expectNoMsg();
+    }
+
     @Test
     public void testGameChatMessagesAreIgnoreWhenIdle() {
         JavaTestKit player1 = newTestKit(accept(GmsgMessage.class));
         JavaTestKit player2 = newTestKit(accept(GmsgMessage.class));
 
-        ActorRef channelActor = system.actorOf(ChannelActor.props(Tempo.NORMAL, new Classic(), "azerty", false));
+        ActorRef channelActor = system.actorOf(ChannelActor.props(Tempo.NORMAL, new Classic(), "azerty"));
 
         joinChannel(player1, "john", channelActor);
         joinChannel(player2, "jane", channelActor);
@@ -123,7 +144,7 @@ public class ChannelActorTest extends AbstractActorTestCase {
         JavaTestKit player2 = newTestKit(accept(LvlMessage.class));
         JavaTestKit player3 = newTestKit(accept(LvlMessage.class));
 
-        ActorRef channelActor = system.actorOf(ChannelActor.props(Tempo.NORMAL, new Classic(), "azerty", false));
+        ActorRef channelActor = system.actorOf(ChannelActor.props(Tempo.NORMAL, new Classic(), "azerty"));
 
         joinChannel(player1, "john", channelActor);
         joinChannel(player2, "jane", channelActor);
@@ -142,7 +163,7 @@ public class ChannelActorTest extends AbstractActorTestCase {
         JavaTestKit player1 = newTestKit(accept(LvlMessage.class));
         JavaTestKit player2 = newTestKit(accept(LvlMessage.class));
 
-        ActorRef channelActor = system.actorOf(ChannelActor.props(Tempo.NORMAL, new Classic(), "azerty", false));
+        ActorRef channelActor = system.actorOf(ChannelActor.props(Tempo.NORMAL, new Classic(), "azerty"));
 
         joinChannel(player1, "john", channelActor);
         joinChannel(player2, "jane", channelActor);
@@ -160,7 +181,7 @@ public class ChannelActorTest extends AbstractActorTestCase {
         JavaTestKit player1 = newTestKit(accept(NewGameMessage.class).or(accept(GamePausedMessage.class)).or(accept(GameRunningMessage.class)).or(accept(EndGameMessage.class)));
         JavaTestKit player2 = newTestKit(accept(NewGameMessage.class).or(accept(GamePausedMessage.class)).or(accept(GameRunningMessage.class)).or(accept(EndGameMessage.class)));
 
-        ActorRef channelActor = system.actorOf(ChannelActor.props(Tempo.NORMAL, new Classic(), "channel", false));
+        ActorRef channelActor = system.actorOf(ChannelActor.props(Tempo.NORMAL, new Classic(), "channel"));
 
         joinChannel(player1, "a", channelActor);
         joinChannel(player2, "b", channelActor);
@@ -180,7 +201,7 @@ public class ChannelActorTest extends AbstractActorTestCase {
         JavaTestKit player2 = newTestKit(accept(PlayerLostMessage.class).or(accept(EndGameMessage.class).or(accept(PlayerWonMessage.class))));
         JavaTestKit player3 = newTestKit(accept(PlayerLostMessage.class).or(accept(EndGameMessage.class).or(accept(PlayerWonMessage.class))));
 
-        ActorRef channelActor = system.actorOf(ChannelActor.props(Tempo.NORMAL, new Classic(), "channel", false));
+        ActorRef channelActor = system.actorOf(ChannelActor.props(Tempo.NORMAL, new Classic(), "channel"));
 
         joinChannel(player1, "a", channelActor);
         joinChannel(player2, "b", channelActor);
@@ -195,13 +216,38 @@ public class ChannelActorTest extends AbstractActorTestCase {
         player3.expectMsgAllOf(PlayerLostMessage.of(2), PlayerLostMessage.of(3), EndGameMessage.of(), PlayerWonMessage.of(1));
     }
 
+    @Test
+    public void testGameFinishedIsPublishedAfterEndOfGameAndChannelCanStartANewGame() {
+        JavaTestKit events = newTestKit();
+        system.eventStream().subscribe(events.getRef(), GameFinished.class);
+
+        JavaTestKit player1 = newTestKit(accept(NewGameMessage.class));
+        JavaTestKit player2 = newTestKit(accept(NewGameMessage.class));
+
+        ActorRef channelActor = system.actorOf(ChannelActor.props(Tempo.NORMAL, new Classic(), "channel"));
+
+        joinChannel(player1, "a", channelActor);
+        joinChannel(player2, "b", channelActor);
+
+        channelActor.tell(StartGameMessage.of(1), player1.getRef());
+        channelActor.tell(PlayerLostMessage.of(2), player2.getRef());
+        channelActor.tell(StartGameMessage.of(1), player1.getRef());
+
+        GameFinished gameFinished = events.expectMsgClass(GameFinished.class);
+        assertThat(gameFinished.getRanking()).extracting("player.name").containsExactly("a", "b");
+
+        NewGameMessage newgame = NewGameMessage.of(Classic.RULES.toString());
+        player1.expectMsgAllOf(newgame, newgame);
+        player2.expectMsgAllOf(newgame, newgame);
+    }
+
     @Test
     public void testCurrentPlayerShouldReceiveMessageWhenANewPlayerJoined() {
         JavaTestKit player1 = newTestKit(accept(PlayerJoinMessage.class));
         JavaTestKit player2 = newTestKit(accept(PlayerJoinMessage.class));
         JavaTestKit player3 = newTestKit(accept(PlayerJoinMessage.class));
 
-        ActorRef channelActor = system.actorOf(ChannelActor.props(Tempo.NORMAL, new Classic(), "channel", false));
+        ActorRef channelActor = system.actorOf(ChannelActor.props(Tempo.NORMAL, new Classic(), "channel"));
 
         joinChannel(player1, "a", channelActor);
         joinChannel(player2, "b", channelActor);
@@ -218,7 +264,7 @@ public class ChannelActorTest extends AbstractActorTestCase {
         JavaTestKit player2 = newTestKit();
         JavaTestKit player3 = newTestKit(accept(PlayerJoinMessage.class));
 
-        ActorRef channelActor = system.actorOf(ChannelActor.props(Tempo.NORMAL, new Classic(), "channel", false));
+        ActorRef channelActor = system.actorOf(ChannelActor.props(Tempo.NORMAL, new Classic(), "channel"));
 
         joinChannel(player1, "a", channelActor);
         joinChannel(player2, "b", channelActor);
@@ -232,7 +278,7 @@ public class ChannelActorTest extends AbstractActorTestCase {
         JavaTestKit player1 = newTestKit(accept(PlayerNumMessage.class));
         JavaTestKit player2 = newTestKit(accept(PlayerNumMessage.class));
 
-        ActorRef channelActor = system.actorOf(ChannelActor.props(Tempo.NORMAL, new Classic(), "channel", false));
+        ActorRef channelActor = system.actorOf(ChannelActor.props(Tempo.NORMAL, new Classic(), "channel"));
 
         joinChannel(player1, "a", channelActor);
         joinChannel(player2, "b", channelActor);
@@ -241,12 +287,36 @@ public class ChannelActorTest extends AbstractActorTestCase {
         player2.expectMsgAllOf(PlayerNumMessage.of(2));
     }
 
+    @Test
+    public void testLowestReleasedSlotNumberIsReusedFirst() {
+        JavaTestKit player1 = newTestKit(accept(PlayerNumMessage.class));
+        JavaTestKit player2 = newTestKit(accept(PlayerNumMessage.class));
+        JavaTestKit player3 = newTestKit(accept(PlayerNumMessage.class));
+        JavaTestKit player4 = newTestKit(accept(PlayerNumMessage.class));
+        JavaTestKit player5 = newTestKit(accept(PlayerNumMessage.class));
+
+        ActorRef channelActor = system.actorOf(ChannelActor.props(Tempo.NORMAL, new Classic(), "channel"));
+
+        joinChannel(player1, "a", channelActor);
+        joinChannel(player2, "b", channelActor);
+        joinChannel(player3, "c", channelActor);
+
+        channelActor.tell(LeaveChannel.instance(), player3.getRef());
+        channelActor.tell(LeaveChannel.instance(), player1.getRef());
+
+        joinChannel(player4, "d", channelActor);
+        joinChannel(player5, "e", channelActor);
+
+        player4.expectMsgAllOf(PlayerNumMessage.of(1));
+        player5.expectMsgAllOf(PlayerNumMessage.of(3));
+    }
+
     @Test
     public void testPlayerShouldReceiveIngameMessageWhenJoiningGameInRunning() {
         JavaTestKit player1 = newTestKit(accept(IngameMessage.class).or(accept(GameRunningMessage.class)));
         JavaTestKit player2 = newTestKit(accept(IngameMessage.class).or(accept(GameRunningMessage.class)));
 
-        ActorRef channelActor = system.actorOf(ChannelActor.props(Tempo.NORMAL, new Classic(), "channel", false));
+        ActorRef channelActor = system.actorOf(ChannelActor.props(Tempo.NORMAL, new Classic(), "channel"));
 
         joinChannel(player1, "john", channelActor);
 
@@ -262,7 +332,7 @@ public class ChannelActorTest extends AbstractActorTestCase {
         JavaTestKit player1 = newTestKit(accept(IngameMessage.class).or(accept(GamePausedMessage.class)));
         JavaTestKit player2 = newTestKit(accept(IngameMessage.class).or(accept(GamePausedMessage.class)));
 
-        ActorRef channelActor = system.actorOf(ChannelActor.props(Tempo.NORMAL, new Classic(), "channel", false));
+        ActorRef channelActor = system.actorOf(ChannelActor.props(Tempo.NORMAL, new Classic(), "channel"));
 
         joinChannel(player1, "john", channelActor);
 
@@ -284,7 +354,7 @@ public class ChannelActorTest extends AbstractActorTestCase {
         JavaTestKit player6 = newTestKit();
         JavaTestKit player7 = newTestKit(accept(SlotReservationFailed.class));
 
-        ActorRef channelActor = system.actorOf(ChannelActor.props(Tempo.NORMAL, new Classic(), "channel", false));
+        ActorRef channelActor = system.actorOf(ChannelActor.props(Tempo.NORMAL, new Classic(), "channel"));
 
         joinChannel(player1, "a", channelActor);
         joinChannel(player2, "b", channelActor);
@@ -304,7 +374,7 @@ public class ChannelActorTest extends AbstractActorTestCase {
         JavaTestKit player2 = newTestKit(accept(PlayerLeaveMessage.class));
         JavaTestKit player3 = newTestKit(accept(PlayerLeaveMessage.class));
 
-        ActorRef channelActor = system.actorOf(ChannelActor.props(Tempo.NORMAL, new Classic(), "channel", false));
+        ActorRef channelActor = system.actorOf(ChannelActor.props(Tempo.NORMAL, new Classic(), "channel"));
 
         joinChannel(player1, "john", channelActor);
         joinChannel(player2, "jane", channelActor);
@@ -323,7 +393,7 @@ public class ChannelActorTest extends AbstractActorTestCase {
         JavaTestKit player2 = newTestKit(accept(PlayerLeaveMessage.class));
         JavaTestKit player3 = newTestKit(accept(PlayerLeaveMessage.class));
 
-        ActorRef channelActor = system.actorOf(ChannelActor.props(Tempo.NORMAL, new Classic(), "channel", false));
+        ActorRef channelActor = system.actorOf(ChannelActor.props(Tempo.NORMAL, new Classic(), "channel"));
 
         joinChannel(player1, "john", channelActor);
         joinChannel(player2, "jane", channelActor);
@@ -341,7 +411,7 @@ public class ChannelActorTest extends AbstractActorTestCase {
         JavaTestKit player2 = newTestKit(accept(TeamMessage.class));
         JavaTestKit player3 = newTestKit(accept(TeamMessage.class));
 
-        ActorRef channelActor = system.actorOf(ChannelActor.props(Tempo.NORMAL, new Classic(), "channel", false));
+        ActorRef channelActor = system.actorOf(ChannelActor.props(Tempo.NORMAL, new Classic(), "channel"));
 
         joinChannel(player1, "john", channelActor);
         joinChannel(player2, "jane", channelActor);
@@ -359,7 +429,7 @@ public class ChannelActorTest extends AbstractActorTestCase {
         JavaTestKit player1 = newTestKit(accept(TeamMessage.class));
         JavaTestKit player2 = newTestKit(accept(TeamMessage.class));
 
-        ActorRef channelActor = system.actorOf(ChannelActor.props(Tempo.NORMAL, new Classic(), "channel", false));
+        ActorRef channelActor = system.actorOf(ChannelActor.props(Tempo.NORMAL, new Classic(), "channel"));
 
         joinChannel(player1, "john", channelActor);
         joinChannel(player2, "jane", channelActor);
@@ -376,7 +446,7 @@ public class ChannelActorTest extends AbstractActorTestCase {
         JavaTestKit player2 = newTestKit(accept(TeamMessage.class));
         JavaTestKit player3 = newTestKit(accept(TeamMessage.class));
 
-        ActorRef channelActor = system.actorOf(ChannelActor.props(Tempo.NORMAL, new Classic(), "channel", false));
+        ActorRef channelActor = system.actorOf(ChannelActor.props(Tempo.NORMAL, new Classic(), "channel"));
 
         joinChannel(player1, "john", channelActor);
         joinChannel(player2, "jane", channelActor);
@@ -398,7 +468,7 @@ public class ChannelActorTest extends AbstractActorTestCase {
         JavaTestKit player2 = newTestKit(accept(FieldMessage.class));
         JavaTestKit player3 = newTestKit(accept(FieldMessage.class));
 
-        ActorRef channelActor = system.actorOf(ChannelActor.props(Tempo.NORMAL, new Classic(), "channel", false));
+        ActorRef channelActor = system.actorOf(ChannelActor.props(Tempo.NORMAL, new Classic(), "channel"));
 
         joinChannel(player1, "john", channelActor);
         joinChannel(player2, "jane", channelActor);
@@ -419,7 +489,7 @@ public class ChannelActorTest extends AbstractActorTestCase {
         JavaTestKit player1 = newTestKit(accept(FieldMessage.class));
         JavaTestKit player2 = newTestKit(accept(FieldMessage.class));
 
-        ActorRef channelActor = system.actorOf(ChannelActor.props(Tempo.NORMAL, new Classic(), "channel", false));
+        ActorRef channelActor = system.actorOf(ChannelActor.props(Tempo.NORMAL, new Classic(), "channel"));
 
         joinChannel(player1, "john", channelActor);
         joinChannel(player2, "jane", channelActor);
@@ -437,7 +507,7 @@ public class ChannelActorTest extends AbstractActorTestCase {
         JavaTestKit player2 = newTestKit(accept(FieldMessage.class));
         JavaTestKit player3 = newTestKit(accept(FieldMessage.class));
 
-        ActorRef channelActor = system.actorOf(ChannelActor.props(Tempo.NORMAL, new Classic(), "channel", false));
+        ActorRef channelActor = system.actorOf(ChannelActor.props(Tempo.NORMAL, new Classic(), "channel"));
 
         joinChannel(player1, "john", channelActor);
         joinChannel(player2, "jane", channelActor);
@@ -458,7 +528,7 @@ public class ChannelActorTest extends AbstractActorTestCase {
         JavaTestKit player2 = newTestKit(accept(FieldMessage.class));
         JavaTestKit player3 = newTestKit(accept(FieldMessage.class));
 
-        ActorRef channelActor = system.actorOf(ChannelActor.props(Tempo.NORMAL, new Classic(), "channel", false));
+        ActorRef channelActor = system.actorOf(ChannelActor.props(Tempo.NORMAL, new Classic(), "channel"));
 
         joinChannel(player1, "john", channelActor);
         joinChannel(player2, "jane", channelActor);
@@ -480,7 +550,7 @@ public class ChannelActorTest extends AbstractActorTestCase {
         JavaTestKit player2 = newTestKit(accept(SpecialBlockMessage.class).or(accept(ClassicStyleAddMessage.class)));
         JavaTestKit player3 = newTestKit(accept(SpecialBlockMessage.class).or(accept(ClassicStyleAddMessage.class)));
 
-        ActorRef channelActor = system.actorOf(ChannelActor.props(Tempo.NORMAL, new Classic(), "channel", false));
+        ActorRef channelActor = system.actorOf(ChannelActor.props(Tempo.NORMAL, new Classic(), "channel"));
 
         joinChannel(player1, "john", channelActor);
         joinChannel(player2, "jane", channelActor);
@@ -500,7 +570,7 @@ public class ChannelActorTest extends AbstractActorTestCase {
         JavaTestKit player1 = newTestKit(accept(SpecialBlockMessage.class).or(accept(ClassicStyleAddMessage.class)));
         JavaTestKit player2 = newTestKit(accept(SpecialBlockMessage.class).or(accept(ClassicStyleAddMessage.class)));
 
-        ActorRef channelActor = system.actorOf(ChannelActor.props(Tempo.NORMAL, new Classic(), "channel", false));
+        ActorRef channelActor = system.actorOf(ChannelActor.props(Tempo.NORMAL, new Classic(), "channel"));
 
         joinChannel(player1, "john", channelActor);
         joinChannel(player2, "jane", channelActor);
@@ -517,7 +587,7 @@ public class ChannelActorTest extends AbstractActorTestCase {
         JavaTestKit player2 = newTestKit(accept(WinlistMessage.class));
         JavaTestKit player3 = newTestKit(accept(WinlistMessage.class));
 
-        ActorRef channelActor = system.actorOf(ChannelActor.props(Tempo.NORMAL, new Classic(), "channel", false));
+        ActorRef channelActor = system.actorOf(ChannelActor.props(Tempo.NORMAL, new Classic(), "channel"));
 
         joinChannel(player1, "john", channelActor);
         joinChannel(player2, "jane", channelActor);
@@ -534,7 +604,7 @@ public class ChannelActorTest extends AbstractActorTestCase {
     public void testWinlistUpdatedFromOtherGameModesAreIgnored() {
         JavaTestKit player1 = newTestKit(accept(WinlistMessage.class));
 
-        ActorRef channelActor = system.actorOf(ChannelActor.props(Tempo.NORMAL, new Classic(), "channel", false));
+        ActorRef channelActor = system.actorOf(ChannelActor.props(Tempo.NORMAL, new Classic(), "channel"));
 
         joinChannel(player1, "john", channelActor);
 
@@ -547,7 +617,7 @@ public class ChannelActorTest extends AbstractActorTestCase {
     public void testWinlistUpdatedFromOtherTempoAreIgnored() {
         JavaTestKit player1 = newTestKit(accept(WinlistMessage.class));
 
-        ActorRef channelActor = system.actorOf(ChannelActor.props(Tempo.FAST, new Classic(), "channel", false));
+        ActorRef channelActor = system.actorOf(ChannelActor.props(Tempo.FAST, new Classic(), "channel"));
 
         joinChannel(player1, "john", channelActor);
 
@@ -562,7 +632,7 @@ public class ChannelActorTest extends AbstractActorTestCase {
         JavaTestKit player2 = newTestKit(accept(BadgeEarnedPlineMessage.class));
         JavaTestKit player3 = newTestKit(accept(BadgeEarnedPlineMessage.class));
 
-        ActorRef channelActor = system.actorOf(ChannelActor.props(Tempo.NORMAL, new Classic(), "channel", false));
+        ActorRef channelActor = system.actorOf(ChannelActor.props(Tempo.NORMAL, new Classic(), "channel"));
 
         joinChannel(player1, "john", channelActor);
         joinChannel(player2, "jane", channelActor);
@@ -586,7 +656,7 @@ public class ChannelActorTest extends AbstractActorTestCase {
     public void testBadgeEarnedEventsFromOtherGameModesAreIgnored() {
         JavaTestKit player1 = newTestKit(accept(WinlistMessage.class));
 
-        ActorRef channelActor = system.actorOf(ChannelActor.props(Tempo.NORMAL, new Classic(), "channel", false));
+        ActorRef channelActor = system.actorOf(ChannelActor.props(Tempo.NORMAL, new Classic(), "channel"));
 
         joinChannel(player1, "john", channelActor);
 
@@ -602,7 +672,7 @@ public class ChannelActorTest extends AbstractActorTestCase {
     public void testBadgeEarnedEventsFromOtherTempoAreIgnored() {
         JavaTestKit player1 = newTestKit(accept(WinlistMessage.class));
 
-        ActorRef channelActor = system.actorOf(ChannelActor.props(Tempo.NORMAL, new Classic(), "channel", false));
+        ActorRef channelActor = system.actorOf(ChannelActor.props(Tempo.NORMAL, new Classic(), "channel"));
 
         joinChannel(player1, "john", channelActor);
 
@@ -618,7 +688,7 @@ public class ChannelActorTest extends AbstractActorTestCase {
     public void testBadgeEarnedEventsFromOtherPlayersAreIgnored() {
         JavaTestKit player1 = newTestKit(accept(WinlistMessage.class));
 
-        ActorRef channelActor = system.actorOf(ChannelActor.props(Tempo.NORMAL, new Classic(), "channel", false));
+        ActorRef channelActor = system.actorOf(ChannelActor.props(Tempo.NORMAL, new Classic(), "channel"));
 
         joinChannel(player1, "john", channelActor);
 
@@ -654,7 +724,7 @@ public class ChannelActorTest extends AbstractActorTestCase {
         JavaTestKit probe5 = newTestKit();
         probe5.watch(spectator2.getRef());
 
-        ActorRef channelActor = system.actorOf(ChannelActor.props(Tempo.NORMAL, new ChaosMonkey(), "channel", false));
+        ActorRef channelActor = system.actorOf(ChannelActor.props(Tempo.NORMAL, new ChaosMonkey(), "channel"));
 
         joinChannel(player1, "john", channelActor);
         joinChannel(player2, "jane", channelActor);
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tenorite.channel.actors;
+
+import akka.actor.ActorRef;
+import akka.dispatch.Envelope;
+import akka.testkit.JavaTestKit;
+import net.tenorite.AbstractActorTestCase;
+import net.tenorite.channel.commands.ReserveSlot;
+import net.tenorite.core.Special;
+import net.tenorite.game.Field;
+import net.tenorite.protocol.*;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Johan Siebens
+ */
+public class ChannelMailboxTest extends AbstractActorTestCase {
+
+    private static final String FIELD_A = Field.empty().getFieldString();
+
+    private static final String FIELD_B = FIELD_A.replaceFirst("0", "1");
+
+    @Test
+    public void testControlMessagesAreHandledFirst() {
+        ActorRef player1 = newTestKit().getRef();
+        ActorRef player2 = newTestKit().getRef();
+
+        ChannelMailbox.ChannelMessageQueue queue = new ChannelMailbox.ChannelMessageQueue(true);
+        enqueue(queue, player1, PlineMessage.of("hello"));
+        enqueue(queue, player1, FieldMessage.of(1, FIELD_A));
+        enqueue(queue, player2, StartGameMessage.of(2));
+
+        assertThat(queue.numberOfMessages()).isEqualTo(3);
+        assertThat(drain(queue)).containsExactly(StartGameMessage.of(2), PlineMessage.of("hello"), FieldMessage.of(1, FIELD_A));
+        assertThat(queue.hasMessages()).isFalse();
+    }
+
+    @Test
+    public void testControlMessagesKeepTheOrderOfTheirSender() {
+        ActorRef player1 = newTestKit().getRef();
+        ActorRef player2 = newTestKit().getRef();
+
+        ChannelMailbox.ChannelMessageQueue queue = new ChannelMailbox.ChannelMessageQueue(true);
+        enqueue(queue, player1, FieldMessage.of(1, FIELD_A));
+        enqueue(queue, player2, GmsgMessage.of("hi"));
+        enqueue(queue, player1, PlayerLostMessage.of(1));
+        enqueue(queue, player2, ReserveSlot.of("tetrinet", "jane"));
+
+        assertThat(drain(queue)).containsExactly(FieldMessage.of(1, FIELD_A), GmsgMessage.of("hi"), PlayerLostMessage.of(1), ReserveSlot.of("tetrinet", "jane"));
+    }
+
+    @Test
+    public void testControlMessagesDoNotOvertakeOtherControlMessages() {
+        ActorRef player1 = newTestKit().getRef();
+        ActorRef player2 = newTestKit().getRef();
+        ActorRef player3 = newTestKit().getRef();
+
+        ChannelMailbox.ChannelMessageQueue queue = new ChannelMailbox.ChannelMessageQueue(true);
+        enqueue(queue, player1, PlineMessage.of("hello"));
+        enqueue(queue, player2, TeamMessage.of(2, "doe"));
+        enqueue(queue, player3, StartGameMessage.of(3));
+
+        assertThat(drain(queue)).containsExactly(PlineMessage.of("hello"), TeamMessage.of(2, "doe"), StartGameMessage.of(3));
+    }
+
+    @Test
+    public void testWaitingCompleteFieldsOfTheSamePlayerAreCoalesced() {
+        ActorRef player1 = newTestKit().getRef();
+        ActorRef player2 = newTestKit().getRef();
+
+        ChannelMailbox.ChannelMessageQueue queue = new ChannelMailbox.ChannelMessageQueue(true);
+        enqueue(queue, player1, FieldMessage.of(1, FIELD_A));
+        enqueue(queue, player2, FieldMessage.of(2, FIELD_A));
+        enqueue(queue, player1, FieldMessage.of(1, FIELD_B));
+        enqueue(queue, player2, SpecialBlockMessage.of(2, Special.ADDLINE, 1));
+        enqueue(queue, player2, FieldMessage.of(2, FIELD_B));
+        enqueue(queue, player1, FieldMessage.of(1, "!A"));
+
+        assertThat(queue.numberOfMessages()).isEqualTo(5);
+        assertThat(queue.numberOfCoalescedMessages()).isEqualTo(1);
+        assertThat(drain(queue)).containsExactly(
+            FieldMessage.of(1, FIELD_B),
+            FieldMessage.of(2, FIELD_A),
+            SpecialBlockMessage.of(2, Special.ADDLINE, 1),
+            FieldMessage.of(2, FIELD_B),
+            FieldMessage.of(1, "!A")
+        );
+    }
+
+    @Test
+    public void testFieldsAreNotCoalescedWhenDisabled() {
+        ActorRef player1 = newTestKit().getRef();
+
+        ChannelMailbox.ChannelMessageQueue queue = new ChannelMailbox.ChannelMessageQueue(false);
+        enqueue(queue, player1, FieldMessage.of(1, FIELD_A));
+        enqueue(queue, player1, FieldMessage.of(1, FIELD_B));
+
+        assertThat(drain(queue)).containsExactly(FieldMessage.of(1, FIELD_A), FieldMessage.of(1, FIELD_B));
+    }
+
+    private void enqueue(ChannelMailbox.ChannelMessageQueue queue, ActorRef sender, Object message) {
+        queue.enqueue(null, Envelope.apply(message, sender, system));
+    }
+
+    private static List<Object> drain(ChannelMailbox.ChannelMessageQueue queue) {
+        List<Object> result = new ArrayList<>();
+        Envelope envelope;
+        while ((envelope = queue.dequeue()) != null) {
+            result.add(envelope.message());
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,247 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tenorite.channel.actors;
+
+import akka.actor.ActorRef;
+import akka.actor.ActorSystem;
+import akka.actor.PoisonPill;
+import akka.testkit.JavaTestKit;
+import com.typesafe.config.ConfigFactory;
+import net.tenorite.AbstractActorTestCase;
+import net.tenorite.channel.Channel;
+import net.tenorite.channel.Channels;
+import net.tenorite.channel.commands.ConfirmSlot;
+import net.tenorite.channel.commands.CreateChannel;
+import net.tenorite.channel.commands.LeaveChannel;
+import net.tenorite.channel.commands.ListChannels;
+import net.tenorite.channel.commands.QuickJoin;
+import net.tenorite.channel.commands.ReserveSlot;
+import net.tenorite.channel.events.ChannelCreated;
+import net.tenorite.channel.events.ChannelCreationFailed;
+import net.tenorite.channel.events.SlotReserved;
+import net.tenorite.core.Tempo;
+import net.tenorite.game.GameModeId;
+import net.tenorite.game.GameModes;
+import net.tenorite.modes.classic.Classic;
+import net.tenorite.modes.jelly.Jelly;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Johan Siebens
+ */
+public class ChannelsActorTest extends AbstractActorTestCase {
+
+    private final GameModes gameModes = new GameModes(asList(new Classic(), new Jelly()));
+
+    @Test
+    public void testListingContainsDefaultAndCreatedChannelsSortedByName() {
+        JavaTestKit client = newTestKit();
+        AtomicReference<Channels> snapshot = new AtomicReference<>(Channels.of());
+
+        ActorRef channels = system.actorOf(ChannelsActor.props(Tempo.NORMAL, gameModes, snapshot));
+
+        channels.tell(CreateChannel.of(Classic.ID, "abc", true), client.getRef());
+        client.expectMsgClass(ChannelCreated.class);
+
+        channels.tell(ListChannels.instance(), client.getRef());
+        Channels result = client.expectMsgClass(Channels.class);
+
+        assertThat(result.getChannels()).extracting("name").containsExactly("abc", "classic", "jelly");
+        assertThat(snapshot.get()).isEqualTo(result);
+    }
+
+    @Test
+    public void testChannelsPushTheirOccupancy() {
+        JavaTestKit client = newTestKit();
+        AtomicReference<Channels> snapshot = new AtomicReference<>(Channels.of());
+
+        ActorRef channels = system.actorOf(ChannelsActor.props(Tempo.NORMAL, gameModes, snapshot));
+
+        channels.tell(ReserveSlot.of("jelly", "john"), client.getRef());
+        client.expectMsgClass(SlotReserved.class);
+        client.getLastSender().tell(ConfirmSlot.instance(), client.getRef());
+
+        client.new AwaitCond() {
+
+            @Override
+            protected boolean cond() {
+                return nrOfPlayers(snapshot, "jelly") == 1;
+            }
+
+        };
+
+        assertThat(nrOfPlayers(snapshot, "classic")).isEqualTo(0);
+    }
+
+    @Test
+    public void testStoppedChannelsAreRemovedFromListing() {
+        JavaTestKit client = newTestKit();
+        AtomicReference<Channels> snapshot = new AtomicReference<>(Channels.of());
+
+        ActorRef channels = system.actorOf(ChannelsActor.props(Tempo.NORMAL, gameModes, snapshot));
+
+        channels.tell(CreateChannel.of(Classic.ID, "abc", true), client.getRef());
+        client.expectMsgClass(ChannelCreated.class);
+
+        system.actorSelection(channels.path().child("abc")).tell(PoisonPill.getInstance(), client.getRef());
+
+        client.new AwaitCond() {
+
+            @Override
+            protected boolean cond() {
+                return snapshot.get().getChannels().stream().noneMatch(c -> c.getName().equals("abc"));
+            }
+
+        };
+    }
+
+    @Test
+    public void testQuickJoinPicksTheChannelWithMostPlayers() {
+        JavaTestKit client1 = newTestKit();
+        JavaTestKit client2 = newTestKit();
+        JavaTestKit client3 = newTestKit();
+        AtomicReference<Channels> snapshot = new AtomicReference<>(Channels.of());
+
+        ActorRef channels = system.actorOf(ChannelsActor.props(Tempo.NORMAL, gameModes, snapshot));
+
+        channels.tell(CreateChannel.of(Classic.ID, "abc", true), client1.getRef());
+        client1.expectMsgClass(ChannelCreated.class);
+
+        channels.tell(ReserveSlot.of("classic", "john"), client1.getRef());
+        client1.expectMsgClass(SlotReserved.class);
+        client1.getLastSender().tell(ConfirmSlot.instance(), client1.getRef());
+
+        client1.new AwaitCond() {
+
+            @Override
+            protected boolean cond() {
+                return nrOfPlayers(snapshot, "classic") == 1;
+            }
+
+        };
+
+        channels.tell(QuickJoin.of(Classic.ID, "jane"), client2.getRef());
+        channels.tell(QuickJoin.of(Classic.ID, "nick"), client3.getRef());
+
+        client2.expectMsgClass(SlotReserved.class);
+        client3.expectMsgClass(SlotReserved.class);
+        assertThat(client2.getLastSender().path().name()).isEqualTo("classic");
+        assertThat(client3.getLastSender().path().name()).isEqualTo("classic");
+    }
+
+    @Test
+    public void testQuickJoinCreatesAChannelWhenNoneIsAvailable() {
+        AtomicReference<Channels> snapshot = new AtomicReference<>(Channels.of());
+
+        ActorRef channels = system.actorOf(ChannelsActor.props(Tempo.NORMAL, new GameModes(asList(new Classic())), snapshot));
+
+        for (int i = 0; i < 6; i++) {
+            JavaTestKit client = newTestKit();
+            channels.tell(QuickJoin.of(Classic.ID, "player" + i), client.getRef());
+            client.expectMsgClass(SlotReserved.class);
+            assertThat(client.getLastSender().path().name()).isEqualTo("classic");
+        }
+
+        JavaTestKit client = newTestKit();
+        channels.tell(QuickJoin.of(Classic.ID, "player6"), client.getRef());
+        client.expectMsgClass(SlotReserved.class);
+        assertThat(client.getLastSender().path().name()).isEqualTo("classic-1");
+    }
+
+    @Test
+    public void testQuickJoinWithUnknownGameMode() {
+        JavaTestKit client = newTestKit();
+
+        ActorRef channels = system.actorOf(ChannelsActor.props(Tempo.NORMAL, gameModes, new AtomicReference<>(Channels.of())));
+        channels.tell(QuickJoin.of(GameModeId.of("UNKNOWN"), "john"), client.getRef());
+
+        client.expectMsgEquals(ChannelCreationFailed.invalidGameMode());
+    }
+
+    @Test
+    public void testIdleChannelsArePassivatedAndActivatedAgain() {
+        ActorSystem system = passivatingSystem();
+        try {
+            JavaTestKit client = new JavaTestKit(system);
+            AtomicReference<Channels> snapshot = new AtomicReference<>(Channels.of());
+
+            ActorRef channels = system.actorOf(ChannelsActor.props(Tempo.NORMAL, gameModes, snapshot));
+
+            channels.tell(ReserveSlot.of("classic", "john"), client.getRef());
+            client.expectMsgClass(SlotReserved.class);
+            ActorRef channel = client.getLastSender();
+            channel.tell(ConfirmSlot.instance(), client.getRef());
+            channel.tell(LeaveChannel.instance(), client.getRef());
+
+            JavaTestKit watcher = new JavaTestKit(system);
+            watcher.watch(channel);
+            watcher.expectTerminated(channel);
+
+            assertThat(snapshot.get().getChannels()).extracting("name").containsExactly("classic", "jelly");
+
+            JavaTestKit other = new JavaTestKit(system);
+            channels.tell(ReserveSlot.of("classic", "jane"), other.getRef());
+            other.expectMsgClass(SlotReserved.class);
+            assertThat(other.getLastSender().path().name()).isEqualTo("classic");
+            assertThat(other.getLastSender()).isNotEqualTo(channel);
+        }
+        finally {
+            JavaTestKit.shutdownActorSystem(system);
+        }
+    }
+
+    @Test
+    public void testPassiveEphemeralChannelsAreRemovedFromListing() {
+        ActorSystem system = passivatingSystem();
+        try {
+            JavaTestKit client = new JavaTestKit(system);
+            AtomicReference<Channels> snapshot = new AtomicReference<>(Channels.of());
+
+            ActorRef channels = system.actorOf(ChannelsActor.props(Tempo.NORMAL, gameModes, snapshot));
+
+            channels.tell(CreateChannel.of(Classic.ID, "abc", true), client.getRef());
+            client.expectMsgClass(ChannelCreated.class);
+
+            client.new AwaitCond() {
+
+                @Override
+                protected boolean cond() {
+                    return snapshot.get().getChannels().stream().noneMatch(c -> c.getName().equals("abc"));
+                }
+
+            };
+
+            assertThat(snapshot.get().getChannels()).extracting("name").containsExactly("classic", "jelly");
+        }
+        finally {
+            JavaTestKit.shutdownActorSystem(system);
+        }
+    }
+
+    private static ActorSystem passivatingSystem() {
+        return ActorSystem.create("passivating", ConfigFactory.parseString("tenorite.channels { passivate-after = 100ms, close-after = 200ms }").withFallback(ConfigFactory.load()));
+    }
+
+    private static int nrOfPlayers(AtomicReference<Channels> snapshot, String name) {
+        return snapshot.get().getChannels().stream().filter(c -> c.getName().equals(name)).mapToInt(Channel::getNrOfPlayers).sum();
+    }
+
+}
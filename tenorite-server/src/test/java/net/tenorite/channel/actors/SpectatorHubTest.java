@@ -0,0 +1,85 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tenorite.channel.actors;
+
+import akka.actor.ActorRef;
+import akka.testkit.JavaTestKit;
+import net.tenorite.AbstractActorTestCase;
+import net.tenorite.channel.SpectatorFrame;
+import net.tenorite.core.Tempo;
+import net.tenorite.protocol.PlayerJoinMessage;
+import net.tenorite.protocol.PlayerLostMessage;
+import net.tenorite.protocol.StartGameMessage;
+import org.junit.Test;
+
+import static akka.actor.ActorRef.noSender;
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Johan Siebens
+ */
+public class SpectatorHubTest extends AbstractActorTestCase {
+
+    @Test
+    public void testSpectatorReceivesSnapshotAndBroadcasts() {
+        JavaTestKit spectator = newTestKit();
+
+        ActorRef hub = system.actorOf(SpectatorHub.props(Tempo.NORMAL));
+        hub.tell(SpectatorHub.join(spectator.getRef(), singletonList(PlayerJoinMessage.of(1, "john"))), noSender());
+        hub.tell(PlayerLostMessage.of(1), noSender());
+
+        SpectatorFrame snapshot = spectator.expectMsgClass(SpectatorFrame.class);
+        assertThat(snapshot.getMessage()).isEqualTo(PlayerJoinMessage.of(1, "john"));
+        assertThat(snapshot.getLine()).isEqualTo(PlayerJoinMessage.of(1, "john").raw(Tempo.NORMAL));
+
+        SpectatorFrame lost = spectator.expectMsgClass(SpectatorFrame.class);
+        assertThat(lost.getMessage()).isEqualTo(PlayerLostMessage.of(1));
+        assertThat(lost.getJson()).contains("\"timestamp\"").contains("playerlost 1");
+    }
+
+    @Test
+    public void testEveryMessageIsSerializedOnce() {
+        JavaTestKit spectator1 = newTestKit();
+        JavaTestKit spectator2 = newTestKit();
+
+        ActorRef hub = system.actorOf(SpectatorHub.props(Tempo.NORMAL));
+        hub.tell(SpectatorHub.join(spectator1.getRef(), singletonList(PlayerJoinMessage.of(1, "john"))), noSender());
+        hub.tell(SpectatorHub.join(spectator2.getRef(), singletonList(PlayerJoinMessage.of(1, "john"))), noSender());
+        hub.tell(StartGameMessage.of(1), noSender());
+
+        spectator1.expectMsgClass(SpectatorFrame.class);
+        spectator2.expectMsgClass(SpectatorFrame.class);
+
+        SpectatorFrame frame1 = spectator1.expectMsgClass(SpectatorFrame.class);
+        SpectatorFrame frame2 = spectator2.expectMsgClass(SpectatorFrame.class);
+        assertThat(frame1).isSameAs(frame2);
+    }
+
+    @Test
+    public void testSpectatorStopsReceivingAfterLeaving() {
+        JavaTestKit spectator = newTestKit();
+
+        ActorRef hub = system.actorOf(SpectatorHub.props(Tempo.NORMAL));
+        hub.tell(SpectatorHub.join(spectator.getRef(), singletonList(PlayerJoinMessage.of(1, "john"))), noSender());
+        hub.tell(SpectatorHub.leave(spectator.getRef()), noSender());
+        hub.tell(PlayerLostMessage.of(1), noSender());
+
+        spectator.expectMsgClass(SpectatorFrame.class);
+        spectator.expectNoMsg();
+    }
+
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tenorite.clients;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Johan Siebens
+ */
+public class ClientNamesTest {
+
+    @Test
+    public void testNamesAreCaseInsensitive() {
+        ClientNames names = new ClientNames();
+
+        assertThat(names.reserve("John")).isTrue();
+        assertThat(names.reserve("john")).isFalse();
+        assertThat(names.isReserved("JOHN")).isTrue();
+
+        names.release("JOHN");
+
+        assertThat(names.isReserved("john")).isFalse();
+        assertThat(names.reserve("john")).isTrue();
+    }
+
+    @Test
+    public void testEachNameIsReservedOnceUnderContention() throws Exception {
+        ClientNames names = new ClientNames();
+        AtomicInteger reserved = new AtomicInteger();
+
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 1000; i++) {
+                        if (names.reserve("player" + i)) {
+                            reserved.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> f : futures) {
+                f.get(10, TimeUnit.SECONDS);
+            }
+        }
+        finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(reserved.get()).isEqualTo(1000);
+        assertThat(names.size()).isEqualTo(1000);
+    }
+
+}
@@ -86,6 +86,38 @@ public class ClientActorTest extends AbstractActorTestCase {
         channels.expectMsgAllOf(ListChannels.instance(), ReserveSlot.of("channel", "junit"));
     }
 
+    @Test
+    public void testQuickJoin() {
+        JavaTestKit channels = newTestKit();
+        JavaTestKit output = newTestKit();
+
+        ActorRef client = system.actorOf(ClientActor.props(Tempo.FAST, "junit", stub(output), gameModes, channels.getRef()));
+
+        client.tell(Inbound.of("pline 1 /quick classic"), noSender());
+
+        channels.expectMsgAllOf(ListChannels.instance(), QuickJoin.of(Classic.ID, "junit"));
+    }
+
+    @Test
+    public void testQuickJoinIsRetriedWhenChannelIsFull() {
+        JavaTestKit channels = newTestKit(accept(QuickJoin.class));
+        JavaTestKit output = newTestKit();
+
+        ActorRef client = system.actorOf(ClientActor.props(Tempo.FAST, "junit", stub(output), gameModes, channels.getRef()));
+
+        client.tell(Inbound.of("pline 1 /quick classic"), noSender());
+        channels.expectMsgAllOf(QuickJoin.of(Classic.ID, "junit"));
+
+        client.tell(SlotReservationFailed.channelIsFull(), noSender());
+        channels.expectMsgAllOf(QuickJoin.of(Classic.ID, "junit"));
+
+        client.tell(SlotReservationFailed.channelIsFull(), noSender());
+        channels.expectMsgAllOf(QuickJoin.of(Classic.ID, "junit"));
+
+        client.tell(SlotReservationFailed.channelIsFull(), noSender());
+        channels.expectNoMsg();
+    }
+
     @Test
     public void testListChannels() {
         JavaTestKit channels = newTestKit();
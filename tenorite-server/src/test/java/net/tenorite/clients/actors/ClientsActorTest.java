@@ -18,6 +18,7 @@ package net.tenorite.clients.actors;
 import akka.actor.ActorRef;
 import akka.testkit.JavaTestKit;
 import net.tenorite.AbstractActorTestCase;
+import net.tenorite.clients.ClientNames;
 import net.tenorite.clients.MessageSink;
 import net.tenorite.clients.commands.RegisterClient;
 import net.tenorite.clients.events.ClientRegistered;
@@ -42,7 +43,7 @@ public class ClientsActorTest extends AbstractActorTestCase {
         JavaTestKit clientA = newTestKit();
         JavaTestKit clientB = newTestKit();
 
-        ActorRef clients = system.actorOf(ClientsActor.props(Tempo.NORMAL, gameModes, channels.getRef()));
+        ActorRef clients = system.actorOf(ClientsActor.props(Tempo.NORMAL, gameModes, channels.getRef(), new ClientNames()));
 
         clients.tell(RegisterClient.of("x", noop()), clientA.getRef());
         clients.tell(RegisterClient.of("xxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxx", noop()), clientB.getRef());
@@ -57,7 +58,7 @@ public class ClientsActorTest extends AbstractActorTestCase {
         JavaTestKit clientA = newTestKit();
         JavaTestKit clientB = newTestKit();
 
-        ActorRef clients = system.actorOf(ClientsActor.props(Tempo.NORMAL, gameModes, channels.getRef()));
+        ActorRef clients = system.actorOf(ClientsActor.props(Tempo.NORMAL, gameModes, channels.getRef(), new ClientNames()));
 
         clients.tell(RegisterClient.of("junit", noop()), clientA.getRef());
         clients.tell(RegisterClient.of("junit", noop()), clientB.getRef());
@@ -66,6 +67,50 @@ public class ClientsActorTest extends AbstractActorTestCase {
         clientB.expectMsgEquals(ClientRegistrationFailed.nameAlreadyInUse());
     }
 
+    @Test
+    public void testNicknamesAreSharedCaseInsensitiveBetweenClientsActors() {
+        JavaTestKit channels = newTestKit();
+        JavaTestKit clientA = newTestKit();
+        JavaTestKit clientB = newTestKit();
+
+        ClientNames names = new ClientNames();
+        ActorRef clients1 = system.actorOf(ClientsActor.props(Tempo.NORMAL, gameModes, channels.getRef(), names));
+        ActorRef clients2 = system.actorOf(ClientsActor.props(Tempo.NORMAL, gameModes, channels.getRef(), names));
+
+        clients1.tell(RegisterClient.of("junit", noop()), clientA.getRef());
+        clientA.expectMsgClass(ClientRegistered.class);
+
+        clients2.tell(RegisterClient.of("JUnit", noop()), clientB.getRef());
+        clientB.expectMsgEquals(ClientRegistrationFailed.nameAlreadyInUse());
+    }
+
+    @Test
+    public void testNicknameIsReleasedWhenClientStops() {
+        JavaTestKit channels = newTestKit();
+        JavaTestKit clientA = newTestKit();
+        JavaTestKit clientB = newTestKit();
+
+        ClientNames names = new ClientNames();
+        ActorRef clients = system.actorOf(ClientsActor.props(Tempo.NORMAL, gameModes, channels.getRef(), names));
+
+        clients.tell(RegisterClient.of("junit", noop()), clientA.getRef());
+        ActorRef client = clientA.expectMsgClass(ClientRegistered.class).getClient();
+
+        system.stop(client);
+
+        clientA.new AwaitCond() {
+
+            @Override
+            protected boolean cond() {
+                return !names.isReserved("junit");
+            }
+
+        };
+
+        clients.tell(RegisterClient.of("junit", noop()), clientB.getRef());
+        clientB.expectMsgClass(ClientRegistered.class);
+    }
+
     public MessageSink noop() {
         return new MessageSink() {
 
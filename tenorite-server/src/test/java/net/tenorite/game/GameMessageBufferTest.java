@@ -0,0 +1,135 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tenorite.game;
+
+import net.tenorite.core.Special;
+import net.tenorite.protocol.*;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @author Johan Siebens
+ */
+public class GameMessageBufferTest {
+
+    @Test
+    public void testBufferShouldReturnAllMessagesInOrder() {
+        List<GameMessage> expected = new ArrayList<>();
+        expected.add(GameMessage.of(10, LvlMessage.of(1, 5)));
+        expected.add(GameMessage.of(20, SpecialBlockMessage.of(1, Special.ADDLINE, 2)));
+        expected.add(GameMessage.of(20, SpecialBlockMessage.of(2, Special.BLOCKBOMB, 3, true)));
+        expected.add(GameMessage.of(35, ClassicStyleAddMessage.of(0, 4)));
+        expected.add(GameMessage.of(50, FieldMessage.of(1, Field.randomCompletedField().getFieldString(), true)));
+        expected.add(GameMessage.of(60, PlayerLeaveMessage.of(3)));
+        expected.add(GameMessage.of(70, PlayerLostMessage.of(2)));
+        expected.add(GameMessage.of(80, PlayerWonMessage.of(1)));
+
+        GameMessageBuffer buffer = new GameMessageBuffer();
+        expected.forEach(m -> buffer.add(m.getTimestamp(), m.getMessage()));
+
+        assertThat(buffer.size()).isEqualTo(expected.size());
+        assertThat(buffer).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    public void testBufferShouldRestoreCompleteFieldsFromDiffsAndKeyframes() {
+        List<GameMessage> expected = new ArrayList<>();
+
+        Field fieldA = Field.empty();
+        Field fieldB = Field.empty();
+        for (int i = 0; i < GameMessageBuffer.KEYFRAME_INTERVAL * 3; i++) {
+            fieldA = fieldA.update("&8G9G9H:H");
+            fieldA = i % 2 == 0 ? fieldA.update("#9E8F9F:F") : fieldA.update("!9E8F9F:F");
+            fieldB = i % 5 == 0 ? Field.randomCompletedField() : fieldB.update("'3339");
+
+            expected.add(GameMessage.of(i * 10, FieldMessage.of(1, fieldA.getFieldString())));
+            expected.add(GameMessage.of(i * 10 + 5, FieldMessage.of(2, fieldB.getFieldString())));
+        }
+
+        GameMessageBuffer buffer = new GameMessageBuffer();
+        expected.forEach(m -> buffer.add(m.getTimestamp(), m.getMessage()));
+
+        assertThat(buffer).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    public void testBufferShouldSpanMultipleChunks() {
+        List<GameMessage> expected = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            expected.add(GameMessage.of(i, FieldMessage.of(1 + i % 6, Field.randomCompletedField().getFieldString())));
+        }
+
+        GameMessageBuffer buffer = new GameMessageBuffer();
+        expected.forEach(m -> buffer.add(m.getTimestamp(), m.getMessage()));
+
+        assertThat(buffer.sizeInBytes()).isGreaterThan(GameMessageBuffer.CHUNK_SIZE * 2);
+        assertThat(buffer).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    public void testSizeShouldCountHeldChunksAndFields() {
+        GameMessageBuffer buffer = new GameMessageBuffer();
+        assertThat(buffer.sizeInBytes()).isEqualTo(0);
+
+        buffer.add(10, FieldMessage.of(1, Field.randomCompletedField().getFieldString()));
+        buffer.add(20, FieldMessage.of(2, Field.randomCompletedField().getFieldString()));
+        assertThat(buffer.sizeInBytes()).isEqualTo(GameMessageBuffer.CHUNK_BYTES + 2 * GameMessageBuffer.FIELD_BYTES);
+
+        buffer.drain();
+        assertThat(buffer.sizeInBytes()).isEqualTo(GameMessageBuffer.CHUNK_BYTES + 4 * GameMessageBuffer.FIELD_BYTES);
+    }
+
+    @Test
+    public void testDrainShouldReleaseReadChunks() {
+        List<GameMessage> expected = new ArrayList<>();
+        List<GameMessage> drained = new ArrayList<>();
+
+        GameMessageBuffer buffer = new GameMessageBuffer();
+        Field field = Field.empty();
+        for (int i = 0; i < 1000; i++) {
+            field = i % 50 == 0 ? Field.randomCompletedField() : field.update(i % 2 == 0 ? "&8G9G9H:H" : "!8G9G9H:H");
+            GameMessage message = GameMessage.of(i, FieldMessage.of(1, field.getFieldString()));
+            expected.add(message);
+            buffer.add(message.getTimestamp(), message.getMessage());
+            if (buffer.undrained() == 100) {
+                drained.addAll(buffer.drain());
+                assertThat(buffer.sizeInBytes()).isLessThan(GameMessageBuffer.CHUNK_SIZE * 2 * 3);
+            }
+        }
+
+        assertThat(drained).isEqualTo(expected);
+        assertThatThrownBy(buffer::iterator).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void testDiffsShouldBeSmallerThanCompleteFields() {
+        GameMessageBuffer buffer = new GameMessageBuffer();
+
+        Field field = Field.empty();
+        for (int i = 0; i < 1000; i++) {
+            field = field.update(i % 2 == 0 ? "&8G9G9H:H" : "!8G9G9H:H");
+            buffer.add(i, FieldMessage.of(1, field.getFieldString()));
+        }
+
+        assertThat(buffer.sizeInBytes()).isLessThan(1000L * Field.WIDTH * Field.HEIGHT / 4);
+    }
+
+}
@@ -21,10 +21,15 @@ import net.tenorite.modes.classic.Classic;
 import net.tenorite.protocol.*;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static java.util.Arrays.asList;
 import static java.util.Collections.singletonList;
+import static java.util.stream.Collectors.toList;
 import static net.tenorite.game.GameRules.defaultGameRules;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 
 /**
  * @author Johan Siebens
@@ -33,12 +38,15 @@ public class GameRecorderTest {
 
     private static final Tempo TEMPO = Tempo.NORMAL;
 
+    private static final GameMode GAME_MODE = new GameMode(Classic.ID, defaultGameRules()) {
+    };
+
     @Test
     public void testGameRecorderRecorderShouldBeFinishedWhenEverybodyHasLeft() {
         Player playerA = Player.of(1, "A", null);
         Player playerB = Player.of(2, "B", null);
 
-        GameRecorder recorder = new GameRecorder(TEMPO, Classic.ID, defaultGameRules(), gameListener());
+        GameRecorder recorder = new GameRecorder(TEMPO, GAME_MODE, gameListener());
 
         recorder.start(asList(playerA, playerB));
         assertThat(recorder.onPlayerLeaveMessage(PlayerLeaveMessage.of(1)).isPresent()).isFalse();
@@ -51,7 +59,7 @@ public class GameRecorderTest {
         Player playerB = Player.of(2, "B", null);
         Player playerC = Player.of(3, "C", null);
 
-        GameRecorder recorder = new GameRecorder(TEMPO, Classic.ID, defaultGameRules(), gameListener());
+        GameRecorder recorder = new GameRecorder(TEMPO, GAME_MODE, gameListener());
 
         recorder.start(asList(playerA, playerB, playerC));
 
@@ -65,7 +73,7 @@ public class GameRecorderTest {
         Player playerB = Player.of(2, "jane", "doe");
         Player playerC = Player.of(3, "john", "doe");
 
-        GameRecorder recorder = new GameRecorder(TEMPO, Classic.ID, defaultGameRules(), gameListener());
+        GameRecorder recorder = new GameRecorder(TEMPO, GAME_MODE, gameListener());
 
         recorder.start(asList(playerA, playerB, playerC));
 
@@ -76,7 +84,7 @@ public class GameRecorderTest {
     public void testSinglePlayerGameShouldBeFinishedWhenPlayerIsLost() {
         Player playerA = Player.of(1, "A", null);
 
-        GameRecorder recorder = new GameRecorder(TEMPO, Classic.ID, defaultGameRules(), gameListener());
+        GameRecorder recorder = new GameRecorder(TEMPO, GAME_MODE, gameListener());
 
         recorder.start(singletonList(playerA));
 
@@ -88,7 +96,7 @@ public class GameRecorderTest {
         Player playerA = Player.of(1, "A", null);
         Player playerB = Player.of(2, "B", null);
 
-        GameRecorder recorder = new GameRecorder(TEMPO, Classic.ID, defaultGameRules(), gameListener());
+        GameRecorder recorder = new GameRecorder(TEMPO, GAME_MODE, gameListener());
 
         recorder.start(asList(playerA, playerB));
 
@@ -120,7 +128,7 @@ public class GameRecorderTest {
         Player playerA = Player.of(1, "A", null);
         Player playerB = Player.of(2, "B", null);
 
-        GameRecorder recorder = new GameRecorder(TEMPO, Classic.ID, defaultGameRules(), gameListener());
+        GameRecorder recorder = new GameRecorder(TEMPO, GAME_MODE, gameListener());
 
         recorder.start(asList(playerA, playerB));
         recorder.onFieldMessage(FieldMessage.of(1, fieldA1.getFieldString()));
@@ -140,7 +148,7 @@ public class GameRecorderTest {
         Player playerA = Player.of(1, "A", null);
         Player playerB = Player.of(2, "B", null);
 
-        GameRecorder recorder = new GameRecorder(TEMPO, Classic.ID, defaultGameRules(), gameListener());
+        GameRecorder recorder = new GameRecorder(TEMPO, GAME_MODE, gameListener());
 
         recorder.start(asList(playerA, playerB));
         recorder.onLvlMessage(LvlMessage.of(1, 5));
@@ -159,7 +167,7 @@ public class GameRecorderTest {
         Player playerA = Player.of(1, "A", null);
         Player playerB = Player.of(2, "B", null);
 
-        GameRecorder recorder = new GameRecorder(TEMPO, Classic.ID, defaultGameRules(), gameListener());
+        GameRecorder recorder = new GameRecorder(TEMPO, GAME_MODE, gameListener());
 
         recorder.start(asList(playerA, playerB));
         recorder.onSpecialBlockMessage(SpecialBlockMessage.of(1, Special.ADDLINE, 2));
@@ -181,7 +189,7 @@ public class GameRecorderTest {
     public void testGameRecorderShouldAlwaysStartWithClassicRulesEnabledToTrackClassics() {
         Player playerA = Player.of(1, "A", null);
 
-        GameRecorder recorder = new GameRecorder(TEMPO, Classic.ID, defaultGameRules(), gameListener());
+        GameRecorder recorder = new GameRecorder(TEMPO, GAME_MODE, gameListener());
 
         assertThat(recorder.start(singletonList(playerA)).getClassicRules()).isTrue();
     }
@@ -191,7 +199,7 @@ public class GameRecorderTest {
         Player playerA = Player.of(1, "A", null);
         Player playerB = Player.of(2, "B", null);
 
-        GameRecorder recorder = new GameRecorder(TEMPO, Classic.ID, defaultGameRules(), gameListener());
+        GameRecorder recorder = new GameRecorder(TEMPO, GAME_MODE, gameListener());
 
         assertThat(recorder.start(asList(playerA, playerB)).getClassicRules()).isTrue();
         assertThat(recorder.onClassicStyleAddMessage(ClassicStyleAddMessage.of(1, 1))).isFalse();
@@ -214,7 +222,7 @@ public class GameRecorderTest {
         Player playerA = Player.of(1, "A", null);
         Player playerB = Player.of(2, "B", null);
 
-        GameRecorder recorder = new GameRecorder(TEMPO, Classic.ID, defaultGameRules(), gameListener());
+        GameRecorder recorder = new GameRecorder(TEMPO, GAME_MODE, gameListener());
 
         assertThat(recorder.start(asList(playerA, playerB)).getClassicRules()).isTrue();
         assertThat(recorder.onClassicStyleAddMessage(ClassicStyleAddMessage.of(0, 1))).isTrue();
@@ -222,8 +230,165 @@ public class GameRecorderTest {
         assertThat(recorder.onClassicStyleAddMessage(ClassicStyleAddMessage.of(0, 4))).isTrue();
     }
 
+    @Test
+    public void testGameRecorderShouldWriteChunksWhileRecording() {
+        Player playerA = Player.of(1, "A", null);
+        Player playerB = Player.of(2, "B", null);
+
+        List<GameChunk> chunks = new ArrayList<>();
+        GameChunkWriter writer = new GameChunkWriter() {
+
+            @Override
+            public void write(GameChunk chunk) {
+                chunks.add(chunk);
+            }
+
+        };
+
+        GameRecorder recorder = new GameRecorder(TEMPO, GAME_MODE, gameListener(), writer, 2);
+
+        recorder.start(asList(playerA, playerB));
+        recorder.onLvlMessage(LvlMessage.of(1, 2));
+        recorder.onLvlMessage(LvlMessage.of(2, 2));
+        assertThat(chunks).hasSize(1);
+
+        recorder.onLvlMessage(LvlMessage.of(1, 3));
+        Game game = recorder.onPlayerWonMessage(PlayerWonMessage.of(2));
+
+        assertThat(chunks).extracting(GameChunk::getIndex).containsExactly(0, 1);
+        assertThat(chunks).extracting(GameChunk::getOffset).containsExactly(0, 2);
+        assertThat(chunks).extracting(GameChunk::getGameId).containsOnly(game.getId());
+        assertThat(chunks.stream().flatMap(c -> c.getMessages().stream()).map(GameMessage::getMessage).collect(toList()))
+            .containsExactly(LvlMessage.of(1, 2), LvlMessage.of(2, 2), LvlMessage.of(1, 3), PlayerWonMessage.of(2));
+        assertThat(game.getMessages()).isEmpty();
+    }
+
+    @Test
+    public void testGameRecorderShouldWriteChunksOnceRecordingExceedsLimit() {
+        Player playerA = Player.of(1, "A", null);
+        Player playerB = Player.of(2, "B", null);
+
+        List<GameChunk> chunks = new ArrayList<>();
+        GameChunkWriter writer = new GameChunkWriter() {
+
+            @Override
+            public void write(GameChunk chunk) {
+                chunks.add(chunk);
+            }
+
+        };
+
+        GameRecorder recorder = new GameRecorder(TEMPO, GAME_MODE, gameListener(), writer, 2, GameMessageBuffer.CHUNK_BYTES);
+
+        recorder.start(asList(playerA, playerB));
+        recorder.onLvlMessage(LvlMessage.of(1, 2));
+        recorder.onLvlMessage(LvlMessage.of(2, 2));
+        assertThat(recorder.isStreaming()).isFalse();
+        assertThat(chunks).isEmpty();
+
+        recorder.onFieldMessage(FieldMessage.of(1, fieldOfHeight(2)));
+        assertThat(recorder.isStreaming()).isTrue();
+        assertThat(chunks).extracting(GameChunk::getOffset).containsExactly(0, 2);
+
+        Game game = recorder.onPlayerWonMessage(PlayerWonMessage.of(2));
+
+        assertThat(chunks).extracting(GameChunk::getIndex).containsExactly(0, 1, 2);
+        assertThat(chunks.stream().flatMap(c -> c.getMessages().stream()).map(GameMessage::getMessage).collect(toList()))
+            .containsExactly(LvlMessage.of(1, 2), LvlMessage.of(2, 2), FieldMessage.of(1, fieldOfHeight(2)), PlayerWonMessage.of(2));
+        assertThat(game.getMessages()).isEmpty();
+        assertThat(recorder.getRecordingSize()).isLessThanOrEqualTo(GameMessageBuffer.CHUNK_BYTES + 2 * GameMessageBuffer.FIELD_BYTES);
+    }
+
+    @Test
+    public void testRankingShouldAccumulatePlayingStats() {
+        Player playerA = Player.of(1, "A", null);
+        Player playerB = Player.of(2, "B", "team");
+        Player playerC = Player.of(3, "C", "team");
+        Player playerD = Player.of(4, "D", null);
+
+        GameRecorder recorder = new GameRecorder(TEMPO, GAME_MODE, gameListener());
+
+        recorder.start(asList(playerA, playerB, playerC, playerD));
+        recorder.onFieldMessage(FieldMessage.of(1, fieldOfHeight(5)));
+        recorder.onFieldMessage(FieldMessage.of(2, fieldOfHeight(3)));
+        recorder.onFieldMessage(FieldMessage.of(2, Field.empty().getFieldString(), true));
+        recorder.onLvlMessage(LvlMessage.of(1, 4));
+        recorder.onLvlMessage(LvlMessage.of(3, 2));
+        recorder.onSpecialBlockMessage(SpecialBlockMessage.of(1, Special.ADDLINE, 2));
+        recorder.onSpecialBlockMessage(SpecialBlockMessage.of(2, Special.GRAVITY, 3));
+        recorder.onSpecialBlockMessage(SpecialBlockMessage.of(3, Special.NUKEFIELD, 3));
+        recorder.onSpecialBlockMessage(SpecialBlockMessage.of(4, Special.SWITCHFIELD, 1, true));
+        recorder.onClassicStyleAddMessage(ClassicStyleAddMessage.of(1, 4));
+        recorder.onClassicStyleAddMessage(ClassicStyleAddMessage.of(3, 2));
+        recorder.onClassicStyleAddMessage(ClassicStyleAddMessage.of(0, 1));
+        recorder.onPlayerLostMessage(PlayerLostMessage.of(4));
+        recorder.onFieldMessage(FieldMessage.of(3, fieldOfHeight(7)));
+        recorder.onFieldMessage(FieldMessage.of(1, fieldOfHeight(6)));
+        recorder.onFieldMessage(FieldMessage.of(1, fieldOfHeight(9)));
+        recorder.onFieldMessage(FieldMessage.of(1, fieldOfHeight(4)));
+        recorder.onFieldMessage(FieldMessage.of(2, fieldOfHeight(2)));
+        recorder.onFieldMessage(FieldMessage.of(2, fieldOfHeight(2)));
+        recorder.onFieldMessage(FieldMessage.of(2, fieldOfHeight(2)));
+        recorder.onPlayerWonMessage(PlayerWonMessage.of(1));
+
+        List<PlayingStats> ranking = recorder.getRanking();
+
+        assertThat(ranking)
+            .extracting(
+                s -> s.getPlayer().getName(), PlayingStats::getLevel, PlayingStats::getNrOfLines,
+                PlayingStats::getNrOfThreeLineCombos, PlayingStats::getNrOfFourLineCombos,
+                PlayingStats::getLastFieldHeight, PlayingStats::getMaxFieldHeight,
+                PlayingStats::getNrOfBlocks, PlayingStats::getSpecialsSequence
+            )
+            .containsExactly(
+                tuple("A", 4, 8, 0, 1, 4, 9, 1, "a"),
+                tuple("C", 2, 4, 1, 0, 7, 7, 0, "n"),
+                tuple("B", 0, 0, 0, 0, 2, 3, 1, "g"),
+                tuple("D", 0, 0, 0, 0, 0, 0, 0, "")
+            );
+
+        assertThat(ranking.get(0).getNrOfSpecialsOnOpponent()).containsEntry(Special.ADDLINE, 1);
+        assertThat(ranking.get(1).getNrOfSpecialsOnSelf()).containsEntry(Special.NUKEFIELD, 1);
+        assertThat(ranking.get(1).getNrOfSpecialsReceived()).containsEntry(Special.GRAVITY, 1);
+        assertThat(ranking.get(2).getNrOfSpecialsOnTeamPlayer()).containsEntry(Special.GRAVITY, 1);
+        assertThat(ranking.get(2).getNrOfSpecialsReceived()).containsEntry(Special.ADDLINE, 1);
+    }
+
+    @Test
+    public void testStoppedGameRecorderShouldDiscardChunks() {
+        Player playerA = Player.of(1, "A", null);
+
+        List<String> discarded = new ArrayList<>();
+        GameChunkWriter writer = new GameChunkWriter() {
+
+            @Override
+            public void discard(String gameId) {
+                discarded.add(gameId);
+            }
+
+        };
+
+        GameRecorder recorder = new GameRecorder(TEMPO, GAME_MODE, gameListener(), writer, 16);
+
+        recorder.start(singletonList(playerA));
+        recorder.stop();
+
+        assertThat(discarded).hasSize(1);
+    }
+
     private GameListener gameListener() {
         return GameListener.NOOP;
     }
 
+    private static String fieldOfHeight(int height) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < Field.WIDTH * (Field.HEIGHT - height); i++) {
+            sb.append('0');
+        }
+        for (int i = 0; i < Field.WIDTH * height; i++) {
+            sb.append('1');
+        }
+        return sb.toString();
+    }
+
 }
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tenorite.game;
+
+import net.tenorite.core.Tempo;
+import net.tenorite.modes.classic.Classic;
+import net.tenorite.protocol.FieldMessage;
+import net.tenorite.protocol.LvlMessage;
+import org.junit.Test;
+
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Johan Siebens
+ */
+public class GameTimelineTest {
+
+    private static final List<Player> PLAYERS = asList(Player.of(1, "john", null), Player.of(2, "jane", null));
+
+    @Test
+    public void testKeyframeIsCreatedEveryInterval() {
+        Game game = newGame(
+            GameMessage.of(500, LvlMessage.of(1, 2)),
+            GameMessage.of(2500, LvlMessage.of(2, 2)),
+            GameMessage.of(3100, LvlMessage.of(1, 3))
+        );
+
+        GameTimeline timeline = GameTimeline.of(game, 1000);
+
+        assertThat(timeline.getGameId()).isEqualTo("game");
+        assertThat(timeline.getKeyframes()).extracting(GameKeyframe::getTimestamp).containsExactly(0L, 1000L, 2000L, 3000L);
+        assertThat(timeline.getKeyframes()).extracting(GameKeyframe::getOffset).containsExactly(0, 1, 1, 2);
+        assertThat(timeline.getKeyframe(2999).getTimestamp()).isEqualTo(2000);
+        assertThat(timeline.getKeyframe(60000).getTimestamp()).isEqualTo(3000);
+    }
+
+    @Test
+    public void testSeekShouldReturnFieldsAtTimeAndRemainingMessages() {
+        Field field1 = Field.randomCompletedField();
+        Field field2 = Field.randomCompletedField();
+        Field field3 = Field.randomCompletedField();
+
+        Game game = newGame(
+            GameMessage.of(100, FieldMessage.of(1, field1.getFieldString())),
+            GameMessage.of(1200, FieldMessage.of(2, field2.getFieldString())),
+            GameMessage.of(1500, FieldMessage.of(1, field3.getFieldString())),
+            GameMessage.of(2600, LvlMessage.of(1, 3))
+        );
+
+        GameTimeline timeline = GameTimeline.of(game, 1000);
+
+        GameKeyframe position = timeline.seek(game, 1600);
+        assertThat(position.getTimestamp()).isEqualTo(1600);
+        assertThat(position.getOffset()).isEqualTo(3);
+        assertThat(position.getFields()).containsExactly(field3.getFieldString(), field2.getFieldString(), "", "", "", "");
+
+        assertThat(timeline.seek(game, 0).getFields()).containsOnly("");
+        assertThat(timeline.seek(game, 5000).getOffset()).isEqualTo(4);
+    }
+
+    @Test
+    public void testAdvanceShouldStopAtEndOfMessages() {
+        Field field1 = Field.randomCompletedField();
+        Field field2 = Field.randomCompletedField();
+
+        Game game = newGame(
+            GameMessage.of(100, FieldMessage.of(1, field1.getFieldString())),
+            GameMessage.of(1200, FieldMessage.of(2, field2.getFieldString())),
+            GameMessage.of(1500, LvlMessage.of(1, 3))
+        );
+
+        GameKeyframe keyframe = GameTimeline.of(game, 1000).getKeyframe(1600);
+        List<GameMessage> messages = game.getMessages();
+
+        GameKeyframe partial = GameTimeline.advance(keyframe, messages.subList(1, 2), 1600);
+        assertThat(partial.getOffset()).isEqualTo(2);
+        assertThat(partial.getFields()).containsExactly(field1.getFieldString(), field2.getFieldString(), "", "", "", "");
+
+        GameKeyframe position = GameTimeline.advance(partial, messages.subList(2, 3), 1600);
+        assertThat(position).isEqualTo(GameTimeline.of(game, 1000).seek(game, 1600));
+    }
+
+    private static Game newGame(GameMessage... messages) {
+        return Game.of("game", 0, 3500, Tempo.NORMAL, Classic.ID, PLAYERS, asList(messages));
+    }
+
+}
@@ -0,0 +1,219 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tenorite.game.actors;
+
+import akka.actor.ActorRef;
+import akka.testkit.JavaTestKit;
+import net.tenorite.AbstractActorTestCase;
+import net.tenorite.core.Tempo;
+import net.tenorite.game.*;
+import net.tenorite.game.events.GameChunkRecorded;
+import net.tenorite.game.events.GameDiscarded;
+import net.tenorite.game.events.GameFinished;
+import net.tenorite.game.events.GameStreamStored;
+import net.tenorite.game.events.GameStreamed;
+import net.tenorite.modes.classic.Classic;
+import net.tenorite.protocol.LvlMessage;
+import net.tenorite.protocol.PlayerWonMessage;
+import org.junit.Test;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static akka.actor.ActorRef.noSender;
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Johan Siebens
+ */
+public class GamesActorTest extends AbstractActorTestCase {
+
+    private static final Player PLAYER_A = Player.of(1, "john", null);
+
+    private static final Player PLAYER_B = Player.of(2, "jane", null);
+
+    private static final List<GameMessage> MESSAGES = asList(
+        GameMessage.of(10, LvlMessage.of(1, 2)),
+        GameMessage.of(20, LvlMessage.of(2, 2)),
+        GameMessage.of(30, PlayerWonMessage.of(1))
+    );
+
+    private final InMemoryGameOps storage = new InMemoryGameOps();
+
+    @Test
+    public void testStreamedGameIsStoredWithoutReadingChunks() {
+        JavaTestKit probe = newTestKit(accept(GameStreamStored.class));
+        system.eventStream().subscribe(probe.getRef(), GameStreamStored.class);
+
+        ActorRef gamesActor = system.actorOf(GamesActor.props(t -> storage));
+
+        List<PlayingStats> ranking = asList(PlayingStats.of(PLAYER_A), PlayingStats.of(PLAYER_B));
+        gamesActor.tell(GameChunkRecorded.of(Tempo.NORMAL, GameChunk.of("game", 0, 0, MESSAGES.subList(0, 2))), noSender());
+        gamesActor.tell(GameChunkRecorded.of(Tempo.NORMAL, GameChunk.of("game", 1, 2, MESSAGES.subList(2, 3))), noSender());
+        gamesActor.tell(GameStreamed.of(newGame(emptyList()), ranking), noSender());
+
+        GameStreamStored stored = probe.expectMsgClass(GameStreamStored.class);
+        assertThat(stored.getGame().getMessages()).isEmpty();
+        assertThat(stored.getRanking()).isEqualTo(ranking);
+
+        assertThat(storage.games.get("game").getMessages()).isEmpty();
+        assertThat(storage.timelines.get("game")).isEqualTo(GameTimeline.of(newGame(MESSAGES), system.settings().config().getDuration("tenorite.games.timeline-interval", TimeUnit.MILLISECONDS)));
+        assertThat(storage.rankings.get("game").getRanking()).isEqualTo(ranking);
+        assertThat(storage.chunks).hasSize(2);
+        assertThat(storage.chunksLoaded).isFalse();
+    }
+
+    @Test
+    public void testFinishedGameIsStoredWithItsMessages() {
+        JavaTestKit probe = newTestKit();
+
+        ActorRef gamesActor = system.actorOf(GamesActor.props(t -> storage));
+
+        gamesActor.tell(GameFinished.of(newGame(MESSAGES), asList(PlayingStats.of(PLAYER_A), PlayingStats.of(PLAYER_B))), noSender());
+
+        probe.new AwaitCond() {
+
+            @Override
+            protected boolean cond() {
+                return storage.rankings.containsKey("game");
+            }
+
+        };
+
+        assertThat(storage.games.get("game").getMessages()).isEqualTo(MESSAGES);
+        assertThat(storage.timelines).containsKey("game");
+        assertThat(storage.chunksLoaded).isFalse();
+    }
+
+    @Test
+    public void testChunksOfDiscardedGameAreDeleted() {
+        JavaTestKit probe = newTestKit();
+
+        ActorRef gamesActor = system.actorOf(GamesActor.props(t -> storage));
+
+        gamesActor.tell(GameChunkRecorded.of(Tempo.NORMAL, GameChunk.of("game", 0, 0, MESSAGES)), noSender());
+        gamesActor.tell(GameDiscarded.of(Tempo.NORMAL, "game"), noSender());
+
+        probe.new AwaitCond() {
+
+            @Override
+            protected boolean cond() {
+                return storage.deleted.contains("game");
+            }
+
+        };
+
+        assertThat(storage.chunks).isEmpty();
+        assertThat(storage.games).isEmpty();
+    }
+
+    private static Game newGame(List<GameMessage> messages) {
+        return Game.of("game", 0, 3000, Tempo.NORMAL, Classic.ID, asList(PLAYER_A, PLAYER_B), messages);
+    }
+
+    private static final class InMemoryGameOps implements GameRepository.GameOps {
+
+        private final Map<String, Game> games = new ConcurrentHashMap<>();
+
+        private final Map<String, GameChunk> chunks = new ConcurrentHashMap<>();
+
+        private final Map<String, GameTimeline> timelines = new ConcurrentHashMap<>();
+
+        private final Map<String, GameRanking> rankings = new ConcurrentHashMap<>();
+
+        private final List<String> deleted = new CopyOnWriteArrayList<>();
+
+        private volatile boolean chunksLoaded;
+
+        @Override
+        public void saveGame(Game game) {
+            games.put(game.getId(), game);
+        }
+
+        @Override
+        public Optional<Game> loadGame(String id) {
+            return Optional.ofNullable(games.get(id));
+        }
+
+        @Override
+        public Optional<Game> loadGame(String id, int offset, int limit) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Optional<Game> loadMetadata(String id) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<Game> recentGames(GameModeId gameModeId) {
+            return emptyList();
+        }
+
+        @Override
+        public Stream<Game> games(GameModeId gameModeId, long afterTimestamp, String afterId) {
+            return Stream.empty();
+        }
+
+        @Override
+        public void saveChunk(GameChunk chunk) {
+            chunks.put(chunk.getId(), chunk);
+        }
+
+        @Override
+        public List<GameChunk> loadChunks(String gameId) {
+            chunksLoaded = true;
+            return chunks.values().stream().filter(c -> c.getGameId().equals(gameId)).sorted(Comparator.comparingInt(GameChunk::getIndex)).collect(toList());
+        }
+
+        @Override
+        public void deleteChunks(String gameId) {
+            chunks.values().removeIf(c -> c.getGameId().equals(gameId));
+            deleted.add(gameId);
+        }
+
+        @Override
+        public void saveTimeline(GameTimeline timeline) {
+            timelines.put(timeline.getGameId(), timeline);
+        }
+
+        @Override
+        public Optional<GameTimeline> loadTimeline(String gameId) {
+            return Optional.ofNullable(timelines.get(gameId));
+        }
+
+        @Override
+        public void saveRanking(GameRanking ranking) {
+            rankings.put(ranking.getGameId(), ranking);
+        }
+
+        @Override
+        public Optional<GameRanking> loadRanking(String gameId) {
+            return Optional.ofNullable(rankings.get(gameId));
+        }
+
+    }
+
+}
@@ -30,6 +30,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.stream.Stream;
 
 import static java.util.Arrays.asList;
 import static java.util.Arrays.stream;
@@ -50,6 +51,7 @@ public class MongoGameRepositoryTest extends AbstractTenoriteServerTestCase {
     @Before
     public void clear() {
         stream(Tempo.values()).forEach(t -> MongoGameRepository.createCollection(jongo, t).drop());
+        stream(Tempo.values()).forEach(t -> MongoGameRepository.createChunkCollection(jongo, t).drop());
     }
 
     @Test
@@ -72,6 +74,55 @@ public class MongoGameRepositoryTest extends AbstractTenoriteServerTestCase {
         assertThat(gameRepository.gameOps(Tempo.NORMAL).loadGame("game1")).hasValue(game);
     }
 
+    @Test
+    public void testLoadGameReassemblesChunks() {
+        List<Player> players = asList(Player.of(1, "john", null), Player.of(2, "jane", null));
+        List<GameMessage> messages = asList(
+            GameMessage.of(50, SpecialBlockMessage.of(1, Special.ADDLINE, 2)),
+            GameMessage.of(75, ClassicStyleAddMessage.of(2, 4)),
+            GameMessage.of(100, LvlMessage.of(2, 4))
+        );
+
+        GameRepository.GameOps ops = gameRepository.gameOps(Tempo.NORMAL);
+        ops.saveChunk(GameChunk.of("game1", 1, 2, messages.subList(2, 3)));
+        ops.saveChunk(GameChunk.of("game1", 0, 0, messages.subList(0, 2)));
+        ops.saveGame(Game.of("game1", 1000, 250, Tempo.NORMAL, Classic.ID, players, Collections.emptyList()));
+
+        assertThat(ops.loadGame("game1")).hasValue(Game.of("game1", 1000, 250, Tempo.NORMAL, Classic.ID, players, messages));
+        assertThat(ops.loadChunks("game1")).extracting(GameChunk::getIndex).containsExactly(0, 1);
+
+        ops.deleteChunks("game1");
+        assertThat(ops.loadChunks("game1")).isEmpty();
+        assertThat(ops.loadGame("game1").map(Game::getMessages)).hasValue(Collections.emptyList());
+    }
+
+    @Test
+    public void testLoadGameWithRangeOfMessages() {
+        List<Player> players = asList(Player.of(1, "john", null), Player.of(2, "jane", null));
+        List<GameMessage> messages = asList(
+            GameMessage.of(50, LvlMessage.of(1, 2)),
+            GameMessage.of(75, LvlMessage.of(2, 2)),
+            GameMessage.of(100, LvlMessage.of(1, 3)),
+            GameMessage.of(125, LvlMessage.of(2, 3)),
+            GameMessage.of(150, LvlMessage.of(1, 4))
+        );
+
+        GameRepository.GameOps ops = gameRepository.gameOps(Tempo.NORMAL);
+        ops.saveGame(Game.of("game1", 1000, 250, Tempo.NORMAL, Classic.ID, players, messages));
+        ops.saveChunk(GameChunk.of("game2", 0, 0, messages.subList(0, 2)));
+        ops.saveChunk(GameChunk.of("game2", 1, 2, messages.subList(2, 4)));
+        ops.saveChunk(GameChunk.of("game2", 2, 4, messages.subList(4, 5)));
+        ops.saveGame(Game.of("game2", 1000, 250, Tempo.NORMAL, Classic.ID, players, Collections.emptyList()));
+
+        assertThat(ops.loadGame("game1", 1, 3).map(Game::getMessages)).hasValue(messages.subList(1, 4));
+        assertThat(ops.loadGame("game2", 1, 3).map(Game::getMessages)).hasValue(messages.subList(1, 4));
+        assertThat(ops.loadGame("game2", 3, 5).map(Game::getMessages)).hasValue(messages.subList(3, 5));
+        assertThat(ops.loadGame("game2", 5, 5).map(Game::getMessages)).hasValue(Collections.emptyList());
+        assertThat(ops.loadGame("game3", 0, 5)).isEmpty();
+        assertThat(ops.loadMetadata("game1").map(Game::getMessages)).hasValue(Collections.emptyList());
+        assertThat(ops.loadMetadata("game1").map(Game::getPlayers)).hasValue(players);
+    }
+
     @Test
     public void testListRecentGamesIsLimitedToTenGames() {
         range(1, 31)
@@ -95,4 +146,18 @@ public class MongoGameRepositoryTest extends AbstractTenoriteServerTestCase {
             );
     }
 
+    @Test
+    public void testStreamGamesInOrderAfterAGame() {
+        GameRepository.GameOps ops = gameRepository.gameOps(Tempo.NORMAL);
+        asList("c", "a", "b").forEach(id -> ops.saveGame(Game.of(id, 20, 10, Tempo.NORMAL, Classic.ID, Collections.emptyList(), Collections.emptyList())));
+        ops.saveGame(Game.of("d", 10, 10, Tempo.NORMAL, Classic.ID, Collections.emptyList(), Collections.emptyList()));
+
+        try (Stream<Game> games = ops.games(Classic.ID, Long.MIN_VALUE, "")) {
+            assertThat(games.map(Game::getId)).containsExactly("d", "a", "b", "c");
+        }
+        try (Stream<Game> games = ops.games(Classic.ID, 20, "a")) {
+            assertThat(games.map(Game::getId)).containsExactly("b", "c");
+        }
+    }
+
 }
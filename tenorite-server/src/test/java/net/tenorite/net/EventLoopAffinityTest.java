@@ -0,0 +1,215 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tenorite.net;
+
+import akka.actor.ActorRef;
+import akka.actor.ActorSystem;
+import akka.actor.Props;
+import akka.actor.UntypedActor;
+import akka.testkit.JavaTestKit;
+import com.typesafe.config.ConfigFactory;
+import io.netty.channel.DefaultEventLoopGroup;
+import io.netty.channel.EventLoop;
+import net.tenorite.AbstractTestCase;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static akka.actor.ActorRef.noSender;
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Johan Siebens
+ */
+public class EventLoopAffinityTest extends AbstractTestCase {
+
+    private ActorSystem system;
+
+    private DefaultEventLoopGroup group;
+
+    @Before
+    public void setup() {
+        system = ActorSystem.create("test", ConfigFactory.parseString("tenorite.net.event-loop-affinity = on").withFallback(ConfigFactory.load()));
+        group = new DefaultEventLoopGroup(2);
+        EventLoopAffinity.get(system).attach(group);
+    }
+
+    @After
+    public void teardown() {
+        JavaTestKit.shutdownActorSystem(system);
+        group.shutdownGracefully();
+    }
+
+    @Test
+    public void testBoundActorRunsOnItsEventLoop() {
+        EventLoop loop = group.next();
+
+        EventLoopAffinity.get(system).bind(system.child("actor"), loop);
+        ActorRef actor = system.actorOf(Props.create(Hop.class, (Object) null).withDispatcher(EventLoopAffinity.DISPATCHER), "actor");
+
+        JavaTestKit probe = new JavaTestKit(system);
+        actor.tell(new Frame(probe.getRef()), noSender());
+
+        Frame frame = probe.expectMsgClass(Frame.class);
+        assertThat(frame.threads).containsOnly(threadOf(loop));
+    }
+
+    @Test
+    public void testChannelFollowsTheEventLoopOfMostPlayers() {
+        EventLoopAffinity affinity = EventLoopAffinity.get(system);
+
+        EventLoop loop1 = group.next();
+        EventLoop loop2 = group.next();
+
+        JavaTestKit channel = new JavaTestKit(system);
+        JavaTestKit player1 = new JavaTestKit(system);
+        JavaTestKit player2 = new JavaTestKit(system);
+        JavaTestKit player3 = new JavaTestKit(system);
+
+        affinity.bind(player1.getRef().path(), loop1);
+        affinity.bind(player2.getRef().path(), loop2);
+        affinity.bind(player3.getRef().path(), loop2);
+
+        affinity.bindToMajority(channel.getRef().path(), asList(player1.getRef(), player2.getRef(), player3.getRef()));
+        assertThat(affinity.executorOf(channel.getRef().path())).isSameAs(loop2);
+
+        affinity.unbind(channel.getRef().path());
+        assertThat(affinity.executorOf(channel.getRef().path())).isNull();
+    }
+
+    @Test
+    public void testActorsAreNotBoundWhenDisabled() {
+        ActorSystem other = ActorSystem.create();
+        try {
+            EventLoopAffinity affinity = EventLoopAffinity.get(other);
+            affinity.attach(group);
+
+            JavaTestKit actor = new JavaTestKit(other);
+            affinity.bind(actor.getRef().path(), group.next());
+            affinity.bindToAny(actor.getRef().path());
+
+            assertThat(affinity.isEnabled()).isFalse();
+            assertThat(affinity.executorOf(actor.getRef().path())).isNull();
+        }
+        finally {
+            JavaTestKit.shutdownActorSystem(other);
+        }
+    }
+
+    /**
+     * Sends frames from a connection, via its client and the channel, to the connection of another player, and counts
+     * the thread switches on the way with and without event loop affinity.
+     */
+    @Test
+    public void testCrossThreadHandoffs() {
+        EventLoop loop = group.next();
+
+        int affine = handoffs(loop, "affine", EventLoopAffinity.DISPATCHER);
+        int dispatched = handoffs(loop, "dispatched", "akka.actor.default-dispatcher");
+
+        assertThat(affine).isEqualTo(0);
+        assertThat(dispatched).isGreaterThan(affine);
+    }
+
+    private int handoffs(EventLoop loop, String prefix, String dispatcher) {
+        EventLoopAffinity affinity = EventLoopAffinity.get(system);
+        JavaTestKit connection = new JavaTestKit(system);
+
+        affinity.bind(system.child(prefix + "-recipient"), loop);
+        affinity.bind(system.child(prefix + "-channel"), loop);
+        affinity.bind(system.child(prefix + "-sender"), loop);
+
+        ActorRef recipient = system.actorOf(Props.create(Hop.class, (Object) null).withDispatcher(dispatcher), prefix + "-recipient");
+        ActorRef channel = system.actorOf(Props.create(Hop.class, recipient).withDispatcher(dispatcher), prefix + "-channel");
+        ActorRef sender = system.actorOf(Props.create(Hop.class, channel).withDispatcher(dispatcher), prefix + "-sender");
+
+        int handoffs = 0;
+        for (int i = 0; i < 100; i++) {
+            // the frame is read, and finally written, on the event loop of the connection
+            loop.execute(() -> {
+                Frame frame = new Frame(connection.getRef());
+                frame.threads.add(Thread.currentThread());
+                sender.tell(frame, noSender());
+            });
+
+            Frame frame = connection.expectMsgClass(Frame.class);
+            frame.threads.add(threadOf(loop));
+
+            for (int t = 1; t < frame.threads.size(); t++) {
+                if (frame.threads.get(t) != frame.threads.get(t - 1)) {
+                    handoffs++;
+                }
+            }
+        }
+        return handoffs;
+    }
+
+    private static Thread threadOf(Executor executor) {
+        List<Thread> thread = new ArrayList<>();
+        synchronized (thread) {
+            executor.execute(() -> {
+                synchronized (thread) {
+                    thread.add(Thread.currentThread());
+                    thread.notifyAll();
+                }
+            });
+            while (thread.isEmpty()) {
+                try {
+                    thread.wait();
+                }
+                catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        }
+        return thread.get(0);
+    }
+
+    private static final class Frame {
+
+        private final ActorRef connection;
+
+        private final List<Thread> threads = new ArrayList<>();
+
+        private Frame(ActorRef connection) {
+            this.connection = connection;
+        }
+
+    }
+
+    static final class Hop extends UntypedActor {
+
+        private final ActorRef next;
+
+        public Hop(ActorRef next) {
+            this.next = next;
+        }
+
+        @Override
+        public void onReceive(Object message) throws Exception {
+            Frame frame = (Frame) message;
+            frame.threads.add(Thread.currentThread());
+            (next == null ? frame.connection : next).tell(frame, self());
+        }
+
+    }
+
+}
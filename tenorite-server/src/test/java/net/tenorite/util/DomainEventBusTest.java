@@ -0,0 +1,131 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tenorite.util;
+
+import akka.actor.ActorRef;
+import akka.actor.Props;
+import akka.testkit.JavaTestKit;
+import net.tenorite.AbstractActorTestCase;
+import net.tenorite.core.Tempo;
+import net.tenorite.modes.classic.Classic;
+import org.junit.Test;
+
+import static akka.actor.ActorRef.noSender;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Johan Siebens
+ */
+public class DomainEventBusTest extends AbstractActorTestCase {
+
+    @Test
+    public void testEventsAreOnlyDeliveredToSubscribersOfTheTopic() {
+        DomainEventBus bus = DomainEventBus.get(system);
+
+        JavaTestKit classicNormal = newTestKit();
+        JavaTestKit classicFast = newTestKit();
+        JavaTestKit other = newTestKit();
+
+        bus.subscribe(classicNormal.getRef(), String.class, Tempo.NORMAL, Classic.ID);
+        bus.subscribe(classicFast.getRef(), String.class, Tempo.FAST, Classic.ID);
+        bus.subscribe(other.getRef(), String.class, Tempo.NORMAL, Default.ID);
+
+        bus.publish(Tempo.NORMAL, Classic.ID, "a", noSender());
+        bus.publish(Tempo.NORMAL, Classic.ID, "b", noSender());
+        bus.publish(Tempo.NORMAL, Classic.ID, 1, noSender());
+
+        classicNormal.expectMsgEquals("a");
+        classicNormal.expectMsgEquals("b");
+        classicNormal.expectNoMsg();
+        classicFast.expectNoMsg();
+        other.expectNoMsg();
+    }
+
+    @Test
+    public void testEventsArePublishedOnTheEventStream() {
+        JavaTestKit subscriber = newTestKit();
+        system.eventStream().subscribe(subscriber.getRef(), String.class);
+
+        DomainEventBus.get(system).publish(Tempo.NORMAL, Classic.ID, "a", noSender());
+
+        subscriber.expectMsgEquals("a");
+    }
+
+    @Test
+    public void testLagOfSubscriber() {
+        DomainEventBus bus = DomainEventBus.get(system);
+
+        JavaTestKit probe = newTestKit();
+        JavaTestKit forwarded = newTestKit();
+        ActorRef subscriber = system.actorOf(Props.create(Subscriber.class, forwarded.getRef()));
+
+        bus.subscribe(probe.getRef(), String.class, Tempo.FAST, Classic.ID);
+        forwarded.expectMsgEquals("subscribed");
+
+        bus.publish(Tempo.FAST, Classic.ID, "a", noSender());
+        bus.publish(Tempo.FAST, Classic.ID, "b", noSender());
+
+        subscriber.tell(1, noSender());
+
+        forwarded.expectMsgEquals("a");
+        forwarded.expectMsgEquals("b");
+        forwarded.expectMsgEquals(1);
+        probe.expectMsgEquals("a");
+        probe.expectMsgEquals("b");
+
+        assertThat(bus.lag(probe.getRef())).isEqualTo(2);
+        assertThat(bus.lag(subscriber)).isEqualTo(0);
+        assertThat(bus.lags()).containsEntry(probe.getRef(), 2L);
+    }
+
+    @Test
+    public void testStoppedSubscribersAreRemoved() {
+        DomainEventBus bus = DomainEventBus.get(system);
+
+        JavaTestKit forwarded = newTestKit();
+        ActorRef subscriber = system.actorOf(Props.create(Subscriber.class, forwarded.getRef()));
+        forwarded.expectMsgEquals("subscribed");
+
+        JavaTestKit watcher = newTestKit();
+        watcher.watch(subscriber);
+        system.stop(subscriber);
+        watcher.expectTerminated(subscriber);
+
+        assertThat(bus.lags()).doesNotContainKey(subscriber);
+    }
+
+    static final class Subscriber extends AbstractActor {
+
+        private final ActorRef forward;
+
+        public Subscriber(ActorRef forward) {
+            this.forward = forward;
+        }
+
+        @Override
+        public void preStart() throws Exception {
+            subscribe(String.class, Tempo.FAST, Classic.ID);
+            forward.tell("subscribed", self());
+        }
+
+        @Override
+        public void onReceive(Object message) throws Exception {
+            forward.tell(message, self());
+        }
+
+    }
+
+}
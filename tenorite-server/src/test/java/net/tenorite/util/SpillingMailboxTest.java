@@ -0,0 +1,208 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.tenorite.util;
+
+import akka.actor.ActorRef;
+import akka.actor.DeadLetter;
+import akka.actor.Props;
+import akka.actor.UntypedActor;
+import akka.dispatch.Envelope;
+import akka.testkit.JavaTestKit;
+import com.typesafe.config.ConfigFactory;
+import net.tenorite.AbstractActorTestCase;
+import net.tenorite.core.Special;
+import net.tenorite.core.Tempo;
+import net.tenorite.game.*;
+import net.tenorite.game.events.GameChunkRecorded;
+import net.tenorite.game.events.GameDiscarded;
+import net.tenorite.game.events.GameFinished;
+import net.tenorite.modes.classic.Classic;
+import net.tenorite.protocol.PlineMessage;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import scala.Option;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.groups.Tuple.tuple;
+
+/**
+ * @author Johan Siebens
+ */
+public class SpillingMailboxTest extends AbstractActorTestCase {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testOverflowIsSpilledAndReadBackInOrder() throws Exception {
+        File directory = folder.newFolder();
+        SpillingMailbox.SpillingMessageQueue queue = queue(directory);
+
+        List<GameFinished> events = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            GameFinished event = gameFinished("game" + i);
+            events.add(event);
+            queue.enqueue(ActorRef.noSender(), Envelope.apply(event, ActorRef.noSender()));
+        }
+
+        assertThat(queue.numberOfMessages()).isEqualTo(5);
+        assertThat(queue.getDepth()).isEqualTo(2);
+        assertThat(queue.getNrOfSpilledMessages()).isEqualTo(3);
+        assertThat(queue.getSpillSize()).isGreaterThan(0);
+        assertThat(directory.listFiles()).hasSize(1);
+
+        List<Object> received = new ArrayList<>();
+        while (queue.hasMessages()) {
+            received.add(queue.dequeue().message());
+        }
+
+        assertThat(received).isEqualTo(events);
+        assertThat(queue.getSpillSize()).isEqualTo(0);
+        assertThat(directory.listFiles()).isEmpty();
+    }
+
+    @Test
+    public void testOtherMessagesAreKeptInMemory() throws Exception {
+        SpillingMailbox.SpillingMessageQueue queue = queue(folder.newFolder());
+
+        queue.enqueue(ActorRef.noSender(), Envelope.apply(gameFinished("a"), ActorRef.noSender()));
+        queue.enqueue(ActorRef.noSender(), Envelope.apply(gameFinished("b"), ActorRef.noSender()));
+        queue.enqueue(ActorRef.noSender(), Envelope.apply(gameFinished("c"), ActorRef.noSender()));
+        queue.enqueue(ActorRef.noSender(), Envelope.apply(PlineMessage.of("hello"), ActorRef.noSender()));
+
+        assertThat(queue.getDepth()).isEqualTo(3);
+        assertThat(queue.getNrOfSpilledMessages()).isEqualTo(1);
+        assertThat(queue.getLag()).isGreaterThanOrEqualTo(0);
+    }
+
+    @Test
+    public void testStreamingEventsAreSpilledInOrder() throws Exception {
+        SpillingMailbox.SpillingMessageQueue queue = queue(folder.newFolder());
+
+        List<Object> events = new ArrayList<>();
+        events.add(gameFinished("a"));
+        events.add(gameFinished("b"));
+        events.add(GameChunkRecorded.of(Tempo.NORMAL, GameChunk.of("c", 0, 0, asList(GameMessage.of(10, PlineMessage.of("hello"))))));
+        events.add(GameDiscarded.of(Tempo.NORMAL, "c"));
+        events.forEach(e -> queue.enqueue(ActorRef.noSender(), Envelope.apply(e, ActorRef.noSender())));
+
+        assertThat(queue.getNrOfSpilledMessages()).isEqualTo(2);
+
+        List<Object> received = new ArrayList<>();
+        while (queue.hasMessages()) {
+            received.add(queue.dequeue().message());
+        }
+
+        assertThat(received).isEqualTo(events);
+    }
+
+    @Test
+    public void testUnreadableSpilledMessageIsSentToDeadLetters() throws Exception {
+        JavaTestKit probe = newTestKit();
+        system.eventStream().subscribe(probe.getRef(), DeadLetter.class);
+
+        SpillingMailbox mailbox = new SpillingMailbox(null, ConfigFactory.parseString(
+            "capacity = 1\n" +
+                "spill-directory = \"" + folder.newFolder().getAbsolutePath() + "\"\n" +
+                "spill-types = [\"net.tenorite.util.SpillingMailboxTest$Unreadable\", \"net.tenorite.game.events.GameFinished\"]"
+        ));
+        SpillingMailbox.SpillingMessageQueue queue = (SpillingMailbox.SpillingMessageQueue) mailbox.create(Option.apply(probe.getRef()), Option.apply(system));
+
+        GameFinished a = gameFinished("a");
+        GameFinished b = gameFinished("b");
+        queue.enqueue(ActorRef.noSender(), Envelope.apply(a, ActorRef.noSender()));
+        queue.enqueue(ActorRef.noSender(), Envelope.apply(new Unreadable("x"), ActorRef.noSender()));
+        queue.enqueue(ActorRef.noSender(), Envelope.apply(b, ActorRef.noSender()));
+
+        assertThat(queue.getNrOfSpilledMessages()).isEqualTo(2);
+
+        List<Object> received = new ArrayList<>();
+        while (queue.hasMessages()) {
+            received.add(queue.dequeue().message());
+        }
+
+        assertThat(received).containsExactly(a, b);
+        assertThat(queue.getSpillSize()).isEqualTo(0);
+        assertThat(probe.expectMsgClass(DeadLetter.class).message().toString()).contains("\"value\":\"x\"");
+    }
+
+    @Test
+    public void testMailboxOfActorIsExposedAsMetrics() {
+        JavaTestKit probe = newTestKit();
+        ActorRef actor = system.actorOf(Props.create(Echo.class).withMailbox("persistence-mailbox"), "echo");
+
+        actor.tell("ping", probe.getRef());
+        probe.expectMsgEquals("ping");
+
+        assertThat(MailboxMetrics.get(system).snapshot()).extracting("actor", "depth", "nrOfSpilledMessages").containsExactly(tuple("/user/echo", 0, 0));
+
+        probe.watch(actor);
+        system.stop(actor);
+        probe.expectTerminated(actor);
+
+        assertThat(MailboxMetrics.get(system).snapshot()).isEmpty();
+    }
+
+    private static SpillingMailbox.SpillingMessageQueue queue(File directory) {
+        SpillingMailbox mailbox = new SpillingMailbox(null, ConfigFactory.parseString(
+            "capacity = 2\n" +
+                "spill-directory = \"" + directory.getAbsolutePath() + "\"\n" +
+                "spill-types = [\"net.tenorite.game.events.GameFinished\", \"net.tenorite.game.events.GameChunkRecorded\", \"net.tenorite.game.events.GameDiscarded\"]"
+        ));
+        return (SpillingMailbox.SpillingMessageQueue) mailbox.create(Option.empty(), Option.empty());
+    }
+
+    private static GameFinished gameFinished(String id) {
+        Player playerA = Player.of(1, "john", null);
+        Player playerB = Player.of(2, "jane", "doe");
+
+        PlayingStats statsA = PlayingStats.of(playerA, s -> s.level(12).nrOfSpecialsOnOpponent(SpecialCounts.of(Special.ADDLINE, 3)).specialsSequence("aa"));
+        PlayingStats statsB = PlayingStats.of(playerB);
+
+        Game game = Game.of(id, 1000, 2000, Tempo.NORMAL, Classic.ID, asList(playerA, playerB), asList(GameMessage.of(10, PlineMessage.of("hello"))));
+        return GameFinished.of(game, asList(statsA, statsB));
+    }
+
+    static final class Unreadable {
+
+        private final String value;
+
+        Unreadable(String value) {
+            this.value = value;
+        }
+
+        public String getValue() {
+            return value;
+        }
+
+    }
+
+    static final class Echo extends UntypedActor {
+
+        @Override
+        public void onReceive(Object message) throws Exception {
+            sender().tell(message, self());
+        }
+
+    }
+
+}
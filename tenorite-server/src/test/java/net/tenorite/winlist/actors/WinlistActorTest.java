@@ -24,6 +24,7 @@ import net.tenorite.game.Game;
 import net.tenorite.game.Player;
 import net.tenorite.game.PlayingStats;
 import net.tenorite.game.events.GameFinished;
+import net.tenorite.game.events.GameStreamed;
 import net.tenorite.modes.classic.Classic;
 import net.tenorite.winlist.WinlistRepositoryStub;
 import net.tenorite.winlist.events.WinlistUpdated;
@@ -84,6 +85,28 @@ public class WinlistActorTest extends AbstractActorTestCase {
             .extracting("type", "name").containsExactly(tuple(PLAYER, "john"), tuple(PLAYER, "jane"));
     }
 
+    @Test
+    public void testUpdateWinlistWhenGameIsStreamed() {
+        JavaTestKit subscriber = newTestKit();
+        system.eventStream().subscribe(subscriber.getRef(), WinlistUpdated.class);
+
+        ActorRef winlist = system.actorOf(WinlistActor.props(winlistRepository));
+
+        Player playerA = Player.of(1, "john", null);
+        Player playerB = Player.of(2, "jane", null);
+
+        Game game = Game.of("lorem", 1000, 2000, Tempo.NORMAL, Classic.ID, asList(playerA, playerB), emptyList());
+        GameStreamed gs = GameStreamed.of(game, asList(PlayingStats.of(playerB), PlayingStats.of(playerA)));
+
+        winlist.tell(gs, noSender());
+
+        subscriber.expectMsgClass(WinlistUpdated.class);
+
+        assertThat(winlistRepository.winlistOps(Tempo.NORMAL).loadWinlist(Classic.ID))
+            .hasSize(2)
+            .extracting("type", "name").containsExactly(tuple(PLAYER, "jane"), tuple(PLAYER, "john"));
+    }
+
     @Test
     public void testWinlistUpdateWithTeam() {
         JavaTestKit subscriber = newTestKit();